@@ -58,7 +58,7 @@ public abstract class AbstractBufferedRecords {
                 deletesInBatch = true;
             }
         } else if (Objects.equals(valueSchema, record.valueSchema())) {
-            if (config.isDeleteEnabled() && deletesInBatch) {
+            if (config.isDeleteEnabled() && deletesInBatch && !isCompactedByKey()) {
                 // flush so an insert after a delete of same record isn't lost
                 flushed.addAll(flush());
             }
@@ -108,6 +108,16 @@ public abstract class AbstractBufferedRecords {
         return flushedRecords;
     }
 
+    /**
+     * Whether only the last record of every key is written when flushing. If so, an insert after a delete of the same
+     * key is folded into one write, so the buffer needn't be flushed on delete and insert transitions.
+     *
+     * @return true if records are compacted by key
+     */
+    protected boolean isCompactedByKey() {
+        return false;
+    }
+
     protected abstract void initMetadata(SinkRecord record) throws ConnectException, RetriableException;
 
     protected abstract void doFlush(List<SinkRecord> records) throws ConnectException, RetriableException;
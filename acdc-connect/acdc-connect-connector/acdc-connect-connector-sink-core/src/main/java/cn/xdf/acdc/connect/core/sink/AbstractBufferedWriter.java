@@ -5,21 +5,51 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.SinkRecord;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
  * AbstractBufferedWriter uses a record buffer to do batch flush which need to be considered in sync data transfer
  * for high-throughput.
  *
+ * <p>By default, buffers of all destinations are flushed one by one with the same client. If the sub class binds
+ * destinations to different clients and returns a flush parallelism greater than 1, buffers are flushed
+ * concurrently. In both cases, clients are committed one by one only after buffers of all destinations are flushed
+ * successfully.
+ *
+ * <p>Commits of different clients are not atomic. If a client fails to commit after some others are committed, a
+ * {@link PartiallyCommittedException} tells the committed destinations, so that the caller can write the batch
+ * again to the other destinations only.
+ *
  * @param <T> type of client
  */
 @Slf4j
 public abstract class AbstractBufferedWriter<T> extends AbstractWriter<T> {
 
+    private static final long FLUSH_EXECUTOR_TERMINATION_TIMEOUT_SECONDS = 30;
+
     // thread unsafe
-    private final Map<String, AbstractBufferedRecords> destinationBufferedRecordMapping = new HashMap<>();
+    private final Map<String, AbstractBufferedRecords> destinationBufferedRecordMapping = new LinkedHashMap<>();
+
+    // the client each destination buffer is bound to in current batch, in the order of destinations
+    private final Map<String, T> destinationClientMapping = new LinkedHashMap<>();
+
+    private ExecutorService flushExecutor;
 
     public AbstractBufferedWriter(final SinkConfig sinkConfig) {
         super(sinkConfig);
@@ -27,20 +57,166 @@ public abstract class AbstractBufferedWriter<T> extends AbstractWriter<T> {
 
     @Override
     protected void doWrite(final T client, final String destination, final SinkRecord record) {
-        destinationBufferedRecordMapping.computeIfAbsent(destination, key -> getBufferedRecords(client, key)).add(record);
+        destinationBufferedRecordMapping.computeIfAbsent(destination, key -> {
+            T destinationClient = destinationClientMapping.computeIfAbsent(key, each -> getDestinationClient(client, each));
+            return getBufferedRecords(destinationClient, key);
+        }).add(record);
     }
 
     @Override
     protected void afterBatchRecordsProcess(final T client, final Collection<SinkRecord> records) {
-        for (Map.Entry<String, AbstractBufferedRecords> entry : destinationBufferedRecordMapping.entrySet()) {
-            String destination = entry.getKey();
-            AbstractBufferedRecords buffer = entry.getValue();
-            log.debug("Flushing records in {} for destination: {}", this.getClass().getName(), destination);
-            buffer.flush();
-            buffer.close();
-        }
-        commit(client);
-        destinationBufferedRecordMapping.clear();
+        try {
+            if (flushParallelism() > 1 && destinationBufferedRecordMapping.size() > 1) {
+                flushConcurrently();
+            } else {
+                destinationBufferedRecordMapping.forEach(this::flushAndClose);
+            }
+
+            // all destinations have been flushed, it's safe to commit now.
+            commitClients(client);
+        } finally {
+            // records of a failed batch will be redelivered, never keep them in buffers.
+            destinationBufferedRecordMapping.clear();
+            destinationClientMapping.clear();
+        }
+    }
+
+    private void flushConcurrently() {
+        List<Future<?>> futures = new ArrayList<>(destinationBufferedRecordMapping.size());
+        ExecutorService executor = getOrCreateFlushExecutor();
+        destinationBufferedRecordMapping.forEach((destination, buffer) -> futures.add(executor.submit(() -> flushAndClose(destination, buffer))));
+
+        // wait for all destinations even if some of them failed, so no flush is still running after this batch.
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new ConnectException(e.getCause());
+                if (Objects.isNull(failure)) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConnectException("Interrupted while waiting for destinations flushing", e);
+            }
+        }
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
+
+    private void flushAndClose(final String destination, final AbstractBufferedRecords buffer) {
+        log.debug("Flushing records in {} for destination: {}", this.getClass().getName(), destination);
+        long start = System.nanoTime();
+        buffer.flush();
+        buffer.close();
+        onDestinationFlushed(destination, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void commitClients(final T client) {
+        Set<T> committedClients = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (T each : clientsToCommit(client)) {
+            try {
+                commit(each);
+            } catch (ConnectException e) {
+                Set<String> committedDestinations = committedDestinations(committedClients);
+                if (committedDestinations.isEmpty()) {
+                    throw e;
+                }
+                throw new PartiallyCommittedException(committedDestinations, e);
+            }
+            committedClients.add(each);
+        }
+    }
+
+    private Collection<T> clientsToCommit(final T client) {
+        // the batch client is committed first, then the others in the order of destinations
+        Set<T> clients = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<T> orderedClients = new ArrayList<>();
+        clients.add(client);
+        orderedClients.add(client);
+        for (T each : destinationClientMapping.values()) {
+            if (clients.add(each)) {
+                orderedClients.add(each);
+            }
+        }
+        return orderedClients;
+    }
+
+    private Set<String> committedDestinations(final Set<T> committedClients) {
+        return destinationClientMapping.entrySet().stream()
+                .filter(entry -> committedClients.contains(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private synchronized ExecutorService getOrCreateFlushExecutor() {
+        if (Objects.isNull(flushExecutor)) {
+            AtomicInteger threadSequence = new AtomicInteger();
+            String threadNamePrefix = String.format("%s-flush-", sinkConfig().getConnectorName());
+            flushExecutor = Executors.newFixedThreadPool(flushParallelism(), runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + threadSequence.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return flushExecutor;
+    }
+
+    /**
+     * Shutdown the flush executor, a new one will be created if the writer is used again.
+     */
+    protected synchronized void shutdownFlushExecutor() {
+        if (Objects.isNull(flushExecutor)) {
+            return;
+        }
+        flushExecutor.shutdown();
+        try {
+            if (!flushExecutor.awaitTermination(FLUSH_EXECUTOR_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                flushExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flushExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            flushExecutor = null;
+        }
+    }
+
+    /**
+     * Get the client which the destination buffer should be bound to in current batch.
+     *
+     * <p>Destinations share the batch client by default, the sub class which supports concurrent flushing should
+     * bind destinations to different clients.
+     *
+     * @param client      client of current batch
+     * @param destination destination
+     * @return client of the destination
+     */
+    protected T getDestinationClient(final T client, final String destination) {
+        return client;
+    }
+
+    /**
+     * Max number of destinations to be flushed concurrently, 1 means flushing one by one.
+     *
+     * @return flush parallelism
+     */
+    protected int flushParallelism() {
+        return 1;
+    }
+
+    /**
+     * Called after the buffer of a destination is flushed.
+     *
+     * @param destination destination
+     * @param elapsedMs   time elapsed in milliseconds
+     */
+    protected void onDestinationFlushed(final String destination, final long elapsedMs) {
+        // default keep empty.
     }
 
     protected abstract AbstractBufferedRecords getBufferedRecords(T client, String destination) throws ConnectException;
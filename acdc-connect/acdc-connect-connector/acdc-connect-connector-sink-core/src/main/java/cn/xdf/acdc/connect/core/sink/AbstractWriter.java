@@ -13,6 +13,7 @@ import org.apache.kafka.connect.errors.RetriableException;
 import org.apache.kafka.connect.sink.SinkRecord;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Abstract writer contains ACDC custom functions, including:
@@ -46,6 +47,18 @@ public abstract class AbstractWriter<T> implements Writer {
      * @throws RetriableException when we can retry to fix it
      */
     public void write(final Collection<SinkRecord> records) throws ConnectException, RetriableException {
+        write(records, sinkConfig.getDestinations());
+    }
+
+    /**
+     * Write records to the given destinations only, eg: the others are committed by a partially committed batch.
+     *
+     * @param records      records to be written
+     * @param destinations destinations to write to
+     * @throws ConnectException when need not retry
+     * @throws RetriableException when we can retry to fix it
+     */
+    public void write(final Collection<SinkRecord> records, final List<String> destinations) throws ConnectException, RetriableException {
         // Make sure the client is on work.
         // eg: retry jdbc connection if timeout
         T client = getClient();
@@ -56,7 +69,7 @@ public abstract class AbstractWriter<T> implements Writer {
         for (SinkRecord recordBefore : records) {
 
             // Core record processes according to the custom configuration.
-            for (String destination : sinkConfig.getDestinations()) {
+            for (String destination : destinations) {
                 if (filterProvider.getFilter(destination).filter(recordBefore)) {
                     SinkRecord record = processorProvider.getProcessor(destination).process(recordBefore);
 
@@ -0,0 +1,37 @@
+package cn.xdf.acdc.connect.core.sink;
+
+import org.apache.kafka.connect.errors.ConnectException;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Thrown when some clients of a batch are committed but the others failed to commit.
+ *
+ * <p>Records of the committed destinations are durable, only the other destinations should be written again.
+ */
+public class PartiallyCommittedException extends ConnectException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> committedDestinations;
+
+    public PartiallyCommittedException(final Set<String> committedDestinations, final ConnectException cause) {
+        super(String.format("Destinations %s are committed, but failed to commit the others: %s", committedDestinations, cause.getMessage()), cause);
+        this.committedDestinations = Collections.unmodifiableSet(committedDestinations);
+    }
+
+    /**
+     * Get destinations which are committed.
+     *
+     * @return committed destinations
+     */
+    public Set<String> getCommittedDestinations() {
+        return committedDestinations;
+    }
+
+    @Override
+    public synchronized ConnectException getCause() {
+        return (ConnectException) super.getCause();
+    }
+}
@@ -2,14 +2,17 @@ package cn.xdf.acdc.connect.core.sink.filter;
 
 import cn.xdf.acdc.connect.core.sink.data.ZonedTimestamp;
 import cn.xdf.acdc.connect.core.util.DateUtils;
+import cn.xdf.acdc.connect.core.util.LruCache;
 import cn.xdf.acdc.connect.core.util.config.DestinationConfig;
 import cn.xdf.acdc.connect.core.util.config.SinkConfig;
 import com.google.common.base.Strings;
 import com.ql.util.express.DefaultContext;
 import com.ql.util.express.ExpressRunner;
 import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.connect.data.Date;
 import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.data.Time;
 import org.apache.kafka.connect.data.Timestamp;
@@ -18,32 +21,50 @@ import org.apache.kafka.connect.sink.SinkRecord;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+@Slf4j
 public class ConditionsFilter implements Filter {
 
     private static final String EXPRESS_TEMPLATE = "return %s";
 
+    // a topic usually has only a few schema versions alive at the same time
+    private static final int MAX_CACHED_SCHEMAS = 16;
+
     private String express;
 
     private String condition;
 
     private ExpressRunner expressRunner = new ExpressRunner();
 
-    private Set<Field> fieldSet = new HashSet<>();
-
     private String destination;
 
     private TimeZone timeZone;
 
+    private boolean compileEnabled;
+
+    // thread unsafe, the same as the filter provider
+    private Map<Schema, SchemaBoundCondition> schemaConditionMapping = new LruCache<>(MAX_CACHED_SCHEMAS);
+
+    private Schema lastValueSchema;
+
+    private SchemaBoundCondition lastCondition;
+
     public ConditionsFilter(final DestinationConfig destinationConfig, final TimeZone timeZone) {
+        this(destinationConfig, timeZone, true);
+    }
+
+    ConditionsFilter(final DestinationConfig destinationConfig, final TimeZone timeZone, final boolean compileEnabled) {
         this.destination = destinationConfig.getName();
         this.timeZone = timeZone;
         this.condition = destinationConfig.getRowFilterExpress();
         this.express = String.format(EXPRESS_TEMPLATE, condition);
+        this.compileEnabled = compileEnabled;
     }
 
     @SneakyThrows
@@ -52,17 +73,37 @@ public class ConditionsFilter implements Filter {
         if (Strings.isNullOrEmpty(condition)) {
             return true;
         }
-        if (fieldSet.isEmpty()) {
-            initFieldNameIndexMap(sinkRecord);
+        Schema valueSchema = sinkRecord.valueSchema();
+        if (Objects.isNull(lastCondition) || valueSchema != lastValueSchema) {
+            lastCondition = schemaConditionMapping.computeIfAbsent(valueSchema, this::bindCondition);
+            lastValueSchema = valueSchema;
         }
+
+        Struct value = (Struct) sinkRecord.value();
+        if (Objects.nonNull(lastCondition.compiledRowFilter) && lastCondition.compiledRowFilter.isApplicable(value)) {
+            return lastCondition.compiledRowFilter.test(value);
+        }
+
         DefaultContext<String, Object> context = new DefaultContext<>();
-        for (Field field : fieldSet) {
-            Object originFieldValue = ((Struct) sinkRecord.value()).get(field);
+        for (Field field : lastCondition.fieldSet) {
+            Object originFieldValue = value.get(field);
             context.put(field.name(), getComparableFieldValue(field.schema().name(), originFieldValue));
         }
         return (boolean) expressRunner.execute(express, context, null, true, true);
     }
 
+    private SchemaBoundCondition bindCondition(final Schema valueSchema) {
+        Set<Field> fieldSet = getFieldSet(valueSchema);
+        RowFilterCompiler.CompiledRowFilter compiledRowFilter = null;
+        if (compileEnabled) {
+            compiledRowFilter = RowFilterCompiler.compile(condition, valueSchema, timeZone.toZoneId()).orElse(null);
+            if (Objects.isNull(compiledRowFilter)) {
+                log.info("Row filter of destination {} can not be compiled, fall back to QLExpress: {}", destination, condition);
+            }
+        }
+        return new SchemaBoundCondition(fieldSet, compiledRowFilter);
+    }
+
     private Object getComparableFieldValue(final String fieldSchemaName, final Object originFieldValue) {
         if (fieldSchemaName != null) {
             switch (fieldSchemaName) {
@@ -79,8 +120,9 @@ public class ConditionsFilter implements Filter {
         return originFieldValue;
     }
 
-    private void initFieldNameIndexMap(final SinkRecord sinkRecord) {
-        List<Field> fields = sinkRecord.valueSchema().fields();
+    private Set<Field> getFieldSet(final Schema valueSchema) {
+        Set<Field> fieldSet = new HashSet<>();
+        List<Field> fields = valueSchema.fields();
         if (fields != null && fields.size() > 0) {
             fieldSet = fields.stream()
                     .filter(field -> Pattern.matches(getPattern(field.name()), condition))
@@ -91,9 +133,24 @@ public class ConditionsFilter implements Filter {
                         SinkConfig.DESTINATIONS_CONFIG_PREFIX + destination + SinkConfig.DESTINATIONS_CONFIG_ROW_FILTER));
             }
         }
+        return fieldSet;
     }
 
     private String getPattern(final String key) {
         return "(.*(\\(|\\s)" + key + "(\\)|\\s).*|^" + key + "\\s.*|.*\\s" + key + "$)";
     }
+
+    private static final class SchemaBoundCondition {
+
+        // fields put into QLExpress context
+        private final Set<Field> fieldSet;
+
+        // null if the condition can not be compiled
+        private final RowFilterCompiler.CompiledRowFilter compiledRowFilter;
+
+        SchemaBoundCondition(final Set<Field> fieldSet, final RowFilterCompiler.CompiledRowFilter compiledRowFilter) {
+            this.fieldSet = fieldSet;
+            this.compiledRowFilter = compiledRowFilter;
+        }
+    }
 }
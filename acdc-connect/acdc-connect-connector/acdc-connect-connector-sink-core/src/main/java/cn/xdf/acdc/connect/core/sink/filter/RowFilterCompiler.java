@@ -0,0 +1,557 @@
+package cn.xdf.acdc.connect.core.sink.filter;
+
+import cn.xdf.acdc.connect.core.sink.data.ZonedTimestamp;
+import cn.xdf.acdc.connect.core.util.DateUtils;
+import org.apache.kafka.connect.data.Date;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Time;
+import org.apache.kafka.connect.data.Timestamp;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Compile a row filter expression into a typed predicate bound to a value schema.
+ *
+ * <p>Only a subset of QLExpress is supported: comparisons between a field and a literal, bare boolean fields,
+ * "and/&amp;&amp;", "or/||", "!" and parentheses. The predicate reads fields by index and compares temporal fields
+ * numerically, which has the same result as comparing the "yyyy-MM-dd HH:mm:ss" strings QLExpress works on.
+ * Any other construct can not be compiled, the caller should fall back to QLExpress.
+ */
+final class RowFilterCompiler {
+
+    private final String condition;
+
+    private final Schema valueSchema;
+
+    private final ZoneId zonedTimestampZoneId;
+
+    private final Set<Field> referencedFields = new LinkedHashSet<>();
+
+    private List<Token> tokens;
+
+    private int position;
+
+    private RowFilterCompiler(final String condition, final Schema valueSchema, final ZoneId zonedTimestampZoneId) {
+        this.condition = condition;
+        this.valueSchema = valueSchema;
+        this.zonedTimestampZoneId = zonedTimestampZoneId;
+    }
+
+    /**
+     * Compile the condition for the value schema.
+     *
+     * @param condition            row filter expression
+     * @param valueSchema          value schema of records
+     * @param zonedTimestampZoneId zone id used to format zoned timestamp fields
+     * @return compiled row filter, or empty if the condition can not be compiled
+     */
+    static Optional<CompiledRowFilter> compile(final String condition, final Schema valueSchema, final ZoneId zonedTimestampZoneId) {
+        if (Objects.isNull(valueSchema) || valueSchema.type() != Schema.Type.STRUCT) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new RowFilterCompiler(condition, valueSchema, zonedTimestampZoneId).compile());
+        } catch (UnsupportedExpressionException e) {
+            return Optional.empty();
+        }
+    }
+
+    private CompiledRowFilter compile() {
+        tokens = tokenize(condition);
+        position = 0;
+        Predicate<Struct> predicate = parseOr();
+        if (position != tokens.size()) {
+            throw new UnsupportedExpressionException();
+        }
+        return new CompiledRowFilter(new ArrayList<>(referencedFields), predicate);
+    }
+
+    // or := and (('or' | '||') and)*
+    private Predicate<Struct> parseOr() {
+        Predicate<Struct> left = parseAnd();
+        while (accept(TokenType.OR)) {
+            left = left.or(parseAnd());
+        }
+        return left;
+    }
+
+    // and := unary (('and' | '&&') unary)*
+    private Predicate<Struct> parseAnd() {
+        Predicate<Struct> left = parseUnary();
+        while (accept(TokenType.AND)) {
+            left = left.and(parseUnary());
+        }
+        return left;
+    }
+
+    // unary := '!' ('(' or ')' | boolean_field) | primary
+    private Predicate<Struct> parseUnary() {
+        if (accept(TokenType.NOT)) {
+            Token next = peek();
+            if (next.type == TokenType.LEFT_PARENTHESIS || next.type == TokenType.IDENTIFIER && peek(1).type != TokenType.OPERATOR) {
+                return parsePrimary().negate();
+            }
+            // the precedence of '!' with a comparison is ambiguous, leave it to QLExpress
+            throw new UnsupportedExpressionException();
+        }
+        return parsePrimary();
+    }
+
+    // primary := '(' or ')' | operand (operator operand)?
+    private Predicate<Struct> parsePrimary() {
+        if (accept(TokenType.LEFT_PARENTHESIS)) {
+            Predicate<Struct> predicate = parseOr();
+            expect(TokenType.RIGHT_PARENTHESIS);
+            return predicate;
+        }
+        Token left = next();
+        if (peek().type != TokenType.OPERATOR) {
+            return booleanOperand(left);
+        }
+        ComparisonOperator operator = ComparisonOperator.of(next().text);
+        Token right = next();
+        if (left.type == TokenType.IDENTIFIER && right.isLiteral()) {
+            return comparison(field(left), operator, right);
+        }
+        if (left.isLiteral() && right.type == TokenType.IDENTIFIER) {
+            return comparison(field(right), operator.reverse(), left);
+        }
+        throw new UnsupportedExpressionException();
+    }
+
+    private Predicate<Struct> booleanOperand(final Token token) {
+        if (token.type == TokenType.BOOLEAN) {
+            boolean value = Boolean.parseBoolean(token.text);
+            return struct -> value;
+        }
+        if (token.type == TokenType.IDENTIFIER) {
+            Field field = field(token);
+            if (field.schema().type() == Schema.Type.BOOLEAN) {
+                return struct -> (Boolean) struct.get(field);
+            }
+        }
+        throw new UnsupportedExpressionException();
+    }
+
+    private Predicate<Struct> comparison(final Field field, final ComparisonOperator operator, final Token literal) {
+        Schema schema = field.schema();
+        String logicalName = schema.name();
+        if (Objects.nonNull(logicalName)) {
+            switch (logicalName) {
+                case Date.LOGICAL_NAME:
+                case Time.LOGICAL_NAME:
+                case Timestamp.LOGICAL_NAME:
+                    return dateComparison(field, operator, literal);
+                case ZonedTimestamp.LOGICAL_NAME:
+                    return zonedTimestampComparison(field, operator, literal);
+                default:
+                    // other logical types are compared as their physical type, eg: io.debezium.time.Year
+                    if (schema.type() == Schema.Type.BYTES || schema.type() == Schema.Type.STRUCT) {
+                        throw new UnsupportedExpressionException();
+                    }
+            }
+        }
+        switch (schema.type()) {
+            case INT8:
+            case INT16:
+            case INT32:
+            case INT64:
+                return integralComparison(field, operator, literal);
+            case FLOAT32:
+            case FLOAT64:
+                return floatingComparison(field, operator, literal);
+            case STRING:
+                return stringComparison(field, operator, literal);
+            case BOOLEAN:
+                return booleanComparison(field, operator, literal);
+            default:
+                throw new UnsupportedExpressionException();
+        }
+    }
+
+    private Predicate<Struct> integralComparison(final Field field, final ComparisonOperator operator, final Token literal) {
+        requireType(literal, TokenType.NUMBER);
+        if (literal.text.indexOf('.') < 0) {
+            long value = parseLong(literal.text);
+            return struct -> operator.test(Long.compare(((Number) struct.get(field)).longValue(), value));
+        }
+        double value = Double.parseDouble(literal.text);
+        return struct -> operator.test(Double.compare(((Number) struct.get(field)).doubleValue(), value));
+    }
+
+    private Predicate<Struct> floatingComparison(final Field field, final ComparisonOperator operator, final Token literal) {
+        requireType(literal, TokenType.NUMBER);
+        double value = Double.parseDouble(literal.text);
+        return struct -> operator.test(Double.compare(((Number) struct.get(field)).doubleValue(), value));
+    }
+
+    private Predicate<Struct> stringComparison(final Field field, final ComparisonOperator operator, final Token literal) {
+        requireType(literal, TokenType.STRING);
+        String value = literal.text;
+        return struct -> operator.test(((String) struct.get(field)).compareTo(value));
+    }
+
+    private Predicate<Struct> booleanComparison(final Field field, final ComparisonOperator operator, final Token literal) {
+        requireType(literal, TokenType.BOOLEAN);
+        if (operator != ComparisonOperator.EQUAL && operator != ComparisonOperator.NOT_EQUAL) {
+            throw new UnsupportedExpressionException();
+        }
+        boolean value = Boolean.parseBoolean(literal.text);
+        return struct -> operator.test(Boolean.compare((Boolean) struct.get(field), value));
+    }
+
+    private Predicate<Struct> dateComparison(final Field field, final ComparisonOperator operator, final Token literal) {
+        LocalSeconds localSeconds = new LocalSeconds(DateUtils.ZONE_UTC);
+        long value = parseLocalSeconds(literal);
+        return struct -> operator.test(Long.compare(localSeconds.of(((java.util.Date) struct.get(field)).getTime()), value));
+    }
+
+    private Predicate<Struct> zonedTimestampComparison(final Field field, final ComparisonOperator operator, final Token literal) {
+        LocalSeconds localSeconds = new LocalSeconds(zonedTimestampZoneId);
+        long value = parseLocalSeconds(literal);
+        return struct -> {
+            ZonedDateTime dateTime = ZonedDateTime.parse((String) struct.get(field), ZonedTimestamp.FORMATTER);
+            return operator.test(Long.compare(localSeconds.ofEpochSecond(dateTime.toEpochSecond()), value));
+        };
+    }
+
+    // "yyyy-MM-dd HH:mm:ss" strings are in the same order as the local date times they represent
+    private long parseLocalSeconds(final Token literal) {
+        requireType(literal, TokenType.STRING);
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(literal.text, DateUtils.DEFAULT_FORMAT);
+            if (!DateUtils.DEFAULT_FORMAT.format(dateTime).equals(literal.text)) {
+                throw new UnsupportedExpressionException();
+            }
+            return dateTime.toEpochSecond(ZoneOffset.UTC);
+        } catch (DateTimeParseException e) {
+            throw new UnsupportedExpressionException();
+        }
+    }
+
+    private long parseLong(final String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new UnsupportedExpressionException();
+        }
+    }
+
+    private Field field(final Token token) {
+        Field field = valueSchema.field(token.text);
+        if (Objects.isNull(field)) {
+            throw new UnsupportedExpressionException();
+        }
+        referencedFields.add(field);
+        return field;
+    }
+
+    private void requireType(final Token token, final TokenType type) {
+        if (token.type != type) {
+            throw new UnsupportedExpressionException();
+        }
+    }
+
+    private boolean accept(final TokenType type) {
+        if (peek().type == type) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(final TokenType type) {
+        if (!accept(type)) {
+            throw new UnsupportedExpressionException();
+        }
+    }
+
+    private Token next() {
+        Token token = peek();
+        if (token.type == TokenType.END) {
+            throw new UnsupportedExpressionException();
+        }
+        position++;
+        return token;
+    }
+
+    private Token peek() {
+        return peek(0);
+    }
+
+    private Token peek(final int offset) {
+        return position + offset < tokens.size() ? tokens.get(position + offset) : Token.END;
+    }
+
+    private static List<Token> tokenize(final String expression) {
+        List<Token> result = new ArrayList<>();
+        int i = 0;
+        while (i < expression.length()) {
+            char c = expression.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '(' || c == ')') {
+                result.add(new Token(c == '(' ? TokenType.LEFT_PARENTHESIS : TokenType.RIGHT_PARENTHESIS, String.valueOf(c)));
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = expression.indexOf(c, i + 1);
+                if (end < 0 || expression.substring(i + 1, end).indexOf('\\') >= 0) {
+                    throw new UnsupportedExpressionException();
+                }
+                result.add(new Token(TokenType.STRING, expression.substring(i + 1, end)));
+                i = end + 1;
+            } else if (Character.isDigit(c) || c == '-' && isNegativeNumberStart(expression, i, result)) {
+                int end = i + 1;
+                while (end < expression.length() && (Character.isDigit(expression.charAt(end)) || expression.charAt(end) == '.')) {
+                    end++;
+                }
+                String number = expression.substring(i, end);
+                if (number.indexOf('.') != number.lastIndexOf('.') || number.endsWith(".")) {
+                    throw new UnsupportedExpressionException();
+                }
+                result.add(new Token(TokenType.NUMBER, number));
+                i = end;
+            } else if (Character.isJavaIdentifierStart(c)) {
+                int end = i + 1;
+                while (end < expression.length() && Character.isJavaIdentifierPart(expression.charAt(end))) {
+                    end++;
+                }
+                result.add(Token.word(expression.substring(i, end)));
+                i = end;
+            } else {
+                String symbol = symbolAt(expression, i);
+                result.add(Token.symbol(symbol));
+                i += symbol.length();
+            }
+        }
+        return result;
+    }
+
+    private static boolean isNegativeNumberStart(final String expression, final int index, final List<Token> previous) {
+        if (index + 1 >= expression.length() || !Character.isDigit(expression.charAt(index + 1))) {
+            return false;
+        }
+        if (previous.isEmpty()) {
+            return true;
+        }
+        TokenType previousType = previous.get(previous.size() - 1).type;
+        return previousType == TokenType.OPERATOR || previousType == TokenType.LEFT_PARENTHESIS;
+    }
+
+    private static String symbolAt(final String expression, final int index) {
+        if (index + 1 < expression.length()) {
+            String twoChars = expression.substring(index, index + 2);
+            switch (twoChars) {
+                case "==":
+                case "!=":
+                case "<>":
+                case ">=":
+                case "<=":
+                case "&&":
+                case "||":
+                    return twoChars;
+                default:
+            }
+        }
+        return expression.substring(index, index + 1);
+    }
+
+    /**
+     * Seconds of the local date time in a zone, using epoch seconds as if the local date time is in UTC.
+     */
+    private static final class LocalSeconds {
+
+        private final ZoneRules rules;
+
+        private final int fixedOffsetSeconds;
+
+        LocalSeconds(final ZoneId zoneId) {
+            this.rules = zoneId.getRules();
+            this.fixedOffsetSeconds = rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH).getTotalSeconds() : 0;
+        }
+
+        long of(final long epochMillis) {
+            return ofEpochSecond(Math.floorDiv(epochMillis, 1000L));
+        }
+
+        long ofEpochSecond(final long epochSecond) {
+            if (rules.isFixedOffset()) {
+                return epochSecond + fixedOffsetSeconds;
+            }
+            return epochSecond + rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds();
+        }
+    }
+
+    private enum TokenType {
+        IDENTIFIER, STRING, NUMBER, BOOLEAN, OPERATOR, AND, OR, NOT, LEFT_PARENTHESIS, RIGHT_PARENTHESIS, END
+    }
+
+    private static final class Token {
+
+        private static final Token END = new Token(TokenType.END, "");
+
+        private final TokenType type;
+
+        private final String text;
+
+        Token(final TokenType type, final String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        static Token word(final String word) {
+            switch (word) {
+                case "and":
+                    return new Token(TokenType.AND, word);
+                case "or":
+                    return new Token(TokenType.OR, word);
+                case "true":
+                case "false":
+                    return new Token(TokenType.BOOLEAN, word);
+                default:
+                    return new Token(TokenType.IDENTIFIER, word);
+            }
+        }
+
+        static Token symbol(final String symbol) {
+            switch (symbol) {
+                case "&&":
+                    return new Token(TokenType.AND, symbol);
+                case "||":
+                    return new Token(TokenType.OR, symbol);
+                case "!":
+                    return new Token(TokenType.NOT, symbol);
+                case "==":
+                case "!=":
+                case "<>":
+                case ">":
+                case ">=":
+                case "<":
+                case "<=":
+                    return new Token(TokenType.OPERATOR, symbol);
+                default:
+                    throw new UnsupportedExpressionException();
+            }
+        }
+
+        boolean isLiteral() {
+            return type == TokenType.STRING || type == TokenType.NUMBER || type == TokenType.BOOLEAN;
+        }
+    }
+
+    private enum ComparisonOperator {
+        EQUAL, NOT_EQUAL, GREATER, GREATER_OR_EQUAL, LESS, LESS_OR_EQUAL;
+
+        static ComparisonOperator of(final String symbol) {
+            switch (symbol) {
+                case "==":
+                    return EQUAL;
+                case "!=":
+                case "<>":
+                    return NOT_EQUAL;
+                case ">":
+                    return GREATER;
+                case ">=":
+                    return GREATER_OR_EQUAL;
+                case "<":
+                    return LESS;
+                case "<=":
+                    return LESS_OR_EQUAL;
+                default:
+                    throw new UnsupportedExpressionException();
+            }
+        }
+
+        // operator used when the two operands are swapped, eg: 1 < a is a > 1
+        ComparisonOperator reverse() {
+            switch (this) {
+                case GREATER:
+                    return LESS;
+                case GREATER_OR_EQUAL:
+                    return LESS_OR_EQUAL;
+                case LESS:
+                    return GREATER;
+                case LESS_OR_EQUAL:
+                    return GREATER_OR_EQUAL;
+                default:
+                    return this;
+            }
+        }
+
+        boolean test(final int compareResult) {
+            switch (this) {
+                case EQUAL:
+                    return compareResult == 0;
+                case NOT_EQUAL:
+                    return compareResult != 0;
+                case GREATER:
+                    return compareResult > 0;
+                case GREATER_OR_EQUAL:
+                    return compareResult >= 0;
+                case LESS:
+                    return compareResult < 0;
+                default:
+                    return compareResult <= 0;
+            }
+        }
+    }
+
+    private static final class UnsupportedExpressionException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedExpressionException() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * A row filter compiled for a value schema.
+     */
+    static final class CompiledRowFilter {
+
+        private final List<Field> referencedFields;
+
+        private final Predicate<Struct> predicate;
+
+        CompiledRowFilter(final List<Field> referencedFields, final Predicate<Struct> predicate) {
+            this.referencedFields = Collections.unmodifiableList(referencedFields);
+            this.predicate = predicate;
+        }
+
+        /**
+         * Whether the value can be tested by the compiled predicate, null fields are left to QLExpress.
+         *
+         * @param value record value
+         * @return true if all referenced fields are not null
+         */
+        boolean isApplicable(final Struct value) {
+            for (int i = 0; i < referencedFields.size(); i++) {
+                if (Objects.isNull(value.get(referencedFields.get(i)))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean test(final Struct value) {
+            return predicate.test(value);
+        }
+    }
+}
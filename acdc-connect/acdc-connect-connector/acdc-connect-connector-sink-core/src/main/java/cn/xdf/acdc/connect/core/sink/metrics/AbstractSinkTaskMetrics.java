@@ -0,0 +1,86 @@
+package cn.xdf.acdc.connect.core.sink.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class of sink task metrics, which are exposed through JMX.
+ *
+ * <p>The sub class should implement a MXBean interface, the object name is like:
+ * cn.xdf.acdc.connect:type=jdbc-sink-task-metrics,connector=my_connector,task=0
+ */
+@Slf4j
+public abstract class AbstractSinkTaskMetrics {
+
+    private static final String DOMAIN = "cn.xdf.acdc.connect";
+
+    private static final String UNKNOWN_CONNECTOR_NAME = "unknown";
+
+    // tasks of the same connector may run in one worker, so give every metrics instance a sequence.
+    private static final AtomicInteger TASK_SEQUENCE = new AtomicInteger();
+
+    private final ObjectName name;
+
+    private volatile boolean registered;
+
+    protected AbstractSinkTaskMetrics(final String type, final String connectorName) {
+        this.name = objectName(type, Objects.isNull(connectorName) ? UNKNOWN_CONNECTOR_NAME : connectorName);
+    }
+
+    private ObjectName objectName(final String type, final String connectorName) {
+        try {
+            return new ObjectName(String.format("%s:type=%s,connector=%s,task=%d", DOMAIN, type, ObjectName.quote(connectorName), TASK_SEQUENCE.getAndIncrement()));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(String.format("Invalid metrics name, type: %s, connector: %s", type, connectorName), e);
+        }
+    }
+
+    /**
+     * Register the metrics to the platform MBean server.
+     */
+    public synchronized void register() {
+        if (registered) {
+            return;
+        }
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            mBeanServer.registerMBean(this, name);
+            registered = true;
+        } catch (JMException e) {
+            log.warn("Unable to register metrics {}", name, e);
+        }
+    }
+
+    /**
+     * Unregister the metrics from the platform MBean server.
+     */
+    public synchronized void unregister() {
+        if (!registered) {
+            return;
+        }
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            mBeanServer.unregisterMBean(name);
+        } catch (JMException e) {
+            log.warn("Unable to unregister metrics {}", name, e);
+        } finally {
+            registered = false;
+        }
+    }
+
+    /**
+     * Get the JMX object name of the metrics.
+     *
+     * @return object name
+     */
+    public ObjectName getObjectName() {
+        return name;
+    }
+}
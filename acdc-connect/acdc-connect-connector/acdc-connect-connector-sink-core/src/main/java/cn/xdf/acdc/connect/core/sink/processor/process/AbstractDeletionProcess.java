@@ -1,9 +1,11 @@
 package cn.xdf.acdc.connect.core.sink.processor.process;
 
 import cn.xdf.acdc.connect.core.sink.data.TemporaryFieldAndValue;
+import org.apache.kafka.connect.data.Struct;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 public abstract class AbstractDeletionProcess implements Process {
 
@@ -24,6 +26,21 @@ public abstract class AbstractDeletionProcess implements Process {
         return true;
     }
 
+    @Override
+    public boolean project(final Projection projection) {
+        FieldValueResolver deleteSignalResolver = projection.getResolver(DELETE_SIGNAL_FIELD_NAME);
+        if (Objects.nonNull(deleteSignalResolver)) {
+            return doProject(projection, source -> isDeleteSignal(deleteSignalResolver.resolve(source)));
+        }
+        return true;
+    }
+
+    private static boolean isDeleteSignal(final Object deleteSignalValue) {
+        return Objects.nonNull(deleteSignalValue) && DELETE_SIGNAL_FIELD_VALUE.equalsIgnoreCase(deleteSignalValue.toString());
+    }
+
+    abstract boolean doProject(Projection projection, Predicate<Struct> deleted);
+
     abstract boolean doDelete(Map<String, TemporaryFieldAndValue> fieldAndValues);
 
     abstract boolean keepExist(Map<String, TemporaryFieldAndValue> fieldAndValues);
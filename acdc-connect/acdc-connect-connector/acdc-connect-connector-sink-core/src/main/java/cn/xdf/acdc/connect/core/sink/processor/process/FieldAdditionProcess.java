@@ -21,6 +21,8 @@ public class FieldAdditionProcess implements Process {
 
     private static final String DATETIME_PLACEHOLDER = "${datetime}";
 
+    private static final Schema ZONED_TIMESTAMP_SCHEMA = SchemaBuilder.string().name(ZonedTimestamp.LOGICAL_NAME).build();
+
     private Map<String, Function<String, TemporaryFieldAndValue>> placeholderParsers = new HashMap<>();
 
     private Map<String, String> fieldsToBeAdded;
@@ -45,6 +47,19 @@ public class FieldAdditionProcess implements Process {
         return true;
     }
 
+    @Override
+    public boolean project(final Projection projection) {
+        for (Entry<String, String> each : fieldsToBeAdded.entrySet()) {
+            if (DATETIME_PLACEHOLDER.equals(each.getValue())) {
+                // the datetime is resolved for every record
+                projection.put(ZONED_TIMESTAMP_SCHEMA, each.getKey(), source -> currentZonedTimestamp());
+            } else {
+                projection.put(Schema.STRING_SCHEMA, each.getKey(), FieldValueResolver.constant(each.getValue()));
+            }
+        }
+        return true;
+    }
+
     private TemporaryFieldAndValue createTemporaryFieldAndValue(final String configName, final String configValue) {
         if (placeholderParsers.containsKey(configValue)) {
             return placeholderParsers.get(configValue).apply(configName);
@@ -54,8 +69,10 @@ public class FieldAdditionProcess implements Process {
     }
 
     private TemporaryFieldAndValue handleDatetimePlaceholder(final String configName) {
-        Schema schema = SchemaBuilder.string().name(ZonedTimestamp.LOGICAL_NAME).build();
-        String zonedTimestamp = DateUtils.formatWithZone(Calendar.getInstance().getTime(), timeZone.toZoneId());
-        return new TemporaryFieldAndValue(schema, configName, zonedTimestamp);
+        return new TemporaryFieldAndValue(ZONED_TIMESTAMP_SCHEMA, configName, currentZonedTimestamp());
+    }
+
+    private String currentZonedTimestamp() {
+        return DateUtils.formatWithZone(Calendar.getInstance().getTime(), timeZone.toZoneId());
     }
 }
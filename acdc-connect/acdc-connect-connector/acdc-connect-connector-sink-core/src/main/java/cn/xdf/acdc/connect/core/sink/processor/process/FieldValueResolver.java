@@ -0,0 +1,39 @@
+package cn.xdf.acdc.connect.core.sink.processor.process;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * Resolve the value of a target field from the source struct, which is a part of {@link ProjectionPlan}.
+ */
+@FunctionalInterface
+public interface FieldValueResolver {
+
+    /**
+     * Resolve the field value.
+     *
+     * @param source source struct
+     * @return field value
+     */
+    Object resolve(Struct source);
+
+    /**
+     * Create a resolver reading the field from source struct by index.
+     *
+     * @param field field of source schema
+     * @return field value resolver
+     */
+    static FieldValueResolver of(final Field field) {
+        return source -> source.get(field);
+    }
+
+    /**
+     * Create a resolver always returning the constant.
+     *
+     * @param value constant value
+     * @return field value resolver
+     */
+    static FieldValueResolver constant(final Object value) {
+        return source -> value;
+    }
+}
@@ -2,8 +2,10 @@ package cn.xdf.acdc.connect.core.sink.processor.process;
 
 import cn.xdf.acdc.connect.core.sink.data.TemporaryFieldAndValue;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 
 import java.util.Map;
+import java.util.function.Predicate;
 
 public class LogicallyDeletionProcess extends AbstractDeletionProcess {
 
@@ -19,6 +21,13 @@ public class LogicallyDeletionProcess extends AbstractDeletionProcess {
         this.logicalDeleteFieldValueNormal = logicalDeleteFieldValueNormal;
     }
 
+    @Override
+    boolean doProject(final Projection projection, final Predicate<Struct> deleted) {
+        projection.put(Schema.STRING_SCHEMA, logicalDeleteFieldName,
+            source -> deleted.test(source) ? logicalDeleteFieldValueDeleted : logicalDeleteFieldValueNormal);
+        return true;
+    }
+
     @Override
     public boolean doDelete(final Map<String, TemporaryFieldAndValue> fieldAndValues) {
         fieldAndValues.put(logicalDeleteFieldName, new TemporaryFieldAndValue(Schema.STRING_SCHEMA, logicalDeleteFieldName, logicalDeleteFieldValueDeleted));
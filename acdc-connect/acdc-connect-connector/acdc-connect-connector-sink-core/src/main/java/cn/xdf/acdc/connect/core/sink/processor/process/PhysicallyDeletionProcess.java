@@ -1,11 +1,19 @@
 package cn.xdf.acdc.connect.core.sink.processor.process;
 
 import cn.xdf.acdc.connect.core.sink.data.TemporaryFieldAndValue;
+import org.apache.kafka.connect.data.Struct;
 
 import java.util.Map;
+import java.util.function.Predicate;
 
 public class PhysicallyDeletionProcess extends AbstractDeletionProcess {
 
+    @Override
+    boolean doProject(final Projection projection, final Predicate<Struct> deleted) {
+        projection.deleteWhen(deleted);
+        return true;
+    }
+
     @Override
     boolean doDelete(final Map<String, TemporaryFieldAndValue> fieldAndValues) {
         fieldAndValues.clear();
@@ -14,6 +14,19 @@ public interface Process {
      */
     boolean execute(Map<String, TemporaryFieldAndValue> fieldAndValues);
 
+    /**
+     * Do process for the projection of a schema, it's executed only once for a schema.
+     *
+     * <p>The process only rearranging fields can be executed on the projection directly, which is the default;
+     * the process depending on values should override it and work with {@link FieldValueResolver}s.
+     *
+     * @param projection projection of the schema
+     * @return go on next process or not
+     */
+    default boolean project(final Projection projection) {
+        return execute(projection.getFieldAndResolvers());
+    }
+
 }
 
 
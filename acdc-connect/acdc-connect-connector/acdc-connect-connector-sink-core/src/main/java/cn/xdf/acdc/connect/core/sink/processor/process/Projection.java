@@ -0,0 +1,95 @@
+package cn.xdf.acdc.connect.core.sink.processor.process;
+
+import cn.xdf.acdc.connect.core.sink.data.TemporaryFieldAndValue;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Projection of a source schema, processes are executed on it only once for a schema to compile a {@link ProjectionPlan}.
+ *
+ * <p>It is built the same way as the field and value mapping of a record, so the processes rearrange fields and the
+ * target fields come out in the same order. The difference is that values of the mapping are {@link FieldValueResolver}s.
+ */
+public class Projection {
+
+    private final Schema sourceSchema;
+
+    private final Map<String, TemporaryFieldAndValue> fieldAndResolvers = new HashMap<>();
+
+    private Predicate<Struct> deletion;
+
+    public Projection(final Schema sourceSchema) {
+        this.sourceSchema = sourceSchema;
+        for (Field each : sourceSchema.fields()) {
+            fieldAndResolvers.put(each.name(), new TemporaryFieldAndValue(each.schema(), each.name(), FieldValueResolver.of(each)));
+        }
+    }
+
+    /**
+     * Get field name to {@link TemporaryFieldAndValue} mapping, whose values are {@link FieldValueResolver}s.
+     *
+     * @return field name to field and resolver mapping
+     */
+    public Map<String, TemporaryFieldAndValue> getFieldAndResolvers() {
+        return fieldAndResolvers;
+    }
+
+    /**
+     * Get the resolver of a field.
+     *
+     * @param name field name
+     * @return resolver of the field, or null if the field does not exist
+     */
+    public FieldValueResolver getResolver(final String name) {
+        TemporaryFieldAndValue fieldAndResolver = fieldAndResolvers.get(name);
+        return Objects.isNull(fieldAndResolver) ? null : (FieldValueResolver) fieldAndResolver.getValue();
+    }
+
+    /**
+     * Put a field and its resolver.
+     *
+     * @param schema   field schema
+     * @param name     field name
+     * @param resolver field value resolver
+     */
+    public void put(final Schema schema, final String name, final FieldValueResolver resolver) {
+        fieldAndResolvers.put(name, new TemporaryFieldAndValue(schema, name, resolver));
+    }
+
+    /**
+     * Records matching the condition will be deleted, which means no struct is produced.
+     *
+     * @param condition delete condition on source struct
+     */
+    public void deleteWhen(final Predicate<Struct> condition) {
+        deletion = Objects.isNull(deletion) ? condition : deletion.or(condition);
+    }
+
+    /**
+     * Compile to a projection plan.
+     *
+     * @return projection plan
+     */
+    public ProjectionPlan compile() {
+        if (fieldAndResolvers.isEmpty()) {
+            return new ProjectionPlan(null, new ArrayList<>(), deletion);
+        }
+        // the same as the target schema built from a record's field and value mapping
+        SchemaBuilder schemaBuilder = SchemaBuilder.struct().name(sourceSchema.name()).version(sourceSchema.version());
+        List<FieldValueResolver> resolvers = new ArrayList<>(fieldAndResolvers.size());
+        fieldAndResolvers.values().forEach(each -> {
+            schemaBuilder.field(each.getName(), each.getSchema());
+            resolvers.add((FieldValueResolver) each.getValue());
+        });
+        return new ProjectionPlan(schemaBuilder.build(), resolvers, deletion);
+    }
+}
@@ -0,0 +1,59 @@
+package cn.xdf.acdc.connect.core.sink.processor.process;
+
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A field projection plan compiled for a source schema, which produces target structs without any intermediate mapping.
+ */
+public class ProjectionPlan {
+
+    private final Schema targetSchema;
+
+    private final Field[] targetFields;
+
+    private final FieldValueResolver[] resolvers;
+
+    private final Predicate<Struct> deletion;
+
+    ProjectionPlan(final Schema targetSchema, final List<FieldValueResolver> resolvers, final Predicate<Struct> deletion) {
+        this.targetSchema = targetSchema;
+        this.targetFields = Objects.isNull(targetSchema) ? new Field[0] : targetSchema.fields().toArray(new Field[0]);
+        this.resolvers = resolvers.toArray(new FieldValueResolver[0]);
+        this.deletion = deletion;
+    }
+
+    /**
+     * Produce the target struct.
+     *
+     * @param source source struct
+     * @return target struct, or null if the record is deleted or there is no field left
+     */
+    public Struct apply(final Struct source) {
+        if (Objects.nonNull(deletion) && deletion.test(source)) {
+            return null;
+        }
+        if (Objects.isNull(targetSchema)) {
+            return null;
+        }
+        Struct target = new Struct(targetSchema);
+        for (int i = 0; i < targetFields.length; i++) {
+            target.put(targetFields[i], resolvers[i].resolve(source));
+        }
+        return target;
+    }
+
+    /**
+     * Get the target schema.
+     *
+     * @return target schema, or null if there is no field left
+     */
+    public Schema getTargetSchema() {
+        return targetSchema;
+    }
+}
@@ -1,27 +1,28 @@
 package cn.xdf.acdc.connect.core.sink.processor.process;
 
-import cn.xdf.acdc.connect.core.sink.data.TemporaryFieldAndValue;
+import cn.xdf.acdc.connect.core.util.LruCache;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
-import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 
 import java.util.Deque;
-import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.Set;
 
 @Slf4j
 public class SinkProcessChain implements ProcessChain {
 
-    private Deque<Process> processes = new LinkedList<>();
+    // a topic usually has only a few schema versions alive at the same time
+    private static final int MAX_CACHED_SCHEMAS = 16;
 
-    private Map<Set<String>, Schema> schemaCache = new HashMap<>();
+    private Deque<Process> processes = new LinkedList<>();
 
     private Schema currentValueSchema;
 
+    private ProjectionPlan currentProjectionPlan;
+
+    private Map<Schema, ProjectionPlan> projectionPlanCache = new LruCache<>(MAX_CACHED_SCHEMAS);
+
     /**
      * Add a process the head of chain.
      *
@@ -30,6 +31,7 @@ public class SinkProcessChain implements ProcessChain {
      */
     public SinkProcessChain addFirst(final Process process) {
         processes.addFirst(process);
+        resetProjectionPlans();
         return this;
     }
 
@@ -41,69 +43,40 @@ public class SinkProcessChain implements ProcessChain {
      */
     public SinkProcessChain addLast(final Process process) {
         processes.addLast(process);
+        resetProjectionPlans();
         return this;
     }
 
     @Override
     public Struct process(final Struct struct) {
-        maybeNewSchema(struct.schema());
-
-        Map<String, TemporaryFieldAndValue> fieldAndValues = parseToFieldAndValues(struct);
-        executeProcessChain(fieldAndValues);
-
-        return newStruct(fieldAndValues);
-    }
-
-    private void executeProcessChain(final Map<String, TemporaryFieldAndValue> fieldAndValues) {
-        log.debug("Before process chain fields and values {}", fieldAndValues);
-        for (Process each : processes) {
-            if (!each.execute(fieldAndValues)) {
-                return;
-            }
-        }
-        log.debug("After process chain fields and values {}", fieldAndValues);
+        return getProjectionPlan(struct.schema()).apply(struct);
     }
 
-    private Struct newStruct(final Map<String, TemporaryFieldAndValue> fieldAndValues) {
-        if (fieldAndValues.isEmpty()) {
-            return null;
-        }
-
-        Schema schema = getCorrespondingSchema(fieldAndValues);
-        Struct recordValue = new Struct(schema);
-
-        for (int i = 0; i < schema.fields().size(); i++) {
-            Field each = schema.fields().get(i);
-            recordValue.put(new Field(each.name(), i, each.schema()), fieldAndValues.get(each.name()).getValue());
+    private ProjectionPlan getProjectionPlan(final Schema valueSchema) {
+        // schemas of records in a batch are usually the same instance, avoid the deep equals
+        if (valueSchema != currentValueSchema) {
+            currentProjectionPlan = projectionPlanCache.computeIfAbsent(valueSchema, this::compileProjectionPlan);
+            currentValueSchema = valueSchema;
         }
-
-        return recordValue;
+        return currentProjectionPlan;
     }
 
-    private Schema getCorrespondingSchema(final Map<String, TemporaryFieldAndValue> fieldAndValues) {
-        return schemaCache.computeIfAbsent(fieldAndValues.keySet(), key -> {
-            // todo: 同样的 name 和 version 向后传递是否会有问题？
-            SchemaBuilder schemaBuilder = SchemaBuilder.struct().name(currentValueSchema.name()).version(currentValueSchema.version());
-            fieldAndValues.values().forEach(each -> {
-                schemaBuilder.field(each.getName(), each.getSchema());
-            });
-            return schemaBuilder.build();
-        });
+    private void resetProjectionPlans() {
+        projectionPlanCache.clear();
+        currentValueSchema = null;
+        currentProjectionPlan = null;
     }
 
-    private void maybeNewSchema(final Schema valueSchema) {
-        if (!valueSchema.equals(currentValueSchema)) {
-            schemaCache.clear();
-            currentValueSchema = valueSchema;
-        }
-    }
-
-    private Map<String, TemporaryFieldAndValue> parseToFieldAndValues(final Struct recordValue) {
-        Map<String, TemporaryFieldAndValue> fieldAndValues = new HashMap<>();
-        for (Field each : recordValue.schema().fields()) {
-            fieldAndValues.put(each.name(), new TemporaryFieldAndValue(each.schema(), each.name(), recordValue.get(each.name())));
+    private ProjectionPlan compileProjectionPlan(final Schema valueSchema) {
+        Projection projection = new Projection(valueSchema);
+        for (Process each : processes) {
+            if (!each.project(projection)) {
+                break;
+            }
         }
-        return fieldAndValues;
+        ProjectionPlan projectionPlan = projection.compile();
+        log.debug("Compiled projection plan for schema {}, target schema {}", valueSchema, projectionPlan.getTargetSchema());
+        return projectionPlan;
     }
 
 }
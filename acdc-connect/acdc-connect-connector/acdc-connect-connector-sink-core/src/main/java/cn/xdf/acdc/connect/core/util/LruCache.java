@@ -0,0 +1,32 @@
+package cn.xdf.acdc.connect.core.util;
+
+import com.google.common.base.Preconditions;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A map bounded by max size, the least recently accessed entry is evicted first when it is full.
+ *
+ * <p>It's thread unsafe, the same as the {@link LinkedHashMap}.
+ *
+ * @param <K> type of key
+ * @param <V> type of value
+ */
+public class LruCache<K, V> extends LinkedHashMap<K, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxSize;
+
+    public LruCache(final int maxSize) {
+        super(16, 0.75f, true);
+        Preconditions.checkArgument(maxSize > 0, "max size must be positive");
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+        return size() > maxSize;
+    }
+}
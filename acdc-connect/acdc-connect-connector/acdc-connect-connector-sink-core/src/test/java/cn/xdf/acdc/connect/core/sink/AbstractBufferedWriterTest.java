@@ -0,0 +1,245 @@
+package cn.xdf.acdc.connect.core.sink;
+
+import cn.xdf.acdc.connect.core.util.config.SinkConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.ConnectException;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AbstractBufferedWriterTest {
+
+    private static final List<String> DESTINATIONS = Arrays.asList("table_1", "table_2", "table_3");
+
+    private static final List<String> CLIENTS = Arrays.asList("client_0", "client_1", "client_2");
+
+    private final Schema keySchema = SchemaBuilder.struct().field("id", Schema.INT32_SCHEMA).build();
+
+    private final Schema valueSchema = SchemaBuilder.struct().field("id", Schema.INT32_SCHEMA).field("name", Schema.STRING_SCHEMA).build();
+
+    private SinkConfig sinkConfig;
+
+    private FakeWriter writer;
+
+    @Before
+    public void setUp() {
+        Map<String, String> configs = new HashMap<>();
+        configs.put("name", "unit_test_connector");
+        configs.put("destinations", String.join(",", DESTINATIONS));
+        for (String destination : DESTINATIONS) {
+            configs.put("destinations." + destination + ".delete.mode", "PHYSICAL");
+        }
+        sinkConfig = new SinkConfig(configs);
+    }
+
+    @After
+    public void tearDown() {
+        writer.close();
+    }
+
+    @Test
+    public void testShouldFlushDestinationsOneByOneWithSharedClient() {
+        writer = new FakeWriter(sinkConfig, 1, 0);
+        writer.write(records(2));
+
+        assertEquals(DESTINATIONS.size(), writer.flushedRecordCount.size());
+        writer.flushedRecordCount.values().forEach(count -> assertEquals(2, count.intValue()));
+        assertEquals(Collections.singletonList("client_0"), writer.committedClients);
+        assertEquals(DESTINATIONS.size(), writer.flushTimeMs.size());
+    }
+
+    @Test
+    public void testShouldFlushDestinationsConcurrentlyAndCommitAfterAll() {
+        // every flush waits for the others, it can only finish when all destinations are flushed concurrently
+        writer = new FakeWriter(sinkConfig, DESTINATIONS.size(), DESTINATIONS.size());
+        writer.write(records(2));
+
+        assertEquals(DESTINATIONS.size(), writer.flushedRecordCount.size());
+        assertEquals(DESTINATIONS.size(), writer.committedClients.size());
+        assertTrue(writer.committedClients.containsAll(CLIENTS));
+        assertEquals(DESTINATIONS.size(), writer.flushTimeMs.size());
+    }
+
+    @Test
+    public void testShouldNotCommitWhenAnyDestinationFailed() {
+        writer = new FakeWriter(sinkConfig, DESTINATIONS.size(), 0);
+        writer.failedDestination = "table_2";
+        try {
+            writer.write(records(2));
+            fail("Should fail when any destination failed");
+        } catch (ConnectException e) {
+            assertEquals("Flush failed: table_2", e.getMessage());
+        }
+
+        assertTrue(writer.committedClients.isEmpty());
+
+        // buffers of the failed batch must be dropped
+        writer.failedDestination = null;
+        writer.flushedRecordCount.clear();
+        writer.write(records(1));
+        writer.flushedRecordCount.values().forEach(count -> assertEquals(1, count.intValue()));
+        assertEquals(DESTINATIONS.size(), writer.committedClients.size());
+    }
+
+    @Test
+    public void testShouldTellCommittedDestinationsWhenCommitPartiallyFailed() {
+        writer = new FakeWriter(sinkConfig, DESTINATIONS.size(), 0);
+        writer.failedClient = "client_2";
+        try {
+            writer.write(records(2));
+            fail("Should fail when any client failed to commit");
+        } catch (PartiallyCommittedException e) {
+            assertEquals(new HashSet<>(Arrays.asList("table_1", "table_2")), e.getCommittedDestinations());
+            assertEquals("Commit failed: client_2", e.getCause().getMessage());
+        }
+        assertEquals(Arrays.asList("client_0", "client_1"), writer.committedClients);
+
+        // only the uncommitted destination is written again
+        writer.failedClient = null;
+        writer.flushedRecordCount.clear();
+        writer.write(records(2), Collections.singletonList("table_3"));
+        assertEquals(Collections.singletonMap("table_3", 2), writer.flushedRecordCount);
+    }
+
+    @Test
+    public void testShouldNotBePartiallyCommittedWhenFirstClientFailedToCommit() {
+        writer = new FakeWriter(sinkConfig, DESTINATIONS.size(), 0);
+        writer.failedClient = "client_0";
+        try {
+            writer.write(records(2));
+            fail("Should fail when any client failed to commit");
+        } catch (ConnectException e) {
+            assertFalse(e instanceof PartiallyCommittedException);
+            assertEquals("Commit failed: client_0", e.getMessage());
+        }
+        assertTrue(writer.committedClients.isEmpty());
+    }
+
+    private List<SinkRecord> records(final int count) {
+        SinkRecord[] records = new SinkRecord[count];
+        for (int i = 0; i < count; i++) {
+            Struct key = new Struct(keySchema).put("id", i);
+            Struct value = new Struct(valueSchema).put("id", i).put("name", "name_" + i);
+            records[i] = new SinkRecord("topic", 0, keySchema, key, valueSchema, value, i);
+        }
+        return Arrays.asList(records);
+    }
+
+    private static class FakeWriter extends AbstractBufferedWriter<String> {
+
+        private final int parallelism;
+
+        private final CountDownLatch concurrentFlushLatch;
+
+        private final Map<String, Integer> flushedRecordCount = new ConcurrentHashMap<>();
+
+        private final Map<String, Long> flushTimeMs = new ConcurrentHashMap<>();
+
+        private final List<String> committedClients = new CopyOnWriteArrayList<>();
+
+        private volatile String failedDestination;
+
+        private volatile String failedClient;
+
+        FakeWriter(final SinkConfig sinkConfig, final int parallelism, final int concurrentFlushCount) {
+            super(sinkConfig);
+            this.parallelism = parallelism;
+            this.concurrentFlushLatch = new CountDownLatch(concurrentFlushCount);
+        }
+
+        @Override
+        protected AbstractBufferedRecords getBufferedRecords(final String client, final String destination) {
+            return new FakeBufferedRecords(destination);
+        }
+
+        @Override
+        protected String getDestinationClient(final String client, final String destination) {
+            return CLIENTS.get(DESTINATIONS.indexOf(destination) % parallelism);
+        }
+
+        @Override
+        protected int flushParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        protected void onDestinationFlushed(final String destination, final long elapsedMs) {
+            flushTimeMs.put(destination, elapsedMs);
+        }
+
+        @Override
+        protected void commit(final String client) {
+            if (client.equals(failedClient)) {
+                throw new ConnectException("Commit failed: " + client);
+            }
+            committedClients.add(client);
+        }
+
+        @Override
+        protected String getClient() {
+            return CLIENTS.get(0);
+        }
+
+        @Override
+        public void closePartitions(final Collection<TopicPartition> partitions) {
+        }
+
+        @Override
+        public void close() {
+            shutdownFlushExecutor();
+        }
+
+        private class FakeBufferedRecords extends AbstractBufferedRecords {
+
+            private final String destination;
+
+            FakeBufferedRecords(final String destination) {
+                super(sinkConfig());
+                this.destination = destination;
+            }
+
+            @Override
+            protected void initMetadata(final SinkRecord record) {
+            }
+
+            @Override
+            protected void doFlush(final List<SinkRecord> records) {
+                concurrentFlushLatch.countDown();
+                try {
+                    assertTrue(concurrentFlushLatch.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new ConnectException(e);
+                }
+                if (destination.equals(failedDestination)) {
+                    throw new ConnectException("Flush failed: " + destination);
+                }
+                flushedRecordCount.merge(destination, records.size(), Integer::sum);
+            }
+
+            @Override
+            protected void close() {
+            }
+        }
+    }
+}
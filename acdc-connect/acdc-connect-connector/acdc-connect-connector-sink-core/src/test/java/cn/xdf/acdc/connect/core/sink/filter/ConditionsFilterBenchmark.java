@@ -0,0 +1,99 @@
+package cn.xdf.acdc.connect.core.sink.filter;
+
+import cn.xdf.acdc.connect.core.sink.data.ZonedTimestamp;
+import cn.xdf.acdc.connect.core.util.config.DestinationConfig;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.data.Timestamp;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the compiled row filter with QLExpress.
+ *
+ * <p>Run it after test-compile with the test classpath: java org.openjdk.jmh.Main ConditionsFilterBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConditionsFilterBenchmark {
+
+    private static final TimeZone TIME_ZONE = TimeZone.getTimeZone("Asia/Shanghai");
+
+    @Param({
+        "int_value > 5 and name == 'name' ",
+        "(int_value > 5 or bool_value) and update_time >= '2021-08-11 10:18:18' ",
+        "modified_time < '2021-08-11 18:18:18' "
+    })
+    private String condition;
+
+    private Filter compiledFilter;
+
+    private Filter qlExpressFilter;
+
+    private SinkRecord record;
+
+    /**
+     * Prepare filters and record.
+     */
+    @Setup
+    public void setUp() {
+        Schema schema = SchemaBuilder.struct()
+                .field("id", Schema.INT64_SCHEMA)
+                .field("name", Schema.STRING_SCHEMA)
+                .field("int_value", Schema.INT32_SCHEMA)
+                .field("bool_value", Schema.BOOLEAN_SCHEMA)
+                .field("update_time", Timestamp.SCHEMA)
+                .field("modified_time", SchemaBuilder.string().name(ZonedTimestamp.LOGICAL_NAME).build())
+                .build();
+        Struct value = new Struct(schema)
+                .put("id", 1L)
+                .put("name", "name")
+                .put("int_value", 10)
+                .put("bool_value", true)
+                .put("update_time", new java.util.Date(1628677098000L))
+                .put("modified_time", "2021-08-11T10:18:18Z");
+        record = new SinkRecord("topic", 0, null, null, schema, value, 0);
+
+        DestinationConfig destinationConfig = new DestinationConfig("tb", null, null, null, condition, null, null, null, null);
+        compiledFilter = new ConditionsFilter(destinationConfig, TIME_ZONE, true);
+        qlExpressFilter = new ConditionsFilter(destinationConfig, TIME_ZONE, false);
+    }
+
+    /**
+     * Filter with the compiled predicate.
+     *
+     * @return filter result
+     */
+    @Benchmark
+    public boolean compiled() {
+        return compiledFilter.filter(record);
+    }
+
+    /**
+     * Filter with QLExpress.
+     *
+     * @return filter result
+     */
+    @Benchmark
+    public boolean qlExpress() {
+        return qlExpressFilter.filter(record);
+    }
+}
@@ -119,6 +119,57 @@ public class ConditionsFilterTest {
 
     }
 
+    @Test
+    public void testCompiledFilterShouldBeConsistentWithQlExpress() {
+        String[] expresses = {
+            "firstName == 'Alex'",
+            "firstName > 'Al' and lastName != 'Smith'",
+            "int_value >= 10 && long_value < 11",
+            "10 < int_value || short_value <= 9",
+            "float_value == 10.0 and double_value > 9.5",
+            "!(bool_value) or byte_value == 10",
+            "! bool_value",
+            "datetime_value >= '2021-08-11 10:18:18' ",
+            "datetime_value > '2021-08-11 10:18:17' ",
+            "time_value < '1970-01-01 10:18:19' ",
+            "date_value <= '2021-08-10 23:59:59' ",
+            "timestamp_value == '2021-08-11 18:18:18' ",
+            "timestamp_value < '2021-08-11 18:18:19' ",
+            "firstName == \"Alex\" and ( int_value == -1 or bool_value == true )",
+        };
+        for (String express : expresses) {
+            Assert.assertEquals(express, getSingleRecordFilter(express, false).filter(sinkRecord), getSingleRecordFilter(express).filter(sinkRecord));
+        }
+    }
+
+    @Test
+    public void testCompiledFilterShouldFallBackWhenFieldIsNull() {
+        Struct structWithNull = new Struct(schema)
+                .put("firstName", "Alex")
+                .put("lastName", "Smith")
+                .put("date_value", struct.get("date_value"))
+                .put("time_value", struct.get("time_value"))
+                .put("datetime_value", struct.get("datetime_value"))
+                .put("timestamp_value", struct.get("timestamp_value"));
+        SinkRecord recordWithNull = new SinkRecord("test_topic", 1, null, null, schema, structWithNull, 43);
+
+        Filter filter = getSingleRecordFilter("firstName == 'Alex' or int_value == 10");
+        Assert.assertEquals(true, filter.filter(recordWithNull));
+        Assert.assertEquals(true, filter.filter(sinkRecord));
+    }
+
+    @Test
+    public void testShouldFallBackToQlExpressWhenNotCompilable() {
+        // arithmetic can not be compiled
+        Assert.assertEquals(true, getSingleRecordFilter("int_value % 3 == 1").filter(sinkRecord));
+        Assert.assertEquals(true, getSingleRecordFilter("int_value + 1 == 11").filter(sinkRecord));
+    }
+
+    protected Filter getSingleRecordFilter(final String s, final boolean compileEnabled) {
+        DestinationConfig destinationConfig = new DestinationConfig(null, null, null, null, s, null, null, null, null);
+        return new ConditionsFilter(destinationConfig, TimeZone.getTimeZone("Asia/Shanghai"), compileEnabled);
+    }
+
     protected Filter getSingleRecordFilter(final String s) {
         DestinationConfig destinationConfig = new DestinationConfig(null, null, null, null, s, null, null, null, null);
         return new ConditionsFilter(destinationConfig, TimeZone.getTimeZone("Asia/Shanghai"));
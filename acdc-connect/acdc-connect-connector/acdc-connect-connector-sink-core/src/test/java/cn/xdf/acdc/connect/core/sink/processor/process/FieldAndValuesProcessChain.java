@@ -0,0 +1,94 @@
+package cn.xdf.acdc.connect.core.sink.processor.process;
+
+import cn.xdf.acdc.connect.core.sink.data.TemporaryFieldAndValue;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process chain with field and value mapping of every record, which is the way before {@link SinkProcessChain} compiles projection plans.
+ *
+ * <p>It's kept to verify and benchmark the projection plan.
+ */
+public class FieldAndValuesProcessChain implements ProcessChain {
+
+    private Deque<Process> processes = new LinkedList<>();
+
+    private Map<Set<String>, Schema> schemaCache = new HashMap<>();
+
+    private Schema currentValueSchema;
+
+    @Override
+    public FieldAndValuesProcessChain addFirst(final Process process) {
+        processes.addFirst(process);
+        return this;
+    }
+
+    @Override
+    public FieldAndValuesProcessChain addLast(final Process process) {
+        processes.addLast(process);
+        return this;
+    }
+
+    @Override
+    public Struct process(final Struct struct) {
+        maybeNewSchema(struct.schema());
+
+        Map<String, TemporaryFieldAndValue> fieldAndValues = parseToFieldAndValues(struct);
+        for (Process each : processes) {
+            if (!each.execute(fieldAndValues)) {
+                break;
+            }
+        }
+
+        return newStruct(fieldAndValues);
+    }
+
+    private Struct newStruct(final Map<String, TemporaryFieldAndValue> fieldAndValues) {
+        if (fieldAndValues.isEmpty()) {
+            return null;
+        }
+
+        Schema schema = getCorrespondingSchema(fieldAndValues);
+        Struct recordValue = new Struct(schema);
+
+        for (int i = 0; i < schema.fields().size(); i++) {
+            Field each = schema.fields().get(i);
+            recordValue.put(new Field(each.name(), i, each.schema()), fieldAndValues.get(each.name()).getValue());
+        }
+
+        return recordValue;
+    }
+
+    private Schema getCorrespondingSchema(final Map<String, TemporaryFieldAndValue> fieldAndValues) {
+        return schemaCache.computeIfAbsent(fieldAndValues.keySet(), key -> {
+            SchemaBuilder schemaBuilder = SchemaBuilder.struct().name(currentValueSchema.name()).version(currentValueSchema.version());
+            fieldAndValues.values().forEach(each -> {
+                schemaBuilder.field(each.getName(), each.getSchema());
+            });
+            return schemaBuilder.build();
+        });
+    }
+
+    private void maybeNewSchema(final Schema valueSchema) {
+        if (!valueSchema.equals(currentValueSchema)) {
+            schemaCache.clear();
+            currentValueSchema = valueSchema;
+        }
+    }
+
+    private Map<String, TemporaryFieldAndValue> parseToFieldAndValues(final Struct recordValue) {
+        Map<String, TemporaryFieldAndValue> fieldAndValues = new HashMap<>();
+        for (Field each : recordValue.schema().fields()) {
+            fieldAndValues.put(each.name(), new TemporaryFieldAndValue(each.schema(), each.name(), recordValue.get(each.name())));
+        }
+        return fieldAndValues;
+    }
+}
@@ -0,0 +1,105 @@
+package cn.xdf.acdc.connect.core.sink.processor.process;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare the projection plan with the field and value mapping of every record.
+ *
+ * <p>Run it after test-compile with the test classpath: java org.openjdk.jmh.Main SinkProcessChainBenchmark -prof gc,
+ * the gc profiler reports allocated bytes per record as gc.alloc.rate.norm.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SinkProcessChainBenchmark {
+
+    @Param({"10", "50"})
+    private int fieldCount;
+
+    private SinkProcessChain chain;
+
+    private FieldAndValuesProcessChain legacyChain;
+
+    private Struct struct;
+
+    /**
+     * Prepare the chain and struct, half of fields are in the whitelist and a quarter of them are mapped.
+     */
+    @Setup
+    public void setUp() {
+        SchemaBuilder schemaBuilder = SchemaBuilder.struct().name("benchmark");
+        Set<String> fieldsWhitelist = new HashSet<>();
+        Map<String, String> fieldsMapping = new HashMap<>();
+        for (int i = 0; i < fieldCount; i++) {
+            String name = "field_" + i;
+            schemaBuilder.field(name, Schema.OPTIONAL_STRING_SCHEMA);
+            if (i % 2 == 0) {
+                fieldsWhitelist.add(name);
+            }
+            if (i % 4 == 0) {
+                fieldsMapping.put(name, "mapped_" + i);
+            }
+        }
+        Schema schema = schemaBuilder.field("__deleted", Schema.STRING_SCHEMA).build();
+        struct = new Struct(schema).put("__deleted", "false");
+        for (int i = 0; i < fieldCount; i++) {
+            struct.put("field_" + i, "value_" + i);
+        }
+
+        Map<String, String> fieldsToAdd = new HashMap<>();
+        fieldsToAdd.put("added_field", "added_value");
+        chain = new SinkProcessChain()
+                .addLast(new FieldWhitelistProcess(fieldsWhitelist))
+                .addLast(new FieldMappingProcess(fieldsMapping))
+                .addLast(new FieldAdditionProcess(fieldsToAdd, TimeZone.getTimeZone("UTC")))
+                .addLast(new LogicallyDeletionProcess("is_deleted", "1", "0"));
+        legacyChain = new FieldAndValuesProcessChain()
+                .addLast(new FieldWhitelistProcess(fieldsWhitelist))
+                .addLast(new FieldMappingProcess(fieldsMapping))
+                .addLast(new FieldAdditionProcess(fieldsToAdd, TimeZone.getTimeZone("UTC")))
+                .addLast(new LogicallyDeletionProcess("is_deleted", "1", "0"));
+    }
+
+    /**
+     * Process with the projection plan.
+     *
+     * @return target struct
+     */
+    @Benchmark
+    public Struct projectionPlan() {
+        return chain.process(struct);
+    }
+
+    /**
+     * Process with the field and value mapping of every record.
+     *
+     * @return target struct
+     */
+    @Benchmark
+    public Struct fieldAndValues() {
+        return legacyChain.process(struct);
+    }
+}
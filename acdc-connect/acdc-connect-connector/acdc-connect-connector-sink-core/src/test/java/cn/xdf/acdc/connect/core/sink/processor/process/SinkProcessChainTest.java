@@ -0,0 +1,152 @@
+package cn.xdf.acdc.connect.core.sink.processor.process;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class SinkProcessChainTest {
+
+    private final Schema valueSchema = SchemaBuilder.struct().name("com.example.Person").version(1)
+            .field("id", Schema.STRING_SCHEMA)
+            .field("firstName", Schema.STRING_SCHEMA)
+            .field("lastName", Schema.STRING_SCHEMA)
+            .field("int_value", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("exclude_field", Schema.STRING_SCHEMA)
+            .field("to_mapping_field", Schema.STRING_SCHEMA)
+            .field("__meta_data_field", Schema.STRING_SCHEMA)
+            .field("__deleted", Schema.STRING_SCHEMA)
+            .build();
+
+    @Test
+    public void testShouldProduceTheSameStructAsFieldAndValuesWhenLogicalDelete() {
+        SinkProcessChain chain = newChain()
+                .addLast(new LogicallyDeletionProcess("is_delete", "1", "0"));
+        ProcessChain legacyChain = addProcesses(new FieldAndValuesProcessChain())
+                .addLast(new LogicallyDeletionProcess("is_delete", "1", "0"));
+
+        assertProjectionConsistent(chain, legacyChain, struct("false"));
+        assertProjectionConsistent(chain, legacyChain, struct("TRUE"));
+        assertEquals("1", chain.process(struct("true")).get("is_delete"));
+        assertEquals("0", chain.process(struct("false")).get("is_delete"));
+    }
+
+    @Test
+    public void testShouldProduceTheSameStructAsFieldAndValuesWhenPhysicalDelete() {
+        SinkProcessChain chain = newChain()
+                .addFirst(new PhysicallyDeletionProcess());
+        ProcessChain legacyChain = addProcesses(new FieldAndValuesProcessChain())
+                .addFirst(new PhysicallyDeletionProcess());
+
+        assertProjectionConsistent(chain, legacyChain, struct("false"));
+        assertNull(chain.process(struct("true")));
+        assertNull(legacyChain.process(struct("true")));
+    }
+
+    @Test
+    public void testShouldProduceTheSameStructAsFieldAndValuesWhenFieldNameConflicted() {
+        Map<String, String> fieldsMapping = new HashMap<>();
+        fieldsMapping.put("firstName", "lastName");
+        fieldsMapping.put("lastName", "lastName_mapped");
+        SinkProcessChain chain = new SinkProcessChain()
+                .addLast(new FieldWhitelistProcess(new HashSet<>(Arrays.asList("firstName", "lastName"))))
+                .addLast(new FieldMappingProcess(fieldsMapping));
+        ProcessChain legacyChain = new FieldAndValuesProcessChain()
+                .addLast(new FieldWhitelistProcess(new HashSet<>(Arrays.asList("firstName", "lastName"))))
+                .addLast(new FieldMappingProcess(fieldsMapping));
+
+        assertProjectionConsistent(chain, legacyChain, struct("false"));
+        Struct result = chain.process(struct("false"));
+        assertEquals("Alex", result.get("lastName"));
+        assertEquals("Smith", result.get("lastName_mapped"));
+    }
+
+    @Test
+    public void testShouldReuseTargetSchemaForTheSameSourceSchema() {
+        SinkProcessChain chain = newChain();
+
+        Struct first = chain.process(struct("false"));
+        Struct second = chain.process(struct("false"));
+        assertSame(first.schema(), second.schema());
+
+        Schema newValueSchema = SchemaBuilder.struct().name("com.example.Person").version(2)
+                .field("id", Schema.STRING_SCHEMA)
+                .build();
+        Struct third = chain.process(new Struct(newValueSchema).put("id", "1"));
+        assertEquals(Integer.valueOf(2), third.schema().version());
+        assertNotNull(third.schema().field("added_field"));
+    }
+
+    @Test
+    public void testShouldReuseTargetSchemaWhenSourceSchemasInterleaved() {
+        SinkProcessChain chain = newChain();
+        Schema newValueSchema = SchemaBuilder.struct().name("com.example.Person").version(2)
+                .field("id", Schema.STRING_SCHEMA)
+                .build();
+
+        Struct first = chain.process(struct("false"));
+        Struct second = chain.process(new Struct(newValueSchema).put("id", "1"));
+        assertSame(first.schema(), chain.process(struct("false")).schema());
+        assertSame(second.schema(), chain.process(new Struct(newValueSchema).put("id", "1")).schema());
+    }
+
+    @Test
+    public void testShouldProcessWhenSourceSchemasExceedCacheSize() {
+        SinkProcessChain chain = newChain();
+
+        for (int version = 1; version <= 100; version++) {
+            Schema eachSchema = SchemaBuilder.struct().name("com.example.Person").version(version)
+                    .field("id", Schema.STRING_SCHEMA)
+                    .build();
+            Struct result = chain.process(new Struct(eachSchema).put("id", String.valueOf(version)));
+            assertEquals(Integer.valueOf(version), result.schema().version());
+            assertEquals(String.valueOf(version), result.get("new_id"));
+        }
+        assertProjectionConsistent(chain, addProcesses(new FieldAndValuesProcessChain()), struct("false"));
+    }
+
+    private SinkProcessChain newChain() {
+        return addProcesses(new SinkProcessChain());
+    }
+
+    private <T extends ProcessChain> T addProcesses(final T chain) {
+        Map<String, String> fieldsMapping = new HashMap<>();
+        fieldsMapping.put("id", "new_id");
+        fieldsMapping.put("to_mapping_field", "new_field");
+        chain.addLast(new FieldWhitelistProcess(new HashSet<>(Arrays.asList("id", "firstName", "int_value", "to_mapping_field"))))
+                .addLast(new FieldMappingProcess(fieldsMapping))
+                .addLast(new FieldAdditionProcess(Collections.singletonMap("added_field", "added_value"), TimeZone.getTimeZone("UTC")));
+        return chain;
+    }
+
+    private Struct struct(final String deleted) {
+        return new Struct(valueSchema)
+                .put("id", "1234567")
+                .put("firstName", "Alex")
+                .put("lastName", "Smith")
+                .put("exclude_field", "exclude_value")
+                .put("to_mapping_field", "to_mapping_value")
+                .put("__meta_data_field", "__meta_data_value")
+                .put("__deleted", deleted);
+    }
+
+    private void assertProjectionConsistent(final SinkProcessChain chain, final ProcessChain legacyChain, final Struct struct) {
+        Struct expected = legacyChain.process(struct);
+        Struct actual = chain.process(struct);
+        // the same fields in the same order
+        assertEquals(expected.schema(), actual.schema());
+        assertEquals(expected, actual);
+    }
+}
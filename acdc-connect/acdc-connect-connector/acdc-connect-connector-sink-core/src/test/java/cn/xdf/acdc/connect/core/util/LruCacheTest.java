@@ -0,0 +1,42 @@
+package cn.xdf.acdc.connect.core.util;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LruCacheTest {
+
+    @Test
+    public void testShouldEvictLeastRecentlyAccessedEntryWhenFull() {
+        Map<String, Integer> cache = new LruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.containsKey("a"));
+        assertFalse(cache.containsKey("b"));
+        assertTrue(cache.containsKey("c"));
+    }
+
+    @Test
+    public void testComputeIfAbsentShouldBeBounded() {
+        Map<Integer, Integer> cache = new LruCache<>(3);
+        for (int i = 0; i < 10; i++) {
+            cache.computeIfAbsent(i, key -> key * 2);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(Integer.valueOf(18), cache.get(9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShouldRejectNonPositiveMaxSize() {
+        new LruCache<>(0);
+    }
+}
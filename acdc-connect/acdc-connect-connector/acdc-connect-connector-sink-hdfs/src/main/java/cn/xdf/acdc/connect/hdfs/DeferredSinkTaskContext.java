@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.hdfs;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.ErrantRecordReporter;
+import org.apache.kafka.connect.sink.SinkTaskContext;
+
+/**
+ * A sink task context which can defer the calls changing the consumer, such as pause, resume and offset reset.
+ *
+ * <p>The context of the connect framework is bound to the consumer, which must only be used by the task thread.
+ * Topic partition writers running on other threads make their calls while deferring, the calls are replayed
+ * on the task thread afterwards in the same order as each writer made them.
+ */
+class DeferredSinkTaskContext implements SinkTaskContext {
+
+    private final SinkTaskContext delegate;
+
+    private final Queue<Consumer<SinkTaskContext>> deferredCalls = new ConcurrentLinkedQueue<>();
+
+    private volatile boolean deferring;
+
+    DeferredSinkTaskContext(final SinkTaskContext delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Start deferring the calls changing the consumer.
+     */
+    void defer() {
+        deferring = true;
+    }
+
+    /**
+     * Stop deferring and replay the deferred calls, it must be called by the task thread.
+     */
+    void replay() {
+        deferring = false;
+        Consumer<SinkTaskContext> call;
+        while ((call = deferredCalls.poll()) != null) {
+            call.accept(delegate);
+        }
+    }
+
+    private void call(final Consumer<SinkTaskContext> call) {
+        if (deferring) {
+            deferredCalls.add(call);
+        } else {
+            call.accept(delegate);
+        }
+    }
+
+    @Override
+    public Map<String, String> configs() {
+        return delegate.configs();
+    }
+
+    @Override
+    public void offset(final Map<TopicPartition, Long> offsets) {
+        Map<TopicPartition, Long> copy = new HashMap<>(offsets);
+        call(context -> context.offset(copy));
+    }
+
+    @Override
+    public void offset(final TopicPartition tp, final long offset) {
+        call(context -> context.offset(tp, offset));
+    }
+
+    @Override
+    public void timeout(final long timeoutMs) {
+        call(context -> context.timeout(timeoutMs));
+    }
+
+    @Override
+    public Set<TopicPartition> assignment() {
+        return delegate.assignment();
+    }
+
+    @Override
+    public void pause(final TopicPartition... partitions) {
+        call(context -> context.pause(partitions));
+    }
+
+    @Override
+    public void resume(final TopicPartition... partitions) {
+        call(context -> context.resume(partitions));
+    }
+
+    @Override
+    public void requestCommit() {
+        call(SinkTaskContext::requestCommit);
+    }
+
+    @Override
+    public ErrantRecordReporter errantRecordReporter() {
+        return delegate.errantRecordReporter();
+    }
+}
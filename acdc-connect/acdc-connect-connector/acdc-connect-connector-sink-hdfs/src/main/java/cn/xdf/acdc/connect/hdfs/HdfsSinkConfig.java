@@ -108,6 +108,16 @@ public class HdfsSinkConfig extends StorageSinkConnectorConfig {
 
     public static final String HIVE_SCHEMA_CHANGE_SUPPORT_DISPLAY = "Hive schema change support";
 
+    // synced partitions
+    public static final String HIVE_SYNCED_PARTITIONS_MAX = "hive.synced.partitions.max";
+
+    public static final String HIVE_SYNCED_PARTITIONS_MAX_DOC = "The max count of partitions remembered as registered in the hive metastore,"
+        + " the least recently used ones are evicted and registered again when written.";
+
+    public static final int HIVE_SYNCED_PARTITIONS_MAX_DEFAULT = 10000;
+
+    public static final String HIVE_SYNCED_PARTITIONS_MAX_DISPLAY = "Hive synced partitions max";
+
     // storage mode
     public static final String STORAGE_MODE = "storage.mode";
 
@@ -117,6 +127,16 @@ public class HdfsSinkConfig extends StorageSinkConnectorConfig {
 
     public static final String STORAGE_MODE_DISPLAY = "Storage mode";
 
+    // write parallelism
+    public static final String WRITE_PARALLELISM = "write.parallelism";
+
+    public static final String WRITE_PARALLELISM_DOC = "Max number of topic partition writers writing concurrently in a task,"
+        + " 1 means writing topic partitions one by one on the task thread.";
+
+    public static final int WRITE_PARALLELISM_DEFAULT = 1;
+
+    public static final String WRITE_PARALLELISM_DISPLAY = "Write parallelism";
+
     // storage format
     public static final String STORAGE_FORMAT = "storage.format";
 
@@ -308,6 +328,18 @@ public class HdfsSinkConfig extends StorageSinkConnectorConfig {
             Width.SHORT,
             STORAGE_MODE_DISPLAY
         );
+        CONFIG_DEF.define(
+            WRITE_PARALLELISM,
+            Type.INT,
+            WRITE_PARALLELISM_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            WRITE_PARALLELISM_DOC,
+            hdfsGroup,
+            ++orderInHdfsGroup,
+            Width.SHORT,
+            WRITE_PARALLELISM_DISPLAY
+        );
         CONFIG_DEF.define(
             HIVE_INTEGRATION_MODE,
             Type.STRING,
@@ -330,6 +362,18 @@ public class HdfsSinkConfig extends StorageSinkConnectorConfig {
             Width.SHORT,
             HIVE_SCHEMA_CHANGE_SUPPORT_DISPLAY
         );
+        CONFIG_DEF.define(
+            HIVE_SYNCED_PARTITIONS_MAX,
+            Type.INT,
+            HIVE_SYNCED_PARTITIONS_MAX_DEFAULT,
+            ConfigDef.Range.atLeast(1),
+            Importance.LOW,
+            HIVE_SYNCED_PARTITIONS_MAX_DOC,
+            hdfsGroup,
+            ++orderInHdfsGroup,
+            Width.SHORT,
+            HIVE_SYNCED_PARTITIONS_MAX_DISPLAY
+        );
         CONFIG_DEF.define(
             STORAGE_FORMAT,
             Type.STRING,
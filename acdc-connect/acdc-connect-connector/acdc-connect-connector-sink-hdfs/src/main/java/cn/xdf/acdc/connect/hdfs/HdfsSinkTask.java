@@ -34,6 +34,8 @@ public class HdfsSinkTask extends SinkTask {
 
     private HdfsWriter hdfsWriter;
 
+    private HdfsSinkTaskMetrics metrics;
+
     private String taskId;
 
     private String connectorName;
@@ -57,13 +59,16 @@ public class HdfsSinkTask extends SinkTask {
 
         try {
             HdfsSinkConfig connectorConfig = new HdfsSinkConfig(props);
-            this.hdfsWriter = new HdfsWriter(connectorConfig, context);
+            metrics = new HdfsSinkTaskMetrics(connectorConfig);
+            metrics.register();
+            this.hdfsWriter = new HdfsWriter(connectorConfig, context, metrics);
             recover(context.assignment());
         } catch (ConfigException e) {
             throw new ConnectException("Couldn't start HdfsSinkConnector due to configuration error.", e);
         } catch (ConnectException e) {
             log.error("Couldn't start HdfsSinkConnector:", e);
             log.info("Shutting down HdfsSinkConnector.");
+            unregisterMetrics();
             if (hdfsWriter != null) {
                 try {
                     log.debug("Closing data writer due to task start failure.");
@@ -135,9 +140,19 @@ public class HdfsSinkTask extends SinkTask {
     @Override
     public void stop() throws ConnectException {
         log.info("Stopping HDFS Sink Task {}", connectorNameAndTaskId);
-        if (hdfsWriter != null) {
-            hdfsWriter.close();
-            hdfsWriter.stop();
+        try {
+            if (hdfsWriter != null) {
+                hdfsWriter.close();
+                hdfsWriter.stop();
+            }
+        } finally {
+            unregisterMetrics();
+        }
+    }
+
+    private void unregisterMetrics() {
+        if (metrics != null) {
+            metrics.unregister();
         }
     }
 
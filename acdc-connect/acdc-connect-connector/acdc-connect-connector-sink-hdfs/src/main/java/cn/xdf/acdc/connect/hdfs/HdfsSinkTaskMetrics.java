@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.hdfs;
+
+import cn.xdf.acdc.connect.core.sink.metrics.AbstractSinkTaskMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.kafka.common.TopicPartition;
+
+public class HdfsSinkTaskMetrics extends AbstractSinkTaskMetrics implements HdfsSinkTaskMetricsMXBean {
+
+    private static final String TYPE = "hdfs-sink-task-metrics";
+
+    private final AtomicLong schemaProjectionCount = new AtomicLong();
+
+    private final AtomicLong schemaProjectionSkipCount = new AtomicLong();
+
+    private final AtomicLong schemaTransitionCount = new AtomicLong();
+
+    private final AtomicLong pendingPartitionCount = new AtomicLong();
+
+    private final AtomicLong registeredPartitionCount = new AtomicLong();
+
+    private final AtomicLong partitionRegistrationCount = new AtomicLong();
+
+    private final AtomicLong partitionWriteQueueDepth = new AtomicLong();
+
+    private final Map<String, Long> partitionLastWriteTimeMs = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> partitionMaxWriteTimeMs = new ConcurrentHashMap<>();
+
+    public HdfsSinkTaskMetrics(final HdfsSinkConfig config) {
+        super(TYPE, config.getConnectorName());
+    }
+
+    @Override
+    public long getSchemaProjectionCount() {
+        return schemaProjectionCount.get();
+    }
+
+    @Override
+    public long getSchemaProjectionSkipCount() {
+        return schemaProjectionSkipCount.get();
+    }
+
+    @Override
+    public long getSchemaTransitionCount() {
+        return schemaTransitionCount.get();
+    }
+
+    @Override
+    public long getPendingPartitionCount() {
+        return pendingPartitionCount.get();
+    }
+
+    @Override
+    public long getRegisteredPartitionCount() {
+        return registeredPartitionCount.get();
+    }
+
+    @Override
+    public long getPartitionRegistrationCount() {
+        return partitionRegistrationCount.get();
+    }
+
+    @Override
+    public long getPartitionWriteQueueDepth() {
+        return partitionWriteQueueDepth.get();
+    }
+
+    @Override
+    public Map<String, Long> getPartitionLastWriteTimeMs() {
+        return new HashMap<>(partitionLastWriteTimeMs);
+    }
+
+    @Override
+    public Map<String, Long> getPartitionMaxWriteTimeMs() {
+        return new HashMap<>(partitionMaxWriteTimeMs);
+    }
+
+    /**
+     * Record a record projected to the schema of the sink table.
+     */
+    public void onSchemaProjected() {
+        schemaProjectionCount.incrementAndGet();
+    }
+
+    /**
+     * Record a record written without projection.
+     */
+    public void onSchemaProjectionSkipped() {
+        schemaProjectionSkipCount.incrementAndGet();
+    }
+
+    /**
+     * Record a schema transition.
+     */
+    public void onSchemaTransition() {
+        schemaTransitionCount.incrementAndGet();
+    }
+
+    /**
+     * Record a partition waiting to be registered in the hive metastore.
+     */
+    public void onPartitionPending() {
+        pendingPartitionCount.incrementAndGet();
+    }
+
+    /**
+     * Record pending partitions registered in the hive metastore with one call.
+     *
+     * @param count count of the registered partitions
+     */
+    public void onPartitionsRegistered(final int count) {
+        pendingPartitionCount.addAndGet(-count);
+        registeredPartitionCount.addAndGet(count);
+        partitionRegistrationCount.incrementAndGet();
+    }
+
+    /**
+     * Record a topic partition write submitted to the write threads.
+     */
+    public void onPartitionWriteQueued() {
+        partitionWriteQueueDepth.incrementAndGet();
+    }
+
+    /**
+     * Record a queued topic partition write started by a write thread.
+     */
+    public void onPartitionWriteStarted() {
+        partitionWriteQueueDepth.decrementAndGet();
+    }
+
+    /**
+     * Record the write of a topic partition.
+     *
+     * @param tp        topic partition
+     * @param elapsedMs time elapsed in milliseconds
+     */
+    public void onPartitionWritten(final TopicPartition tp, final long elapsedMs) {
+        String partition = tp.toString();
+        partitionLastWriteTimeMs.put(partition, elapsedMs);
+        partitionMaxWriteTimeMs.merge(partition, elapsedMs, Math::max);
+    }
+}
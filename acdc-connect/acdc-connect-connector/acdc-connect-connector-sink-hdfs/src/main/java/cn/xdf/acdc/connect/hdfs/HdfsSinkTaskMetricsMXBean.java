@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.hdfs;
+
+import java.util.Map;
+
+public interface HdfsSinkTaskMetricsMXBean {
+
+    /**
+     * Count of the records projected to the schema of the sink table.
+     *
+     * @return schema projection count
+     */
+    long getSchemaProjectionCount();
+
+    /**
+     * Count of the records whose schema is the same as the sink table, their projection is skipped.
+     *
+     * @return schema projection skip count
+     */
+    long getSchemaProjectionSkipCount();
+
+    /**
+     * Count of the schema transitions, when a record comes with a schema not checked against the sink table yet.
+     *
+     * @return schema transition count
+     */
+    long getSchemaTransitionCount();
+
+    /**
+     * Count of the partitions written but not registered in the hive metastore yet.
+     *
+     * @return pending partition count
+     */
+    long getPendingPartitionCount();
+
+    /**
+     * Count of the partitions registered in the hive metastore.
+     *
+     * @return registered partition count
+     */
+    long getRegisteredPartitionCount();
+
+    /**
+     * Count of the bulk partition registrations sent to the hive metastore.
+     *
+     * @return partition registration count
+     */
+    long getPartitionRegistrationCount();
+
+    /**
+     * Count of the topic partition writes waiting for a write thread.
+     *
+     * @return partition write queue depth
+     */
+    long getPartitionWriteQueueDepth();
+
+    /**
+     * Time elapsed in milliseconds of the last write of every topic partition.
+     *
+     * @return topic partition to last write time
+     */
+    Map<String, Long> getPartitionLastWriteTimeMs();
+
+    /**
+     * Max time elapsed in milliseconds of the writes of every topic partition.
+     *
+     * @return topic partition to max write time
+     */
+    Map<String, Long> getPartitionMaxWriteTimeMs();
+}
@@ -33,10 +33,19 @@ import io.confluent.common.utils.Time;
 import java.io.IOException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
@@ -58,6 +67,8 @@ public class HdfsWriterCoordinator {
 
     private static final String HADOOP_ENV_HOME_DIR = "hadoop.home.dir";
 
+    private static final long WRITE_EXECUTOR_TERMINATION_TIMEOUT_SECONDS = 30;
+
     private final Time time;
 
     private final Map<TopicPartition, TopicPartitionWriter> topicPartitionWriters;
@@ -67,10 +78,16 @@ public class HdfsWriterCoordinator {
      */
     private final HdfsSinkConfig hdfsSinkConf;
 
-    private final SinkTaskContext context;
+    private final DeferredSinkTaskContext context;
 
     private final StoreContext storeContext;
 
+    private final HdfsSinkTaskMetrics metrics;
+
+    private final int writeParallelism;
+
+    private ExecutorService writeExecutor;
+
     private Thread ticketRenewThread;
 
     private volatile boolean isRunning;
@@ -87,14 +104,33 @@ public class HdfsWriterCoordinator {
         final HdfsSinkConfig hdfsSinkConfig,
         final SinkTaskContext context,
         final Time time
+    ) {
+        this(hdfsSinkConfig, context, time, new HdfsSinkTaskMetrics(hdfsSinkConfig));
+    }
+
+    public HdfsWriterCoordinator(
+        final HdfsSinkConfig hdfsSinkConfig,
+        final SinkTaskContext context,
+        final HdfsSinkTaskMetrics metrics
+    ) {
+        this(hdfsSinkConfig, context, SYSTEM_TIME, metrics);
+    }
+
+    public HdfsWriterCoordinator(
+        final HdfsSinkConfig hdfsSinkConfig,
+        final SinkTaskContext context,
+        final Time time,
+        final HdfsSinkTaskMetrics metrics
     ) {
         this.time = time;
         this.hdfsSinkConf = hdfsSinkConfig;
-        this.context = context;
+        this.context = new DeferredSinkTaskContext(context);
+        this.metrics = metrics;
+        this.writeParallelism = hdfsSinkConfig.getInt(HdfsSinkConfig.WRITE_PARALLELISM);
         this.topicPartitionWriters = new HashMap<>();
         Configuration configuration = getHadoopConf();
         initializeAuth(configuration);
-        this.storeContext = initializeStoreContext(configuration, this.hdfsSinkConf);
+        this.storeContext = initializeStoreContext(configuration, this.hdfsSinkConf, metrics);
 //        initializeStorageDir();
         initializeTpWriters(context.assignment());
     }
@@ -202,8 +238,88 @@ public class HdfsWriterCoordinator {
             topicPartitionWriters.get(tp).buffer(record);
         }
         // Each partitionWriter write record
-        for (TopicPartition tp : topicPartitionWriters.keySet()) {
-            topicPartitionWriters.get(tp).write();
+        if (writeParallelism > 1 && topicPartitionWriters.size() > 1) {
+            writeConcurrently();
+        } else {
+            topicPartitionWriters.forEach(this::write);
+        }
+    }
+
+    private void write(final TopicPartition tp, final TopicPartitionWriter writer) {
+        long start = System.nanoTime();
+        writer.write();
+        metrics.onPartitionWritten(tp, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void writeConcurrently() {
+        List<Future<?>> futures = new ArrayList<>(topicPartitionWriters.size());
+        ExecutorService executor = getOrCreateWriteExecutor();
+        // writers on the executor threads must not touch the consumer, their calls are replayed on this thread.
+        context.defer();
+        try {
+            topicPartitionWriters.forEach((tp, writer) -> {
+                metrics.onPartitionWriteQueued();
+                futures.add(executor.submit(() -> {
+                    metrics.onPartitionWriteStarted();
+                    write(tp, writer);
+                }));
+            });
+            awaitAll(futures);
+        } finally {
+            context.replay();
+        }
+    }
+
+    private void awaitAll(final List<Future<?>> futures) {
+        // wait for all writers even if some of them failed, so no writer is still running after this batch.
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new ConnectException(e.getCause());
+                if (Objects.isNull(failure)) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ConnectException("Interrupted while waiting for topic partition writers", e);
+            }
+        }
+        if (Objects.nonNull(failure)) {
+            throw failure;
+        }
+    }
+
+    private synchronized ExecutorService getOrCreateWriteExecutor() {
+        if (Objects.isNull(writeExecutor)) {
+            AtomicInteger threadSequence = new AtomicInteger();
+            String threadNamePrefix = String.format("%s-write-", hdfsSinkConf.getConnectorName());
+            writeExecutor = Executors.newFixedThreadPool(writeParallelism, runnable -> {
+                Thread thread = new Thread(runnable, threadNamePrefix + threadSequence.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return writeExecutor;
+    }
+
+    private synchronized void shutdownWriteExecutor() {
+        if (Objects.isNull(writeExecutor)) {
+            return;
+        }
+        writeExecutor.shutdown();
+        try {
+            if (!writeExecutor.awaitTermination(WRITE_EXECUTOR_TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                writeExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writeExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        } finally {
+            writeExecutor = null;
         }
     }
 
@@ -288,6 +404,7 @@ public class HdfsWriterCoordinator {
      * Stop the client.
      */
     public void stop() {
+        shutdownWriteExecutor();
         this.storeContext.getFileOperator().storage().close();
 
         if (ticketRenewThread != null) {
@@ -395,10 +512,10 @@ public class HdfsWriterCoordinator {
         }
     }
 
-    private StoreContext initializeStoreContext(final Configuration hadoopConf, final HdfsSinkConfig hdfsSinkConf) {
+    private StoreContext initializeStoreContext(final Configuration hadoopConf, final HdfsSinkConfig hdfsSinkConf, final HdfsSinkTaskMetrics metrics) {
         try {
             verifyConf();
-            StoreContext storeContext = StoreContext.buildContext(hdfsSinkConf, hadoopConf);
+            StoreContext storeContext = StoreContext.buildContext(hdfsSinkConf, hadoopConf, metrics);
             log.info("Init store context complete context: {}", storeContext);
             return storeContext;
         } catch (IOException e) {
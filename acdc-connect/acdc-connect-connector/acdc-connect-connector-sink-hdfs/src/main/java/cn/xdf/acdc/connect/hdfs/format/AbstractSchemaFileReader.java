@@ -63,7 +63,7 @@ public abstract class AbstractSchemaFileReader implements SchemaReader {
     public abstract Schema getSchema(Path path);
 
     @Override
-    public ProjectedResult projectRecord(final TopicPartition tp, final SinkRecord sinkRecord) {
+    public synchronized ProjectedResult projectRecord(final TopicPartition tp, final SinkRecord sinkRecord) {
         boolean shouldChangeSchema = shouldChangeSchema(tp, sinkRecord);
         return ProjectedResult.builder()
             .projectedRecord(compatibility.project(sinkRecord, null, curSchema))
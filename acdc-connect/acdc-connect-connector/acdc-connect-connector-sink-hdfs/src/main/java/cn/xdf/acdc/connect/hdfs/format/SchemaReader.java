@@ -27,7 +27,7 @@ import org.apache.kafka.connect.sink.SinkRecord;
 public interface SchemaReader extends Closeable {
 
     /**
-     * Project record.
+     * Project record, it may be called by the writers of different topic partitions concurrently.
      * @param tp  Kafka topic partition.
      * @param sinkRecord Kafka connect sinkRecord.
      * @return Projected record
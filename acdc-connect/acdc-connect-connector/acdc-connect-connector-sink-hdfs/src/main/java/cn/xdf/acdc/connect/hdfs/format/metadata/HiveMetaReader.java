@@ -17,6 +17,7 @@ package cn.xdf.acdc.connect.hdfs.format.metadata;
 
 import cn.xdf.acdc.connect.core.util.config.SinkConfig;
 import cn.xdf.acdc.connect.hdfs.HdfsSinkConfig;
+import cn.xdf.acdc.connect.hdfs.HdfsSinkTaskMetrics;
 import cn.xdf.acdc.connect.hdfs.format.AbstractSchemaFileReader;
 import cn.xdf.acdc.connect.hdfs.format.ProjectedResult;
 import cn.xdf.acdc.connect.hdfs.hive.HiveFactory;
@@ -64,21 +65,40 @@ public class HiveMetaReader extends AbstractSchemaFileReader {
 
     private Schema currentSchema;
 
+    // the source schema already checked against the current schema, records of the same schema instance skip the check
+    private Schema checkedSourceSchema;
+
+    // whether the checked source schema equals to the current schema, records are written without projection if so
+    private boolean isProjectionSkipped;
+
     private final boolean isSupportSchemaChange;
 
     private final SchemaProjector schemaProjector;
 
+    private final HdfsSinkTaskMetrics metrics;
+
     public HiveMetaReader(
         final HdfsSinkConfig hdfsSinkConf,
         final StoreConfig storeConfig,
         final HdfsFileOperator fileOperator,
         final HiveMetaStore hiveMetaStore
+    ) {
+        this(hdfsSinkConf, storeConfig, fileOperator, hiveMetaStore, new HdfsSinkTaskMetrics(hdfsSinkConf));
+    }
+
+    public HiveMetaReader(
+        final HdfsSinkConfig hdfsSinkConf,
+        final StoreConfig storeConfig,
+        final HdfsFileOperator fileOperator,
+        final HiveMetaStore hiveMetaStore,
+        final HdfsSinkTaskMetrics metrics
     ) {
         super(hdfsSinkConf, storeConfig, fileOperator);
         this.storeConfig = storeConfig;
         this.hiveMetaStore = hiveMetaStore;
         this.isSupportSchemaChange = hdfsSinkConf.getBoolean(HdfsSinkConfig.HIVE_SCHEMA_CHANGE_SUPPORT);
         this.schemaProjector = new SchemaProjector();
+        this.metrics = metrics;
     }
 
     private Schema readHiveTableSchema() {
@@ -138,9 +158,34 @@ public class HiveMetaReader extends AbstractSchemaFileReader {
      * 4. 如果设置为不支持schema 变更，则忽略"3"中的处理
      */
     private SinkRecord project(final SinkRecord sinkRecord, final Schema targetSchema) {
+        metrics.onSchemaProjected();
         return schemaProjector.projectRecord(sinkRecord, null, targetSchema);
     }
 
+    /**
+     * Project the record to the current schema, which has been checked against the schema of the record.
+     */
+    private ProjectedResult projectToCheckedSchema(final SinkRecord sinkRecord) {
+        SinkRecord projectedRecord;
+        if (isProjectionSkipped) {
+            metrics.onSchemaProjectionSkipped();
+            projectedRecord = sinkRecord;
+        } else {
+            projectedRecord = project(sinkRecord, currentSchema);
+        }
+        return ProjectedResult.builder()
+            .projectedRecord(projectedRecord)
+            .needChangeSchema(false)
+            .currentSchema(currentSchema)
+            .build();
+    }
+
+    private ProjectedResult checkAndProject(final SinkRecord sinkRecord) {
+        checkedSourceSchema = sinkRecord.valueSchema();
+        isProjectionSkipped = Objects.equals(checkedSourceSchema, currentSchema);
+        return projectToCheckedSchema(sinkRecord);
+    }
+
     private String schemaUniqueKey(final Schema structSchema) {
         return new StringBuilder()
             .append(structSchema.name()).append(SCHEMA_UNIQUE_KEY_SEPARATOR)
@@ -200,10 +245,16 @@ public class HiveMetaReader extends AbstractSchemaFileReader {
     }
 
     @Override
-    public ProjectedResult projectRecord(final TopicPartition tp, final SinkRecord sinkRecord) {
+    public synchronized ProjectedResult projectRecord(final TopicPartition tp, final SinkRecord sinkRecord) {
         Schema sourceSchema = sinkRecord.valueSchema();
         Preconditions.checkNotNull(sourceSchema);
 
+        // 同一个 schema 实例已经校验过，直接使用缓存的 schema
+        if (Objects.nonNull(currentSchema) && sourceSchema == checkedSourceSchema) {
+            return projectToCheckedSchema(sinkRecord);
+        }
+        metrics.onSchemaTransition();
+
         // schema 不为 NUll，并且版本号匹配
         if (Objects.nonNull(currentSchema)) {
             String sourceKey = schemaUniqueKey(sourceSchema);
@@ -212,24 +263,16 @@ public class HiveMetaReader extends AbstractSchemaFileReader {
                 log.info("Read meta schema from cache, check the schema not change, will keep using cache schema, "
                     + "source: {}, target: {}, tp: {}", sourceKey, targetKey, tp);
 
-                return ProjectedResult.builder()
-                    .projectedRecord(project(sinkRecord, currentSchema))
-                    .needChangeSchema(false)
-                    .currentSchema(currentSchema)
-                    .build();
+                return checkAndProject(sinkRecord);
             }
-            if (!Objects.equals(sourceKey, targetKey) && !isSupportSchemaChange) {
+            if (!isSupportSchemaChange) {
                 log.info("Read meta schema from cache, check the schema changed,"
                     + "but configuration not supported schema change, will keep using cache schema, "
                     + "source:{}, target:{}, tp: {}", sourceKey, targetKey, tp);
 
                 // 不支持 schema 变更，但是应该校验修改后的数据类型是否兼容
                 schemaProjector.checkCompatibility(sourceSchema, currentSchema);
-                return ProjectedResult.builder()
-                    .projectedRecord(project(sinkRecord, currentSchema))
-                    .needChangeSchema(false)
-                    .currentSchema(currentSchema)
-                    .build();
+                return checkAndProject(sinkRecord);
             }
 
             log.info("Read meta schema from cache, check the schema changed, "
@@ -247,11 +290,7 @@ public class HiveMetaReader extends AbstractSchemaFileReader {
             log.info("Read meta schema from metastore, configuration not supported schema change, "
                 + "will keep using hive meta schema, will cache schema tp: {}", tp);
 
-            return ProjectedResult.builder()
-                .projectedRecord(project(sinkRecord, currentSchema))
-                .needChangeSchema(false)
-                .currentSchema(currentSchema)
-                .build();
+            return checkAndProject(sinkRecord);
         }
 
         // 检查是否新增加了字段，如果新增加了字段，执行 schema 变更的逻辑
@@ -262,11 +301,7 @@ public class HiveMetaReader extends AbstractSchemaFileReader {
         if (!shouldChangeSchema) {
             log.info("Read meta schema from metastore, check the schema not change, will cache schema tp: {}.", tp);
 
-            return ProjectedResult.builder()
-                .projectedRecord(project(sinkRecord, currentSchema))
-                .needChangeSchema(false)
-                .currentSchema(currentSchema)
-                .build();
+            return checkAndProject(sinkRecord);
         }
 
         // 1. 增加了字段,需要 db 执行 schema 变更
@@ -279,6 +314,7 @@ public class HiveMetaReader extends AbstractSchemaFileReader {
             .currentSchema(newestSchema)
             .build();
         currentSchema = NULL_SCHEMA;
+        checkedSourceSchema = NULL_SCHEMA;
 
         log.info("Read meta schema from metastore, check the schema changed, will lose efficacy cache's schema, tp: {}.", tp);
 
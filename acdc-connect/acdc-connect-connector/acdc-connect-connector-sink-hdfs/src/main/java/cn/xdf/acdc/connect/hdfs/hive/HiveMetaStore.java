@@ -19,19 +19,25 @@ import cn.xdf.acdc.connect.hdfs.hive.errors.HiveMetaStoreException;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.conf.HiveConf;
 import org.apache.hadoop.hive.metastore.IMetaStoreClient;
+import org.apache.hadoop.hive.metastore.Warehouse;
 import org.apache.hadoop.hive.metastore.api.AlreadyExistsException;
 import org.apache.hadoop.hive.metastore.api.Database;
+import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.metastore.api.InvalidObjectException;
 import org.apache.hadoop.hive.metastore.api.InvalidOperationException;
 import org.apache.hadoop.hive.metastore.api.MetaException;
 import org.apache.hadoop.hive.metastore.api.NoSuchObjectException;
 import org.apache.hadoop.hive.metastore.api.Partition;
+import org.apache.hadoop.hive.metastore.api.StorageDescriptor;
 import org.apache.hadoop.hive.metastore.api.UnknownDBException;
 import org.apache.hadoop.hive.ql.metadata.Table;
 import org.apache.hive.hcatalog.common.HCatUtil;
@@ -131,6 +137,67 @@ public class HiveMetaStore {
         doAction(addPartition);
     }
 
+    /**
+     * Add partitions in one metastore call, the partitions already exist are ignored.
+     * @param database database
+     * @param tableName tableName
+     * @param paths partition paths
+     * @throws HiveMetaStoreException exception on invalid partition path
+     */
+    public void addPartitions(final String database, final String tableName, final Collection<String> paths)
+        throws HiveMetaStoreException {
+        if (paths.isEmpty()) {
+            return;
+        }
+        ClientAction<Void> addPartitions = new ClientAction<Void>() {
+            @Override
+            public Void call() throws TException {
+                Table table = new Table(client.getTable(database, tableNameConverter(tableName)));
+                List<Partition> partitions = new ArrayList<>(paths.size());
+                for (String path : paths) {
+                    partitions.add(newPartition(table, path));
+                }
+                try {
+                    client.add_partitions(partitions, true, false);
+                } catch (InvalidObjectException e) {
+                    throw new HiveMetaStoreException(
+                        "Invalid partitions for " + database + "." + tableNameConverter(tableName) + ": " + paths, e
+                    );
+                }
+                return null;
+            }
+        };
+
+        doAction(addPartitions);
+    }
+
+    private Partition newPartition(final Table table, final String path) throws MetaException {
+        Map<String, String> partitionSpec = Warehouse.makeSpecFromName(path);
+        List<String> values = new ArrayList<>(table.getPartitionKeys().size());
+        for (FieldSchema partitionKey : table.getPartitionKeys()) {
+            String value = partitionSpec.get(partitionKey.getName());
+            if (value == null) {
+                throw new HiveMetaStoreException(
+                    "Invalid partition for " + table.getDbName() + "." + table.getTableName() + ": " + path
+                );
+            }
+            values.add(value);
+        }
+        // the same as the metastore appending a partition by name
+        StorageDescriptor sd = new StorageDescriptor(table.getTTable().getSd());
+        sd.setLocation(new Path(table.getDataLocation(), Warehouse.makePartPath(partitionSpec)).toString());
+        int now = (int) (System.currentTimeMillis() / 1000);
+        Partition partition = new Partition();
+        partition.setDbName(table.getDbName());
+        partition.setTableName(table.getTableName());
+        partition.setValues(values);
+        partition.setSd(sd);
+        partition.setParameters(new HashMap<>());
+        partition.setCreateTime(now);
+        partition.setLastAccessTime(now);
+        return partition;
+    }
+
     /**
      * Drop partition.
      * @param database database
@@ -22,6 +22,7 @@ import org.apache.hadoop.hive.ql.metadata.Table;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.connect.data.Schema;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -73,6 +74,14 @@ public abstract class HiveUtil {
         hiveMetaStore.addPartition(storeConfig.database(), storeConfig.table(), encodedPartition);
     }
 
+    /**
+     * Add partitions in metadata with one metastore call.
+     * @param encodedPartitions encodedPartitions
+     */
+    public void addPartitions(final Collection<String> encodedPartitions) {
+        hiveMetaStore.addPartitions(storeConfig.database(), storeConfig.table(), encodedPartitions);
+    }
+
     /**
      * Get table all partitions in metadata.
      * @return all partitions in metadata
@@ -246,6 +246,7 @@ public class AtLeastOnceTopicPartitionWriter implements TopicPartitionWriter {
         if (buffer.isEmpty()) {
             closeRecordWriter();
             clearWrittenRecordCount();
+            hiveMetaRestorer.flushPendingPartitions();
         } else {
             String msg = String.format(
                 "Error state for commit, buffer is not empty, buffer size is: ",
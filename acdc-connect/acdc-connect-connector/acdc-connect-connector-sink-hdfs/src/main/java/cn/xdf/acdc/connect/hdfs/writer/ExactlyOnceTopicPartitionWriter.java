@@ -760,6 +760,7 @@ public class ExactlyOnceTopicPartitionWriter implements TopicPartitionWriter {
         if (latestCommitted > -1) {
             offset = latestCommitted + 1;
         }
+        hiveMetaRestorer.flushPendingPartitions();
     }
 
     private long commitFile(final String encodedPartition) {
@@ -18,6 +18,7 @@ package cn.xdf.acdc.connect.hdfs.writer;
 import cn.xdf.acdc.connect.core.sink.AbstractBufferedRecords;
 import cn.xdf.acdc.connect.core.sink.AbstractBufferedWriter;
 import cn.xdf.acdc.connect.hdfs.HdfsSinkConfig;
+import cn.xdf.acdc.connect.hdfs.HdfsSinkTaskMetrics;
 import cn.xdf.acdc.connect.hdfs.HdfsWriterCoordinator;
 import java.util.Collection;
 import java.util.Map;
@@ -35,9 +36,16 @@ public class HdfsWriter extends AbstractBufferedWriter<HdfsWriterCoordinator> {
     public HdfsWriter(
         final HdfsSinkConfig sinkConfig,
         final SinkTaskContext context) {
+        this(sinkConfig, context, new HdfsSinkTaskMetrics(sinkConfig));
+    }
+
+    public HdfsWriter(
+        final HdfsSinkConfig sinkConfig,
+        final SinkTaskContext context,
+        final HdfsSinkTaskMetrics metrics) {
         super(sinkConfig);
         this.sinkConfig = sinkConfig;
-        this.hdfsWriterCoordinator = new HdfsWriterCoordinator(sinkConfig, context);
+        this.hdfsWriterCoordinator = new HdfsWriterCoordinator(sinkConfig, context, metrics);
     }
 
     @Override
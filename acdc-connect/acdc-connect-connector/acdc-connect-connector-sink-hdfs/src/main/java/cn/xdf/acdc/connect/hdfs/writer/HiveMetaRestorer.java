@@ -17,6 +17,7 @@ package cn.xdf.acdc.connect.hdfs.writer;
 
 import cn.xdf.acdc.connect.hdfs.HdfsSinkConfig;
 import cn.xdf.acdc.connect.hdfs.HdfsSinkConstants;
+import cn.xdf.acdc.connect.hdfs.HdfsSinkTaskMetrics;
 import cn.xdf.acdc.connect.hdfs.format.SchemaReader;
 import cn.xdf.acdc.connect.hdfs.format.TableSchemaAndDataStatus;
 import cn.xdf.acdc.connect.hdfs.hive.HiveMetaStore;
@@ -25,8 +26,9 @@ import cn.xdf.acdc.connect.hdfs.hive.errors.HiveMetaStoreException;
 import cn.xdf.acdc.connect.hdfs.initialize.HiveIntegrationMode;
 import cn.xdf.acdc.connect.hdfs.initialize.StoreConfig;
 import cn.xdf.acdc.connect.hdfs.partitioner.Partitioner;
-import java.util.HashSet;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.connect.data.Schema;
@@ -35,7 +37,9 @@ import org.apache.kafka.connect.errors.ConnectException;
 @Slf4j
 public class HiveMetaRestorer {
 
-    private final Set<String> syncedPartitions;
+    private final Map<String, Boolean> syncedPartitions;
+
+    private final Set<String> pendingPartitions;
 
     private final Partitioner partitioner;
 
@@ -51,12 +55,25 @@ public class HiveMetaRestorer {
 
     private final String table;
 
+    private final HdfsSinkTaskMetrics metrics;
+
     public HiveMetaRestorer(
         final HdfsSinkConfig hdfsSinkConfig,
         final StoreConfig storeConfig,
         final HiveMetaStore hiveMetaStore,
         final SchemaReader schemaReader,
         final Partitioner partitioner
+    ) {
+        this(hdfsSinkConfig, storeConfig, hiveMetaStore, schemaReader, partitioner, new HdfsSinkTaskMetrics(hdfsSinkConfig));
+    }
+
+    public HiveMetaRestorer(
+        final HdfsSinkConfig hdfsSinkConfig,
+        final StoreConfig storeConfig,
+        final HiveMetaStore hiveMetaStore,
+        final SchemaReader schemaReader,
+        final Partitioner partitioner,
+        final HdfsSinkTaskMetrics metrics
     ) {
         this.hdfsSinkConfig = hdfsSinkConfig;
         this.storeConfig = storeConfig;
@@ -65,7 +82,16 @@ public class HiveMetaRestorer {
         this.hiveIntegrationMode = HiveIntegrationMode
             .valueOf(hdfsSinkConfig.getString(HdfsSinkConfig.HIVE_INTEGRATION_MODE));
         this.partitioner = partitioner;
-        this.syncedPartitions = new HashSet<>();
+        this.metrics = metrics;
+        int maxSyncedPartitions = hdfsSinkConfig.getInt(HdfsSinkConfig.HIVE_SYNCED_PARTITIONS_MAX);
+        // access ordered, the least recently written partition is evicted first
+        this.syncedPartitions = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+                return size() > maxSyncedPartitions;
+            }
+        };
+        this.pendingPartitions = new LinkedHashSet<>();
         this.table = new StringBuilder()
             .append(storeConfig.database())
             .append(HdfsSinkConstants.DB_SEPARATOR)
@@ -74,45 +100,55 @@ public class HiveMetaRestorer {
     }
 
     /**
-     *  Repair hive table meta data partition.
+     *  Collect the partition to be registered in hive table meta data, it is registered by {@link #flushPendingPartitions()}.
      *  @param partition partition path
      */
-    public void addPartitionIfAbsent(final String partition) {
+    public synchronized void addPartitionIfAbsent(final String partition) {
         if (!hiveIntegrationMode.isIntegrationHive()) {
             return;
         }
-        HiveUtil hiveUtil = schemaReader
-            .getHiveFactory()
-            .createHiveUtil(
-                storeConfig,
-                hdfsSinkConfig,
-                hiveMetaStore
-            );
-
-        if (syncedPartitions.contains(partition)) {
+        if (syncedPartitions.get(partition) != null) {
             return;
         }
+        if (pendingPartitions.add(partition)) {
+            metrics.onPartitionPending();
+        }
+    }
 
-        syncedPartitions.add(partition);
-        hiveUtil.addPartition(partition);
+    /**
+     *  Register all of the collected partitions in hive table meta data with one metastore call.
+     *  @throws ConnectException Exception on register partitions
+     */
+    public synchronized void flushPendingPartitions() throws ConnectException {
+        if (!hiveIntegrationMode.isIntegrationHive() || pendingPartitions.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            createHiveUtil().addPartitions(pendingPartitions);
+        } catch (HiveMetaStoreException e) {
+            log.error("Register partitions exception, table: {}, partitions: {}", table, pendingPartitions, e);
+            throw new ConnectException(e);
+        }
+        for (String partition : pendingPartitions) {
+            syncedPartitions.put(partition, Boolean.TRUE);
+        }
+        metrics.onPartitionsRegistered(pendingPartitions.size());
+        log.info("Register partitions complete, table: {}, partition count: {}, cost: {}",
+            table, pendingPartitions.size(), System.currentTimeMillis() - start);
+        pendingPartitions.clear();
     }
 
     /**
      * Repair hive table schema.
      * @param newestSchema The current newest kafka record schema
      */
-    public void repairHiveTable(final Schema newestSchema) {
+    public synchronized void repairHiveTable(final Schema newestSchema) {
         if (!hiveIntegrationMode.isIntegrationHive()) {
             return;
         }
         try {
-            HiveUtil hiveUtil = schemaReader
-                .getHiveFactory()
-                .createHiveUtil(
-                    storeConfig,
-                    hdfsSinkConfig,
-                    hiveMetaStore
-                );
+            HiveUtil hiveUtil = createHiveUtil();
             hiveUtil.createTable(newestSchema, partitioner);
             hiveUtil.alterSchema(newestSchema);
             log.info("Repair table complete, table: {}, partition fields: {},newest schema: {} ",
@@ -132,23 +168,14 @@ public class HiveMetaRestorer {
             return;
         }
         try {
-            HiveUtil hiveUtil = schemaReader
-                .getHiveFactory()
-                .createHiveUtil(
-                    storeConfig,
-                    hdfsSinkConfig,
-                    hiveMetaStore
-                );
+            HiveUtil hiveUtil = createHiveUtil();
             TableSchemaAndDataStatus tableSchemaAndDataStatus = schemaReader.getTableSchemaAndDataStatus();
             if (tableSchemaAndDataStatus.isExistData()) {
                 long start = System.currentTimeMillis();
                 hiveUtil.createTable(tableSchemaAndDataStatus.getSchema(), partitioner);
-                List<String> partitions = hiveUtil.listPartitions();
-                for (String partition : tableSchemaAndDataStatus.getDataPartitions()) {
-                    if (!partitions.contains(partition)) {
-                        hiveUtil.addPartition(partition);
-                    }
-                }
+                Set<String> partitions = new LinkedHashSet<>(tableSchemaAndDataStatus.getDataPartitions());
+                partitions.removeAll(hiveUtil.listPartitions());
+                hiveUtil.addPartitions(partitions);
 
                 log.info("Sync hive table complete, "
                         + "table: {}, "
@@ -168,4 +195,14 @@ public class HiveMetaRestorer {
             throw new ConnectException(e);
         }
     }
+
+    private HiveUtil createHiveUtil() {
+        return schemaReader
+            .getHiveFactory()
+            .createHiveUtil(
+                storeConfig,
+                hdfsSinkConfig,
+                hiveMetaStore
+            );
+    }
 }
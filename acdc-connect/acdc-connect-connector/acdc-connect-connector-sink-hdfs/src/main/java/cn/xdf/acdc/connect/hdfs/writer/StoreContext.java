@@ -16,6 +16,7 @@
 package cn.xdf.acdc.connect.hdfs.writer;
 
 import cn.xdf.acdc.connect.hdfs.HdfsSinkConfig;
+import cn.xdf.acdc.connect.hdfs.HdfsSinkTaskMetrics;
 import cn.xdf.acdc.connect.hdfs.format.Format;
 import cn.xdf.acdc.connect.hdfs.format.RecordWriterProvider;
 import cn.xdf.acdc.connect.hdfs.format.SchemaReader;
@@ -107,8 +108,24 @@ public class StoreContext {
      * @throws IOException exception on create store component collection
      */
     public static StoreContext buildContext(final HdfsSinkConfig hdfsSinkConf, final Configuration hadoopConf) throws IOException {
+        return buildContext(hdfsSinkConf, hadoopConf, new HdfsSinkTaskMetrics(hdfsSinkConf));
+    }
+
+    /**
+     * Build store context.
+     * @param hdfsSinkConf  config
+     * @param hadoopConf  hadoop config
+     * @param metrics  task metrics
+     * @return store context
+     * @throws IOException exception on create store component collection
+     */
+    public static StoreContext buildContext(
+        final HdfsSinkConfig hdfsSinkConf,
+        final Configuration hadoopConf,
+        final HdfsSinkTaskMetrics metrics
+    ) throws IOException {
         HiveMetaStore hiveMetaStore = createMetaStore(hdfsSinkConf, hadoopConf);
-        return buildContext(hdfsSinkConf, hiveMetaStore);
+        return buildContext(hdfsSinkConf, hiveMetaStore, metrics);
     }
 
     /**
@@ -122,6 +139,22 @@ public class StoreContext {
         final HdfsSinkConfig hdfsSinkConf,
         final HiveMetaStore hiveMetaStore
     ) throws IOException {
+        return buildContext(hdfsSinkConf, hiveMetaStore, new HdfsSinkTaskMetrics(hdfsSinkConf));
+    }
+
+    /**
+     * Build store context.
+     * @param hdfsSinkConf  config
+     * @param hiveMetaStore  hive metastore
+     * @param metrics  task metrics
+     * @return store context
+     * @throws IOException exception on create store component collection
+     */
+    public static StoreContext buildContext(
+        final HdfsSinkConfig hdfsSinkConf,
+        final HiveMetaStore hiveMetaStore,
+        final HdfsSinkTaskMetrics metrics
+    ) throws IOException {
 
         StoreConfig storeConf = createStoreConfig(hdfsSinkConf, hiveMetaStore);
 
@@ -129,7 +162,7 @@ public class StoreContext {
 
         HdfsFileOperator fileOperator = createHdfsFileOperator(hdfsSinkConf, storeConf);
 
-        SchemaReader schemaReader = createSchemaReader(hdfsSinkConf, storeConf, fileOperator, hiveMetaStore);
+        SchemaReader schemaReader = createSchemaReader(hdfsSinkConf, storeConf, fileOperator, hiveMetaStore, metrics);
 
         RecordWriterProvider writerProvider = createRecordWriterProvider(hdfsSinkConf, storeConf, fileOperator);
 
@@ -140,7 +173,8 @@ public class StoreContext {
             storeConf,
             hiveMetaStore,
             schemaReader,
-            partitioner
+            partitioner,
+            metrics
         );
 
         return StoreContext.builder()
@@ -172,7 +206,8 @@ public class StoreContext {
         final StoreConfig storeConf,
         final HiveMetaStore hiveMetaStore,
         final SchemaReader schemaReader,
-        final Partitioner partitioner
+        final Partitioner partitioner,
+        final HdfsSinkTaskMetrics metrics
     ) {
         Preconditions.checkNotNull(partitioner, "Partitioner can not be null.");
         Preconditions.checkNotNull(partitioner, "Executor can not be null.");
@@ -183,7 +218,8 @@ public class StoreContext {
             storeConf,
             hiveMetaStore,
             schemaReader,
-            partitioner
+            partitioner,
+            metrics
         );
     }
 
@@ -225,7 +261,8 @@ public class StoreContext {
         final HdfsSinkConfig hdfsSinkConf,
         final StoreConfig storeConf,
         final HdfsFileOperator fileOperator,
-        final HiveMetaStore hiveMetaStore
+        final HiveMetaStore hiveMetaStore,
+        final HdfsSinkTaskMetrics metrics
     ) {
         HiveIntegrationMode hiveIntegrationMode = HiveIntegrationMode
             .valueOf(hdfsSinkConf.getString(HdfsSinkConfig.HIVE_INTEGRATION_MODE));
@@ -238,7 +275,8 @@ public class StoreContext {
                 hdfsSinkConf,
                 storeConf,
                 fileOperator,
-                hiveMetaStore
+                hiveMetaStore,
+                metrics
             );
         }
 
@@ -251,7 +289,7 @@ public class StoreContext {
             case PARQUET:
                 return new ParquetFileReader(hdfsSinkConf, storeConf, fileOperator);
             case TEXT:
-                return new HiveMetaReader(hdfsSinkConf, storeConf, fileOperator, hiveMetaStore);
+                return new HiveMetaReader(hdfsSinkConf, storeConf, fileOperator, hiveMetaStore, metrics);
             default:
                 throw new ConfigException("UNKNOWN Format type:" + storeConf.format());
         }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.hdfs;
+
+import cn.xdf.acdc.connect.hdfs.StorageSinkTestBase.MockSinkTaskContext;
+import java.util.Collections;
+import org.apache.kafka.common.TopicPartition;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ {@link DeferredSinkTaskContext}.
+ */
+public class DeferredSinkTaskContextTest {
+
+    private static final TopicPartition TOPIC_PARTITION = new TopicPartition("topic", 0);
+
+    private final MockSinkTaskContext delegate = new MockSinkTaskContext(Collections.singleton(TOPIC_PARTITION));
+
+    private final DeferredSinkTaskContext context = new DeferredSinkTaskContext(delegate);
+
+    @Test
+    public void testShouldReplayDeferredCallsInOrder() throws InterruptedException {
+        context.defer();
+        Thread writer = new Thread(() -> {
+            context.offset(TOPIC_PARTITION, 1L);
+            context.timeout(100L);
+            context.offset(TOPIC_PARTITION, 2L);
+        });
+        writer.start();
+        writer.join();
+        assertTrue(delegate.offsets().isEmpty());
+        assertEquals(-1L, delegate.timeout());
+
+        context.replay();
+        assertEquals(Long.valueOf(2L), delegate.offsets().get(TOPIC_PARTITION));
+        assertEquals(100L, delegate.timeout());
+    }
+
+    @Test
+    public void testShouldCallDelegateDirectlyWhenNotDeferring() {
+        context.offset(TOPIC_PARTITION, 3L);
+        assertEquals(Long.valueOf(3L), delegate.offsets().get(TOPIC_PARTITION));
+        assertEquals(Collections.singleton(TOPIC_PARTITION), context.assignment());
+    }
+}
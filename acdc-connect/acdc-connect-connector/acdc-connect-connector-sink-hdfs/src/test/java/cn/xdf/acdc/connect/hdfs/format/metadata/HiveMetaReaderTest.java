@@ -15,6 +15,7 @@
 
 package cn.xdf.acdc.connect.hdfs.format.metadata;
 
+import cn.xdf.acdc.connect.hdfs.HdfsSinkTaskMetrics;
 import cn.xdf.acdc.connect.hdfs.format.ProjectedResult;
 import cn.xdf.acdc.connect.hdfs.format.RecordWriter;
 import cn.xdf.acdc.connect.hdfs.format.RecordWriterProvider;
@@ -35,9 +36,11 @@ import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
 import org.apache.hadoop.hive.ql.metadata.Table;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.SinkRecord;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
@@ -54,6 +57,8 @@ public class HiveMetaReaderTest extends HiveTextTestBase {
 
     private RecordWriterProvider recordWriterProvider;
 
+    private HdfsSinkTaskMetrics metrics;
+
     @Before
     public void setUp() throws Exception {
         super.setUp();
@@ -69,11 +74,13 @@ public class HiveMetaReaderTest extends HiveTextTestBase {
             storeConfig,
             connectorConfig
         );
+        this.metrics = new HdfsSinkTaskMetrics(connectorConfig);
         this.schemaReader = new HiveMetaReader(
             connectorConfig,
             storeConfig,
             fileOperator,
-            hiveMetaStore);
+            hiveMetaStore,
+            metrics);
         this.hiveUtil = schemaReader.getHiveFactory().createHiveUtil(storeConfig, connectorConfig, hiveMetaStore);
         recordWriterProvider = new TextRecordAppendWriterProvider(fileOperator, storeConfig);
     }
@@ -218,6 +225,31 @@ public class HiveMetaReaderTest extends HiveTextTestBase {
         assertTrue(!projectRecord.isNeedChangeSchema());
     }
 
+    @Test
+    public void testProjectRecordShouldSkipCheckAndProjectionWithCheckedSchema() throws HiveException, IOException {
+        super.cleanHive();
+        super.createDefaultTable();
+        initComponent();
+        setSupportSchemaChange(schemaReader, true);
+
+        SinkRecord sinkRecord = createPromotableSchemaSinkRecord();
+        ProjectedResult first = schemaReader.projectRecord(TOPIC_PARTITION, sinkRecord);
+        ProjectedResult second = schemaReader.projectRecord(TOPIC_PARTITION, sinkRecord);
+        assertSame(first.getCurrentSchema(), second.getCurrentSchema());
+        assertEquals(first.getProjectedRecord().value(), second.getProjectedRecord().value());
+        assertEquals(1, metrics.getSchemaTransitionCount());
+        assertEquals(2, metrics.getSchemaProjectionCount());
+
+        // the schema of a projected record is the table schema, it's written without projection
+        Struct projected = (Struct) first.getProjectedRecord().value();
+        SinkRecord sameSchemaRecord = new SinkRecord(TOPIC, PARTITION, null, null, projected.schema(), projected, 1L);
+        assertSame(sameSchemaRecord, schemaReader.projectRecord(TOPIC_PARTITION, sameSchemaRecord).getProjectedRecord());
+        assertSame(sameSchemaRecord, schemaReader.projectRecord(TOPIC_PARTITION, sameSchemaRecord).getProjectedRecord());
+        assertEquals(2, metrics.getSchemaTransitionCount());
+        assertEquals(2, metrics.getSchemaProjectionCount());
+        assertEquals(2, metrics.getSchemaProjectionSkipCount());
+    }
+
     private void setSupportSchemaChange(final SchemaReader schemaReader, boolean isSupportSchemaChange) {
         try {
             Class<?> clazz = schemaReader.getClass();
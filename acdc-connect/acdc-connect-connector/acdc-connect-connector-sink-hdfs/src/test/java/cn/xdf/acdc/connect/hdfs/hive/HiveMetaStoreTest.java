@@ -16,13 +16,16 @@
 package cn.xdf.acdc.connect.hdfs.hive;
 
 import cn.xdf.acdc.connect.hdfs.HdfsSinkConfig;
+import cn.xdf.acdc.connect.hdfs.HdfsSinkTaskMetrics;
 import cn.xdf.acdc.connect.hdfs.common.Schemas;
 import cn.xdf.acdc.connect.hdfs.initialize.StoreConfig;
 import cn.xdf.acdc.connect.hdfs.partitioner.Partitioner;
 import cn.xdf.acdc.connect.hdfs.partitioner.PartitionerConfig;
 import cn.xdf.acdc.connect.hdfs.storage.StorageSinkConnectorConfig;
+import cn.xdf.acdc.connect.hdfs.writer.HiveMetaRestorer;
 import cn.xdf.acdc.connect.hdfs.writer.StoreContext;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
@@ -34,6 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.hadoop.hive.metastore.api.FieldSchema;
 import org.apache.hadoop.hive.ql.metadata.HiveException;
 import org.apache.hadoop.hive.ql.metadata.Table;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Test;
@@ -89,4 +93,48 @@ public class HiveMetaStoreTest extends HiveTestBase {
         cl.await();
         assertTrue(runSuccessCounter.get() == runTimes * threadCount);
     }
+
+    @Test
+    public void testAddPartitionsShouldIgnoreExistingPartitions() throws HiveException, IOException {
+        final StoreContext storeContext = StoreContext.buildContext(connectorConfig, hiveMetaStore);
+        final StoreConfig storeConfig = storeContext.getStoreConfig();
+        final List<FieldSchema> fieldSchemaList = Schemas.createHivePrimitiveSchemaWithAllFieldType();
+        hiveMetaStore.createTable(new HiveTable().createTable(url, fieldSchemaList, storeContext.getPartitioner(), storeConfig.textSeparator()));
+
+        hiveMetaStore.addPartition(storeConfig.database(), storeConfig.table(), "dt=20211001");
+        hiveMetaStore.addPartitions(storeConfig.database(), storeConfig.table(), Arrays.asList("dt=20211001", "dt=20211002", "dt=20211003"));
+
+        List<String> partitions = hiveMetaStore.listPartitions(storeConfig.database(), storeConfig.table(), (short) -1);
+        assertEquals(3, partitions.size());
+        assertTrue(partitions.contains(storeConfig.tablePath() + "/dt=20211002"));
+    }
+
+    @Test
+    public void testRestorerShouldRegisterPendingPartitionsWithOneCallWhenFlushed() throws HiveException, IOException {
+        final StoreContext storeContext = StoreContext.buildContext(connectorConfig, hiveMetaStore);
+        final StoreConfig storeConfig = storeContext.getStoreConfig();
+        final List<FieldSchema> fieldSchemaList = Schemas.createHivePrimitiveSchemaWithAllFieldType();
+        hiveMetaStore.createTable(new HiveTable().createTable(url, fieldSchemaList, storeContext.getPartitioner(), storeConfig.textSeparator()));
+        final HdfsSinkTaskMetrics metrics = new HdfsSinkTaskMetrics(connectorConfig);
+        final HiveMetaRestorer restorer = new HiveMetaRestorer(
+            connectorConfig, storeConfig, hiveMetaStore, storeContext.getSchemaReader(), storeContext.getPartitioner(), metrics);
+
+        for (int i = 0; i < 10; i++) {
+            restorer.addPartitionIfAbsent("dt=2021100" + (i % 2));
+        }
+        assertEquals(2, metrics.getPendingPartitionCount());
+        assertTrue(hiveMetaStore.listPartitions(storeConfig.database(), storeConfig.table(), (short) -1).isEmpty());
+
+        restorer.flushPendingPartitions();
+        assertEquals(0, metrics.getPendingPartitionCount());
+        assertEquals(2, metrics.getRegisteredPartitionCount());
+        assertEquals(1, metrics.getPartitionRegistrationCount());
+        assertEquals(2, hiveMetaStore.listPartitions(storeConfig.database(), storeConfig.table(), (short) -1).size());
+
+        // synced partitions are not registered again
+        restorer.addPartitionIfAbsent("dt=20211001");
+        restorer.flushPendingPartitions();
+        assertEquals(0, metrics.getPendingPartitionCount());
+        assertEquals(1, metrics.getPartitionRegistrationCount());
+    }
 }
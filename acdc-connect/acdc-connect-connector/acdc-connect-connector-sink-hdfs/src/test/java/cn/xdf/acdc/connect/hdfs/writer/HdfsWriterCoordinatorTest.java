@@ -16,6 +16,7 @@
 package cn.xdf.acdc.connect.hdfs.writer;
 
 import cn.xdf.acdc.connect.hdfs.HdfsSinkConfig;
+import cn.xdf.acdc.connect.hdfs.HdfsSinkTaskMetrics;
 import cn.xdf.acdc.connect.hdfs.HdfsWriterCoordinator;
 import cn.xdf.acdc.connect.hdfs.common.StoreConstants;
 import cn.xdf.acdc.connect.hdfs.format.Format;
@@ -36,8 +37,12 @@ import cn.xdf.acdc.connect.hdfs.initialize.StoreConfig;
 import cn.xdf.acdc.connect.hdfs.partitioner.Partitioner;
 import cn.xdf.acdc.connect.hdfs.partitioner.PartitionerConfig;
 import cn.xdf.acdc.connect.hdfs.storage.StorageSinkConnectorConfig;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.sink.SinkRecord;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -119,6 +124,33 @@ public class HdfsWriterCoordinatorTest extends HiveTextTestBase {
         tpWriter.close();
     }
 
+    @Test
+    public void testAtLeastOnceTextFormatWithWriteParallelism() throws Exception {
+        setUp();
+        Map<String, String> props = createProps();
+        props.put(HdfsSinkConfig.HIVE_INTEGRATION_MODE, HiveIntegrationMode.WITH_HIVE_META_DATA.name());
+        props.put(HdfsSinkConfig.STORAGE_FORMAT, Format.TEXT.name());
+        props.put(HdfsSinkConfig.STORAGE_MODE, StorageMode.AT_LEAST_ONCE.name());
+        props.put(HdfsSinkConfig.WRITE_PARALLELISM, "2");
+        HdfsSinkConfig hdfsSinkConfig = new HdfsSinkConfig(props);
+        HdfsSinkTaskMetrics metrics = new HdfsSinkTaskMetrics(hdfsSinkConfig);
+        HdfsWriterCoordinator writerCoordinator = new HdfsWriterCoordinator(hdfsSinkConfig, context, metrics);
+        Partitioner partitioner = writerCoordinator.getStoreContext().getPartitioner();
+        Set<TopicPartition> partitions = new HashSet<>(Arrays.asList(TOPIC_PARTITION, TOPIC_PARTITION2));
+        writerCoordinator.write(createSinkRecords(3, 0, partitions));
+
+        for (TopicPartition tp : partitions) {
+            AtLeastOnceTopicPartitionWriter tpWriter = (AtLeastOnceTopicPartitionWriter) writerCoordinator.getBucketWriter(tp);
+            assertTrue(tpWriter.getEncodePartitionWriters().get(partitioner.encodePartition(null)).fileSize() != 0);
+            assertEquals(3L, tpWriter.offset());
+            assertTrue(metrics.getPartitionLastWriteTimeMs().containsKey(tp.toString()));
+        }
+        assertEquals(0, metrics.getPartitionWriteQueueDepth());
+        writerCoordinator.commit();
+        writerCoordinator.close();
+        writerCoordinator.stop();
+    }
+
     @Test
     public void testExactlyOnceOrcFormat() throws Exception {
         setUp();
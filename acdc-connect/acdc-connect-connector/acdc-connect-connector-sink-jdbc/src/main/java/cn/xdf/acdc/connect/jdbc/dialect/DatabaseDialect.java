@@ -421,6 +421,49 @@ public interface DatabaseDialect extends ConnectionProvider {
         return buildUpsertQueryStatement(table, keyColumns, nonKeyColumns);
     }
 
+    /**
+     * Get the max number of rows a multi-row statement of the insert mode can write, which is usually limited by the
+     * max number of variables of a statement.
+     *
+     * @param insertMode  the insert mode; may not be null
+     * @param columnCount the number of columns of a row
+     * @return the max number of rows; 1 if the dialect does not support multi-row statements for the insert mode
+     */
+    default int maxMultiRowStatementRows(
+            InsertMode insertMode,
+            int columnCount
+    ) {
+        return 1;
+    }
+
+    /**
+     * Build the multi-row INSERT or UPSERT prepared statement expression, which writes the given number of rows with a
+     * single statement, eg: INSERT ... VALUES (...),(...). Variables of a row are in the same order as the single row
+     * statement of the insert mode, and rows follow one after another.
+     *
+     * <p>The dialect supporting multi-row statements should also override
+     * {@link #maxMultiRowStatementRows(InsertMode, int)}.
+     *
+     * @param insertMode    the insert mode; may not be null
+     * @param table         the identifier of the table; may not be null
+     * @param keyColumns    the identifiers of the columns in the primary/unique key; may not be null but may be empty
+     * @param nonKeyColumns the identifiers of the other columns in the table; may not be null but may be empty
+     * @param definition    the table definition; may be null if unknown
+     * @param rowCount      the number of rows
+     * @return the multi-row statement; may not be null
+     * @throws UnsupportedOperationException if the dialect does not support multi-row statements for the insert mode
+     */
+    default String buildMultiRowStatement(
+            InsertMode insertMode,
+            TableId table,
+            Collection<ColumnId> keyColumns,
+            Collection<ColumnId> nonKeyColumns,
+            TableDefinition definition,
+            int rowCount
+    ) {
+        throw new UnsupportedOperationException();
+    }
+
     /**
      * Build the DELETE prepared statement expression for the given table and its columns. Variables for each key column
      * should also appear in the WHERE clause of the statement.
@@ -589,6 +632,19 @@ public interface DatabaseDialect extends ConnectionProvider {
          * @throws SQLException if there is a problem binding values into the statement
          */
         void bindRecord(SinkRecord record) throws SQLException;
+
+        /**
+         * Bind the values in the supplied record from the given variable, without adding the record to the batch of the
+         * statement. It is used to bind a row of the multi-row statement.
+         *
+         * @param record the sink record with values to be bound into the statement; never null
+         * @param index  the 1-based index of the first variable of the record
+         * @return the index of the variable next to the record
+         * @throws SQLException if there is a problem binding values into the statement
+         */
+        default int bindRecord(SinkRecord record, int index) throws SQLException {
+            throw new UnsupportedOperationException();
+        }
     }
 
     /**
@@ -1325,6 +1325,22 @@ public class GenericDatabaseDialect implements DatabaseDialect {
         clob.free();
     }
 
+    /**
+     * Get the max number of rows of a multi-row INSERT or UPSERT statement, which is limited by the max number of
+     * variables of a statement.
+     *
+     * @param insertMode   the insert mode
+     * @param columnCount  the number of columns of a row
+     * @param maxVariables the max number of variables of a statement
+     * @return the max number of rows; 1 for other insert modes
+     */
+    protected int maxMultiRowStatementRows(final InsertMode insertMode, final int columnCount, final int maxVariables) {
+        if (insertMode != InsertMode.INSERT && insertMode != InsertMode.UPSERT || columnCount <= 0) {
+            return 1;
+        }
+        return Math.max(1, maxVariables / columnCount);
+    }
+
     @Override
     @SuppressWarnings("deprecation")
     public String buildInsertStatement(
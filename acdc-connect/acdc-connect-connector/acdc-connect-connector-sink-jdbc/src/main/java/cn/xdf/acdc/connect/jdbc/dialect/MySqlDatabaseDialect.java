@@ -16,10 +16,12 @@
 package cn.xdf.acdc.connect.jdbc.dialect;
 
 import cn.xdf.acdc.connect.core.sink.metadata.SinkRecordField;
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.util.ColumnId;
 import cn.xdf.acdc.connect.jdbc.util.ExpressionBuilder;
 import cn.xdf.acdc.connect.jdbc.util.ExpressionBuilder.Transform;
 import cn.xdf.acdc.connect.jdbc.util.IdentifierRules;
+import cn.xdf.acdc.connect.jdbc.util.TableDefinition;
 import cn.xdf.acdc.connect.jdbc.util.TableId;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.config.AbstractConfig;
@@ -40,6 +42,9 @@ import java.util.Collection;
 @Slf4j
 public class MySqlDatabaseDialect extends GenericDatabaseDialect {
 
+    // the max number of placeholders of a prepared statement
+    private static final int MAX_STATEMENT_VARIABLES = 65535;
+
     /**
      * Create a new dialect instance with the given connector configuration.
      *
@@ -117,14 +122,6 @@ public class MySqlDatabaseDialect extends GenericDatabaseDialect {
             final Collection<ColumnId> keyColumns,
             final Collection<ColumnId> nonKeyColumns
     ) {
-        //MySql doesn't support SQL 2003:merge so here how the upsert is handled
-        final Transform<ColumnId> transform = (builder, col) -> {
-            builder.appendColumnName(col.name());
-            builder.append("=values(");
-            builder.appendColumnName(col.name());
-            builder.append(")");
-        };
-
         ExpressionBuilder builder = expressionBuilder();
         builder.append("insert into ");
         builder.append(table);
@@ -135,12 +132,61 @@ public class MySqlDatabaseDialect extends GenericDatabaseDialect {
                 .of(keyColumns, nonKeyColumns);
         builder.append(") values(");
         builder.appendMultiple(",", "?", keyColumns.size() + nonKeyColumns.size());
-        builder.append(") on duplicate key update ");
+        builder.append(")");
+        appendOnDuplicateKeyUpdate(builder, keyColumns, nonKeyColumns);
+        return builder.toString();
+    }
+
+    @Override
+    public int maxMultiRowStatementRows(final InsertMode insertMode, final int columnCount) {
+        return maxMultiRowStatementRows(insertMode, columnCount, MAX_STATEMENT_VARIABLES);
+    }
+
+    @Override
+    public String buildMultiRowStatement(
+            final InsertMode insertMode,
+            final TableId table,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns,
+            final TableDefinition definition,
+            final int rowCount
+    ) {
+        if (insertMode != InsertMode.INSERT && insertMode != InsertMode.UPSERT) {
+            throw new UnsupportedOperationException();
+        }
+        ExpressionBuilder builder = expressionBuilder();
+        builder.append("insert into ");
+        builder.append(table);
+        builder.append("(");
+        builder.appendList()
+                .delimitedBy(",")
+                .transformedBy(ExpressionBuilder.columnNames())
+                .of(keyColumns, nonKeyColumns);
+        builder.append(") values");
+        builder.appendValueRows(rowCount, ExpressionBuilder.placeholderInsteadOfColumnNames("?"), keyColumns, nonKeyColumns);
+        if (insertMode == InsertMode.UPSERT) {
+            appendOnDuplicateKeyUpdate(builder, keyColumns, nonKeyColumns);
+        }
+        return builder.toString();
+    }
+
+    private void appendOnDuplicateKeyUpdate(
+            final ExpressionBuilder builder,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns
+    ) {
+        //MySql doesn't support SQL 2003:merge so here how the upsert is handled
+        final Transform<ColumnId> transform = (expressionBuilder, col) -> {
+            expressionBuilder.appendColumnName(col.name());
+            expressionBuilder.append("=values(");
+            expressionBuilder.appendColumnName(col.name());
+            expressionBuilder.append(")");
+        };
+        builder.append(" on duplicate key update ");
         builder.appendList()
                 .delimitedBy(",")
                 .transformedBy(transform)
                 .of(nonKeyColumns.isEmpty() ? keyColumns : nonKeyColumns);
-        return builder.toString();
     }
 
     @Override
@@ -16,6 +16,7 @@
 package cn.xdf.acdc.connect.jdbc.dialect;
 
 import cn.xdf.acdc.connect.core.sink.metadata.SinkRecordField;
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.util.ColumnDefinition;
 import cn.xdf.acdc.connect.jdbc.util.ColumnId;
 import cn.xdf.acdc.connect.jdbc.util.ColumnMapping;
@@ -60,6 +61,9 @@ public class PostgreSqlDatabaseDialect extends GenericDatabaseDialect {
 
     static final String UUID_TYPE_NAME = "uuid";
 
+    // the max number of parameters of a statement in the extended query protocol
+    private static final int MAX_STATEMENT_VARIABLES = 32767;
+
     /**
      * Define the PG datatypes that require casting upon insert/update statements.
      */
@@ -303,12 +307,6 @@ public class PostgreSqlDatabaseDialect extends GenericDatabaseDialect {
             final Collection<ColumnId> nonKeyColumns,
             final TableDefinition definition
     ) {
-        final Transform<ColumnId> transform = (builder, col) -> {
-            builder.appendColumnName(col.name())
-                    .append("=EXCLUDED.")
-                    .appendColumnName(col.name());
-        };
-
         ExpressionBuilder builder = expressionBuilder();
         builder.append("INSERT INTO ");
         builder.append(table);
@@ -322,7 +320,56 @@ public class PostgreSqlDatabaseDialect extends GenericDatabaseDialect {
                 .delimitedBy(",")
                 .transformedBy(this.columnValueVariables(definition))
                 .of(keyColumns, nonKeyColumns);
-        builder.append(") ON CONFLICT (");
+        builder.append(")");
+        appendOnConflict(builder, keyColumns, nonKeyColumns);
+        return builder.toString();
+    }
+
+    @Override
+    public int maxMultiRowStatementRows(final InsertMode insertMode, final int columnCount) {
+        return maxMultiRowStatementRows(insertMode, columnCount, MAX_STATEMENT_VARIABLES);
+    }
+
+    @Override
+    public String buildMultiRowStatement(
+            final InsertMode insertMode,
+            final TableId table,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns,
+            final TableDefinition definition,
+            final int rowCount
+    ) {
+        if (insertMode != InsertMode.INSERT && insertMode != InsertMode.UPSERT) {
+            throw new UnsupportedOperationException();
+        }
+        ExpressionBuilder builder = expressionBuilder();
+        builder.append("INSERT INTO ");
+        builder.append(table);
+        builder.append(" (");
+        builder.appendList()
+                .delimitedBy(",")
+                .transformedBy(ExpressionBuilder.columnNames())
+                .of(keyColumns, nonKeyColumns);
+        builder.append(") VALUES ");
+        builder.appendValueRows(rowCount, this.columnValueVariables(definition), keyColumns, nonKeyColumns);
+        if (insertMode == InsertMode.UPSERT) {
+            // a row can not be affected twice by one statement, rows with the same key must not be in the same statement
+            appendOnConflict(builder, keyColumns, nonKeyColumns);
+        }
+        return builder.toString();
+    }
+
+    private void appendOnConflict(
+            final ExpressionBuilder builder,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns
+    ) {
+        final Transform<ColumnId> transform = (expressionBuilder, col) -> {
+            expressionBuilder.appendColumnName(col.name())
+                    .append("=EXCLUDED.")
+                    .appendColumnName(col.name());
+        };
+        builder.append(" ON CONFLICT (");
         builder.appendList()
                 .delimitedBy(",")
                 .transformedBy(ExpressionBuilder.columnNames())
@@ -336,7 +383,6 @@ public class PostgreSqlDatabaseDialect extends GenericDatabaseDialect {
                     .transformedBy(transform)
                     .of(nonKeyColumns);
         }
-        return builder.toString();
     }
 
     @Override
@@ -17,6 +17,7 @@ package cn.xdf.acdc.connect.jdbc.dialect;
 
 import cn.xdf.acdc.connect.core.sink.metadata.SinkRecordField;
 import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig;
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.util.ColumnDefinition;
 import cn.xdf.acdc.connect.jdbc.util.ColumnDefinition.Mutability;
 import cn.xdf.acdc.connect.jdbc.util.ColumnDefinition.Nullability;
@@ -25,6 +26,7 @@ import cn.xdf.acdc.connect.jdbc.util.ColumnMapping;
 import cn.xdf.acdc.connect.jdbc.util.DateTimeUtils;
 import cn.xdf.acdc.connect.jdbc.util.ExpressionBuilder;
 import cn.xdf.acdc.connect.jdbc.util.IdentifierRules;
+import cn.xdf.acdc.connect.jdbc.util.TableDefinition;
 import cn.xdf.acdc.connect.jdbc.util.TableId;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.config.AbstractConfig;
@@ -66,6 +68,12 @@ public class SqlServerDatabaseDialect extends GenericDatabaseDialect {
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern(DATE_TIME_FORMAT);
 
+    // a statement can have at most 2100 parameters, some of them may be used by the driver
+    private static final int MAX_STATEMENT_VARIABLES = 2000;
+
+    // the max number of rows of the table value constructor in an INSERT statement
+    private static final int MAX_INSERT_VALUES_ROWS = 1000;
+
     private static final int MSSQL_2016_VERSION = 13;
 
     private static final int PRE_MSSQL_2016_VERSION = 12;
@@ -300,7 +308,64 @@ public class SqlServerDatabaseDialect extends GenericDatabaseDialect {
                 .delimitedBy(", ")
                 .transformedBy(ExpressionBuilder.columnNamesWithPrefix("? AS "))
                 .of(keyColumns, nonKeyColumns);
-        builder.append(") AS incoming on (");
+        builder.append(") AS incoming");
+        appendMergeActions(builder, keyColumns, nonKeyColumns);
+        return builder.toString();
+    }
+
+    @Override
+    public int maxMultiRowStatementRows(final InsertMode insertMode, final int columnCount) {
+        int maxRows = maxMultiRowStatementRows(insertMode, columnCount, MAX_STATEMENT_VARIABLES);
+        return insertMode == InsertMode.INSERT ? Math.min(maxRows, MAX_INSERT_VALUES_ROWS) : maxRows;
+    }
+
+    @Override
+    public String buildMultiRowStatement(
+            final InsertMode insertMode,
+            final TableId table,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns,
+            final TableDefinition definition,
+            final int rowCount
+    ) {
+        ExpressionBuilder builder = expressionBuilder();
+        switch (insertMode) {
+            case INSERT:
+                builder.append("insert into ");
+                builder.append(table);
+                builder.append("(");
+                builder.appendList()
+                        .delimitedBy(",")
+                        .transformedBy(ExpressionBuilder.columnNames())
+                        .of(keyColumns, nonKeyColumns);
+                builder.append(") values ");
+                builder.appendValueRows(rowCount, ExpressionBuilder.placeholderInsteadOfColumnNames("?"), keyColumns, nonKeyColumns);
+                return builder.toString();
+            case UPSERT:
+                // a target row can not be matched by more than one source row, rows with the same key must not be in the same statement
+                builder.append("merge into ");
+                builder.append(table);
+                builder.append(" with (HOLDLOCK) AS target using (values ");
+                builder.appendValueRows(rowCount, ExpressionBuilder.placeholderInsteadOfColumnNames("?"), keyColumns, nonKeyColumns);
+                builder.append(") AS incoming (");
+                builder.appendList()
+                        .delimitedBy(", ")
+                        .transformedBy(ExpressionBuilder.columnNames())
+                        .of(keyColumns, nonKeyColumns);
+                builder.append(")");
+                appendMergeActions(builder, keyColumns, nonKeyColumns);
+                return builder.toString();
+            default:
+                throw new UnsupportedOperationException();
+        }
+    }
+
+    private void appendMergeActions(
+            final ExpressionBuilder builder,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns
+    ) {
+        builder.append(" on (");
         builder.appendList()
                 .delimitedBy(" and ")
                 .transformedBy(this::transformAs)
@@ -324,7 +389,6 @@ public class SqlServerDatabaseDialect extends GenericDatabaseDialect {
                 .transformedBy(ExpressionBuilder.columnNamesWithPrefix("incoming."))
                 .of(nonKeyColumns, keyColumns);
         builder.append(");");
-        return builder.toString();
     }
 
     // todo: better way
@@ -16,9 +16,11 @@
 package cn.xdf.acdc.connect.jdbc.dialect;
 
 import cn.xdf.acdc.connect.core.sink.metadata.SinkRecordField;
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.util.ColumnId;
 import cn.xdf.acdc.connect.jdbc.util.ExpressionBuilder;
 import cn.xdf.acdc.connect.jdbc.util.IdentifierRules;
+import cn.xdf.acdc.connect.jdbc.util.TableDefinition;
 import cn.xdf.acdc.connect.jdbc.util.TableId;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.connect.data.Date;
@@ -36,6 +38,9 @@ import java.util.List;
  */
 public class SqliteDatabaseDialect extends GenericDatabaseDialect {
 
+    // the default max number of host parameters of a statement before SQLite 3.32.0
+    private static final int MAX_STATEMENT_VARIABLES = 999;
+
     /**
      * Create a new dialect instance with the given connector configuration.
      *
@@ -115,6 +120,42 @@ public class SqliteDatabaseDialect extends GenericDatabaseDialect {
         return builder.toString();
     }
 
+    @Override
+    public int maxMultiRowStatementRows(final InsertMode insertMode, final int columnCount) {
+        return maxMultiRowStatementRows(insertMode, columnCount, MAX_STATEMENT_VARIABLES);
+    }
+
+    @Override
+    public String buildMultiRowStatement(
+            final InsertMode insertMode,
+            final TableId table,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns,
+            final TableDefinition definition,
+            final int rowCount
+    ) {
+        ExpressionBuilder builder = expressionBuilder();
+        switch (insertMode) {
+            case INSERT:
+                builder.append("INSERT INTO ");
+                break;
+            case UPSERT:
+                builder.append("INSERT OR REPLACE INTO ");
+                break;
+            default:
+                throw new UnsupportedOperationException();
+        }
+        builder.append(table);
+        builder.append("(");
+        builder.appendList()
+                .delimitedBy(",")
+                .transformedBy(ExpressionBuilder.columnNames())
+                .of(keyColumns, nonKeyColumns);
+        builder.append(") VALUES");
+        builder.appendValueRows(rowCount, ExpressionBuilder.placeholderInsteadOfColumnNames("?"), keyColumns, nonKeyColumns);
+        return builder.toString();
+    }
+
     @Override
     protected String currentTimestampDatabaseQuery() {
         return "SELECT strftime('%Y-%m-%d %H:%M:%S.%f','now')";
@@ -21,25 +21,43 @@ import cn.xdf.acdc.connect.core.sink.metadata.SchemaPair;
 import cn.xdf.acdc.connect.core.util.ExceptionUtils;
 import cn.xdf.acdc.connect.jdbc.dialect.DatabaseDialect;
 import cn.xdf.acdc.connect.jdbc.util.ColumnId;
+import cn.xdf.acdc.connect.jdbc.util.TableDefinition;
 import cn.xdf.acdc.connect.jdbc.util.TableId;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.SinkRecord;
 
+import java.nio.ByteBuffer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class JdbcBufferedRecords extends AbstractBufferedRecords {
 
+    // estimated bytes of the delimiters of a row or a value in a multi-row statement
+    private static final int ROW_OVERHEAD_BYTES = 3;
+
+    private static final int VALUE_OVERHEAD_BYTES = 3;
+
+    // estimated bytes of a value not being a string or binary, eg: number, date and null
+    private static final int SCALAR_VALUE_BYTES = 16;
+
     private final TableId tableId;
 
     private final JdbcSinkConfig config;
@@ -50,82 +68,152 @@ public class JdbcBufferedRecords extends AbstractBufferedRecords {
 
     private final Connection connection;
 
-    private FieldsMetadata fieldsMetadata;
-
-    private PreparedStatement updatePreparedStatement;
+    private final JdbcStatementCache statementCache;
 
-    private PreparedStatement deletePreparedStatement;
+    private final JdbcSinkTaskMetrics metrics;
 
-    private DatabaseDialect.StatementBinder updateStatementBinder;
+    // the buffer owns the statement cache if it is not shared by the writer
+    private final boolean ownsStatementCache;
 
-    private DatabaseDialect.StatementBinder deleteStatementBinder;
+    private JdbcStatementCache.CachedStatements statements;
 
     public JdbcBufferedRecords(final JdbcSinkConfig config, final TableId tableId, final DatabaseDialect dbDialect, final DbStructure dbStructure, final Connection connection) {
+        this(config, tableId, dbDialect, dbStructure, connection, new JdbcSinkTaskMetrics(config));
+    }
+
+    public JdbcBufferedRecords(final JdbcSinkConfig config, final TableId tableId, final DatabaseDialect dbDialect, final DbStructure dbStructure, final Connection connection,
+                               final JdbcStatementCache statementCache, final JdbcSinkTaskMetrics metrics) {
+        this(config, tableId, dbDialect, dbStructure, connection, statementCache, metrics, false);
+    }
+
+    private JdbcBufferedRecords(final JdbcSinkConfig config, final TableId tableId, final DatabaseDialect dbDialect, final DbStructure dbStructure, final Connection connection,
+                                final JdbcSinkTaskMetrics metrics) {
+        this(config, tableId, dbDialect, dbStructure, connection, new JdbcStatementCache(metrics), metrics, true);
+    }
+
+    private JdbcBufferedRecords(final JdbcSinkConfig config, final TableId tableId, final DatabaseDialect dbDialect, final DbStructure dbStructure, final Connection connection,
+                                final JdbcStatementCache statementCache, final JdbcSinkTaskMetrics metrics, final boolean ownsStatementCache) {
         super(config);
         this.tableId = tableId;
         this.config = config;
         this.dbDialect = dbDialect;
         this.dbStructure = dbStructure;
         this.connection = connection;
+        this.statementCache = statementCache;
+        this.metrics = metrics;
+        this.ownsStatementCache = ownsStatementCache;
     }
 
     @Override
     protected void initMetadata(final SinkRecord record) {
+        final SchemaPair schemaPair = new SchemaPair(
+                record.keySchema(),
+                record.valueSchema()
+        );
         try {
-            // re-initialize everything that depends on the record schema
-            final SchemaPair schemaPair = new SchemaPair(
-                    record.keySchema(),
-                    record.valueSchema()
-            );
+            statements = statementCache.getOrPrepare(tableId, connection, schemaPair, () -> prepareStatements(schemaPair));
+        } catch (TableAlterOrCreateException e) {
+            throw new ConnectException(e);
+        } catch (SQLException e) {
+            throw ExceptionUtils.parseToFlatMessageRetriableException(e);
+        }
+    }
 
-            fieldsMetadata = FieldsMetadata.extract(
-                    tableId.tableName(),
+    private JdbcStatementCache.CachedStatements prepareStatements(final SchemaPair schemaPair) throws SQLException {
+        // re-initialize everything that depends on the record schema
+        final FieldsMetadata fieldsMetadata = FieldsMetadata.extract(
+                tableId.tableName(),
+                config.getPkMode(),
+                config.getPkFields(),
+                Collections.emptySet(),
+                schemaPair
+        );
+        dbStructure.createOrAmendIfNecessary(
+                config,
+                connection,
+                tableId,
+                fieldsMetadata
+        );
+        final String insertSql = getInsertSql(fieldsMetadata);
+        final String deleteSql = getDeleteSql(fieldsMetadata);
+        log.debug(
+                "{} sql: {} deleteSql: {} meta: {}",
+                config.getInsertMode(),
+                insertSql,
+                deleteSql,
+                fieldsMetadata
+        );
+        final PreparedStatement updatePreparedStatement = dbDialect.createPreparedStatement(connection, insertSql);
+        final DatabaseDialect.StatementBinder updateStatementBinder = dbDialect.statementBinder(
+                updatePreparedStatement,
+                config.getPkMode(),
+                schemaPair,
+                fieldsMetadata,
+                dbStructure.tableDefinition(connection, tableId),
+                config.getInsertMode()
+        );
+        PreparedStatement deletePreparedStatement = null;
+        DatabaseDialect.StatementBinder deleteStatementBinder = null;
+        if (config.isDeleteEnabled() && Objects.nonNull(deleteSql)) {
+            deletePreparedStatement = dbDialect.createPreparedStatement(connection, deleteSql);
+            deleteStatementBinder = dbDialect.statementBinder(
+                    deletePreparedStatement,
                     config.getPkMode(),
-                    config.getPkFields(),
-                    Collections.emptySet(),
-                    schemaPair
-            );
-            dbStructure.createOrAmendIfNecessary(
-                    config,
-                    connection,
-                    tableId,
-                    fieldsMetadata
+                    schemaPair,
+                    fieldsMetadata,
+                    dbStructure.tableDefinition(connection, tableId),
+                    config.getInsertMode()
             );
-            final String insertSql = getInsertSql();
-            final String deleteSql = getDeleteSql();
-            log.debug(
-                    "{} sql: {} deleteSql: {} meta: {}",
+        }
+        return new JdbcStatementCache.CachedStatements(
+                connection,
+                schemaPair,
+                fieldsMetadata,
+                updatePreparedStatement,
+                updateStatementBinder,
+                deletePreparedStatement,
+                deleteStatementBinder,
+                multiRowStatements(schemaPair, fieldsMetadata)
+        );
+    }
+
+    private MultiRowStatements multiRowStatements(final SchemaPair schemaPair, final FieldsMetadata fieldsMetadata) throws SQLException {
+        if (!config.isMultiRowWriteEnabled() || Objects.isNull(schemaPair.getValueSchema())) {
+            return null;
+        }
+        final int columnCount = fieldsMetadata.getKeyFieldNames().size() + fieldsMetadata.getNonKeyFieldNames().size();
+        final int maxRows = dbDialect.maxMultiRowStatementRows(config.getInsertMode(), columnCount);
+        if (maxRows <= 1) {
+            log.info("Multi-row statements in {} mode are not supported by {}, write with JDBC batches", config.getInsertMode(), dbDialect.name());
+            return null;
+        }
+        final TableDefinition tableDefinition = dbStructure.tableDefinition(connection, tableId);
+        return new MultiRowStatements(maxRows, rowCount -> {
+            final String sql = dbDialect.buildMultiRowStatement(
                     config.getInsertMode(),
-                    insertSql,
-                    deleteSql,
-                    fieldsMetadata
+                    tableId,
+                    asColumns(fieldsMetadata.getKeyFieldNames()),
+                    asColumns(fieldsMetadata.getNonKeyFieldNames()),
+                    tableDefinition,
+                    rowCount
             );
-            close();
-            updatePreparedStatement = dbDialect.createPreparedStatement(connection, insertSql);
-            updateStatementBinder = dbDialect.statementBinder(
-                    updatePreparedStatement,
+            log.debug("Preparing multi-row statement of {} rows for table {}", rowCount, tableId);
+            final PreparedStatement preparedStatement = dbDialect.createPreparedStatement(connection, sql);
+            final DatabaseDialect.StatementBinder statementBinder = dbDialect.statementBinder(
+                    preparedStatement,
                     config.getPkMode(),
                     schemaPair,
                     fieldsMetadata,
-                    dbStructure.tableDefinition(connection, tableId),
+                    tableDefinition,
                     config.getInsertMode()
             );
-            if (config.isDeleteEnabled() && Objects.nonNull(deleteSql)) {
-                deletePreparedStatement = dbDialect.createPreparedStatement(connection, deleteSql);
-                deleteStatementBinder = dbDialect.statementBinder(
-                        deletePreparedStatement,
-                        config.getPkMode(),
-                        schemaPair,
-                        fieldsMetadata,
-                        dbStructure.tableDefinition(connection, tableId),
-                        config.getInsertMode()
-                );
-            }
-        } catch (TableAlterOrCreateException e) {
-            throw new ConnectException(e);
-        } catch (SQLException e) {
-            throw ExceptionUtils.parseToFlatMessageRetriableException(e);
-        }
+            return new MultiRowStatements.MultiRowStatement(rowCount, preparedStatement, statementBinder);
+        });
+    }
+
+    @Override
+    protected boolean isCompactedByKey() {
+        return config.isUpsertCompactionEnabled();
     }
 
     protected void doFlush(final List<SinkRecord> records) {
@@ -135,16 +223,22 @@ public class JdbcBufferedRecords extends AbstractBufferedRecords {
         long totalDeleteCount;
 
         try {
-            for (SinkRecord record : records) {
-                if (Objects.isNull(record.value()) && Objects.nonNull(deleteStatementBinder)) {
-                    deleteStatementBinder.bindRecord(record);
+            final List<SinkRecord> multiRowRecords = new ArrayList<>();
+            for (SinkRecord record : isCompactedByKey() ? compact(records) : records) {
+                if (Objects.isNull(record.value()) && Objects.nonNull(statements.getDeleteStatementBinder())) {
+                    statements.getDeleteStatementBinder().bindRecord(record);
+                } else if (Objects.nonNull(record.value()) && Objects.nonNull(statements.getMultiRowStatements())) {
+                    multiRowRecords.add(record);
                 } else {
-                    updateStatementBinder.bindRecord(record);
+                    statements.getUpdateStatementBinder().bindRecord(record);
                 }
             }
-            totalUpdateCount = executeUpdates();
+            totalUpdateCount = executeUpdates(multiRowRecords);
             totalDeleteCount = executeDeletes();
         } catch (SQLException e) {
+            // the batch of the statements may be left half bound or executed
+            statementCache.invalidate(tableId);
+            statements = null;
             throw ExceptionUtils.parseToFlatMessageRetriableException(e);
         }
 
@@ -166,13 +260,27 @@ public class JdbcBufferedRecords extends AbstractBufferedRecords {
         }
     }
 
+    /**
+     * Keep only the last record of every key, a record replaces the previous one of the same key, including a delete.
+     * A key then has only one operation, so the order of updates and deletes of different keys doesn't matter.
+     */
+    private Collection<SinkRecord> compact(final List<SinkRecord> records) {
+        final Map<Object, SinkRecord> lastRecords = new LinkedHashMap<>();
+        for (SinkRecord each : records) {
+            lastRecords.put(keyOf(each), each);
+        }
+        metrics.onCompacted(records.size(), lastRecords.size());
+        log.debug("Compacted {} records to {} records by key", records.size(), lastRecords.size());
+        return lastRecords.values();
+    }
+
     /**
      * Execute updates.
      * @return an optional count of all updated rows or an empty optional if no info is available
      */
-    private Optional<Long> executeUpdates() throws SQLException {
-        Optional<Long> count = Optional.empty();
-        for (int updateCount : updatePreparedStatement.executeBatch()) {
+    private Optional<Long> executeUpdates(final List<SinkRecord> multiRowRecords) throws SQLException {
+        Optional<Long> count = executeMultiRowUpdates(multiRowRecords);
+        for (int updateCount : statements.getUpdatePreparedStatement().executeBatch()) {
             if (updateCount != Statement.SUCCESS_NO_INFO) {
                 count = count.isPresent()
                         ? count.map(total -> total + updateCount)
@@ -182,10 +290,120 @@ public class JdbcBufferedRecords extends AbstractBufferedRecords {
         return count;
     }
 
+    private Optional<Long> executeMultiRowUpdates(final List<SinkRecord> multiRowRecords) throws SQLException {
+        if (multiRowRecords.isEmpty()) {
+            return Optional.empty();
+        }
+        final MultiRowStatements multiRowStatements = statements.getMultiRowStatements();
+        long count = 0;
+        int from = 0;
+        while (from < multiRowRecords.size()) {
+            final int rowCount = multiRowStatements.rowCountOf(chunkSize(multiRowRecords, from, multiRowStatements.maxRows()));
+            final MultiRowStatements.MultiRowStatement statement = multiRowStatements.getOrPrepare(rowCount);
+            int index = 1;
+            for (SinkRecord each : multiRowRecords.subList(from, from + rowCount)) {
+                index = statement.getStatementBinder().bindRecord(each, index);
+            }
+            count += statement.getPreparedStatement().executeUpdate();
+            from += rowCount;
+        }
+        return Optional.of(count);
+    }
+
+    /**
+     * Get the number of records from the start which can be written by one statement, it's limited by the byte budget,
+     * and records with the same key must not be in the same upsert statement.
+     */
+    private int chunkSize(final List<SinkRecord> records, final int from, final int maxRows) {
+        final boolean isUpsert = config.getInsertMode() == JdbcSinkConfig.InsertMode.UPSERT;
+        final Set<Object> keys = new HashSet<>();
+        long bytes = 0;
+        int end = from;
+        while (end < records.size() && end - from < maxRows) {
+            final SinkRecord record = records.get(end);
+            bytes += estimateSize(record);
+            if (end > from && bytes > config.getMultiRowWriteMaxBytes()) {
+                break;
+            }
+            if (isUpsert && !keys.add(keyOf(record))) {
+                break;
+            }
+            end++;
+        }
+        return end - from;
+    }
+
+    private Object keyOf(final SinkRecord record) {
+        final Collection<String> keyFieldNames = statements.getFieldsMetadata().getKeyFieldNames();
+        switch (config.getPkMode()) {
+            case RECORD_KEY:
+                return record.key() instanceof Struct ? fieldValues((Struct) record.key(), keyFieldNames) : comparable(record.key());
+            case RECORD_VALUE:
+                if (record.value() instanceof Struct) {
+                    return fieldValues((Struct) record.value(), keyFieldNames);
+                }
+                return Arrays.asList(record.topic(), record.kafkaPartition(), record.kafkaOffset());
+            default:
+                return Arrays.asList(record.topic(), record.kafkaPartition(), record.kafkaOffset());
+        }
+    }
+
+    private List<Object> fieldValues(final Struct struct, final Collection<String> fieldNames) {
+        return fieldNames.stream()
+                .map(name -> comparable(struct.get(name)))
+                .collect(Collectors.toList());
+    }
+
+    private static Object comparable(final Object value) {
+        return value instanceof byte[] ? ByteBuffer.wrap((byte[]) value) : value;
+    }
+
+    private static long estimateSize(final SinkRecord record) {
+        return ROW_OVERHEAD_BYTES + estimateSize(record.key()) + estimateSize(record.value());
+    }
+
+    private static long estimateSize(final Object value) {
+        if (value instanceof Struct) {
+            final Struct struct = (Struct) value;
+            long size = 0;
+            for (Field each : struct.schema().fields()) {
+                size += estimateSize(struct.get(each));
+            }
+            return size;
+        }
+        if (value instanceof CharSequence) {
+            return utf8Length((CharSequence) value) + VALUE_OVERHEAD_BYTES;
+        }
+        if (value instanceof byte[]) {
+            // binary values may be sent in hex
+            return 2L * ((byte[]) value).length + VALUE_OVERHEAD_BYTES;
+        }
+        if (value instanceof ByteBuffer) {
+            return 2L * ((ByteBuffer) value).remaining() + VALUE_OVERHEAD_BYTES;
+        }
+        return SCALAR_VALUE_BYTES;
+    }
+
+    private static long utf8Length(final CharSequence value) {
+        long length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else {
+                // a surrogate pair is counted as 6 bytes, a bit more than the 4 bytes in UTF-8
+                length += 3;
+            }
+        }
+        return length;
+    }
+
     private long executeDeletes() throws SQLException {
         long totalDeleteCount = 0;
-        if (Objects.nonNull(deletePreparedStatement)) {
-            for (int updateCount : deletePreparedStatement.executeBatch()) {
+        if (Objects.nonNull(statements.getDeletePreparedStatement())) {
+            for (int updateCount : statements.getDeletePreparedStatement().executeBatch()) {
                 if (updateCount != Statement.SUCCESS_NO_INFO) {
                     totalDeleteCount += updateCount;
                 }
@@ -203,30 +421,17 @@ public class JdbcBufferedRecords extends AbstractBufferedRecords {
     }
 
     /**
-     * Close updatePreparedStatement and deletePreparedStatement.
+     * Release the statements, the statements are closed only if the statement cache is owned by this buffer.
      */
     public void close() {
-        log.debug(
-                "Closing BufferedRecords with updatePreparedStatement: {} deletePreparedStatement: {}",
-                updatePreparedStatement,
-                deletePreparedStatement
-        );
-
-        try {
-            if (Objects.nonNull(updatePreparedStatement)) {
-                updatePreparedStatement.close();
-                updatePreparedStatement = null;
-            }
-            if (Objects.nonNull(deletePreparedStatement)) {
-                deletePreparedStatement.close();
-                deletePreparedStatement = null;
-            }
-        } catch (SQLException e) {
-            throw ExceptionUtils.parseToFlatMessageRetriableException(e);
+        log.debug("Closing BufferedRecords with statements: {}", statements);
+        statements = null;
+        if (ownsStatementCache) {
+            statementCache.close();
         }
     }
 
-    private String getInsertSql() throws SQLException {
+    private String getInsertSql(final FieldsMetadata fieldsMetadata) throws SQLException {
         switch (config.getInsertMode()) {
             case INSERT:
                 return dbDialect.buildInsertStatement(
@@ -269,7 +474,7 @@ public class JdbcBufferedRecords extends AbstractBufferedRecords {
         }
     }
 
-    private String getDeleteSql() {
+    private String getDeleteSql(final FieldsMetadata fieldsMetadata) {
         String sql = null;
         if (config.isDeleteEnabled()) {
             switch (config.getPkMode()) {
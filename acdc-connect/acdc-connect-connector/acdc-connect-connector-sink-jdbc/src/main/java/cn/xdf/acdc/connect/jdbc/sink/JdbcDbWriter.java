@@ -27,7 +27,12 @@ import org.apache.kafka.common.TopicPartition;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Getter
@@ -41,15 +46,51 @@ public class JdbcDbWriter extends AbstractBufferedWriter<Connection> {
 
     private final DbStructure dbStructure;
 
+    private final JdbcStatementCache statementCache;
+
+    private final JdbcSinkTaskMetrics metrics;
+
+    // connections used to flush destinations concurrently, the first one is the cached connection provider itself
+    private final List<CachedConnectionProvider> destinationConnectionProviders;
+
+    private final Map<String, Integer> destinationIndexMapping;
+
     JdbcDbWriter(final JdbcSinkConfig config, final DatabaseDialect dbDialect, final DbStructure dbStructure) {
+        this(config, dbDialect, dbStructure, new JdbcSinkTaskMetrics(config));
+    }
+
+    JdbcDbWriter(final JdbcSinkConfig config, final DatabaseDialect dbDialect, final DbStructure dbStructure, final JdbcSinkTaskMetrics metrics) {
         super(config);
         this.config = config;
         this.dbDialect = dbDialect;
         this.dbStructure = dbStructure;
+        this.metrics = metrics;
+        this.statementCache = new JdbcStatementCache(metrics);
         this.cachedConnectionProvider = connectionProvider(
                 config.getConnectionAttempts(),
                 config.getConnectionBackoffMs()
         );
+        this.destinationConnectionProviders = destinationConnectionProviders();
+        this.destinationIndexMapping = destinationIndexMapping();
+    }
+
+    private List<CachedConnectionProvider> destinationConnectionProviders() {
+        int poolSize = Math.min(config.getFlushParallelism(), config.getDestinations().size());
+        List<CachedConnectionProvider> providers = new ArrayList<>(poolSize);
+        providers.add(cachedConnectionProvider);
+        for (int i = 1; i < poolSize; i++) {
+            providers.add(connectionProvider(config.getConnectionAttempts(), config.getConnectionBackoffMs()));
+        }
+        return Collections.unmodifiableList(providers);
+    }
+
+    private Map<String, Integer> destinationIndexMapping() {
+        Map<String, Integer> mapping = new HashMap<>();
+        List<String> destinations = config.getDestinations();
+        for (int i = 0; i < destinations.size(); i++) {
+            mapping.put(destinations.get(i), i);
+        }
+        return mapping;
     }
 
     protected CachedConnectionProvider connectionProvider(final int maxConnAttempts, final long retryBackoff) {
@@ -73,7 +114,7 @@ public class JdbcDbWriter extends AbstractBufferedWriter<Connection> {
 
     @Override
     protected AbstractBufferedRecords getBufferedRecords(final Connection connection, final String tableName) {
-        return new JdbcBufferedRecords(config, new TableId(null, null, tableName), dbDialect, dbStructure, connection);
+        return new JdbcBufferedRecords(config, new TableId(null, null, tableName), dbDialect, dbStructure, connection, statementCache, metrics);
     }
 
     @Override
@@ -81,6 +122,26 @@ public class JdbcDbWriter extends AbstractBufferedWriter<Connection> {
         return cachedConnectionProvider.getConnection();
     }
 
+    @Override
+    protected Connection getDestinationClient(final Connection connection, final String destination) {
+        // a destination always uses the same connection, so its cached statements can be reused
+        int index = destinationIndexMapping.getOrDefault(destination, 0) % destinationConnectionProviders.size();
+        if (index == 0) {
+            return connection;
+        }
+        return destinationConnectionProviders.get(index).getConnection();
+    }
+
+    @Override
+    protected int flushParallelism() {
+        return destinationConnectionProviders.size();
+    }
+
+    @Override
+    protected void onDestinationFlushed(final String destination, final long elapsedMs) {
+        metrics.onDestinationFlushed(destination, elapsedMs);
+    }
+
     @Override
     public void closePartitions(final Collection<TopicPartition> partitions) {
 
@@ -88,6 +149,11 @@ public class JdbcDbWriter extends AbstractBufferedWriter<Connection> {
 
     @Override
     public void close() {
-        cachedConnectionProvider.close();
+        try {
+            shutdownFlushExecutor();
+            statementCache.close();
+        } finally {
+            destinationConnectionProviders.forEach(CachedConnectionProvider::close);
+        }
     }
 }
@@ -17,12 +17,14 @@ package cn.xdf.acdc.connect.jdbc.sink;
 
 import cn.xdf.acdc.connect.core.util.EnumRecommender;
 import cn.xdf.acdc.connect.core.util.EnumValidator;
+import cn.xdf.acdc.connect.core.util.config.PrimaryKeyMode;
 import cn.xdf.acdc.connect.core.util.config.SinkConfig;
 import cn.xdf.acdc.connect.jdbc.util.DatabaseDialectRecommender;
 import cn.xdf.acdc.connect.jdbc.util.QuoteMethod;
 import cn.xdf.acdc.connect.jdbc.util.TableType;
 import lombok.Getter;
 import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.ConfigException;
 import org.apache.kafka.common.config.types.Password;
 
 import java.util.EnumSet;
@@ -79,6 +81,17 @@ public class JdbcSinkConfig extends SinkConfig {
 
     public static final String CONNECTION_BACKOFF_DISPLAY = "JDBC connection backoff in milliseconds";
 
+    public static final String FLUSH_PARALLELISM = "flush.parallelism";
+
+    public static final int FLUSH_PARALLELISM_DEFAULT = 1;
+
+    public static final String FLUSH_PARALLELISM_DOC =
+            "Max number of destination tables to be flushed concurrently, each of them uses its own connection "
+                    + "from a pool of the same size. Connections are committed only after all destinations are "
+                    + "flushed successfully. Defaults to 1, which flushes destinations one by one with a single connection.";
+
+    public static final String FLUSH_PARALLELISM_DISPLAY = "Flush Parallelism";
+
     public static final String AUTO_CREATE = "auto.create";
 
     public static final String AUTO_CREATE_DEFAULT = "false";
@@ -99,6 +112,54 @@ public class JdbcSinkConfig extends SinkConfig {
 
     public static final String AUTO_EVOLVE_DISPLAY = "Auto-Evolve";
 
+    public static final String MULTI_ROW_WRITE_ENABLED = "multi.row.write.enabled";
+
+    public static final String MULTI_ROW_WRITE_ENABLED_DEFAULT = "false";
+
+    public static final String MULTI_ROW_WRITE_ENABLED_DOC =
+            "Whether to write records of insert or upsert mode with multi-row statements, eg: "
+                    + "``INSERT ... VALUES (...),(...)``, instead of JDBC batches of single row statements. "
+                    + "It only takes effect with dialects supporting multi-row statements: MySQL, PostgreSQL, "
+                    + "SQL Server and SQLite, others fall back to JDBC batches.";
+
+    public static final String MULTI_ROW_WRITE_ENABLED_DISPLAY = "Multi-row Write";
+
+    public static final String MULTI_ROW_WRITE_MAX_BYTES = "multi.row.write.max.bytes";
+
+    public static final int MULTI_ROW_WRITE_MAX_BYTES_DEFAULT = 2 * 1024 * 1024;
+
+    public static final String MULTI_ROW_WRITE_MAX_BYTES_DOC =
+            "Budget of the estimated size in bytes of a multi-row statement, records of a batch are split into "
+                    + "statements within the budget. It should be less than the max packet size of the database, "
+                    + "eg: ``max_allowed_packet`` of MySQL.";
+
+    public static final String MULTI_ROW_WRITE_MAX_BYTES_DISPLAY = "Multi-row Write Max Bytes";
+
+    public static final String UPSERT_COMPACTION_ENABLED = "upsert.compaction.enabled";
+
+    public static final String UPSERT_COMPACTION_ENABLED_DEFAULT = "false";
+
+    public static final String UPSERT_COMPACTION_ENABLED_DOC =
+            "Whether to write only the last record of every primary key in a batch, intermediate versions of a row "
+                    + "are skipped and a delete followed by an insert is written as one upsert. It requires insert mode "
+                    + "``upsert`` and primary key mode ``record_key`` or ``record_value``.";
+
+    public static final String UPSERT_COMPACTION_ENABLED_DISPLAY = "Upsert Compaction";
+
+    public static final String ERROR_ISOLATION_MODE = "error.isolation.mode";
+
+    public static final String ERROR_ISOLATION_MODE_DEFAULT = "bisect";
+
+    public static final String ERROR_ISOLATION_MODE_DOC =
+            "How to find out the failed records of a batch when retries are exhausted and an errant record reporter "
+                    + "is configured, only the failed records are reported. Supported modes are:\n"
+                    + "``bisect``\n"
+                    + "    Split the failed batch in halves and retry each half as a batch, until the failed records are isolated.\n"
+                    + "``one_by_one``\n"
+                    + "    Retry the records of the failed batch one by one.";
+
+    public static final String ERROR_ISOLATION_MODE_DISPLAY = "Error Isolation Mode";
+
     public static final String INSERT_MODE = "insert.mode";
 
     public static final String INSERT_MODE_DEFAULT = "upsert";
@@ -262,6 +323,59 @@ public class JdbcSinkConfig extends SinkConfig {
                 5,
                 ConfigDef.Width.MEDIUM,
                 TABLE_TYPES_DISPLAY
+        ).define(
+                FLUSH_PARALLELISM,
+                ConfigDef.Type.INT,
+                FLUSH_PARALLELISM_DEFAULT,
+                ConfigDef.Range.atLeast(1),
+                ConfigDef.Importance.LOW,
+                FLUSH_PARALLELISM_DOC,
+                WRITES_GROUP,
+                6,
+                ConfigDef.Width.SHORT,
+                FLUSH_PARALLELISM_DISPLAY
+        ).define(
+                MULTI_ROW_WRITE_ENABLED,
+                ConfigDef.Type.BOOLEAN,
+                MULTI_ROW_WRITE_ENABLED_DEFAULT,
+                ConfigDef.Importance.MEDIUM,
+                MULTI_ROW_WRITE_ENABLED_DOC,
+                WRITES_GROUP,
+                7,
+                ConfigDef.Width.SHORT,
+                MULTI_ROW_WRITE_ENABLED_DISPLAY
+        ).define(
+                MULTI_ROW_WRITE_MAX_BYTES,
+                ConfigDef.Type.INT,
+                MULTI_ROW_WRITE_MAX_BYTES_DEFAULT,
+                ConfigDef.Range.atLeast(1024),
+                ConfigDef.Importance.LOW,
+                MULTI_ROW_WRITE_MAX_BYTES_DOC,
+                WRITES_GROUP,
+                8,
+                ConfigDef.Width.SHORT,
+                MULTI_ROW_WRITE_MAX_BYTES_DISPLAY
+        ).define(
+                UPSERT_COMPACTION_ENABLED,
+                ConfigDef.Type.BOOLEAN,
+                UPSERT_COMPACTION_ENABLED_DEFAULT,
+                ConfigDef.Importance.MEDIUM,
+                UPSERT_COMPACTION_ENABLED_DOC,
+                WRITES_GROUP,
+                9,
+                ConfigDef.Width.SHORT,
+                UPSERT_COMPACTION_ENABLED_DISPLAY
+        ).define(
+                ERROR_ISOLATION_MODE,
+                ConfigDef.Type.STRING,
+                ERROR_ISOLATION_MODE_DEFAULT,
+                EnumValidator.in(ErrorIsolationMode.values()),
+                ConfigDef.Importance.LOW,
+                ERROR_ISOLATION_MODE_DOC,
+                RETRIES_GROUP,
+                3,
+                ConfigDef.Width.SHORT,
+                ERROR_ISOLATION_MODE_DISPLAY
         ).define(
                 // DDL
                 AUTO_CREATE,
@@ -306,6 +420,16 @@ public class JdbcSinkConfig extends SinkConfig {
 
     private final long connectionBackoffMs;
 
+    private final int flushParallelism;
+
+    private final boolean multiRowWriteEnabled;
+
+    private final int multiRowWriteMaxBytes;
+
+    private final boolean upsertCompactionEnabled;
+
+    private final ErrorIsolationMode errorIsolationMode;
+
     private final boolean autoCreate;
 
     private final boolean autoEvolve;
@@ -324,11 +448,21 @@ public class JdbcSinkConfig extends SinkConfig {
         connectionPassword = getPasswordValue(CONNECTION_PASSWORD);
         connectionAttempts = getInt(CONNECTION_ATTEMPTS);
         connectionBackoffMs = getLong(CONNECTION_BACKOFF);
+        flushParallelism = getInt(FLUSH_PARALLELISM);
+        multiRowWriteEnabled = getBoolean(MULTI_ROW_WRITE_ENABLED);
+        multiRowWriteMaxBytes = getInt(MULTI_ROW_WRITE_MAX_BYTES);
+        errorIsolationMode = ErrorIsolationMode.valueOf(getString(ERROR_ISOLATION_MODE).toUpperCase());
         autoCreate = getBoolean(AUTO_CREATE);
         autoEvolve = getBoolean(AUTO_EVOLVE);
         insertMode = InsertMode.valueOf(getString(INSERT_MODE).toUpperCase());
         dialectName = getString(DIALECT_NAME_CONFIG);
         tableTypes = TableType.parse(getList(TABLE_TYPES_CONFIG));
+        upsertCompactionEnabled = getBoolean(UPSERT_COMPACTION_ENABLED);
+        if (upsertCompactionEnabled && (insertMode != InsertMode.UPSERT
+                || (getPkMode() != PrimaryKeyMode.RECORD_KEY && getPkMode() != PrimaryKeyMode.RECORD_VALUE))) {
+            throw new ConfigException(
+                    "Insert mode must be 'upsert' and primary key mode must be 'record_key' or 'record_value' when upsert compaction is enabled");
+        }
     }
 
     private String getPasswordValue(final String key) {
@@ -363,6 +497,11 @@ public class JdbcSinkConfig extends SinkConfig {
         UPDATE;
     }
 
+    public enum ErrorIsolationMode {
+        BISECT,
+        ONE_BY_ONE;
+    }
+
     public enum NumericMapping {
         NONE,
         PRECISION_ONLY,
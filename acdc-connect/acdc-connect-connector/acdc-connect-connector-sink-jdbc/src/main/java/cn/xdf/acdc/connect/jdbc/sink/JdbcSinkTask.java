@@ -15,6 +15,7 @@
 
 package cn.xdf.acdc.connect.jdbc.sink;
 
+import cn.xdf.acdc.connect.core.sink.PartiallyCommittedException;
 import cn.xdf.acdc.connect.jdbc.dialect.DatabaseDialect;
 import cn.xdf.acdc.connect.jdbc.dialect.DatabaseDialects;
 import cn.xdf.acdc.connect.jdbc.util.Version;
@@ -29,9 +30,13 @@ import org.apache.kafka.connect.sink.ErrantRecordReporter;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.apache.kafka.connect.sink.SinkTask;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Getter
@@ -46,12 +51,21 @@ public class JdbcSinkTask extends SinkTask {
 
     private JdbcDbWriter writer;
 
+    private JdbcSinkTaskMetrics metrics;
+
     private int remainingRetries;
 
+    // the partially committed batch to be redelivered and its destinations which are not committed yet
+    private List<Object> uncommittedBatchKey;
+
+    private List<String> uncommittedDestinations;
+
     @Override
     public void start(final Map<String, String> props) {
         log.info("Starting JDBC Sink task");
         config = new JdbcSinkConfig(props);
+        metrics = new JdbcSinkTaskMetrics(config);
+        metrics.register();
         initWriter();
         remainingRetries = config.getMaxRetries();
         try {
@@ -70,7 +84,7 @@ public class JdbcSinkTask extends SinkTask {
         }
         final DbStructure dbStructure = new DbStructure(dialect);
         log.info("Initializing writer using SQL dialect: {}", dialect.getClass().getSimpleName());
-        writer = new JdbcDbWriter(config, dialect, dbStructure);
+        writer = new JdbcDbWriter(config, dialect, dbStructure, metrics);
     }
 
     @Override
@@ -85,9 +99,21 @@ public class JdbcSinkTask extends SinkTask {
                         + "database...",
                 recordsCount, first.topic(), first.kafkaPartition(), first.kafkaOffset()
         );
+        List<String> destinations = destinationsToWrite(records);
         try {
-            writer.write(records);
-        } catch (RetriableException e) {
+            write(records, destinations);
+        } catch (ConnectException e) {
+            handleWriteFailure(records, excludeCommitted(destinations, e), e);
+        }
+        remainingRetries = config.getMaxRetries();
+        uncommittedBatchKey = null;
+        uncommittedDestinations = null;
+    }
+
+    private void handleWriteFailure(final Collection<SinkRecord> records, final List<String> destinations, final ConnectException e) {
+        // a partially committed batch is handled as its cause, except that the committed destinations are not written again
+        ConnectException cause = e instanceof PartiallyCommittedException ? ((PartiallyCommittedException) e).getCause() : e;
+        if (cause instanceof RetriableException) {
             log.warn(
                     "Write of {} records failed, remainingRetries={}",
                     records.size(),
@@ -99,40 +125,115 @@ public class JdbcSinkTask extends SinkTask {
                 initWriter();
                 remainingRetries--;
                 context.timeout(config.getRetryBackoffMs());
-                throw e;
-            } else {
-                if (reporter != null) {
-                    unrollAndRetry(records);
-                } else {
-                    log.error("Failing task after exhausting retries", e);
-                    throw new ConnectException(e);
+                // the same batch is redelivered after the timeout, only its uncommitted destinations are written then
+                if (destinations.size() < config.getDestinations().size()) {
+                    uncommittedBatchKey = batchKey(records);
+                    uncommittedDestinations = destinations;
                 }
+                throw cause;
             }
-        } catch (ConnectException e) {
-            if (reporter != null) {
-                unrollAndRetry(records);
-            } else {
-                throw e;
+            if (reporter == null) {
+                log.error("Failing task after exhausting retries", e);
+                throw new ConnectException(e);
             }
+        } else if (reporter == null) {
+            throw e;
         }
-        remainingRetries = config.getMaxRetries();
+        isolateAndReport(records, destinations);
     }
 
-    private void unrollAndRetry(final Collection<SinkRecord> records) {
+    private List<String> destinationsToWrite(final Collection<SinkRecord> records) {
+        if (uncommittedDestinations != null && batchKey(records).equals(uncommittedBatchKey)) {
+            return uncommittedDestinations;
+        }
+        return config.getDestinations();
+    }
+
+    private List<Object> batchKey(final Collection<SinkRecord> records) {
+        List<Object> key = new ArrayList<>(records.size() * 3);
+        for (SinkRecord each : records) {
+            key.add(each.topic());
+            key.add(each.kafkaPartition());
+            key.add(each.kafkaOffset());
+        }
+        return key;
+    }
+
+    private List<String> excludeCommitted(final List<String> destinations, final ConnectException e) {
+        if (!(e instanceof PartiallyCommittedException)) {
+            return destinations;
+        }
+        Set<String> committedDestinations = ((PartiallyCommittedException) e).getCommittedDestinations();
+        log.warn("Destinations {} of the failed batch are committed, they will not be written again", committedDestinations);
+        return destinations.stream().filter(each -> !committedDestinations.contains(each)).collect(Collectors.toList());
+    }
+
+    private void write(final Collection<SinkRecord> records, final List<String> destinations) {
+        if (destinations.size() == config.getDestinations().size()) {
+            writer.write(records);
+        } else {
+            writer.write(records, destinations);
+        }
+    }
+
+    private void isolateAndReport(final Collection<SinkRecord> records, final List<String> destinations) {
+        metrics.onErrorIsolation();
         try {
+            // uncommitted records of the failed batch are discarded with the connections
             writer.close();
         } finally {
-            for (SinkRecord record : records) {
-                try {
-                    writer.write(Collections.singletonList(record));
-                } catch (ConnectException e) {
-                    reporter.report(record, e);
-                    writer.close();
-                }
+            if (config.getErrorIsolationMode() == JdbcSinkConfig.ErrorIsolationMode.BISECT) {
+                bisectAndRetry(new ArrayList<>(records), destinations);
+            } else {
+                unrollAndRetry(records, destinations);
             }
         }
     }
 
+    private void unrollAndRetry(final Collection<SinkRecord> records, final List<String> destinations) {
+        for (SinkRecord record : records) {
+            retryOrReport(record, destinations);
+        }
+    }
+
+    // split the failed records in halves and retry each half as a batch,
+    // halves are retried in order so that the successful records are still written in offset order.
+    private void bisectAndRetry(final List<SinkRecord> failedRecords, final List<String> destinations) {
+        int middle = failedRecords.size() / 2;
+        retryOrBisect(failedRecords.subList(0, middle), destinations);
+        retryOrBisect(failedRecords.subList(middle, failedRecords.size()), destinations);
+    }
+
+    private void retryOrBisect(final List<SinkRecord> records, final List<String> destinations) {
+        if (records.isEmpty()) {
+            return;
+        }
+        if (records.size() == 1) {
+            retryOrReport(records.get(0), destinations);
+            return;
+        }
+        try {
+            metrics.onErrorIsolationWrite();
+            write(records, destinations);
+        } catch (ConnectException e) {
+            log.debug("Write of {} records failed while isolating failed records, split them again", records.size(), e);
+            writer.close();
+            bisectAndRetry(records, excludeCommitted(destinations, e));
+        }
+    }
+
+    private void retryOrReport(final SinkRecord record, final List<String> destinations) {
+        try {
+            metrics.onErrorIsolationWrite();
+            write(Collections.singletonList(record), destinations);
+        } catch (ConnectException e) {
+            log.warn("Reporting failed record, kafka coordinates:({}-{}-{})", record.topic(), record.kafkaPartition(), record.kafkaOffset(), e);
+            reporter.report(record, e);
+            metrics.onRecordIsolated();
+            writer.close();
+        }
+    }
+
     @Override
     public void flush(final Map<TopicPartition, OffsetAndMetadata> map) {
         // Not necessary
@@ -152,6 +253,7 @@ public class JdbcSinkTask extends SinkTask {
                 }
             } finally {
                 dialect = null;
+                metrics.unregister();
             }
         }
     }
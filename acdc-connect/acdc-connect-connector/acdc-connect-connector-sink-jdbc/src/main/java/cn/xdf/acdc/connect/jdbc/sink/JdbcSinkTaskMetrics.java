@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.jdbc.sink;
+
+import cn.xdf.acdc.connect.core.sink.metrics.AbstractSinkTaskMetrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class JdbcSinkTaskMetrics extends AbstractSinkTaskMetrics implements JdbcSinkTaskMetricsMXBean {
+
+    private static final String TYPE = "jdbc-sink-task-metrics";
+
+    private final AtomicLong statementCacheHitCount = new AtomicLong();
+
+    private final AtomicLong statementCacheMissCount = new AtomicLong();
+
+    private final AtomicLong statementCacheInvalidationCount = new AtomicLong();
+
+    private final AtomicLong errorIsolationCount = new AtomicLong();
+
+    private final AtomicLong errorIsolationWriteCount = new AtomicLong();
+
+    private final AtomicLong isolatedRecordCount = new AtomicLong();
+
+    private final AtomicLong compactionInputRecordCount = new AtomicLong();
+
+    private final AtomicLong compactionOutputRecordCount = new AtomicLong();
+
+    private final Map<String, Long> destinationLastFlushTimeMs = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> destinationMaxFlushTimeMs = new ConcurrentHashMap<>();
+
+    public JdbcSinkTaskMetrics(final JdbcSinkConfig config) {
+        super(TYPE, config.getConnectorName());
+    }
+
+    @Override
+    public long getStatementCacheHitCount() {
+        return statementCacheHitCount.get();
+    }
+
+    @Override
+    public long getStatementCacheMissCount() {
+        return statementCacheMissCount.get();
+    }
+
+    @Override
+    public long getStatementCacheInvalidationCount() {
+        return statementCacheInvalidationCount.get();
+    }
+
+    @Override
+    public Map<String, Long> getDestinationLastFlushTimeMs() {
+        return new HashMap<>(destinationLastFlushTimeMs);
+    }
+
+    @Override
+    public Map<String, Long> getDestinationMaxFlushTimeMs() {
+        return new HashMap<>(destinationMaxFlushTimeMs);
+    }
+
+    @Override
+    public long getErrorIsolationCount() {
+        return errorIsolationCount.get();
+    }
+
+    @Override
+    public long getErrorIsolationWriteCount() {
+        return errorIsolationWriteCount.get();
+    }
+
+    @Override
+    public long getIsolatedRecordCount() {
+        return isolatedRecordCount.get();
+    }
+
+    @Override
+    public long getCompactionInputRecordCount() {
+        return compactionInputRecordCount.get();
+    }
+
+    @Override
+    public long getCompactionOutputRecordCount() {
+        return compactionOutputRecordCount.get();
+    }
+
+    @Override
+    public double getCompactionRatio() {
+        long input = compactionInputRecordCount.get();
+        return input == 0 ? 0 : 1 - (double) compactionOutputRecordCount.get() / input;
+    }
+
+    void onStatementCacheHit() {
+        statementCacheHitCount.incrementAndGet();
+    }
+
+    void onStatementCacheMiss() {
+        statementCacheMissCount.incrementAndGet();
+    }
+
+    void onStatementCacheInvalidation() {
+        statementCacheInvalidationCount.incrementAndGet();
+    }
+
+    void onErrorIsolation() {
+        errorIsolationCount.incrementAndGet();
+    }
+
+    void onErrorIsolationWrite() {
+        errorIsolationWriteCount.incrementAndGet();
+    }
+
+    void onRecordIsolated() {
+        isolatedRecordCount.incrementAndGet();
+    }
+
+    void onCompacted(final int inputRecordCount, final int outputRecordCount) {
+        compactionOutputRecordCount.addAndGet(outputRecordCount);
+        compactionInputRecordCount.addAndGet(inputRecordCount);
+    }
+
+    void onDestinationFlushed(final String destination, final long elapsedMs) {
+        destinationLastFlushTimeMs.put(destination, elapsedMs);
+        destinationMaxFlushTimeMs.merge(destination, elapsedMs, Math::max);
+    }
+}
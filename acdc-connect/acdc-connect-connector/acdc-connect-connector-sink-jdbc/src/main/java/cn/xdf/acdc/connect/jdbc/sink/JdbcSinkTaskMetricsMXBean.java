@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.jdbc.sink;
+
+import java.util.Map;
+
+public interface JdbcSinkTaskMetricsMXBean {
+
+    /**
+     * Count of the prepared statements got from the statement cache.
+     *
+     * @return statement cache hit count
+     */
+    long getStatementCacheHitCount();
+
+    /**
+     * Count of the prepared statements created because they are not found in the statement cache.
+     *
+     * @return statement cache miss count
+     */
+    long getStatementCacheMissCount();
+
+    /**
+     * Count of the cached prepared statements invalidated by schema change or connection reset.
+     *
+     * @return statement cache invalidation count
+     */
+    long getStatementCacheInvalidationCount();
+
+    /**
+     * Time in milliseconds of the last flush, grouped by destination.
+     *
+     * @return destination to last flush time
+     */
+    Map<String, Long> getDestinationLastFlushTimeMs();
+
+    /**
+     * Max time in milliseconds of flushes, grouped by destination.
+     *
+     * @return destination to max flush time
+     */
+    Map<String, Long> getDestinationMaxFlushTimeMs();
+
+    /**
+     * Count of the failed batches whose failed records are isolated and reported.
+     *
+     * @return error isolation count
+     */
+    long getErrorIsolationCount();
+
+    /**
+     * Count of the writes done to isolate failed records.
+     *
+     * @return error isolation write count
+     */
+    long getErrorIsolationWriteCount();
+
+    /**
+     * Count of the failed records isolated and reported to the errant record reporter.
+     *
+     * @return isolated record count
+     */
+    long getIsolatedRecordCount();
+
+    /**
+     * Count of the records of batches compacted by key.
+     *
+     * @return compaction input record count
+     */
+    long getCompactionInputRecordCount();
+
+    /**
+     * Count of the records written after batches are compacted by key.
+     *
+     * @return compaction output record count
+     */
+    long getCompactionOutputRecordCount();
+
+    /**
+     * Ratio of the records skipped by compaction, eg: 0.9 means only 1 of 10 records is written.
+     *
+     * @return compaction ratio
+     */
+    double getCompactionRatio();
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.jdbc.sink;
+
+import cn.xdf.acdc.connect.core.sink.metadata.FieldsMetadata;
+import cn.xdf.acdc.connect.core.sink.metadata.SchemaPair;
+import cn.xdf.acdc.connect.jdbc.dialect.DatabaseDialect;
+import cn.xdf.acdc.connect.jdbc.util.TableId;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of prepared statements and table metadata, which lives as long as the writer.
+ *
+ * <p>Statements are keyed by (table, key schema, value schema), so that buffers created by later puts can reuse
+ * them without amending the table and preparing statements again. A cached entry is invalidated only when the
+ * schema of its table really changes, or the connection it was prepared on has been reset.
+ */
+@Slf4j
+public class JdbcStatementCache {
+
+    // A table only has a few entries, one for each schema pair, eg: one for upsert and one for delete only batch.
+    private final Map<TableId, List<CachedStatements>> tableStatementsMapping = new ConcurrentHashMap<>();
+
+    private final JdbcSinkTaskMetrics metrics;
+
+    public JdbcStatementCache(final JdbcSinkTaskMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Get cached statements for the table and schemas, or prepare new ones if there is no available entry.
+     *
+     * @param tableId    table id
+     * @param connection the current connection
+     * @param schemaPair schemas of the records
+     * @param preparer   preparer to create statements when missing
+     * @return cached statements
+     * @throws SQLException if fail to prepare statements
+     */
+    public CachedStatements getOrPrepare(
+            final TableId tableId,
+            final Connection connection,
+            final SchemaPair schemaPair,
+            final StatementsPreparer preparer
+    ) throws SQLException {
+        List<CachedStatements> entries = tableStatementsMapping.computeIfAbsent(tableId, key -> new ArrayList<>());
+        Iterator<CachedStatements> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            CachedStatements entry = iterator.next();
+            if (entry.getConnection() != connection || entry.isOutdatedBy(schemaPair)) {
+                log.info("Invalidating cached statements of table {} with {}", tableId, entry.getSchemaPair());
+                iterator.remove();
+                entry.close();
+                metrics.onStatementCacheInvalidation();
+            } else if (entry.getSchemaPair().equals(schemaPair)) {
+                metrics.onStatementCacheHit();
+                return entry;
+            }
+        }
+
+        metrics.onStatementCacheMiss();
+        CachedStatements entry = preparer.prepare();
+        entries.add(entry);
+        return entry;
+    }
+
+    /**
+     * Invalidate all cached statements of the table, eg: the batch in statement is broken by a failed flush.
+     *
+     * @param tableId table id
+     */
+    public void invalidate(final TableId tableId) {
+        List<CachedStatements> entries = tableStatementsMapping.remove(tableId);
+        if (Objects.nonNull(entries)) {
+            entries.forEach(CachedStatements::close);
+            entries.forEach(each -> metrics.onStatementCacheInvalidation());
+        }
+    }
+
+    /**
+     * Close all cached statements.
+     */
+    public void close() {
+        tableStatementsMapping.keySet().forEach(this::invalidate);
+    }
+
+    @FunctionalInterface
+    public interface StatementsPreparer {
+
+        /**
+         * Prepare statements.
+         *
+         * @return prepared statements
+         * @throws SQLException if fail to prepare statements
+         */
+        CachedStatements prepare() throws SQLException;
+    }
+
+    @Getter
+    public static class CachedStatements {
+
+        private final Connection connection;
+
+        private final SchemaPair schemaPair;
+
+        private final FieldsMetadata fieldsMetadata;
+
+        private final PreparedStatement updatePreparedStatement;
+
+        private final DatabaseDialect.StatementBinder updateStatementBinder;
+
+        private final PreparedStatement deletePreparedStatement;
+
+        private final DatabaseDialect.StatementBinder deleteStatementBinder;
+
+        // null if records are not written with multi-row statements
+        private final MultiRowStatements multiRowStatements;
+
+        public CachedStatements(
+                final Connection connection,
+                final SchemaPair schemaPair,
+                final FieldsMetadata fieldsMetadata,
+                final PreparedStatement updatePreparedStatement,
+                final DatabaseDialect.StatementBinder updateStatementBinder,
+                final PreparedStatement deletePreparedStatement,
+                final DatabaseDialect.StatementBinder deleteStatementBinder
+        ) {
+            this(connection, schemaPair, fieldsMetadata, updatePreparedStatement, updateStatementBinder, deletePreparedStatement, deleteStatementBinder, null);
+        }
+
+        public CachedStatements(
+                final Connection connection,
+                final SchemaPair schemaPair,
+                final FieldsMetadata fieldsMetadata,
+                final PreparedStatement updatePreparedStatement,
+                final DatabaseDialect.StatementBinder updateStatementBinder,
+                final PreparedStatement deletePreparedStatement,
+                final DatabaseDialect.StatementBinder deleteStatementBinder,
+                final MultiRowStatements multiRowStatements
+        ) {
+            this.connection = connection;
+            this.schemaPair = schemaPair;
+            this.fieldsMetadata = fieldsMetadata;
+            this.updatePreparedStatement = updatePreparedStatement;
+            this.updateStatementBinder = updateStatementBinder;
+            this.deletePreparedStatement = deletePreparedStatement;
+            this.deleteStatementBinder = deleteStatementBinder;
+            this.multiRowStatements = multiRowStatements;
+        }
+
+        /**
+         * Whether the schema pair is a real schema change of this entry.
+         *
+         * <p>Records of delete come with null value schema, which is not treated as a schema change.
+         */
+        boolean isOutdatedBy(final SchemaPair other) {
+            if (!Objects.equals(schemaPair.getKeySchema(), other.getKeySchema())) {
+                return true;
+            }
+            return Objects.nonNull(schemaPair.getValueSchema())
+                    && Objects.nonNull(other.getValueSchema())
+                    && !Objects.equals(schemaPair.getValueSchema(), other.getValueSchema());
+        }
+
+        void close() {
+            log.debug(
+                    "Closing cached statements with updatePreparedStatement: {} deletePreparedStatement: {}",
+                    updatePreparedStatement,
+                    deletePreparedStatement
+            );
+            closeQuietly(updatePreparedStatement);
+            closeQuietly(deletePreparedStatement);
+            if (Objects.nonNull(multiRowStatements)) {
+                multiRowStatements.close();
+            }
+        }
+
+        private void closeQuietly(final PreparedStatement statement) {
+            if (Objects.isNull(statement)) {
+                return;
+            }
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.warn("Ignoring error closing prepared statement", e);
+            }
+        }
+    }
+}
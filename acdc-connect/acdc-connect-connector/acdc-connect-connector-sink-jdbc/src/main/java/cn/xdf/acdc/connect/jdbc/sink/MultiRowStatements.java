@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.jdbc.sink;
+
+import cn.xdf.acdc.connect.jdbc.dialect.DatabaseDialect;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Multi-row statements of a table and schema pair, keyed by the number of rows.
+ *
+ * <p>Records are written in chunks of power of two rows, so only a few statements are prepared and cached for a table.
+ */
+@Slf4j
+public class MultiRowStatements {
+
+    private static final int MAX_CACHED_STATEMENTS = 8;
+
+    private final int maxRows;
+
+    private final MultiRowStatementPreparer preparer;
+
+    // access ordered, the least recently used statement is closed when there are too many
+    private final Map<Integer, MultiRowStatement> rowCountStatementMapping = new LinkedHashMap<>(MAX_CACHED_STATEMENTS * 2, 0.75f, true);
+
+    public MultiRowStatements(final int maxRows, final MultiRowStatementPreparer preparer) {
+        this.maxRows = Integer.highestOneBit(Math.max(1, maxRows));
+        this.preparer = preparer;
+    }
+
+    /**
+     * Get the number of rows of the statement to write a chunk of records.
+     *
+     * @param recordCount number of records can be written by a statement
+     * @return number of rows of the statement, which is a power of two and no more than the record count
+     */
+    public int rowCountOf(final int recordCount) {
+        return Integer.highestOneBit(Math.min(recordCount, maxRows));
+    }
+
+    /**
+     * Get the max number of rows of a statement.
+     *
+     * @return max number of rows
+     */
+    public int maxRows() {
+        return maxRows;
+    }
+
+    /**
+     * Get the cached statement of the number of rows, or prepare a new one.
+     *
+     * @param rowCount number of rows
+     * @return multi-row statement
+     * @throws SQLException if fail to prepare the statement
+     */
+    public MultiRowStatement getOrPrepare(final int rowCount) throws SQLException {
+        MultiRowStatement statement = rowCountStatementMapping.get(rowCount);
+        if (statement == null) {
+            statement = preparer.prepare(rowCount);
+            rowCountStatementMapping.put(rowCount, statement);
+            evictIfNecessary();
+        }
+        return statement;
+    }
+
+    private void evictIfNecessary() {
+        Iterator<MultiRowStatement> iterator = rowCountStatementMapping.values().iterator();
+        while (rowCountStatementMapping.size() > MAX_CACHED_STATEMENTS) {
+            iterator.next().close();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Close all statements.
+     */
+    public void close() {
+        rowCountStatementMapping.values().forEach(MultiRowStatement::close);
+        rowCountStatementMapping.clear();
+    }
+
+    @FunctionalInterface
+    public interface MultiRowStatementPreparer {
+
+        /**
+         * Prepare the statement of the number of rows.
+         *
+         * @param rowCount number of rows
+         * @return multi-row statement
+         * @throws SQLException if fail to prepare the statement
+         */
+        MultiRowStatement prepare(int rowCount) throws SQLException;
+    }
+
+    @Getter
+    public static class MultiRowStatement {
+
+        private final int rowCount;
+
+        private final PreparedStatement preparedStatement;
+
+        private final DatabaseDialect.StatementBinder statementBinder;
+
+        public MultiRowStatement(final int rowCount, final PreparedStatement preparedStatement, final DatabaseDialect.StatementBinder statementBinder) {
+            this.rowCount = rowCount;
+            this.preparedStatement = preparedStatement;
+            this.statementBinder = statementBinder;
+        }
+
+        void close() {
+            try {
+                preparedStatement.close();
+            } catch (SQLException e) {
+                log.warn("Ignoring error closing multi-row prepared statement", e);
+            }
+        }
+    }
+}
@@ -99,6 +99,12 @@ public class PreparedStatementBinder implements DatabaseDialect.StatementBinder
 
     @Override
     public void bindRecord(final SinkRecord record) throws SQLException {
+        bindRecord(record, 1);
+        statement.addBatch();
+    }
+
+    @Override
+    public int bindRecord(final SinkRecord record, final int index) throws SQLException {
         final Struct valueStruct = (Struct) record.value();
         final boolean isDelete = Objects.isNull(valueStruct);
         // Assumption: the relevant SQL has placeholders for keyFieldNames first followed by
@@ -108,27 +114,20 @@ public class PreparedStatementBinder implements DatabaseDialect.StatementBinder
         //             the relevant SQL has placeholders for nonKeyFieldNames first followed by
         //             keyFieldNames, in iteration order for all UPDATE queries
 
-        int index = 1;
         if (isDelete) {
-            bindKeyFields(record, index);
-        } else {
-            switch (insertMode) {
-                case INSERT:
-                case UPSERT:
-                    index = bindKeyFields(record, index);
-                    bindNonKeyFields(record, valueStruct, index);
-                    break;
-
-                case UPDATE:
-                    index = bindNonKeyFields(record, valueStruct, index);
-                    bindKeyFields(record, index);
-                    break;
-                default:
-                    throw new AssertionError();
+            return bindKeyFields(record, index);
+        }
+        switch (insertMode) {
+            case INSERT:
+            case UPSERT:
+                return bindNonKeyFields(record, valueStruct, bindKeyFields(record, index));
+
+            case UPDATE:
+                return bindKeyFields(record, bindNonKeyFields(record, valueStruct, index));
+            default:
+                throw new AssertionError();
 
-            }
         }
-        statement.addBatch();
     }
 
     protected int bindKeyFields(final SinkRecord record, final int index) throws SQLException {
@@ -18,6 +18,8 @@ package cn.xdf.acdc.connect.jdbc.util;
 import cn.xdf.acdc.connect.jdbc.dialect.DatabaseDialect;
 import cn.xdf.acdc.connect.jdbc.dialect.DropOptions;
 
+import java.util.Collection;
+
 /**
  * A class that can be used to build SQL expressions. A builder can be created with {@link IdentifierRules} that dictate
  * the quote characters and identifier delimiter, or it can be obtained directly from a {@link DatabaseDialect} via the
@@ -463,6 +465,35 @@ public class ExpressionBuilder {
         return this;
     }
 
+    /**
+     * Append rows of value variables delimited by comma, eg: "(?,?),(?,?)" of a multi-row VALUES clause.
+     *
+     * @param rowCount          number of rows
+     * @param variableTransform the transform to append the value variable of a column
+     * @param keyColumns        key columns of a row
+     * @param nonKeyColumns     non-key columns of a row
+     * @return ExpressionBuilder
+     */
+    public ExpressionBuilder appendValueRows(
+            final int rowCount,
+            final Transform<ColumnId> variableTransform,
+            final Collection<ColumnId> keyColumns,
+            final Collection<ColumnId> nonKeyColumns
+    ) {
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                append(",");
+            }
+            append("(");
+            appendList()
+                    .delimitedBy(",")
+                    .transformedBy(variableTransform)
+                    .of(keyColumns, nonKeyColumns);
+            append(")");
+        }
+        return this;
+    }
+
     /**
      * toString.
      *
@@ -20,8 +20,8 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A simple cache of {@link TableDefinition} keyed.
@@ -29,7 +29,7 @@ import java.util.Map;
 @Slf4j
 public class TableDefinitions {
 
-    private final Map<TableId, TableDefinition> cache = new HashMap<>();
+    private final Map<TableId, TableDefinition> cache = new ConcurrentHashMap<>();
 
     private final DatabaseDialect dialect;
 
@@ -15,6 +15,7 @@
 
 package cn.xdf.acdc.connect.jdbc.dialect;
 
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.util.QuoteMethod;
 import cn.xdf.acdc.connect.jdbc.util.TableId;
 import org.apache.kafka.connect.data.Date;
@@ -253,4 +254,19 @@ public class MySqlDatabaseDialectTest extends BaseDialectTest<MySqlDatabaseDiale
         );
     }
 
+    @Test
+    public void shouldBuildMultiRowStatement() {
+        assertEquals(
+                "insert into `myTable`(`id1`,`id2`,`columnA`,`columnB`,`columnC`,`columnD`) values(?,?,?,?,?,?),(?,?,?,?,?,?)",
+                dialect.buildMultiRowStatement(InsertMode.INSERT, tableId, pkColumns, columnsAtoD, null, 2)
+        );
+        assertEquals(
+                "insert into `myTable`(`id1`,`id2`,`columnA`,`columnB`,`columnC`,`columnD`) values(?,?,?,?,?,?),(?,?,?,?,?,?)"
+                        + " on duplicate key update `columnA`=values(`columnA`),`columnB`=values(`columnB`),"
+                        + "`columnC`=values(`columnC`),`columnD`=values(`columnD`)",
+                dialect.buildMultiRowStatement(InsertMode.UPSERT, tableId, pkColumns, columnsAtoD, null, 2)
+        );
+        assertEquals(10922, dialect.maxMultiRowStatementRows(InsertMode.UPSERT, 6));
+        assertEquals(1, dialect.maxMultiRowStatementRows(InsertMode.UPDATE, 6));
+    }
 }
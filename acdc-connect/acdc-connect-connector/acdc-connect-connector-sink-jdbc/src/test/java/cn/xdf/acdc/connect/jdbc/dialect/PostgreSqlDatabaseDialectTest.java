@@ -15,6 +15,7 @@
 
 package cn.xdf.acdc.connect.jdbc.dialect;
 
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.util.ColumnId;
 import cn.xdf.acdc.connect.jdbc.util.QuoteMethod;
 import cn.xdf.acdc.connect.jdbc.util.TableDefinition;
@@ -448,4 +449,29 @@ public class PostgreSqlDatabaseDialectTest extends BaseDialectTest<PostgreSqlDat
         super.verifyBindField(++index, SchemaBuilder.array(Schema.BOOLEAN_SCHEMA), Arrays.asList(true, false, true))
                 .setObject(index, new Object[]{true, false, true}, Types.ARRAY);
     }
+
+    @Test
+    public void shouldBuildMultiRowStatement() {
+        TableDefinitionBuilder builder = new TableDefinitionBuilder().withTable("myTable");
+        builder.withColumn("id1").type("int", JDBCType.INTEGER, Integer.class);
+        builder.withColumn("id2").type("int", JDBCType.INTEGER, Integer.class);
+        builder.withColumn("columnA").type("varchar", JDBCType.VARCHAR, String.class);
+        builder.withColumn("columnB").type("varchar", JDBCType.VARCHAR, String.class);
+        builder.withColumn("columnC").type("varchar", JDBCType.VARCHAR, String.class);
+        builder.withColumn("columnD").type("varchar", JDBCType.VARCHAR, String.class);
+        TableDefinition tableDefn = builder.build();
+        assertEquals(
+                "INSERT INTO \"myTable\" (\"id1\",\"id2\",\"columnA\",\"columnB\",\"columnC\",\"columnD\")"
+                        + " VALUES (?,?,?,?,?,?),(?,?,?,?,?,?)",
+                dialect.buildMultiRowStatement(InsertMode.INSERT, tableId, pkColumns, columnsAtoD, tableDefn, 2)
+        );
+        assertEquals(
+                "INSERT INTO \"myTable\" (\"id1\",\"id2\",\"columnA\",\"columnB\",\"columnC\",\"columnD\")"
+                        + " VALUES (?,?,?,?,?,?),(?,?,?,?,?,?) ON CONFLICT (\"id1\",\"id2\") DO UPDATE SET"
+                        + " \"columnA\"=EXCLUDED.\"columnA\",\"columnB\"=EXCLUDED.\"columnB\","
+                        + "\"columnC\"=EXCLUDED.\"columnC\",\"columnD\"=EXCLUDED.\"columnD\"",
+                dialect.buildMultiRowStatement(InsertMode.UPSERT, tableId, pkColumns, columnsAtoD, tableDefn, 2)
+        );
+        assertEquals(5461, dialect.maxMultiRowStatementRows(InsertMode.INSERT, 6));
+    }
 }
@@ -15,6 +15,7 @@
 
 package cn.xdf.acdc.connect.jdbc.dialect;
 
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.util.ColumnId;
 import cn.xdf.acdc.connect.jdbc.util.QuoteMethod;
 import cn.xdf.acdc.connect.jdbc.util.TableId;
@@ -402,6 +403,28 @@ public class SqlServerDatabaseDialectTest extends BaseDialectTest<SqlServerDatab
         );
     }
 
+    @Test
+    public void shouldBuildMultiRowStatement() {
+        assertEquals(
+                "insert into [myTable]([id1],[id2],[columnA],[columnB],[columnC],[columnD]) values (?,?,?,?,?,?),(?,?,?,?,?,?)",
+                dialect.buildMultiRowStatement(InsertMode.INSERT, tableId, pkColumns, columnsAtoD, null, 2)
+        );
+        assertEquals(
+                "merge into [myTable] with (HOLDLOCK) AS target using (values (?,?,?,?,?,?),(?,?,?,?,?,?))"
+                        + " AS incoming ([id1], [id2], [columnA], [columnB], [columnC], [columnD])"
+                        + " on (target.[id1]=incoming.[id1] and target.[id2]=incoming"
+                        + ".[id2]) when matched then update set [columnA]=incoming.[columnA],"
+                        + "[columnB]=incoming.[columnB],[columnC]=incoming.[columnC],"
+                        + "[columnD]=incoming.[columnD] when not matched then insert ([columnA], "
+                        + "[columnB], [columnC], [columnD], [id1], [id2]) values (incoming.[columnA],"
+                        + "incoming.[columnB],incoming.[columnC],incoming.[columnD],incoming.[id1],"
+                        + "incoming.[id2]);",
+                dialect.buildMultiRowStatement(InsertMode.UPSERT, tableId, pkColumns, columnsAtoD, null, 2)
+        );
+        assertEquals(333, dialect.maxMultiRowStatementRows(InsertMode.UPSERT, 6));
+        assertEquals(1000, dialect.maxMultiRowStatementRows(InsertMode.INSERT, 1));
+    }
+
     public class MockSqlServerDatabaseDialect extends SqlServerDatabaseDialect {
 
         public MockSqlServerDatabaseDialect() {
@@ -413,5 +436,4 @@ public class SqlServerDatabaseDialectTest extends BaseDialectTest<SqlServerDatab
             return true;
         }
     }
-
 }
@@ -15,6 +15,7 @@
 
 package cn.xdf.acdc.connect.jdbc.dialect;
 
+import cn.xdf.acdc.connect.jdbc.sink.JdbcSinkConfig.InsertMode;
 import cn.xdf.acdc.connect.jdbc.sink.SqliteHelper;
 import cn.xdf.acdc.connect.jdbc.util.ColumnDefinition;
 import cn.xdf.acdc.connect.jdbc.util.DateTimeUtils;
@@ -308,4 +309,16 @@ public class SqliteDatabaseDialectTest extends BaseDialectTest<SqliteDatabaseDia
         assertTrue(matcher.matches());
     }
 
+    @Test
+    public void shouldBuildMultiRowStatement() {
+        assertEquals(
+                "INSERT INTO `myTable`(`id1`,`id2`,`columnA`,`columnB`,`columnC`,`columnD`) VALUES(?,?,?,?,?,?),(?,?,?,?,?,?)",
+                dialect.buildMultiRowStatement(InsertMode.INSERT, tableId, pkColumns, columnsAtoD, null, 2)
+        );
+        assertEquals(
+                "INSERT OR REPLACE INTO `myTable`(`id1`,`id2`,`columnA`,`columnB`,`columnC`,`columnD`) VALUES(?,?,?,?,?,?),(?,?,?,?,?,?)",
+                dialect.buildMultiRowStatement(InsertMode.UPSERT, tableId, pkColumns, columnsAtoD, null, 2)
+        );
+        assertEquals(166, dialect.maxMultiRowStatementRows(InsertMode.INSERT, 6));
+    }
 }
@@ -40,6 +40,7 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -725,6 +726,128 @@ public class JdbcBufferedRecordsTest {
         assertInvalidRecord(false, true, false, false, "with a Struct key and null key schema");
     }
 
+    @Test
+    public void multiRowInsertShouldBeChunkedByByteBudget() throws Exception {
+        props.put("multi.row.write.enabled", "true");
+        props.put("multi.row.write.max.bytes", "1024");
+        final JdbcSinkConfig config = new JdbcSinkConfig(props);
+
+        final String url = sqliteHelper.sqliteUri();
+        final DatabaseDialect dbDialect = DatabaseDialects.findBestFor(url, config);
+        final DbStructure dbStructure = new DbStructure(dbDialect);
+
+        final TableId tableId = new TableId(null, null, "dummy");
+        final JdbcBufferedRecords buffer = new JdbcBufferedRecords(config, tableId, dbDialect, dbStructure,
+                sqliteHelper.getConnection());
+
+        final Schema schema = SchemaBuilder.struct()
+                .field("name", Schema.STRING_SCHEMA)
+                .build();
+        // a long name exceeds half of the byte budget, every statement carries only one of them
+        final String longName = String.join("", Collections.nCopies(600, "n"));
+        for (int i = 0; i < 7; i++) {
+            final String name = i % 3 == 0 ? longName + i : "name" + i;
+            buffer.add(new SinkRecord("dummy", 0, null, null, schema, new Struct(schema).put("name", name), i));
+        }
+        assertEquals(7, buffer.flush().size());
+
+        final List<String> names = new ArrayList<>();
+        sqliteHelper.select("select name from dummy", rs -> names.add(rs.getString(1)));
+        assertEquals(Arrays.asList(longName + 0, "name1", "name2", longName + 3, "name4", "name5", longName + 6), names);
+    }
+
+    @Test
+    public void multiRowUpsertShouldKeepTheLastValueOfTheSameKey() throws Exception {
+        props.put("multi.row.write.enabled", "true");
+        props.put("insert.mode", "upsert");
+        props.put("pk.mode", "record_key");
+        final JdbcSinkConfig config = new JdbcSinkConfig(props);
+
+        final String url = sqliteHelper.sqliteUri();
+        final DatabaseDialect dbDialect = DatabaseDialects.findBestFor(url, config);
+        final DbStructure dbStructure = new DbStructure(dbDialect);
+
+        final TableId tableId = new TableId(null, null, "dummy");
+        final JdbcBufferedRecords buffer = new JdbcBufferedRecords(config, tableId, dbDialect, dbStructure,
+                sqliteHelper.getConnection());
+
+        final Schema keySchema = SchemaBuilder.struct()
+                .field("id", Schema.INT64_SCHEMA)
+                .build();
+        final Schema valueSchema = SchemaBuilder.struct()
+                .field("name", Schema.STRING_SCHEMA)
+                .build();
+        final long[] ids = {1L, 2L, 1L, 3L, 2L};
+        for (int i = 0; i < ids.length; i++) {
+            buffer.add(new SinkRecord("dummy", 0, keySchema, new Struct(keySchema).put("id", ids[i]),
+                    valueSchema, new Struct(valueSchema).put("name", "name" + i), i));
+        }
+        buffer.flush();
+
+        final Map<Long, String> names = new HashMap<>();
+        sqliteHelper.select("select id, name from dummy", rs -> names.put(rs.getLong(1), rs.getString(2)));
+        assertEquals(3, names.size());
+        assertEquals("name2", names.get(1L));
+        assertEquals("name4", names.get(2L));
+        assertEquals("name3", names.get(3L));
+    }
+
+    @Test(expected = ConfigException.class)
+    public void configParsingFailsIfUpsertCompactionWithWrongInsertMode() {
+        props.put("upsert.compaction.enabled", "true");
+        props.put("pk.mode", "record_key");
+        new JdbcSinkConfig(props);
+    }
+
+    @Test
+    public void upsertCompactionShouldWriteTheLastRecordOfEveryKey() throws Exception {
+        props.put("delete.enabled", "true");
+        props.put("insert.mode", "upsert");
+        props.put("pk.mode", "record_key");
+        props.put("upsert.compaction.enabled", "true");
+        final JdbcSinkConfig config = new JdbcSinkConfig(props);
+
+        final String url = sqliteHelper.sqliteUri();
+        final DatabaseDialect dbDialect = DatabaseDialects.findBestFor(url, config);
+        final DbStructure dbStructure = new DbStructure(dbDialect);
+
+        final TableId tableId = new TableId(null, null, "dummy");
+        final JdbcSinkTaskMetrics metrics = new JdbcSinkTaskMetrics(config);
+        final JdbcBufferedRecords buffer = new JdbcBufferedRecords(config, tableId, dbDialect, dbStructure,
+                sqliteHelper.getConnection(), new JdbcStatementCache(metrics), metrics);
+
+        final Schema keySchema = SchemaBuilder.struct()
+                .field("id", Schema.INT64_SCHEMA)
+                .build();
+        final Schema valueSchema = SchemaBuilder.struct()
+                .field("name", Schema.STRING_SCHEMA)
+                .build();
+        final Struct key1 = new Struct(keySchema).put("id", 1L);
+        final Struct key2 = new Struct(keySchema).put("id", 2L);
+        buffer.add(new SinkRecord("dummy", 0, keySchema, key2, valueSchema, new Struct(valueSchema).put("name", "name0"), 0));
+        buffer.flush();
+
+        final List<SinkRecord> records = Arrays.asList(
+                new SinkRecord("dummy", 0, keySchema, key1, valueSchema, new Struct(valueSchema).put("name", "name1"), 1),
+                new SinkRecord("dummy", 0, keySchema, key1, valueSchema, new Struct(valueSchema).put("name", "name2"), 2),
+                new SinkRecord("dummy", 0, keySchema, key1, null, null, 3),
+                new SinkRecord("dummy", 0, keySchema, key1, valueSchema, new Struct(valueSchema).put("name", "name4"), 4),
+                new SinkRecord("dummy", 0, keySchema, key2, null, null, 5)
+        );
+        // an insert after a delete of the same key doesn't cause a flush
+        for (SinkRecord each : records) {
+            assertEquals(Collections.emptyList(), buffer.add(each));
+        }
+        assertEquals(records, buffer.flush());
+
+        final Map<Long, String> names = new HashMap<>();
+        sqliteHelper.select("select id, name from dummy", rs -> names.put(rs.getLong(1), rs.getString(2)));
+        assertEquals(Collections.singletonMap(1L, "name4"), names);
+        assertEquals(6, metrics.getCompactionInputRecordCount());
+        assertEquals(3, metrics.getCompactionOutputRecordCount());
+        assertEquals(0.5, metrics.getCompactionRatio(), 0.001);
+    }
+
     protected SinkRecord generateRecord(
             final boolean includeKeySchema,
             final boolean includeKey,
@@ -15,6 +15,7 @@
 
 package cn.xdf.acdc.connect.jdbc.sink;
 
+import cn.xdf.acdc.connect.core.sink.PartiallyCommittedException;
 import cn.xdf.acdc.connect.core.util.config.SinkConfig;
 import cn.xdf.acdc.connect.jdbc.dialect.BaseDialectTest;
 import cn.xdf.acdc.connect.jdbc.util.DateTimeUtils;
@@ -39,6 +40,8 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -50,8 +53,11 @@ import java.util.concurrent.CompletableFuture;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class JdbcSinkTaskTest {
@@ -288,6 +294,44 @@ public class JdbcSinkTaskTest {
 
     }
 
+    @Test
+    public void testShouldWriteOnlyUncommittedDestinationsWhenPartiallyCommittedBatchRedelivered() throws Exception {
+        List<SinkRecord> records = createRecordsList(2);
+
+        doThrow(new PartiallyCommittedException(Collections.singleton(BaseDialectTest.DEFAULT_TEST_TABLE_NAME), new RetriableException("cause 1")))
+                .when(mockWriter).write(records);
+        when(ctx.errantRecordReporter()).thenReturn(null);
+        JdbcSinkTask task = new JdbcSinkTask() {
+            @Override
+            void initWriter() {
+                this.setWriter(mockWriter);
+            }
+        };
+        task.initialize(ctx);
+
+        Map<String, String> props = setupBasicProps(1, 0);
+        props.put(SinkConfig.DESTINATIONS, BaseDialectTest.DEFAULT_TEST_TABLE_NAME + ",other_table");
+        props.put(SinkConfig.DESTINATIONS_CONFIG_PREFIX + "other_table" + SinkConfig.DESTINATIONS_CONFIG_FIELD_WHITELIST, BaseDialectTest.DEFAULT_TEST_FIELD_NAME);
+        task.start(props);
+
+        try {
+            task.put(records);
+            fail();
+        } catch (RetriableException expected) {
+            assertEquals("cause 1", expected.getMessage());
+        }
+
+        // the redelivered batch is written to the uncommitted destination only
+        task.put(records);
+        verify(mockWriter, times(1)).write(records);
+        verify(mockWriter, times(1)).write(records, Collections.singletonList("other_table"));
+
+        // a new batch is written to all destinations
+        List<SinkRecord> nextRecords = Collections.singletonList(new SinkRecord("stub", 0, null, null, null, null, 1));
+        task.put(nextRecords);
+        verify(mockWriter, times(1)).write(nextRecords);
+    }
+
     @Test
     public void errorReporting() throws Exception {
         List<SinkRecord> records = createRecordsList(1);
@@ -359,6 +403,69 @@ public class JdbcSinkTaskTest {
         task.put(records);
     }
 
+    @Test
+    public void testShouldBisectFailedBatchAndReportOnlyFailedRecords() throws Exception {
+        assertFailedRecordsIsolated(JdbcSinkConfig.ErrorIsolationMode.BISECT);
+    }
+
+    @Test
+    public void testShouldRetryFailedBatchOneByOneAndReportOnlyFailedRecords() throws Exception {
+        assertFailedRecordsIsolated(JdbcSinkConfig.ErrorIsolationMode.ONE_BY_ONE);
+    }
+
+    private void assertFailedRecordsIsolated(final JdbcSinkConfig.ErrorIsolationMode errorIsolationMode) throws Exception {
+        final int batchSize = 32;
+        List<SinkRecord> records = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            records.add(new SinkRecord("stub", 0, null, null, null, null, i));
+        }
+        List<SinkRecord> failedRecords = Arrays.asList(records.get(5), records.get(6), records.get(20));
+
+        // a write fails if it contains any failed record, the written records are those of successful writes
+        List<SinkRecord> writtenRecords = new ArrayList<>();
+        doAnswer(invocation -> {
+            Collection<SinkRecord> batch = (Collection<SinkRecord>) invocation.getArguments()[0];
+            if (batch.stream().anyMatch(failedRecords::contains)) {
+                throw new ConnectException("failed record");
+            }
+            writtenRecords.addAll(batch);
+            return null;
+        }).when(mockWriter).write(Matchers.anyCollection());
+
+        JdbcSinkTask task = new JdbcSinkTask() {
+            @Override
+            void initWriter() {
+                this.setWriter(mockWriter);
+            }
+        };
+        task.initialize(ctx);
+        ErrantRecordReporter reporter = mock(ErrantRecordReporter.class);
+        when(ctx.errantRecordReporter()).thenReturn(reporter);
+        when(reporter.report(Matchers.anyObject(), Matchers.anyObject())).thenReturn(CompletableFuture.completedFuture(null));
+
+        Map<String, String> props = setupBasicProps(0, 0);
+        props.put(JdbcSinkConfig.ERROR_ISOLATION_MODE, errorIsolationMode.name().toLowerCase());
+        task.start(props);
+        task.put(records);
+
+        for (SinkRecord each : failedRecords) {
+            verify(reporter, times(1)).report(Matchers.eq(each), Matchers.any(ConnectException.class));
+        }
+        List<SinkRecord> expectedWrittenRecords = new ArrayList<>(records);
+        expectedWrittenRecords.removeAll(failedRecords);
+        assertEquals(expectedWrittenRecords, writtenRecords);
+
+        JdbcSinkTaskMetrics metrics = task.getMetrics();
+        assertEquals(1, metrics.getErrorIsolationCount());
+        assertEquals(failedRecords.size(), metrics.getIsolatedRecordCount());
+        if (errorIsolationMode == JdbcSinkConfig.ErrorIsolationMode.BISECT) {
+            assertTrue(metrics.getErrorIsolationWriteCount() < batchSize);
+        } else {
+            assertEquals(batchSize, metrics.getErrorIsolationWriteCount());
+        }
+        task.stop();
+    }
+
     private List<SinkRecord> createRecordsList(int batchSize) {
         List<SinkRecord> records = new ArrayList<>();
         for (int i = 0; i < batchSize; i++) {
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package cn.xdf.acdc.connect.jdbc.sink;
+
+import cn.xdf.acdc.connect.jdbc.dialect.SqliteDatabaseDialect;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class JdbcStatementCacheTest {
+
+    private static final String TOPIC = "books";
+
+    private final SqliteHelper sqliteHelper = new SqliteHelper(getClass().getSimpleName());
+
+    private final Schema keySchema = SchemaBuilder.struct().field("id", Schema.INT64_SCHEMA).build();
+
+    private JdbcSinkTaskMetrics metrics;
+
+    private JdbcDbWriter writer;
+
+    @Before
+    public void setUp() throws IOException, SQLException {
+        sqliteHelper.setUp();
+        Map<String, String> props = new HashMap<>();
+        props.put("name", "statement-cache-test");
+        props.put("connection.url", sqliteHelper.sqliteUri());
+        props.put("auto.create", "true");
+        props.put("auto.evolve", "true");
+        props.put("pk.mode", "record_key");
+        props.put("insert.mode", "upsert");
+        props.put("destinations", TOPIC);
+        props.put("destinations.books.fields.whitelist", "id,author,title");
+        final JdbcSinkConfig config = new JdbcSinkConfig(props);
+        final SqliteDatabaseDialect dialect = new SqliteDatabaseDialect(config);
+        metrics = new JdbcSinkTaskMetrics(config);
+        writer = new JdbcDbWriter(config, dialect, new DbStructure(dialect), metrics);
+    }
+
+    @After
+    public void tearDown() throws IOException, SQLException {
+        writer.close();
+        sqliteHelper.tearDown();
+    }
+
+    @Test
+    public void testShouldReuseStatementsAcrossPuts() {
+        Schema valueSchema = SchemaBuilder.struct().field("author", Schema.STRING_SCHEMA).build();
+
+        writer.write(Collections.singletonList(newRecord(1L, valueSchema)));
+        writer.write(Collections.singletonList(newRecord(2L, valueSchema)));
+        writer.write(Collections.singletonList(newRecord(3L, valueSchema)));
+
+        Assert.assertEquals(1, metrics.getStatementCacheMissCount());
+        Assert.assertEquals(2, metrics.getStatementCacheHitCount());
+        Assert.assertEquals(0, metrics.getStatementCacheInvalidationCount());
+    }
+
+    @Test
+    public void testShouldInvalidateStatementsWhenSchemaChanged() {
+        Schema valueSchema1 = SchemaBuilder.struct().field("author", Schema.STRING_SCHEMA).build();
+        Schema valueSchema2 = SchemaBuilder.struct()
+                .field("author", Schema.STRING_SCHEMA)
+                .field("title", Schema.OPTIONAL_STRING_SCHEMA)
+                .build();
+
+        writer.write(Collections.singletonList(newRecord(1L, valueSchema1)));
+        writer.write(Collections.singletonList(newRecord(2L, valueSchema2)));
+        writer.write(Collections.singletonList(newRecord(3L, valueSchema2)));
+
+        Assert.assertEquals(2, metrics.getStatementCacheMissCount());
+        Assert.assertEquals(1, metrics.getStatementCacheHitCount());
+        Assert.assertEquals(1, metrics.getStatementCacheInvalidationCount());
+    }
+
+    @Test
+    public void testShouldInvalidateStatementsWhenConnectionReset() {
+        Schema valueSchema = SchemaBuilder.struct().field("author", Schema.STRING_SCHEMA).build();
+
+        writer.write(Collections.singletonList(newRecord(1L, valueSchema)));
+        writer.getCachedConnectionProvider().close();
+        writer.write(Collections.singletonList(newRecord(2L, valueSchema)));
+
+        Assert.assertEquals(2, metrics.getStatementCacheMissCount());
+        Assert.assertEquals(0, metrics.getStatementCacheHitCount());
+        Assert.assertEquals(1, metrics.getStatementCacheInvalidationCount());
+    }
+
+    private SinkRecord newRecord(final long id, final Schema valueSchema) {
+        Struct key = new Struct(keySchema).put("id", id);
+        Struct value = new Struct(valueSchema).put("author", "Tom Robbins");
+        return new SinkRecord(TOPIC, 0, keySchema, key, valueSchema, value, id);
+    }
+}
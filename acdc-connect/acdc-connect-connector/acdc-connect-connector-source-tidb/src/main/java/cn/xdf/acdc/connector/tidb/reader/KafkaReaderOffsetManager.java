@@ -10,10 +10,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class KafkaReaderOffsetManager {
@@ -29,16 +26,21 @@ public class KafkaReaderOffsetManager {
     /**
      * Poll origin topic record and keep the dealing record's offsets in this buffer,
      * once the record is dealt ,do commit the offset to kafka and release the buffer.
+     *
+     * <p>A partition is added, cleared and initialized by the runner which owns it, while its events are marked as done by any thread.
      */
-    private final Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> toCommitPartitionOffsetsBuffer = new ConcurrentHashMap<>();
+    private final Map<Integer, PartitionPendingOffsets> toCommitPartitionOffsetsBuffer = new ConcurrentHashMap<>();
+
+    /**
+     * Pending offsets count of all partitions.
+     */
+    private final AtomicInteger toCommitPartitionOffsetsBufferSize = new AtomicInteger(0);
 
     /**
      * Last committed offset per partition.
      */
     private final Map<Integer, Long> toCommitPartitionOffsets = new ConcurrentHashMap<>();
 
-    private final ReentrantLock lock = new ReentrantLock();
-
     /**
      * Init offset manager with begin offset.
      *
@@ -46,10 +48,13 @@ public class KafkaReaderOffsetManager {
      */
     public void init(final Map<Integer, Long> beginOffset) {
         Preconditions.checkNotNull(beginOffset, "Begin offset should not be null.");
-        toCommitPartitionOffsets.putAll(beginOffset);
-        Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> newPartitionOffsetsBuffer = beginOffset.keySet().stream()
-                .collect(Collectors.toMap(key -> key, key -> new ConcurrentSkipListMap<>()));
-        toCommitPartitionOffsetsBuffer.putAll(newPartitionOffsetsBuffer);
+        beginOffset.forEach((partition, offset) -> {
+            PartitionPendingOffsets previous = toCommitPartitionOffsetsBuffer.put(partition, new PartitionPendingOffsets(offset, toCommitPartitionOffsetsBufferSize));
+            if (Objects.nonNull(previous)) {
+                previous.close();
+            }
+            toCommitPartitionOffsets.put(partition, offset);
+        });
     }
 
     /**
@@ -63,7 +68,12 @@ public class KafkaReaderOffsetManager {
     public void add(final Integer partition, final Long offset, final Set<Integer> eventIdSet) throws RetriableException {
         DelayStrategy delayStrategy = getDelayStrategy();
         delayStrategy.sleepWhenNotTimeout(this::bufferMaybeOverload);
-        toCommitPartitionOffsetsBuffer.get(partition).putIfAbsent(offset, eventIdSet);
+        PartitionPendingOffsets offsetsBuffer = toCommitPartitionOffsetsBuffer.get(partition);
+        if (Objects.isNull(offsetsBuffer)) {
+            log.warn("Partition: {}, offsets buffer is null, usually consumer is rebalancing.", partition);
+            return;
+        }
+        offsetsBuffer.add(offset, eventIdSet);
     }
 
     /**
@@ -90,15 +100,12 @@ public class KafkaReaderOffsetManager {
      * @param orderInBatch event order in one batch
      */
     public void markTicdcEventAsDone(final int partition, final long offset, final int orderInBatch) {
-        ConcurrentSkipListMap<Long, Set<Integer>> offsetsBuffer = toCommitPartitionOffsetsBuffer.get(partition);
+        PartitionPendingOffsets offsetsBuffer = toCommitPartitionOffsetsBuffer.get(partition);
         if (Objects.isNull(offsetsBuffer)) {
             log.warn("Partition: {}, offsets buffer is null, usually consumer is rebalancing.", partition);
             return;
         }
-        offsetsBuffer.computeIfPresent(offset, (k, v) -> {
-            v.remove(orderInBatch);
-            return v;
-        });
+        offsetsBuffer.markDone(offset, orderInBatch);
     }
 
     /**
@@ -113,38 +120,19 @@ public class KafkaReaderOffsetManager {
     /**
      * Is need commit or not.
      *
+     * <p>A partition being advanced by another runner is skipped, it will be committed in the next round.
+     *
      * @return is need commit
      */
     public boolean ifNeedCommit() {
-        if (lock.tryLock()) {
-            AtomicBoolean ifNeedCommit = new AtomicBoolean(false);
-            try {
-                toCommitPartitionOffsetsBuffer.forEach((partition, partitionBuffer) -> {
-                    catchUpKafkaProduceSuccessOffsetAndReleaseBuffer(ifNeedCommit, partition, partitionBuffer);
-                });
-            } finally {
-                lock.unlock();
-                return ifNeedCommit.get();
-            }
-        }
-        return false;
-    }
-
-    private void catchUpKafkaProduceSuccessOffsetAndReleaseBuffer(final AtomicBoolean isCompact, final Integer partition,
-                                                                  final ConcurrentSkipListMap<Long, Set<Integer>> partitionBuffer) {
-        long toCommitOffset = toCommitPartitionOffsets.get(partition);
-        long cursor = toCommitOffset - 1;
-        if (!partitionBuffer.isEmpty()) {
-            while (partitionBuffer.containsKey(++cursor) && partitionBuffer.get(cursor).isEmpty()) {
-                while (!partitionBuffer.isEmpty() && partitionBuffer.firstEntry().getKey() <= cursor) {
-                    partitionBuffer.pollFirstEntry();
-                }
-            }
-            toCommitPartitionOffsets.put(partition, cursor);
-            if (cursor > toCommitOffset) {
-                isCompact.set(true);
+        boolean ifNeedCommit = false;
+        for (Map.Entry<Integer, PartitionPendingOffsets> entry : toCommitPartitionOffsetsBuffer.entrySet()) {
+            Integer partition = entry.getKey();
+            if (entry.getValue().advance(offset -> toCommitPartitionOffsets.put(partition, offset))) {
+                ifNeedCommit = true;
             }
         }
+        return ifNeedCommit;
     }
 
     /**
@@ -155,8 +143,11 @@ public class KafkaReaderOffsetManager {
     public void clear(final List<Integer> revokedPartitions) {
         Preconditions.checkNotNull(revokedPartitions);
         revokedPartitions.forEach(partition -> {
+            PartitionPendingOffsets offsetsBuffer = toCommitPartitionOffsetsBuffer.remove(partition);
+            if (Objects.nonNull(offsetsBuffer)) {
+                offsetsBuffer.close();
+            }
             toCommitPartitionOffsets.remove(partition);
-            toCommitPartitionOffsetsBuffer.remove(partition);
         });
     }
 
@@ -166,11 +157,7 @@ public class KafkaReaderOffsetManager {
      * @return to commit partition offsets buffer size
      */
     private int getToCommitPartitionOffsetsBufferSize() {
-        int size = 0;
-        for (Map<Long, Set<Integer>> offsetBuffer : toCommitPartitionOffsetsBuffer.values()) {
-            size += offsetBuffer.size();
-        }
-        return size;
+        return toCommitPartitionOffsetsBufferSize.get();
     }
 
 }
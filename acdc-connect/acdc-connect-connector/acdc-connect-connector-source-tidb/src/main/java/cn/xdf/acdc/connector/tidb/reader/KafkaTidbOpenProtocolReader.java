@@ -1,7 +1,9 @@
 package cn.xdf.acdc.connector.tidb.reader;
 
 import cn.xdf.acdc.connector.tidb.ticdc.parser.TicdcOpenProtocolParser;
+import cn.xdf.acdc.connector.tidb.ticdc.parser.TicdcStreamingEventDecoder;
 import cn.xdf.acdc.connector.tidb.util.DelayStrategy;
+import cn.xdf.acdc.connector.tidb.util.TicdcDecoderMode;
 import com.google.common.collect.Lists;
 import com.pingcap.ticdc.cdc.KafkaMessage;
 import io.debezium.config.Configuration;
@@ -31,6 +33,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -72,14 +76,36 @@ public class KafkaTidbOpenProtocolReader implements TidbDataReader {
 
     private final DelayStrategy retryIntervalDelayStrategy = DelayStrategy.constant(RETRY_INTERVAL);
 
+    private final Function<KafkaMessage, List<Event>> kafkaMessageParser;
+
     public KafkaTidbOpenProtocolReader(final Configuration config) {
+        this(config, (databaseName, tableName) -> true);
+    }
+
+    /**
+     * Create a reader, rows of the tables not matching the filter may be read without columns.
+     *
+     * @param config      connector config
+     * @param tableFilter filter by database name and table name
+     */
+    public KafkaTidbOpenProtocolReader(final Configuration config, final BiPredicate<String, String> tableFilter) {
         this.subscribeTopic = config.getString(TidbConnectorConfig.SOURCE_KAFKA_TOPIC);
+        this.kafkaMessageParser = newKafkaMessageParser(config, tableFilter);
         this.totalRunnerCount = new AtomicInteger(config.getInteger(TidbConnectorConfig.SOURCE_KAFKA_READER_THREAD_NUMBER));
         initConsumerProperties(config);
         registerRunnerLifecycleListener(defaultRunnerLifecycleListener());
         status = ReaderStatus.INITTED;
     }
 
+    private Function<KafkaMessage, List<Event>> newKafkaMessageParser(final Configuration config, final BiPredicate<String, String> tableFilter) {
+        TicdcDecoderMode decoderMode = TicdcDecoderMode.parse(config.getString(TidbConnectorConfig.TICDC_DECODER_MODE));
+        if (TicdcDecoderMode.FASTJSON == decoderMode) {
+            return TicdcOpenProtocolParser::parse;
+        }
+        TicdcStreamingEventDecoder decoder = new TicdcStreamingEventDecoder(tableFilter);
+        return kafkaMessage -> TicdcOpenProtocolParser.parse(kafkaMessage, decoder);
+    }
+
     private RunnerLifecycleListener defaultRunnerLifecycleListener() {
         return new RunnerLifecycleListener() {
             @Override
@@ -196,7 +222,7 @@ public class KafkaTidbOpenProtocolReader implements TidbDataReader {
         ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofMillis(DEFAULT_CONSUMER_POLL_DURATION));
         for (ConsumerRecord<byte[], byte[]> record : records) {
             KafkaMessage kafkaMessage = recordToKafkaMessage(record);
-            List<Event> events = TicdcOpenProtocolParser.parse(kafkaMessage);
+            List<Event> events = kafkaMessageParser.apply(kafkaMessage);
             Set<Integer> eventIds = events.stream().map(Event::getOrder).collect(Collectors.toSet());
             offsetManager.add(record.partition(), record.offset(), eventIds);
             events.forEach(event -> eventListeners.forEach(eventListener -> eventListener.onEvent(event)));
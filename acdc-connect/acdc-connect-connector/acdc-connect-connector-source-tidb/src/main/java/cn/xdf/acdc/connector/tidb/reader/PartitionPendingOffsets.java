@@ -0,0 +1,264 @@
+package cn.xdf.acdc.connector.tidb.reader;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongConsumer;
+
+/**
+ * Pending offsets of one partition, which are kept in a ring in the order of being added.
+ *
+ * <p>Offsets are added in ascending order by the runner that owns the partition, and so are {@link #close()}. Events of an offset are
+ * marked as done by any thread without locking. The commit offset is advanced by one thread at a time, a thread finding another one
+ * advancing just skips the partition.
+ */
+final class PartitionPendingOffsets {
+
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private final AtomicInteger totalPendingCount;
+
+    private final AtomicInteger pendingCount = new AtomicInteger(0);
+
+    private final AtomicBoolean advancing = new AtomicBoolean(false);
+
+    private volatile AtomicReferenceArray<PendingEvents> ring = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    /**
+     * Sequence of the oldest pending offset, only updated by the advancing thread.
+     */
+    private volatile long head;
+
+    /**
+     * Sequence of the next offset to add, only updated by the owning runner.
+     */
+    private volatile long tail;
+
+    private volatile long lastAddedOffset;
+
+    private volatile long committedOffset;
+
+    /**
+     * Create pending offsets of a partition.
+     *
+     * @param beginOffset       offset to begin with, which is also the offset to commit until any offset is done
+     * @param totalPendingCount pending offsets count of all partitions, which is shared by the partitions of a reader
+     */
+    PartitionPendingOffsets(final long beginOffset, final AtomicInteger totalPendingCount) {
+        this.totalPendingCount = totalPendingCount;
+        this.committedOffset = beginOffset;
+        this.lastAddedOffset = beginOffset - 1;
+    }
+
+    /**
+     * Add an offset with the events in it, an offset not greater than the last added one is ignored.
+     *
+     * @param offset   offset
+     * @param eventIds orders of the events in the offset
+     * @return true if the offset is added
+     */
+    boolean add(final long offset, final Set<Integer> eventIds) {
+        if (offset <= lastAddedOffset) {
+            return false;
+        }
+        long sequence = tail;
+        AtomicReferenceArray<PendingEvents> current = ring;
+        if (sequence - head >= current.length()) {
+            current = grow(current, sequence);
+        }
+        current.set(index(current, sequence), new PendingEvents(offset, eventIds));
+        pendingCount.incrementAndGet();
+        totalPendingCount.incrementAndGet();
+        lastAddedOffset = offset;
+        // publish the offset after it is in the ring
+        tail = sequence + 1;
+        return true;
+    }
+
+    private AtomicReferenceArray<PendingEvents> grow(final AtomicReferenceArray<PendingEvents> current, final long sequence) {
+        AtomicReferenceArray<PendingEvents> grown = new AtomicReferenceArray<>(current.length() << 1);
+        // the head may move on while copying, which only leaves some done offsets in the new ring
+        for (long i = head; i < sequence; i++) {
+            grown.set(index(grown, i), current.get(index(current, i)));
+        }
+        ring = grown;
+        return grown;
+    }
+
+    /**
+     * Mark an event of an offset as done, an unknown or released offset is ignored.
+     *
+     * @param offset       offset
+     * @param orderInBatch order of the event in the offset
+     */
+    void markDone(final long offset, final int orderInBatch) {
+        PendingEvents pendingEvents = find(offset);
+        if (pendingEvents != null) {
+            pendingEvents.markDone(orderInBatch);
+        }
+    }
+
+    private PendingEvents find(final long offset) {
+        while (true) {
+            long from = head;
+            long to = tail;
+            // the ring must be read after the tail, so that it contains all the offsets before the tail
+            AtomicReferenceArray<PendingEvents> current = ring;
+            PendingEvents found = find(current, from, to, offset);
+            // an offset slot could only be reused after the head moves on, search again in case of it
+            if (found != null || from == head) {
+                return found;
+            }
+        }
+    }
+
+    private PendingEvents find(final AtomicReferenceArray<PendingEvents> current, final long from, final long to, final long offset) {
+        if (from >= to) {
+            return null;
+        }
+        // offsets are usually continuous, so try to locate it by distance from the oldest one first
+        PendingEvents oldest = current.get(index(current, from));
+        if (oldest != null && offset >= oldest.offset && offset - oldest.offset < to - from) {
+            PendingEvents guessed = current.get(index(current, from + offset - oldest.offset));
+            if (guessed != null && guessed.offset == offset) {
+                return guessed;
+            }
+        }
+        long low = from;
+        long high = to - 1;
+        while (low <= high) {
+            long middle = (low + high) >>> 1;
+            PendingEvents pendingEvents = current.get(index(current, middle));
+            // a released slot is before every pending offset
+            if (pendingEvents == null || pendingEvents.offset < offset) {
+                low = middle + 1;
+            } else if (pendingEvents.offset > offset) {
+                high = middle - 1;
+            } else {
+                return pendingEvents;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Release the continuous done offsets from the oldest one, and move the commit offset on.
+     *
+     * @param onAdvanced callback with the new commit offset, which is called before any other thread could advance
+     * @return true if the commit offset is moved on
+     */
+    boolean advance(final LongConsumer onAdvanced) {
+        if (!advancing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            long to = tail;
+            AtomicReferenceArray<PendingEvents> current = ring;
+            long sequence = head;
+            long offset = committedOffset;
+            while (sequence < to) {
+                int index = index(current, sequence);
+                PendingEvents pendingEvents = current.get(index);
+                if (!pendingEvents.isDone()) {
+                    break;
+                }
+                offset = pendingEvents.offset + 1;
+                current.compareAndSet(index, pendingEvents, null);
+                sequence++;
+            }
+            int released = (int) (sequence - head);
+            if (released == 0) {
+                return false;
+            }
+            head = sequence;
+            committedOffset = offset;
+            pendingCount.addAndGet(-released);
+            totalPendingCount.addAndGet(-released);
+            onAdvanced.accept(offset);
+            return true;
+        } finally {
+            advancing.set(false);
+        }
+    }
+
+    /**
+     * Stop advancing and give back the pending count, the offsets are never committed after closed.
+     */
+    void close() {
+        while (!advancing.compareAndSet(false, true)) {
+            Thread.yield();
+        }
+        totalPendingCount.addAndGet(-pendingCount.getAndSet(0));
+    }
+
+    /**
+     * Get the offset to commit.
+     *
+     * @return offset to commit
+     */
+    long getCommittedOffset() {
+        return committedOffset;
+    }
+
+    /**
+     * Get count of the pending offsets.
+     *
+     * @return pending offsets count
+     */
+    int getPendingCount() {
+        return pendingCount.get();
+    }
+
+    private static int index(final AtomicReferenceArray<PendingEvents> ring, final long sequence) {
+        return (int) (sequence & (ring.length() - 1));
+    }
+
+    private static final class PendingEvents {
+
+        private final long offset;
+
+        private final AtomicLongArray pendingOrders;
+
+        private final AtomicInteger pendingCount;
+
+        PendingEvents(final long offset, final Set<Integer> eventIds) {
+            this.offset = offset;
+            int maxOrder = -1;
+            for (Integer order : eventIds) {
+                Preconditions.checkArgument(order >= 0, "Order of event should not be negative: %s", order);
+                maxOrder = Math.max(maxOrder, order);
+            }
+            this.pendingOrders = new AtomicLongArray((maxOrder >> 6) + 1);
+            for (Integer order : eventIds) {
+                pendingOrders.set(order >> 6, pendingOrders.get(order >> 6) | 1L << order);
+            }
+            this.pendingCount = new AtomicInteger(eventIds.size());
+        }
+
+        void markDone(final int order) {
+            int word = order >> 6;
+            if (order < 0 || word >= pendingOrders.length()) {
+                return;
+            }
+            long bit = 1L << order;
+            while (true) {
+                long bits = pendingOrders.get(word);
+                if ((bits & bit) == 0) {
+                    return;
+                }
+                if (pendingOrders.compareAndSet(word, bits, bits & ~bit)) {
+                    pendingCount.decrementAndGet();
+                    return;
+                }
+            }
+        }
+
+        boolean isDone() {
+            return pendingCount.get() == 0;
+        }
+    }
+}
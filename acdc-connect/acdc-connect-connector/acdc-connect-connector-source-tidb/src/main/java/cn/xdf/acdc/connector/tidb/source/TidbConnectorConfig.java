@@ -2,6 +2,7 @@ package cn.xdf.acdc.connector.tidb.source;
 
 import cn.xdf.acdc.connector.tidb.TidbConnector;
 import cn.xdf.acdc.connector.tidb.util.BigIntUnsignedHandlingMode;
+import cn.xdf.acdc.connector.tidb.util.TicdcDecoderMode;
 import io.debezium.config.ConfigDefinition;
 import io.debezium.config.Configuration;
 import io.debezium.config.Field;
@@ -100,6 +101,14 @@ public class TidbConnectorConfig extends RelationalDatabaseConnectorConfig {
             .withDefault(1)
             .withDescription("Tidb source kafka reader thread number.");
 
+    public static final Field TICDC_DECODER_MODE = Field.create("ticdc.decoder.mode")
+            .withDisplayName("Ticdc decoder mode")
+            .withEnum(TicdcDecoderMode.class, TicdcDecoderMode.STREAMING)
+            .withWidth(Width.SHORT)
+            .withImportance(Importance.LOW)
+            .withDescription("Specify how the ticdc open protocol messages are decoded, including:'streaming' (the default) parses the messages from bytes with a streaming json parser "
+                    + "and skips the rows of excluded tables; 'fastjson' parses the messages into fastjson objects.");
+
     public static final Field TIME_PRECISION_MODE = RelationalDatabaseConnectorConfig.TIME_PRECISION_MODE
             .withEnum(TemporalPrecisionMode.class, TemporalPrecisionMode.ADAPTIVE_TIME_MICROSECONDS)
             .withValidation(TidbConnectorConfig::validateTimePrecisionMode)
@@ -131,7 +140,8 @@ public class TidbConnectorConfig extends RelationalDatabaseConnectorConfig {
                     SOURCE_KAFKA_TOPIC,
                     SOURCE_KAFKA_GROUP_ID,
                     SOURCE_KAFKA_MAX_PARTITION_FETCH_BYTES,
-                    SOURCE_KAFKA_READER_THREAD_NUMBER)
+                    SOURCE_KAFKA_READER_THREAD_NUMBER,
+                    TICDC_DECODER_MODE)
             .connector(
                     BIGINT_UNSIGNED_HANDLING_MODE,
                     TIME_PRECISION_MODE)
@@ -50,7 +50,8 @@ public class TidbConnectorTask extends BaseSourceTask {
         final TidbValueConverters valueConverterProvider = TidbValueConverters.getValueConverters(connectorConfig);
 
         this.schema = new TidbDatabaseSchema(connectorConfig, valueConverterProvider, topicSelector, schemaNameAdjuster);
-        TidbDataReader tidbDataReader = new KafkaTidbOpenProtocolReader(connectorConfig.getConfig());
+        TidbDataReader tidbDataReader = new KafkaTidbOpenProtocolReader(connectorConfig.getConfig(),
+                (databaseName, tableName) -> schema.isIncludedTable(schema.getTableId(databaseName, null, tableName)));
         taskContext = new TidbSourceTaskContext(connectorConfig, schema, tidbDataReader);
 
         // Set up the task record queue ...
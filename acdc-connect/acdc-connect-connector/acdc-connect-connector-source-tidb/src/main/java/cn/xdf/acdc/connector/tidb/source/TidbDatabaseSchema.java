@@ -1,5 +1,6 @@
 package cn.xdf.acdc.connector.tidb.source;
 
+import cn.xdf.acdc.connector.tidb.ticdc.protocol.ColumnsFingerprint;
 import cn.xdf.acdc.connector.tidb.ticdc.protocol.Types;
 import com.pingcap.ticdc.cdc.value.TicdcEventColumn;
 import io.debezium.annotation.NotThreadSafe;
@@ -15,7 +16,9 @@ import io.debezium.util.SchemaNameAdjuster;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,10 +31,21 @@ public class TidbDatabaseSchema extends RelationalDatabaseSchema {
 
     public static final int MAX_DECIMAL_LENGTH = 38;
 
+    private static final int MAX_KNOWN_FINGERPRINTS_PER_TABLE = 64;
+
     private final RelationalTableFilters filters;
 
     private final ConcurrentHashMap<TableId, List<Column>> columnsByTableId = new ConcurrentHashMap<>();
 
+    /**
+     * Fingerprints of the columns, which are known to build the current table schema.
+     *
+     * <p>The sets are read and updated by several runner threads, so they are concurrent sets too.
+     */
+    private final ConcurrentHashMap<TableId, Set<Long>> knownFingerprintsByTableId = new ConcurrentHashMap<>();
+
+    private final AtomicLong tableSchemaRefreshCount = new AtomicLong();
+
     public TidbDatabaseSchema(final TidbConnectorConfig connectorConfig, final TidbValueConverters valueConverter, final TopicSelector<TableId> topicSelector,
                               final SchemaNameAdjuster schemaNameAdjuster) {
         super(connectorConfig, topicSelector, connectorConfig.getTableFilters().dataCollectionFilter(), connectorConfig.getColumnFilter(),
@@ -53,6 +67,23 @@ public class TidbDatabaseSchema extends RelationalDatabaseSchema {
      * @return is table schema changed
      */
     public boolean updateTableSchemaIfChanged(final TableId tableId, final List<TicdcEventColumn> ticdcEventColumns) {
+        return updateTableSchemaIfChanged(tableId, ticdcEventColumns, ColumnsFingerprint.of(ticdcEventColumns));
+    }
+
+    /**
+     * Is table schema changed, the columns are rebuilt only if the fingerprint is not known to build the current table schema.
+     *
+     * @param tableId           table id
+     * @param ticdcEventColumns ticdc event columns
+     * @param fingerprint       fingerprint of the columns, see {@link ColumnsFingerprint}
+     * @return is table schema changed
+     */
+    public boolean updateTableSchemaIfChanged(final TableId tableId, final List<TicdcEventColumn> ticdcEventColumns, final long fingerprint) {
+        Set<Long> knownFingerprints = knownFingerprintsByTableId.get(tableId);
+        if (knownFingerprints != null && knownFingerprints.contains(fingerprint)) {
+            return false;
+        }
+
         List<Column> columns = ticdcEventColumns.stream().map(ticdcEventColumn -> {
             ColumnEditor columnEditor = Column.editor()
                 .name(ticdcEventColumn.getName())
@@ -69,26 +100,60 @@ public class TidbDatabaseSchema extends RelationalDatabaseSchema {
             }
         ).collect(Collectors.toList());
 
-        if (columns.equals(columnsByTableId.get(tableId))) {
+        if (isSameColumns(columns, columnsByTableId.get(tableId))) {
+            // eg: a null decimal takes the scale of the current table schema
+            addKnownFingerprint(tableId, fingerprint);
             return false;
         }
         columnsByTableId.put(tableId, columns);
+        // replace rather than clear the known fingerprints, so that other threads never see an empty set of the new schema
+        Set<Long> knownFingerprintsOfNewSchema = ConcurrentHashMap.newKeySet();
+        knownFingerprintsOfNewSchema.add(fingerprint);
+        knownFingerprintsByTableId.put(tableId, knownFingerprintsOfNewSchema);
 
         updateTableSchema(tableId, columns);
+        tableSchemaRefreshCount.incrementAndGet();
+        log.info("Table schema is refreshed, table: {}, columns: {}", tableId, columns);
         return true;
     }
 
+    /**
+     * Get the count of table schema refreshes.
+     *
+     * @return table schema refresh count
+     */
+    public long getTableSchemaRefreshCount() {
+        return tableSchemaRefreshCount.get();
+    }
+
+    private boolean isSameColumns(final List<Column> columns, final List<Column> cachedColumns) {
+        if (!columns.equals(cachedColumns)) {
+            return false;
+        }
+        // native type is not compared in Column#equals, but the value converter depends on it
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).nativeType() != cachedColumns.get(i).nativeType()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addKnownFingerprint(final TableId tableId, final long fingerprint) {
+        Set<Long> knownFingerprints = knownFingerprintsByTableId.computeIfAbsent(tableId, key -> ConcurrentHashMap.newKeySet());
+        if (knownFingerprints.size() >= MAX_KNOWN_FINGERPRINTS_PER_TABLE) {
+            knownFingerprints.clear();
+        }
+        knownFingerprints.add(fingerprint);
+    }
+
     private void handleWithDecimalType(final TableId tableId, final TicdcEventColumn ticdcEventColumn, final ColumnEditor columnEditor) {
-        String value = (String) ticdcEventColumn.getV();
         // Refer to decimal max length :mysql 65, sql server 38
         columnEditor.length(MAX_DECIMAL_LENGTH);
         columnEditor.scale(0);
-        if (value != null && value.trim().length() > 0) {
-            value = value.trim();
-            int indexOfDot = value.indexOf(DOT);
-            if (indexOfDot != -1) {
-                columnEditor.scale(value.substring(indexOfDot).length() - 1);
-            }
+        int scale = ColumnsFingerprint.decimalScale((String) ticdcEventColumn.getV());
+        if (scale != ColumnsFingerprint.UNKNOWN_SCALE) {
+            columnEditor.scale(scale);
         } else if (tables().forTable(tableId) != null) {
             Column column = tables().forTable(tableId).columnWithName(ticdcEventColumn.getName());
             if (column != null) {
@@ -143,6 +143,7 @@ public class TidbStreamingChangeEventSource implements StreamingChangeEventSourc
                     () -> schema.getTableId(databaseName, null, tableName),
                     ticdcEventRowChange::getOldColumns,
                     ticdcEventRowChange::getColumns,
+                    ticdcEventRowChange.getColumnsFingerprint(),
                     (tableId, oldColumns, newColumns) ->
                         eventDispatcher.dispatchDataChangeEvent(tableId, new TidbChangeRecordEmitter(taskContext.getOffsetContext(), clock, Envelope.Operation.DELETE, newColumns, null)));
                 break;
@@ -153,6 +154,7 @@ public class TidbStreamingChangeEventSource implements StreamingChangeEventSourc
                         () -> schema.getTableId(databaseName, null, tableName),
                         ticdcEventRowChange::getOldColumns,
                         ticdcEventRowChange::getColumns,
+                        ticdcEventRowChange.getColumnsFingerprint(),
                         (tableId, oldColumns, newColumns) ->
                             eventDispatcher.dispatchDataChangeEvent(tableId, new TidbChangeRecordEmitter(taskContext.getOffsetContext(), clock, Envelope.Operation.CREATE, null, newColumns)));
                 } else {
@@ -161,6 +163,7 @@ public class TidbStreamingChangeEventSource implements StreamingChangeEventSourc
                         () -> schema.getTableId(databaseName, null, tableName),
                         ticdcEventRowChange::getOldColumns,
                         ticdcEventRowChange::getColumns,
+                        ticdcEventRowChange.getColumnsFingerprint(),
                         (tableId, oldColumns, newColumns) ->
                             eventDispatcher.dispatchDataChangeEvent(tableId, new TidbChangeRecordEmitter(taskContext.getOffsetContext(), clock, Envelope.Operation.UPDATE, oldColumns, newColumns)));
                 }
@@ -171,10 +174,14 @@ public class TidbStreamingChangeEventSource implements StreamingChangeEventSourc
     }
 
     private void handleChange(final String changeType, final TableIdProvider tableIdProvider, final ColumnDataProvider oldColumnDataProvider,
-                              final ColumnDataProvider newColumnDataProvider, final TicdcChangeEmitter changeEmitter)
+                              final ColumnDataProvider newColumnDataProvider, final Long columnsFingerprint, final TicdcChangeEmitter changeEmitter)
             throws InterruptedException {
-        // Update table schema if changed.
-        schema.updateTableSchemaIfChanged(tableIdProvider.getTableId(), newColumnDataProvider.getData());
+        // Update table schema if changed, the fingerprint is null if it is not computed while decoding.
+        if (columnsFingerprint == null) {
+            schema.updateTableSchemaIfChanged(tableIdProvider.getTableId(), newColumnDataProvider.getData());
+        } else {
+            schema.updateTableSchemaIfChanged(tableIdProvider.getTableId(), newColumnDataProvider.getData(), columnsFingerprint);
+        }
 
         changeEmitter.emit(tableIdProvider.getTableId(), oldColumnDataProvider.getData(), newColumnDataProvider.getData());
         if (log.isDebugEnabled()) {
@@ -50,4 +50,8 @@ public class TidbStreamingChangeEventSourceMetrics extends StreamingChangeEventS
         );
     }
 
+    @Override
+    public long getTableSchemaRefreshCount() {
+        return taskContext.getSchema().getTableSchemaRefreshCount();
+    }
 }
@@ -33,4 +33,11 @@ public interface TidbStreamingChangeEventSourceMetricsMXBean extends StreamingCh
      * @return source kafka event position
      */
     Map<String, Long> getSourceKafkaEventPosition();
+
+    /**
+     * Get the count of table schema refreshes.
+     *
+     * @return table schema refresh count
+     */
+    long getTableSchemaRefreshCount();
 }
@@ -10,6 +10,7 @@ import com.pingcap.ticdc.cdc.value.TicdcEventResolve;
 import com.pingcap.ticdc.cdc.value.TicdcEventRowChange;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 public class TicdcOpenProtocolParser {
@@ -21,10 +22,24 @@ public class TicdcOpenProtocolParser {
      * @return event list
      */
     public static List<Event> parse(final KafkaMessage kafkaMessage) {
+        // https://github.com/pingcap/ticdc/tree/release-5.0/demo/java
+        return parse(new TicdcEventDecoder(kafkaMessage));
+    }
+
+    /**
+     * Parse kafka message to event list with the streaming decoder.
+     *
+     * @param kafkaMessage kafka message
+     * @param decoder      streaming decoder
+     * @return event list
+     */
+    public static List<Event> parse(final KafkaMessage kafkaMessage, final TicdcStreamingEventDecoder decoder) {
+        return parse(decoder.decode(kafkaMessage));
+    }
+
+    private static List<Event> parse(final Iterator<TicdcEventData> ticdcEventDecoder) {
         int order = 0;
         List<Event> result = new ArrayList<>();
-        // https://github.com/pingcap/ticdc/tree/release-5.0/demo/java
-        TicdcEventDecoder ticdcEventDecoder = new TicdcEventDecoder(kafkaMessage);
         while (ticdcEventDecoder.hasNext()) {
             TicdcEventData data = ticdcEventDecoder.next();
             if (data.getTicdcEventValue() instanceof TicdcEventRowChange) {
@@ -0,0 +1,356 @@
+package cn.xdf.acdc.connector.tidb.ticdc.parser;
+
+import cn.xdf.acdc.connector.tidb.ticdc.protocol.ColumnsFingerprint;
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.pingcap.ticdc.cdc.KafkaMessage;
+import com.pingcap.ticdc.cdc.TicdcEventData;
+import com.pingcap.ticdc.cdc.key.TicdcEventKey;
+import com.pingcap.ticdc.cdc.value.TicdcEventBase;
+import com.pingcap.ticdc.cdc.value.TicdcEventColumn;
+import com.pingcap.ticdc.cdc.value.TicdcEventDDL;
+import com.pingcap.ticdc.cdc.value.TicdcEventResolve;
+import com.pingcap.ticdc.cdc.value.TicdcEventRowChange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiPredicate;
+
+/**
+ * Ticdc open protocol message decoder, which parses the messages from bytes with a streaming json parser.
+ *
+ * <p>Events are the same as {@link com.pingcap.ticdc.cdc.TicdcEventDecoder}, except that columns are in the order of the message and
+ * rows of the excluded tables are decoded without columns. The schema fingerprint of the columns is computed along with the row.
+ * It is thread safe and supposed to be shared by the reader runners.
+ */
+@Slf4j
+public class TicdcStreamingEventDecoder {
+
+    private static final int VERSION = 1;
+
+    private static final int LENGTH_SIZE = Long.BYTES;
+
+    private static final String UPDATE_NEW_VALUE_TOKEN = "u";
+
+    private static final String UPDATE_OLD_VALUE_TOKEN = "p";
+
+    private static final String DELETE_VALUE_TOKEN = "d";
+
+    private static final String DDL_QUERY_TOKEN = "q";
+
+    private static final String TYPE_TOKEN = "t";
+
+    private static final String HANDLE_TOKEN = "h";
+
+    private static final String VALUE_TOKEN = "v";
+
+    private static final String TS_TOKEN = "ts";
+
+    private static final String SCHEMA_TOKEN = "scm";
+
+    private static final String TABLE_TOKEN = "tbl";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final BiPredicate<String, String> tableFilter;
+
+    /**
+     * Column count of the last row per table, used to size the column list of the next row.
+     */
+    private final Map<String, Map<String, Integer>> columnCountsByTable = new ConcurrentHashMap<>();
+
+    public TicdcStreamingEventDecoder(final BiPredicate<String, String> tableFilter) {
+        this.tableFilter = tableFilter;
+    }
+
+    /**
+     * Decode a kafka message into events.
+     *
+     * @param kafkaMessage kafka message
+     * @return events in the message
+     */
+    public Iterator<TicdcEventData> decode(final KafkaMessage kafkaMessage) {
+        return new MessageIterator(kafkaMessage);
+    }
+
+    private TicdcEventKey decodeKey(final byte[] bytes, final int offset, final int length) throws IOException {
+        TicdcEventKey key = new TicdcEventKey();
+        try (JsonParser parser = jsonFactory.createParser(bytes, offset, length)) {
+            expectStartObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                switch (name) {
+                    case TS_TOKEN:
+                        key.setTs(parser.getValueAsLong());
+                        break;
+                    case SCHEMA_TOKEN:
+                        key.setScm(parser.getValueAsString());
+                        break;
+                    case TABLE_TOKEN:
+                        key.setTbl(parser.getValueAsString());
+                        break;
+                    case TYPE_TOKEN:
+                        key.setT(parser.getValueAsLong());
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        return key;
+    }
+
+    private TicdcEventBase decodeValue(final KafkaMessage kafkaMessage, final TicdcEventKey key, final byte[] bytes, final int offset, final int length)
+            throws IOException {
+        // resolve
+        if (length == 0) {
+            return new TicdcEventResolve(kafkaMessage);
+        }
+        boolean includedTable = key.getScm() == null || key.getTbl() == null || tableFilter.test(key.getScm(), key.getTbl());
+        String ddlQuery = null;
+        int ddlType = 0;
+        List<TicdcEventColumn> newColumns = null;
+        List<TicdcEventColumn> oldColumns = null;
+        List<TicdcEventColumn> deletedColumns = null;
+        boolean empty = true;
+        try (JsonParser parser = jsonFactory.createParser(bytes, offset, length)) {
+            expectStartObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                empty = false;
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                switch (name) {
+                    case DDL_QUERY_TOKEN:
+                        ddlQuery = parser.getValueAsString();
+                        break;
+                    case TYPE_TOKEN:
+                        ddlType = parser.getValueAsInt();
+                        break;
+                    case UPDATE_NEW_VALUE_TOKEN:
+                        newColumns = includedTable ? readColumns(parser, key) : skipColumns(parser);
+                        break;
+                    case UPDATE_OLD_VALUE_TOKEN:
+                        oldColumns = includedTable ? readColumns(parser, key) : skipColumns(parser);
+                        break;
+                    case DELETE_VALUE_TOKEN:
+                        deletedColumns = includedTable ? readColumns(parser, key) : skipColumns(parser);
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+        if (empty) {
+            log.warn("parse unexpect value: {}, key: {}", new String(bytes, offset, length, StandardCharsets.UTF_8), key);
+            return new TicdcEventResolve(kafkaMessage);
+        }
+
+        // ddl
+        if (ddlQuery != null) {
+            TicdcEventDDL ddl = new TicdcEventDDL(kafkaMessage);
+            ddl.setQ(ddlQuery);
+            ddl.setT(ddlType);
+            return ddl;
+        }
+
+        // row change
+        TicdcEventRowChange rowChange = new TicdcEventRowChange(kafkaMessage);
+        if (newColumns != null) {
+            rowChange.setUpdateOrDelete(UPDATE_NEW_VALUE_TOKEN);
+            setColumns(rowChange, includedTable ? newColumns : null);
+            rowChange.setOldColumns(includedTable ? oldColumns : null);
+        } else if (deletedColumns != null) {
+            rowChange.setUpdateOrDelete(DELETE_VALUE_TOKEN);
+            setColumns(rowChange, includedTable ? deletedColumns : null);
+        } else {
+            throw new RuntimeException("Can not parse Value: " + new String(bytes, offset, length, StandardCharsets.UTF_8) + ", ticdcEventKey: " + key);
+        }
+        return rowChange;
+    }
+
+    private void setColumns(final TicdcEventRowChange rowChange, final List<TicdcEventColumn> columns) {
+        rowChange.setColumns(columns);
+        if (columns != null) {
+            rowChange.setColumnsFingerprint(ColumnsFingerprint.of(columns));
+        }
+    }
+
+    private List<TicdcEventColumn> skipColumns(final JsonParser parser) throws IOException {
+        parser.skipChildren();
+        // an empty list marks the token is present
+        return new ArrayList<>(0);
+    }
+
+    private List<TicdcEventColumn> readColumns(final JsonParser parser, final TicdcEventKey key) throws IOException {
+        Map<String, Integer> columnCounts = key.getScm() == null || key.getTbl() == null
+                ? null : columnCountsByTable.computeIfAbsent(key.getScm(), scm -> new ConcurrentHashMap<>());
+        List<TicdcEventColumn> columns = new ArrayList<>(columnCounts == null ? 0 : columnCounts.getOrDefault(key.getTbl(), 0));
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return columns;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            TicdcEventColumn column = new TicdcEventColumn();
+            column.setName(parser.getCurrentName());
+            parser.nextToken();
+            readColumn(parser, column);
+            columns.add(column);
+        }
+        if (columnCounts != null) {
+            columnCounts.put(key.getTbl(), columns.size());
+        }
+        return columns;
+    }
+
+    private void readColumn(final JsonParser parser, final TicdcEventColumn column) throws IOException {
+        expectStartObject(parser);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            switch (name) {
+                case TYPE_TOKEN:
+                    column.setT(parser.getValueAsInt());
+                    break;
+                case HANDLE_TOKEN:
+                    column.setH(parser.getValueAsBoolean());
+                    break;
+                case VALUE_TOKEN:
+                    column.setV(readValue(parser));
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Read a value as the same type as fastjson does.
+     */
+    private Object readValue(final JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                switch (parser.getNumberType()) {
+                    case INT:
+                        return parser.getIntValue();
+                    case LONG:
+                        return parser.getLongValue();
+                    default:
+                        return parser.getBigIntegerValue();
+                }
+            case VALUE_NUMBER_FLOAT:
+                return parser.getDecimalValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case START_OBJECT:
+                JSONObject object = new JSONObject();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    object.put(name, readValue(parser));
+                }
+                return object;
+            case START_ARRAY:
+                JSONArray array = new JSONArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(readValue(parser));
+                }
+                return array;
+            default:
+                return null;
+        }
+    }
+
+    private static void expectStartObject(final JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken() == null ? parser.nextToken() : parser.currentToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Illegal format, expect a json object but got " + token);
+        }
+    }
+
+    private static long readLong(final byte[] bytes, final int offset) {
+        long value = 0;
+        for (int i = 0; i < LENGTH_SIZE; i++) {
+            value = value << 8 | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private class MessageIterator implements Iterator<TicdcEventData> {
+
+        private final KafkaMessage kafkaMessage;
+
+        private final byte[] keyBytes;
+
+        private final byte[] valueBytes;
+
+        private int keyPosition;
+
+        private int valuePosition;
+
+        MessageIterator(final KafkaMessage kafkaMessage) {
+            this.kafkaMessage = kafkaMessage;
+            this.keyBytes = kafkaMessage.getKey();
+            this.valueBytes = kafkaMessage.getValue();
+            if (keyBytes.length < LENGTH_SIZE) {
+                throw new RuntimeException("Illegal format, can not read version");
+            }
+            if (readLong(keyBytes, 0) != VERSION) {
+                throw new RuntimeException("Illegal version, should be 1");
+            }
+            keyPosition = LENGTH_SIZE;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return keyPosition + LENGTH_SIZE <= keyBytes.length;
+        }
+
+        @Override
+        public TicdcEventData next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                int keyLength = readLength(keyBytes, keyPosition);
+                int keyOffset = keyPosition + LENGTH_SIZE;
+                keyPosition = keyOffset + keyLength;
+                TicdcEventKey key = decodeKey(keyBytes, keyOffset, keyLength);
+
+                if (valuePosition + LENGTH_SIZE > valueBytes.length) {
+                    throw new IllegalStateException("Illegal format, value is missing for key: " + key);
+                }
+                int valueLength = readLength(valueBytes, valuePosition);
+                int valueOffset = valuePosition + LENGTH_SIZE;
+                valuePosition = valueOffset + valueLength;
+                return new TicdcEventData(key, decodeValue(kafkaMessage, key, valueBytes, valueOffset, valueLength));
+// CHECKSTYLE:OFF
+            } catch (Exception e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
+// CHECKSTYLE:ON
+        }
+
+        private int readLength(final byte[] bytes, final int position) {
+            long length = readLong(bytes, position);
+            if (length < 0 || position + LENGTH_SIZE + length > bytes.length) {
+                throw new IllegalStateException("Illegal format, length " + length + " exceeds the message at " + position);
+            }
+            return (int) length;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package cn.xdf.acdc.connector.tidb.ticdc.protocol;
+
+import com.pingcap.ticdc.cdc.value.TicdcEventColumn;
+
+import java.util.List;
+
+/**
+ * Fingerprint of the schema of ticdc open protocol columns, a 64-bit FNV-1a hash over the column names, types and decimal scales in order.
+ *
+ * <p>The scale of a decimal column is parsed from its value, it is unknown if the value is null or blank.
+ */
+public final class ColumnsFingerprint {
+
+    public static final long INITIAL = 0xcbf29ce484222325L;
+
+    public static final int UNKNOWN_SCALE = -1;
+
+    private static final long PRIME = 0x100000001b3L;
+
+    private static final String DOT = ".";
+
+    private ColumnsFingerprint() {
+    }
+
+    /**
+     * Compute the fingerprint of columns.
+     *
+     * @param columns ticdc event columns
+     * @return fingerprint
+     */
+    public static long of(final List<TicdcEventColumn> columns) {
+        long fingerprint = INITIAL;
+        for (int i = 0; i < columns.size(); i++) {
+            fingerprint = update(fingerprint, columns.get(i));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Update the fingerprint with the next column.
+     *
+     * @param fingerprint fingerprint of the previous columns
+     * @param column      ticdc event column
+     * @return fingerprint
+     */
+    public static long update(final long fingerprint, final TicdcEventColumn column) {
+        long result = fingerprint;
+        String name = column.getName();
+        for (int i = 0; i < name.length(); i++) {
+            result = mix(result, name.charAt(i));
+        }
+        result = mix(result, column.getT());
+        if (column.getT() == Types.DECIMAL) {
+            Object value = column.getV();
+            result = mix(result, value instanceof String ? decimalScale((String) value) : UNKNOWN_SCALE);
+        }
+        // separate the columns, so that moving a char between names changes the fingerprint
+        return mix(result, Integer.MIN_VALUE);
+    }
+
+    /**
+     * Get scale of a decimal value.
+     *
+     * @param value decimal value
+     * @return scale, or {@link #UNKNOWN_SCALE} if the value is null or blank
+     */
+    public static int decimalScale(final String value) {
+        if (value == null) {
+            return UNKNOWN_SCALE;
+        }
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return UNKNOWN_SCALE;
+        }
+        int indexOfDot = trimmed.indexOf(DOT);
+        return indexOfDot == -1 ? 0 : trimmed.length() - indexOfDot - 1;
+    }
+
+    private static long mix(final long fingerprint, final int value) {
+        long result = fingerprint;
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            result ^= (value >>> shift) & 0xFF;
+            result *= PRIME;
+        }
+        return result;
+    }
+}
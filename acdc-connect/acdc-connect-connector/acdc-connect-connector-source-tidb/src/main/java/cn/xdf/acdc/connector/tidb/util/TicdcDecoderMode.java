@@ -0,0 +1,62 @@
+package cn.xdf.acdc.connector.tidb.util;
+
+import io.debezium.config.EnumeratedValue;
+
+/**
+ * The set of predefined TicdcDecoderMode options or aliases.
+ */
+public enum TicdcDecoderMode implements EnumeratedValue {
+    /**
+     * Parse the messages from bytes with a streaming json parser, rows of excluded tables are skipped without being materialized.
+     */
+    STREAMING("streaming"),
+
+    /**
+     * Parse the messages into fastjson objects, which is the decoder of ticdc demo.
+     */
+    FASTJSON("fastjson");
+
+    private final String value;
+
+    TicdcDecoderMode(final String value) {
+        this.value = value;
+    }
+
+    @Override
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Determine if the supplied value is one of the predefined options.
+     *
+     * @param value the configuration property value; may not be null
+     * @return the matching option, or null if no match is found
+     */
+    public static TicdcDecoderMode parse(final String value) {
+        if (value == null) {
+            return null;
+        }
+        for (TicdcDecoderMode option : TicdcDecoderMode.values()) {
+            if (option.getValue().equalsIgnoreCase(value.trim())) {
+                return option;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determine if the supplied value is one of the predefined options.
+     *
+     * @param value        the configuration property value; may not be null
+     * @param defaultValue the default value; may be null
+     * @return the matching option, or null if no match is found and the non-null default is invalid
+     */
+    public static TicdcDecoderMode parse(final String value, final String defaultValue) {
+        TicdcDecoderMode mode = parse(value);
+        if (mode == null && defaultValue != null) {
+            mode = parse(defaultValue);
+        }
+        return mode;
+    }
+}
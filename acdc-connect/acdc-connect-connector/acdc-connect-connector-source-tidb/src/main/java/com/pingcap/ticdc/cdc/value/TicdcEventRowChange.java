@@ -31,6 +31,9 @@ public class TicdcEventRowChange extends TicdcEventBase {
 
     private List<TicdcEventColumn> columns;
 
+    // Fingerprint of the schema of columns, null if it is not computed while decoding
+    private Long columnsFingerprint;
+
     public TicdcEventRowChange(final KafkaMessage kafkaMessage) {
         super(TicdcEventType.rowChange, kafkaMessage);
     }
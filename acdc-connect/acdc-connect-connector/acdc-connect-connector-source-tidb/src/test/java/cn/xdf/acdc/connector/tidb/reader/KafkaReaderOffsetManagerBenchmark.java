@@ -0,0 +1,106 @@
+package cn.xdf.acdc.connector.tidb.reader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Offset tracking of reader runners under contention, each runner adds offsets of its own partition, marks the events as done and
+ * tries to commit all the partitions as the reader does.
+ *
+ * <p>Run it after test-compile with the test classpath: java org.openjdk.jmh.Main KafkaReaderOffsetManagerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class KafkaReaderOffsetManagerBenchmark {
+
+    private static final int PARTITION_COUNT = 16;
+
+    @Param({"1", "32"})
+    private int eventCountPerOffset;
+
+    @Param({"1", "1024"})
+    private int commitInterval;
+
+    private final AtomicInteger assignedPartitionCount = new AtomicInteger(0);
+
+    private KafkaReaderOffsetManager offsetManager;
+
+    private Set<Integer> eventIds;
+
+    /**
+     * Assign partitions to the reader.
+     */
+    @Setup
+    public void setUp() {
+        offsetManager = new KafkaReaderOffsetManager();
+        Map<Integer, Long> beginOffset = new HashMap<>();
+        for (int partition = 0; partition < PARTITION_COUNT; partition++) {
+            beginOffset.put(partition, 0L);
+        }
+        offsetManager.init(beginOffset);
+        eventIds = new HashSet<>();
+        for (int order = 0; order < eventCountPerOffset; order++) {
+            eventIds.add(order);
+        }
+    }
+
+    /**
+     * Add an offset, mark its events as done and commit at intervals.
+     *
+     * @param runner runner state
+     * @return if need commit
+     */
+    @Benchmark
+    public boolean addAndMarkDone(final RunnerState runner) {
+        long offset = runner.nextOffset++;
+        offsetManager.add(runner.partition, offset, eventIds);
+        for (int order = 0; order < eventCountPerOffset; order++) {
+            offsetManager.markTicdcEventAsDone(runner.partition, offset, order);
+        }
+        return offset % commitInterval == 0 && offsetManager.ifNeedCommit();
+    }
+
+    /**
+     * Partition and offset of a runner.
+     */
+    @State(Scope.Thread)
+    public static class RunnerState {
+
+        private int partition;
+
+        private long nextOffset;
+
+        /**
+         * Assign a partition to the runner.
+         *
+         * @param benchmark benchmark
+         */
+        @Setup
+        public void setUp(final KafkaReaderOffsetManagerBenchmark benchmark) {
+            partition = benchmark.assignedPartitionCount.getAndIncrement() % PARTITION_COUNT;
+            nextOffset = 0L;
+        }
+    }
+}
@@ -7,11 +7,15 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class KafkaReaderOffsetManagerTest {
@@ -25,7 +29,7 @@ public class KafkaReaderOffsetManagerTest {
 
     @Test
     public void testInitShouldFillingWithParam() throws NoSuchFieldException, IllegalAccessException {
-        Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> toCommitPartitionOffsetsBuffer =
+        Map<Integer, PartitionPendingOffsets> toCommitPartitionOffsetsBuffer =
                 (Map) ReflectionUtils.getLimitedAccessField(offsetManager, "toCommitPartitionOffsetsBuffer");
         Map<Integer, Long> toCommitPartitionOffsets =
                 (Map) ReflectionUtils.getLimitedAccessField(offsetManager, "toCommitPartitionOffsets");
@@ -42,48 +46,118 @@ public class KafkaReaderOffsetManagerTest {
         Assert.assertEquals(3, toCommitPartitionOffsets.size());
     }
 
+    @Test
+    public void testInitShouldResetPendingOffsetsOfReassignedPartition() throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
+        offsetManager.init(beginOffsetOf(0, 0L));
+        addOffsets(0, 0L, 50_001L);
+        Assert.assertTrue((Boolean) ReflectionUtils.getLimitedAccessMethodExecuteResultWithoutArgs(offsetManager, "bufferMaybeOverload"));
+
+        offsetManager.init(beginOffsetOf(0, 100L));
+        Assert.assertFalse((Boolean) ReflectionUtils.getLimitedAccessMethodExecuteResultWithoutArgs(offsetManager, "bufferMaybeOverload"));
+        Assert.assertEquals(Long.valueOf(100L), offsetManager.getToCommitOffsets().get(0));
+    }
+
     @Test
     public void testAddShouldPutDataIntoBufferWithBufferNotOverload() throws NoSuchFieldException, IllegalAccessException {
-        Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> toCommitPartitionOffsetsBuffer = initBuffer(0);
-        Set<Integer> eventIdSet = new HashSet<Integer>() {
-            {
-                add(0);
-            }
-        };
-        offsetManager.add(0, 111110L, eventIdSet);
-        Assert.assertEquals(eventIdSet, toCommitPartitionOffsetsBuffer.get(0).get(111110L));
+        offsetManager.init(beginOffsetOf(0, 111110L));
+        offsetManager.add(0, 111110L, eventIdSetOf(0));
+        Map<Integer, PartitionPendingOffsets> toCommitPartitionOffsetsBuffer =
+                (Map) ReflectionUtils.getLimitedAccessField(offsetManager, "toCommitPartitionOffsetsBuffer");
+        Assert.assertEquals(1, toCommitPartitionOffsetsBuffer.get(0).getPendingCount());
+    }
+
+    @Test
+    public void testAddShouldIgnoreRevokedPartition() {
+        offsetManager.init(beginOffsetOf(0, 0L));
+        offsetManager.add(1, 0L, eventIdSetOf(0));
+        Assert.assertFalse(offsetManager.getToCommitOffsets().containsKey(1));
     }
 
     @Test
-    public void testBufferMaybeOverload() throws NoSuchFieldException, IllegalAccessException, InvocationTargetException, NoSuchMethodException {
-        initBuffer(0);
-        initToCommit(0, 0L);
-        Set<Integer> eventIdSet = new HashSet<Integer>() {
-            {
-                add(0);
-            }
-        };
+    public void testBufferMaybeOverload() throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
+        offsetManager.init(beginOffsetOf(0, 0L));
+        Set<Integer> eventIdSet = eventIdSetOf(0);
         for (long i = 0; i <= 50000; i++) {
             offsetManager.add(0, i, eventIdSet);
         }
         Assert.assertTrue((Boolean) ReflectionUtils.getLimitedAccessMethodExecuteResultWithoutArgs(offsetManager, "bufferMaybeOverload"));
         offsetManager.markTicdcEventAsDone(0, 0, 0);
         Assert.assertFalse((Boolean) ReflectionUtils.getLimitedAccessMethodExecuteResultWithoutArgs(offsetManager, "bufferMaybeOverload"));
+        Assert.assertEquals(Long.valueOf(1L), offsetManager.getToCommitOffsets().get(0));
     }
 
     @Test
-    public void testIfNeedCommit() throws NoSuchFieldException, IllegalAccessException {
-        Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> buffer = initBuffer(0);
-        initToCommit(0, 111110L);
-        Set<Integer> eventIdSet = new HashSet<Integer>() {
-            {
-                add(0);
-            }
-        };
-        buffer.get(0).putIfAbsent(111110L, eventIdSet);
+    public void testIfNeedCommit() {
+        offsetManager.init(beginOffsetOf(0, 111110L));
+        offsetManager.add(0, 111110L, eventIdSetOf(0));
         Assert.assertFalse(offsetManager.ifNeedCommit());
-        buffer.get(0).get(111110L).remove(0);
+        offsetManager.markTicdcEventAsDone(0, 111110L, 0);
         Assert.assertTrue(offsetManager.ifNeedCommit());
+        Assert.assertEquals(Long.valueOf(111111L), offsetManager.getToCommitOffsets().get(0));
+        Assert.assertFalse(offsetManager.ifNeedCommit());
+    }
+
+    @Test
+    public void testIfNeedCommitShouldStopAtFirstPendingOffset() {
+        offsetManager.init(beginOffsetOf(0, 0L));
+        offsetManager.add(0, 0L, eventIdSetOf(0, 1));
+        offsetManager.add(0, 1L, eventIdSetOf(0));
+        offsetManager.add(0, 2L, eventIdSetOf(0));
+        offsetManager.markTicdcEventAsDone(0, 0L, 0);
+        offsetManager.markTicdcEventAsDone(0, 2L, 0);
+        Assert.assertFalse(offsetManager.ifNeedCommit());
+
+        offsetManager.markTicdcEventAsDone(0, 0L, 1);
+        Assert.assertTrue(offsetManager.ifNeedCommit());
+        Assert.assertEquals(Long.valueOf(1L), offsetManager.getToCommitOffsets().get(0));
+
+        offsetManager.markTicdcEventAsDone(0, 1L, 0);
+        Assert.assertTrue(offsetManager.ifNeedCommit());
+        Assert.assertEquals(Long.valueOf(3L), offsetManager.getToCommitOffsets().get(0));
+    }
+
+    @Test
+    public void testIfNeedCommitShouldCommitAcrossMultiRunners() throws InterruptedException {
+        int partitionCount = 4;
+        long offsetCountPerPartition = 20_000L;
+        Map<Integer, Long> beginOffset = new HashMap<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            beginOffset.put(partition, 0L);
+        }
+        offsetManager.init(beginOffset);
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitionCount * 2);
+        CountDownLatch finished = new CountDownLatch(partitionCount * 2);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            final int runnerPartition = partition;
+            // the runner adds offsets and the others mark events of them as done
+            executor.execute(() -> {
+                for (long offset = 0; offset < offsetCountPerPartition; offset++) {
+                    offsetManager.add(runnerPartition, offset, eventIdSetOf(0, 1));
+                    offsetManager.markTicdcEventAsDone(runnerPartition, offset, 0);
+                    offsetManager.ifNeedCommit();
+                }
+                finished.countDown();
+            });
+            executor.execute(() -> {
+                long offset = 0;
+                while (offset < offsetCountPerPartition) {
+                    offsetManager.markTicdcEventAsDone(runnerPartition, offset, 1);
+                    if (offsetManager.getToCommitOffsets().get(runnerPartition) > offset) {
+                        offset++;
+                    }
+                    offsetManager.ifNeedCommit();
+                }
+                finished.countDown();
+            });
+        }
+        Assert.assertTrue(finished.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        offsetManager.ifNeedCommit();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            Assert.assertEquals(Long.valueOf(offsetCountPerPartition), offsetManager.getToCommitOffsets().get(partition));
+        }
     }
 
     @Test
@@ -93,10 +167,13 @@ public class KafkaReaderOffsetManagerTest {
 
     @Test
     public void testClearShouldClearInputPartition() throws NoSuchFieldException, IllegalAccessException {
-        initToCommit(0, 100L);
-        Map<Integer, Long> toCommit = initToCommit(1, 101L);
-        initBuffer(0);
-        Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> buffer = initBuffer(1);
+        Map<Integer, Long> beginOffset = new HashMap<>();
+        beginOffset.put(0, 100L);
+        beginOffset.put(1, 101L);
+        offsetManager.init(beginOffset);
+        Map<Integer, PartitionPendingOffsets> buffer =
+                (Map) ReflectionUtils.getLimitedAccessField(offsetManager, "toCommitPartitionOffsetsBuffer");
+        Map<Integer, Long> toCommit = offsetManager.getToCommitOffsets();
         offsetManager.clear(Lists.newArrayList(0));
         Assert.assertEquals(1, buffer.size());
         Assert.assertEquals(1, buffer.keySet().toArray()[0]);
@@ -107,18 +184,21 @@ public class KafkaReaderOffsetManagerTest {
         Assert.assertEquals(0, toCommit.size());
     }
 
-    private Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> initBuffer(int partition) throws NoSuchFieldException, IllegalAccessException {
-        Map<Integer, ConcurrentSkipListMap<Long, Set<Integer>>> toCommitPartitionOffsetsBuffer =
-                (Map) ReflectionUtils.getLimitedAccessField(offsetManager, "toCommitPartitionOffsetsBuffer");
-        toCommitPartitionOffsetsBuffer.put(partition, new ConcurrentSkipListMap<>());
-        return toCommitPartitionOffsetsBuffer;
+    private Map<Integer, Long> beginOffsetOf(final int partition, final long offset) {
+        Map<Integer, Long> beginOffset = new HashMap<>();
+        beginOffset.put(partition, offset);
+        return beginOffset;
     }
 
-    private Map<Integer, Long> initToCommit(int partition, long offset) throws NoSuchFieldException, IllegalAccessException {
-        Map<Integer, Long> toCommitPartitionOffsets =
-                (Map) ReflectionUtils.getLimitedAccessField(offsetManager, "toCommitPartitionOffsets");
-        toCommitPartitionOffsets.put(partition, offset);
-        return toCommitPartitionOffsets;
+    private Set<Integer> eventIdSetOf(final Integer... eventIds) {
+        return new HashSet<>(Arrays.asList(eventIds));
+    }
+
+    private void addOffsets(final int partition, final long fromOffset, final long toOffset) {
+        Set<Integer> eventIdSet = eventIdSetOf(0);
+        for (long offset = fromOffset; offset < toOffset; offset++) {
+            offsetManager.add(partition, offset, eventIdSet);
+        }
     }
 
     @Test
@@ -0,0 +1,124 @@
+package cn.xdf.acdc.connector.tidb.reader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class PartitionPendingOffsetsTest {
+
+    private final AtomicInteger totalPendingCount = new AtomicInteger(0);
+
+    private final AtomicLong advancedOffset = new AtomicLong(-1L);
+
+    @Test
+    public void testAdvanceShouldCommitBeginOffsetUntilAnyOffsetDone() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(10L, totalPendingCount);
+        pendingOffsets.add(10L, eventIdSetOf(0));
+        Assert.assertFalse(pendingOffsets.advance(advancedOffset::set));
+        Assert.assertEquals(10L, pendingOffsets.getCommittedOffset());
+        Assert.assertEquals(-1L, advancedOffset.get());
+    }
+
+    @Test
+    public void testAddShouldIgnoreOffsetNotGreaterThanLastAdded() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(10L, totalPendingCount);
+        Assert.assertFalse(pendingOffsets.add(9L, eventIdSetOf(0)));
+        Assert.assertTrue(pendingOffsets.add(10L, eventIdSetOf(0)));
+        Assert.assertFalse(pendingOffsets.add(10L, eventIdSetOf(0)));
+        Assert.assertEquals(1, pendingOffsets.getPendingCount());
+        Assert.assertEquals(1, totalPendingCount.get());
+    }
+
+    @Test
+    public void testAdvanceShouldSkipAbsentOffsets() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(10L, totalPendingCount);
+        // offsets may be absent in a compacted topic or for transaction markers
+        pendingOffsets.add(12L, eventIdSetOf(0));
+        pendingOffsets.add(15L, eventIdSetOf(0));
+        pendingOffsets.add(16L, eventIdSetOf(0));
+        pendingOffsets.markDone(12L, 0);
+        pendingOffsets.markDone(15L, 0);
+
+        Assert.assertTrue(pendingOffsets.advance(advancedOffset::set));
+        Assert.assertEquals(16L, pendingOffsets.getCommittedOffset());
+        Assert.assertEquals(16L, advancedOffset.get());
+        Assert.assertEquals(1, totalPendingCount.get());
+    }
+
+    @Test
+    public void testMarkDoneShouldBeIdempotent() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(0L, totalPendingCount);
+        pendingOffsets.add(0L, eventIdSetOf(0, 1, 64, 130));
+        pendingOffsets.markDone(0L, 0);
+        pendingOffsets.markDone(0L, 0);
+        pendingOffsets.markDone(0L, 64);
+        pendingOffsets.markDone(0L, 2);
+        pendingOffsets.markDone(0L, 1000);
+        pendingOffsets.markDone(1L, 1);
+        Assert.assertFalse(pendingOffsets.advance(advancedOffset::set));
+
+        pendingOffsets.markDone(0L, 1);
+        pendingOffsets.markDone(0L, 130);
+        Assert.assertTrue(pendingOffsets.advance(advancedOffset::set));
+        Assert.assertEquals(1L, pendingOffsets.getCommittedOffset());
+    }
+
+    @Test
+    public void testAdvanceShouldReleaseOffsetWithoutEvents() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(0L, totalPendingCount);
+        pendingOffsets.add(0L, eventIdSetOf());
+        Assert.assertTrue(pendingOffsets.advance(advancedOffset::set));
+        Assert.assertEquals(1L, pendingOffsets.getCommittedOffset());
+        Assert.assertEquals(0, totalPendingCount.get());
+    }
+
+    @Test
+    public void testAddShouldGrowRingWithPendingOffsetsKept() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(0L, totalPendingCount);
+        int offsetCount = 10_000;
+        for (long offset = 0; offset < offsetCount; offset++) {
+            // make gaps to locate offsets by binary search
+            pendingOffsets.add(offset * 2, eventIdSetOf(0));
+        }
+        for (long offset = offsetCount - 1; offset >= 0; offset--) {
+            pendingOffsets.markDone(offset * 2, 0);
+        }
+        Assert.assertTrue(pendingOffsets.advance(advancedOffset::set));
+        Assert.assertEquals(offsetCount * 2 - 1, pendingOffsets.getCommittedOffset());
+        Assert.assertEquals(0, totalPendingCount.get());
+    }
+
+    @Test
+    public void testAddShouldReuseReleasedSlots() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(0L, totalPendingCount);
+        for (long offset = 0; offset < 100_000; offset++) {
+            pendingOffsets.add(offset, eventIdSetOf(0));
+            pendingOffsets.markDone(offset, 0);
+            pendingOffsets.advance(advancedOffset::set);
+        }
+        Assert.assertEquals(100_000L, pendingOffsets.getCommittedOffset());
+        Assert.assertEquals(0, pendingOffsets.getPendingCount());
+    }
+
+    @Test
+    public void testCloseShouldGiveBackPendingCountAndStopAdvancing() {
+        PartitionPendingOffsets pendingOffsets = new PartitionPendingOffsets(0L, totalPendingCount);
+        pendingOffsets.add(0L, eventIdSetOf(0));
+        pendingOffsets.add(1L, eventIdSetOf(0));
+        pendingOffsets.close();
+        Assert.assertEquals(0, totalPendingCount.get());
+
+        pendingOffsets.markDone(0L, 0);
+        Assert.assertFalse(pendingOffsets.advance(advancedOffset::set));
+        Assert.assertEquals(0L, pendingOffsets.getCommittedOffset());
+    }
+
+    private Set<Integer> eventIdSetOf(final Integer... eventIds) {
+        return new HashSet<>(Arrays.asList(eventIds));
+    }
+}
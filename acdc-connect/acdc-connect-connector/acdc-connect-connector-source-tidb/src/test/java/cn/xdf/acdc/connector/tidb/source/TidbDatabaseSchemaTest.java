@@ -1,5 +1,6 @@
 package cn.xdf.acdc.connector.tidb.source;
 
+import cn.xdf.acdc.connector.tidb.ticdc.protocol.ColumnsFingerprint;
 import cn.xdf.acdc.connector.tidb.ticdc.protocol.Types;
 import com.pingcap.ticdc.cdc.value.TicdcEventColumn;
 import io.debezium.relational.TableId;
@@ -35,6 +36,80 @@ public class TidbDatabaseSchemaTest {
         columns.add(getTicdcEventColumn(Types.BIGINT, "id_column", 1112));
         columns.add(getTicdcEventColumn(Types.DECIMAL, "decimal_column", " "));
         Assert.assertFalse(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, columns));
+        Assert.assertEquals(2, tidbDatabaseSchema.getTableSchemaRefreshCount());
+    }
+
+    @Test
+    public void testUpdateTableSchemaIfChangedShouldUpdateSchemaWithColumnsChanged() {
+        TidbDatabaseSchema tidbDatabaseSchema = getTidbDatabaseSchema();
+        TableId tableId = new TableId("database_name", null, "table_name");
+        List<TicdcEventColumn> columns = new ArrayList<>();
+        columns.add(getTicdcEventColumn(Types.BIGINT, "id_column", 1));
+        columns.add(getTicdcEventColumn(Types.VARCHAR_OR_VARBINARY_V1, "name_column", "name"));
+        Assert.assertTrue(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, columns));
+
+        // type changed
+        columns.set(1, getTicdcEventColumn(Types.INT, "name_column", 1));
+        Assert.assertTrue(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, columns));
+
+        // column renamed
+        columns.set(1, getTicdcEventColumn(Types.INT, "new_name_column", 1));
+        Assert.assertTrue(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, columns));
+
+        // column added
+        columns.add(getTicdcEventColumn(Types.INT, "added_column", 1));
+        Assert.assertTrue(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, columns));
+        Assert.assertEquals(3, tidbDatabaseSchema.tableFor(tableId).columns().size());
+
+        // only values changed
+        columns.set(0, getTicdcEventColumn(Types.BIGINT, "id_column", 2));
+        Assert.assertFalse(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, columns));
+        Assert.assertEquals(4, tidbDatabaseSchema.getTableSchemaRefreshCount());
+    }
+
+    @Test
+    public void testUpdateTableSchemaIfChangedShouldNotRebuildColumnsWithKnownFingerprint() {
+        TidbDatabaseSchema tidbDatabaseSchema = getTidbDatabaseSchema();
+        TableId tableId = new TableId("database_name", null, "table_name");
+        List<TicdcEventColumn> columns = new ArrayList<>();
+        columns.add(getTicdcEventColumn(Types.BIGINT, "id_column", 1));
+        columns.add(getTicdcEventColumn(Types.DECIMAL, "decimal_column", "1.20"));
+        long fingerprint = ColumnsFingerprint.of(columns);
+        Assert.assertTrue(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, columns, fingerprint));
+
+        // the columns are not rebuilt, or a class cast exception is thrown
+        List<TicdcEventColumn> illegalColumns = new ArrayList<>();
+        illegalColumns.add(getTicdcEventColumn(Types.DECIMAL, "decimal_column", 1));
+        Assert.assertFalse(tidbDatabaseSchema.updateTableSchemaIfChanged(tableId, illegalColumns, fingerprint));
+        Assert.assertEquals(1, tidbDatabaseSchema.getTableSchemaRefreshCount());
+    }
+
+    @Test
+    public void testColumnsFingerprintShouldDependOnSchemaOnly() {
+        List<TicdcEventColumn> columns = new ArrayList<>();
+        columns.add(getTicdcEventColumn(Types.BIGINT, "id_column", 1));
+        columns.add(getTicdcEventColumn(Types.DECIMAL, "decimal_column", "1.20"));
+        long fingerprint = ColumnsFingerprint.of(columns);
+
+        columns.set(0, getTicdcEventColumn(Types.BIGINT, "id_column", 2));
+        columns.set(1, getTicdcEventColumn(Types.DECIMAL, "decimal_column", " 3.45 "));
+        Assert.assertEquals(fingerprint, ColumnsFingerprint.of(columns));
+
+        columns.set(1, getTicdcEventColumn(Types.DECIMAL, "decimal_column", "3.4"));
+        Assert.assertNotEquals(fingerprint, ColumnsFingerprint.of(columns));
+
+        columns.set(1, getTicdcEventColumn(Types.DECIMAL, "decimal_column", null));
+        Assert.assertNotEquals(fingerprint, ColumnsFingerprint.of(columns));
+
+        List<TicdcEventColumn> reordered = new ArrayList<>();
+        reordered.add(getTicdcEventColumn(Types.DECIMAL, "decimal_column", "1.20"));
+        reordered.add(getTicdcEventColumn(Types.BIGINT, "id_column", 1));
+        Assert.assertNotEquals(fingerprint, ColumnsFingerprint.of(reordered));
+
+        List<TicdcEventColumn> renamed = new ArrayList<>();
+        renamed.add(getTicdcEventColumn(Types.BIGINT, "id_columnd", 1));
+        renamed.add(getTicdcEventColumn(Types.DECIMAL, "ecimal_column", "1.20"));
+        Assert.assertNotEquals(fingerprint, ColumnsFingerprint.of(renamed));
     }
 
     private TicdcEventColumn getTicdcEventColumn(final int type, final String name, final Object value) {
@@ -0,0 +1,89 @@
+package cn.xdf.acdc.connector.tidb.ticdc.parser;
+
+import cn.xdf.acdc.connector.tidb.reader.Event;
+import com.pingcap.ticdc.cdc.KafkaMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of a ticdc open protocol message with a batch of row changed events, half of the rows are of an excluded table
+ * if excluded rows are enabled.
+ *
+ * <p>Run it after test-compile with the test classpath: java org.openjdk.jmh.Main TicdcDecoderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TicdcDecoderBenchmark {
+
+    private static final String EXCLUDED_TABLE = "excluded_tb";
+
+    private static final String ROW_VALUE = "{\"u\":{\"id\":{\"t\":8,\"h\":true,\"f\":3,\"v\":%d},\"name\":{\"t\":15,\"f\":64,\"v\":\"name-%d\"},"
+            + "\"price\":{\"t\":246,\"f\":0,\"v\":\"%d.25\"},\"status\":{\"t\":1,\"f\":0,\"v\":1},\"remark\":{\"t\":252,\"f\":0,\"v\":null},"
+            + "\"create_time\":{\"t\":12,\"f\":0,\"v\":\"2022-01-01 00:00:00\"},\"update_time\":{\"t\":12,\"f\":0,\"v\":\"2022-01-01 00:00:00\"}},"
+            + "\"p\":{\"id\":{\"t\":8,\"h\":true,\"f\":3,\"v\":%d},\"name\":{\"t\":15,\"f\":64,\"v\":\"old-%d\"},"
+            + "\"price\":{\"t\":246,\"f\":0,\"v\":\"0.25\"},\"status\":{\"t\":1,\"f\":0,\"v\":0},\"remark\":{\"t\":252,\"f\":0,\"v\":null},"
+            + "\"create_time\":{\"t\":12,\"f\":0,\"v\":\"2022-01-01 00:00:00\"},\"update_time\":{\"t\":12,\"f\":0,\"v\":\"2021-01-01 00:00:00\"}}}";
+
+    @Param({"1", "64"})
+    private int batchSize;
+
+    @Param({"false", "true"})
+    private boolean withExcludedRows;
+
+    private KafkaMessage kafkaMessage;
+
+    private TicdcStreamingEventDecoder streamingDecoder;
+
+    /**
+     * Build the message.
+     *
+     * @throws IOException io exception
+     */
+    @Setup
+    public void setUp() throws IOException {
+        TicdcMessageBuilder builder = new TicdcMessageBuilder();
+        for (int i = 0; i < batchSize; i++) {
+            String table = withExcludedRows && i % 2 == 1 ? EXCLUDED_TABLE : "tb";
+            builder.addRow(i, "db", table, String.format(ROW_VALUE, i, i, i, i, i));
+        }
+        kafkaMessage = builder.build();
+        streamingDecoder = new TicdcStreamingEventDecoder((database, table) -> !EXCLUDED_TABLE.equals(table));
+    }
+
+    /**
+     * Parse with the fastjson decoder, which materializes all the rows.
+     *
+     * @return events
+     */
+    @Benchmark
+    public List<Event> fastjson() {
+        return TicdcOpenProtocolParser.parse(kafkaMessage);
+    }
+
+    /**
+     * Parse with the streaming decoder.
+     *
+     * @return events
+     */
+    @Benchmark
+    public List<Event> streaming() {
+        return TicdcOpenProtocolParser.parse(kafkaMessage, streamingDecoder);
+    }
+}
@@ -0,0 +1,71 @@
+package cn.xdf.acdc.connector.tidb.ticdc.parser;
+
+import com.pingcap.ticdc.cdc.KafkaMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Build a kafka message of ticdc open protocol, which contains a batch of events.
+ */
+public class TicdcMessageBuilder {
+
+    private final ByteArrayOutputStream keyBytes = new ByteArrayOutputStream();
+
+    private final ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+
+    private final DataOutputStream keyStream = new DataOutputStream(keyBytes);
+
+    private final DataOutputStream valueStream = new DataOutputStream(valueBytes);
+
+    public TicdcMessageBuilder() throws IOException {
+        keyStream.writeLong(1);
+    }
+
+    /**
+     * Add an event.
+     *
+     * @param key   key json
+     * @param value value json, empty for resolved event
+     * @return this builder
+     * @throws IOException io exception
+     */
+    public TicdcMessageBuilder add(final String key, final String value) throws IOException {
+        byte[] keyData = key.getBytes(StandardCharsets.UTF_8);
+        keyStream.writeLong(keyData.length);
+        keyStream.write(keyData);
+        byte[] valueData = value.getBytes(StandardCharsets.UTF_8);
+        valueStream.writeLong(valueData.length);
+        valueStream.write(valueData);
+        return this;
+    }
+
+    /**
+     * Add a row changed event.
+     *
+     * @param ts       ts
+     * @param database database name
+     * @param table    table name
+     * @param value    value json
+     * @return this builder
+     * @throws IOException io exception
+     */
+    public TicdcMessageBuilder addRow(final long ts, final String database, final String table, final String value) throws IOException {
+        return add(String.format("{\"ts\":%d,\"scm\":\"%s\",\"tbl\":\"%s\",\"t\":1}", ts, database, table), value);
+    }
+
+    /**
+     * Build the kafka message.
+     *
+     * @return kafka message
+     */
+    public KafkaMessage build() {
+        KafkaMessage kafkaMessage = new KafkaMessage(keyBytes.toByteArray(), valueBytes.toByteArray());
+        kafkaMessage.setPartition(1);
+        kafkaMessage.setOffset(1L);
+        kafkaMessage.setTimestamp(System.currentTimeMillis());
+        return kafkaMessage;
+    }
+}
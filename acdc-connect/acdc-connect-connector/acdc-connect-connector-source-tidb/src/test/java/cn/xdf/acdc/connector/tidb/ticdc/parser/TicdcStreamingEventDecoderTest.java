@@ -0,0 +1,163 @@
+package cn.xdf.acdc.connector.tidb.ticdc.parser;
+
+import cn.xdf.acdc.connector.tidb.ticdc.protocol.ColumnsFingerprint;
+import com.pingcap.ticdc.cdc.KafkaMessage;
+import com.pingcap.ticdc.cdc.TicdcEventData;
+import com.pingcap.ticdc.cdc.TicdcEventDecoder;
+import com.pingcap.ticdc.cdc.value.TicdcEventBase;
+import com.pingcap.ticdc.cdc.value.TicdcEventColumn;
+import com.pingcap.ticdc.cdc.value.TicdcEventDDL;
+import com.pingcap.ticdc.cdc.value.TicdcEventResolve;
+import com.pingcap.ticdc.cdc.value.TicdcEventRowChange;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class TicdcStreamingEventDecoderTest {
+
+    private final TicdcStreamingEventDecoder decoder = new TicdcStreamingEventDecoder((database, table) -> !"excluded_tb".equals(table));
+
+    @Test
+    public void testDecodeShouldBeSameAsFastjsonDecoderWithTestData() throws IOException {
+        for (KafkaMessage kafkaMessage : TicdcOpenProtocolParserTest.getKafkaMessagesFromTestData(null)) {
+            assertSameEvents(kafkaMessage);
+        }
+    }
+
+    @Test
+    public void testDecodeShouldBeSameAsFastjsonDecoderWithAllValueTypes() throws IOException {
+        KafkaMessage kafkaMessage = new TicdcMessageBuilder()
+                .addRow(1L, "db", "tb", "{\"u\":{\"id\":{\"t\":8,\"h\":true,\"v\":1},\"big\":{\"t\":8,\"v\":9223372036854775807},"
+                        + "\"unsigned\":{\"t\":8,\"f\":32,\"v\":18446744073709551615},\"price\":{\"t\":246,\"v\":\"12.30\"},\"rate\":{\"t\":5,\"v\":1.50},"
+                        + "\"name\":{\"t\":15,\"v\":\"n\\u00e4me\\\"\"},\"flag\":{\"t\":1,\"v\":false},\"remark\":{\"t\":15,\"v\":null},"
+                        + "\"doc\":{\"t\":245,\"v\":{\"a\":[1,\"b\",null]}}},"
+                        + "\"p\":{\"id\":{\"t\":8,\"h\":true,\"v\":1},\"name\":{\"t\":15,\"v\":\"old\"}}}")
+                .addRow(2L, "db", "tb", "{\"d\":{\"id\":{\"t\":8,\"h\":true,\"v\":2}}}")
+                .add("{\"ts\":3,\"scm\":\"db\",\"tbl\":\"tb\",\"t\":2}", "{\"q\":\"alter table tb add column c int\",\"t\":5}")
+                .add("{\"ts\":4,\"t\":3}", "")
+                .build();
+        assertSameEvents(kafkaMessage);
+    }
+
+    @Test
+    public void testDecodeShouldKeepColumnsInOrderOfMessage() throws IOException {
+        KafkaMessage kafkaMessage = new TicdcMessageBuilder()
+                .addRow(1L, "db", "tb", "{\"u\":{\"c3\":{\"t\":3,\"v\":3},\"c1\":{\"t\":3,\"v\":1},\"c2\":{\"t\":3,\"v\":2}}}")
+                .build();
+        TicdcEventRowChange rowChange = (TicdcEventRowChange) decoder.decode(kafkaMessage).next().getTicdcEventValue();
+        Assert.assertEquals(Arrays.asList("c3", "c1", "c2"), rowChange.getColumns().stream().map(TicdcEventColumn::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testDecodeShouldSkipColumnsOfExcludedTable() throws IOException {
+        KafkaMessage kafkaMessage = new TicdcMessageBuilder()
+                .addRow(1L, "db", "excluded_tb", "{\"u\":{\"id\":{\"t\":8,\"v\":1}},\"p\":{\"id\":{\"t\":8,\"v\":1}}}")
+                .addRow(2L, "db", "excluded_tb", "{\"d\":{\"id\":{\"t\":8,\"v\":1}}}")
+                .addRow(3L, "db", "tb", "{\"d\":{\"id\":{\"t\":8,\"v\":1}}}")
+                .build();
+        List<TicdcEventData> events = decodeAll(decoder.decode(kafkaMessage));
+        Assert.assertEquals(3, events.size());
+
+        TicdcEventRowChange update = (TicdcEventRowChange) events.get(0).getTicdcEventValue();
+        Assert.assertEquals("excluded_tb", events.get(0).getTicdcEventKey().getTbl());
+        Assert.assertEquals("u", update.getUpdateOrDelete());
+        Assert.assertNull(update.getColumns());
+        Assert.assertNull(update.getOldColumns());
+        Assert.assertNull(update.getColumnsFingerprint());
+
+        TicdcEventRowChange delete = (TicdcEventRowChange) events.get(1).getTicdcEventValue();
+        Assert.assertEquals("d", delete.getUpdateOrDelete());
+        Assert.assertNull(delete.getColumns());
+
+        TicdcEventRowChange included = (TicdcEventRowChange) events.get(2).getTicdcEventValue();
+        Assert.assertEquals(1, included.getColumns().size());
+        Assert.assertEquals(Long.valueOf(ColumnsFingerprint.of(included.getColumns())), included.getColumnsFingerprint());
+    }
+
+    @Test
+    public void testDecodeShouldReturnResolveEventWithEmptyValue() throws IOException {
+        KafkaMessage kafkaMessage = new TicdcMessageBuilder()
+                .addRow(1L, "db", "tb", " { } ")
+                .build();
+        Assert.assertTrue(decoder.decode(kafkaMessage).next().getTicdcEventValue() instanceof TicdcEventResolve);
+    }
+
+    @Test
+    public void testDecodeShouldThrowExceptionWithUnknownValue() throws IOException {
+        KafkaMessage kafkaMessage = new TicdcMessageBuilder()
+                .addRow(1L, "db", "tb", "{\"x\":{}}")
+                .build();
+        Iterator<TicdcEventData> events = decoder.decode(kafkaMessage);
+        Assert.assertThrows(RuntimeException.class, events::next);
+    }
+
+    @Test
+    public void testDecodeShouldThrowExceptionWithIllegalVersion() {
+        KafkaMessage kafkaMessage = new KafkaMessage(new byte[]{0, 0, 0, 0, 0, 0, 0, 2}, new byte[0]);
+        Assert.assertThrows(RuntimeException.class, () -> decoder.decode(kafkaMessage));
+    }
+
+    @Test
+    public void testDecodeShouldThrowExceptionWithTruncatedMessage() throws IOException {
+        KafkaMessage kafkaMessage = new TicdcMessageBuilder()
+                .addRow(1L, "db", "tb", "{\"d\":{\"id\":{\"t\":8,\"v\":1}}}")
+                .build();
+        KafkaMessage truncated = new KafkaMessage(kafkaMessage.getKey(), Arrays.copyOf(kafkaMessage.getValue(), kafkaMessage.getValue().length - 1));
+        Iterator<TicdcEventData> events = decoder.decode(truncated);
+        Assert.assertThrows(RuntimeException.class, events::next);
+    }
+
+    private void assertSameEvents(final KafkaMessage kafkaMessage) {
+        List<TicdcEventData> expected = decodeAll(new TicdcEventDecoder(kafkaMessage));
+        List<TicdcEventData> actual = decodeAll(decoder.decode(kafkaMessage));
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertEquals(expected.get(i).getTicdcEventKey().toString(), actual.get(i).getTicdcEventKey().toString());
+            assertSameValue(expected.get(i).getTicdcEventValue(), actual.get(i).getTicdcEventValue());
+        }
+    }
+
+    private void assertSameValue(final TicdcEventBase expected, final TicdcEventBase actual) {
+        Assert.assertEquals(expected.getClass(), actual.getClass());
+        Assert.assertEquals(expected.getType(), actual.getType());
+        Assert.assertEquals(expected.getKafkaPartition(), actual.getKafkaPartition());
+        Assert.assertEquals(expected.getKafkaOffset(), actual.getKafkaOffset());
+        if (expected instanceof TicdcEventDDL) {
+            Assert.assertEquals(((TicdcEventDDL) expected).getQ(), ((TicdcEventDDL) actual).getQ());
+            Assert.assertEquals(((TicdcEventDDL) expected).getT(), ((TicdcEventDDL) actual).getT());
+        }
+        if (expected instanceof TicdcEventRowChange) {
+            TicdcEventRowChange expectedRow = (TicdcEventRowChange) expected;
+            TicdcEventRowChange actualRow = (TicdcEventRowChange) actual;
+            Assert.assertEquals(expectedRow.getUpdateOrDelete(), actualRow.getUpdateOrDelete());
+            Assert.assertEquals(columnsByName(expectedRow.getColumns()), columnsByName(actualRow.getColumns()));
+            Assert.assertEquals(columnsByName(expectedRow.getOldColumns()), columnsByName(actualRow.getOldColumns()));
+        }
+    }
+
+    private Map<String, List<Object>> columnsByName(final List<TicdcEventColumn> columns) {
+        if (columns == null) {
+            return null;
+        }
+        Map<String, List<Object>> result = new HashMap<>();
+        for (TicdcEventColumn column : columns) {
+            Object value = column.getV();
+            result.put(column.getName(), Arrays.asList(column.getT(), column.isH(), value == null ? null : value.getClass(), value));
+        }
+        return result;
+    }
+
+    private List<TicdcEventData> decodeAll(final Iterator<TicdcEventData> events) {
+        List<TicdcEventData> result = new ArrayList<>();
+        events.forEachRemaining(result::add);
+        return result;
+    }
+}
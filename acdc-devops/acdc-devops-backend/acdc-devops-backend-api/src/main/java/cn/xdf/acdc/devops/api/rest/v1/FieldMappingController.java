@@ -64,8 +64,7 @@ public class FieldMappingController {
         DataSystemType dataSystemType = DataSystemType.MYSQL;
         DataSetDTO dataSet = DataSetDTO.builder().dataSetId(dataSetId).dataSystemType(dataSystemType).build();
 
-        return fieldMappingProcessServiceManager.getFieldService(dataSystemType)
-            .descDataSet(dataSet).values().stream()
+        return fieldMappingProcessServiceManager.descDataSet(dataSet).values().stream()
             .map(FieldMappingDTO::formatToString)
             .collect(Collectors.toList());
     }
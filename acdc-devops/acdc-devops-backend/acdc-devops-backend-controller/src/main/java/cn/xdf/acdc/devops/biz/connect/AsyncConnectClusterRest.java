@@ -0,0 +1,250 @@
+package cn.xdf.acdc.devops.biz.connect;
+
+import cn.xdf.acdc.devops.biz.connect.response.ConnectorStatusResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous variant of {@link ConnectClusterRest}, the requests are sent in a bounded executor and the results are returned as futures,
+ * so that requests to connect clusters can be pipelined.
+ *
+ * <p>Idempotent requests are retried with exponential backoff and full jitter if the connect cluster is not accessible or returns a server error.
+ * The futures complete exceptionally with the same exceptions as the blocking variant.
+ * Latency of requests including retries is recorded per endpoint.
+ */
+@Slf4j
+@Service
+public class AsyncConnectClusterRest {
+
+    private static final String REQUEST_TIMER_METRICS = "connect.cluster.rest.requests";
+
+    private static final String RETRY_COUNTER_METRICS = "connect.cluster.rest.retries";
+
+    private static final String METRICS_LABEL_ENDPOINT = "endpoint";
+
+    private static final String METRICS_LABEL_OUTCOME = "outcome";
+
+    private static final String OUTCOME_SUCCESS = "success";
+
+    private static final String OUTCOME_FAILURE = "failure";
+
+    private final ConnectClusterRest connectClusterRest;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService executor;
+
+    private final int maxAttempts;
+
+    private final long retryBackoffInMillisecond;
+
+    private final long retryMaxBackoffInMillisecond;
+
+    /**
+     * Construct an AsyncConnectClusterRest instance.
+     *
+     * @param connectClusterRest           blocking connect cluster rest
+     * @param meterRegistry                meter registry
+     * @param threads                      max requests in flight
+     * @param maxAttempts                  max attempts of an idempotent request
+     * @param retryBackoffInMillisecond    backoff of the first retry
+     * @param retryMaxBackoffInMillisecond max backoff of retries
+     */
+    public AsyncConnectClusterRest(
+            final ConnectClusterRest connectClusterRest,
+            final MeterRegistry meterRegistry,
+            @Value("${acdc.connect-cluster.rest.async.threads:16}") final int threads,
+            @Value("${acdc.connect-cluster.rest.retry.max-attempts:3}") final int maxAttempts,
+            @Value("${acdc.connect-cluster.rest.retry.backoff-ms:200}") final long retryBackoffInMillisecond,
+            @Value("${acdc.connect-cluster.rest.retry.max-backoff-ms:5000}") final long retryMaxBackoffInMillisecond) {
+        this.connectClusterRest = connectClusterRest;
+        this.meterRegistry = meterRegistry;
+        this.executor = new ScheduledThreadPoolExecutor(threads,
+                new ThreadFactoryBuilder().setNameFormat("connect-cluster-rest-%d").setDaemon(true).build());
+        this.maxAttempts = maxAttempts;
+        this.retryBackoffInMillisecond = retryBackoffInMillisecond;
+        this.retryMaxBackoffInMillisecond = retryMaxBackoffInMillisecond;
+    }
+
+    /**
+     * Get all connectors by connect cluster url.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @return future of connector list
+     */
+    public CompletableFuture<List<String>> getAllConnectorByClusterUrl(final String connectClusterUrl) {
+        return submit("getAllConnectorByClusterUrl", () -> connectClusterRest.getAllConnectorByClusterUrl(connectClusterUrl), true);
+    }
+
+    /**
+     * Get connector status.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @param connectorName     connector name
+     * @return future of connector status
+     */
+    public CompletableFuture<ConnectorStatusResponse> getConnectorStatus(final String connectClusterUrl, final String connectorName) {
+        return submit("getConnectorStatus", () -> connectClusterRest.getConnectorStatus(connectClusterUrl, connectorName), true);
+    }
+
+    /**
+     * Get connector config.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @param connectorName     connector name
+     * @return future of connector config
+     */
+    public CompletableFuture<Map<String, String>> getConnectorConfig(final String connectClusterUrl, final String connectorName) {
+        return submit("getConnectorConfig", () -> {
+            try {
+                return connectClusterRest.getConnectorConfig(connectClusterUrl, connectorName);
+            } catch (JsonProcessingException e) {
+                throw new CompletionException(e);
+            }
+        }, true);
+    }
+
+    /**
+     * Validate connector config.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @param connectorName     connector name
+     * @param config            config
+     * @return future completed once the config is valid
+     */
+    public CompletableFuture<Void> validConnectorConfig(final String connectClusterUrl, final String connectorName, final Map<String, String> config) {
+        return submit("validConnectorConfig", () -> {
+            connectClusterRest.validConnectorConfig(connectClusterUrl, connectorName, config);
+            return null;
+        }, true);
+    }
+
+    /**
+     * Create connector, it is not retried.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @param connectorName     connector name
+     * @param connectorConfig   connector config
+     * @return future completed once the connector is created
+     */
+    public CompletableFuture<Void> createConnector(final String connectClusterUrl, final String connectorName, final Map<String, String> connectorConfig) {
+        return submit("createConnector", () -> {
+            connectClusterRest.createConnector(connectClusterUrl, connectorName, connectorConfig);
+            return null;
+        }, false);
+    }
+
+    /**
+     * Update connector config.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @param connectorName     connector name
+     * @param config            config
+     * @return future completed once the config is updated
+     */
+    public CompletableFuture<Void> putConnectorConfig(final String connectClusterUrl, final String connectorName, final Map<String, String> config) {
+        return submit("putConnectorConfig", () -> {
+            connectClusterRest.putConnectorConfig(connectClusterUrl, connectorName, config);
+            return null;
+        }, true);
+    }
+
+    /**
+     * Restart failed connector and tasks.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @param connectorName     connector name
+     * @return future completed once the restart is requested
+     */
+    public CompletableFuture<Void> restartConnectorAndTasks(final String connectClusterUrl, final String connectorName) {
+        return submit("restartConnectorAndTasks", () -> {
+            connectClusterRest.restartConnectorAndTasks(connectClusterUrl, connectorName);
+            return null;
+        }, true);
+    }
+
+    /**
+     * Delete connector, it is not retried.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @param connectorName     connector name
+     * @return future completed once the connector is deleted
+     */
+    public CompletableFuture<Void> deleteConnector(final String connectClusterUrl, final String connectorName) {
+        return submit("deleteConnector", () -> {
+            connectClusterRest.deleteConnector(connectClusterUrl, connectorName);
+            return null;
+        }, false);
+    }
+
+    /**
+     * Stop sending requests.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private <T> CompletableFuture<T> submit(final String endpoint, final Supplier<T> request, final boolean isIdempotent) {
+        long start = System.nanoTime();
+        return attempt(endpoint, request, isIdempotent, 1, executor)
+                .whenComplete((result, throwable) -> Timer.builder(REQUEST_TIMER_METRICS)
+                        .tag(METRICS_LABEL_ENDPOINT, endpoint)
+                        .tag(METRICS_LABEL_OUTCOME, throwable == null ? OUTCOME_SUCCESS : OUTCOME_FAILURE)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private <T> CompletableFuture<T> attempt(final String endpoint, final Supplier<T> request, final boolean isIdempotent, final int attempt,
+            final Executor attemptExecutor) {
+        return CompletableFuture.supplyAsync(request, attemptExecutor)
+                .handle((result, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    if (isIdempotent && attempt < maxAttempts && isRetryable(cause)) {
+                        long backoff = backoff(attempt);
+                        log.warn("Request to connect cluster failed, retry after {} ms, endpoint: {}, attempt: {}, exception: {}", backoff, endpoint, attempt, cause.getMessage());
+                        Counter.builder(RETRY_COUNTER_METRICS).tag(METRICS_LABEL_ENDPOINT, endpoint).register(meterRegistry).increment();
+                        return attempt(endpoint, request, isIdempotent, attempt + 1, command -> executor.schedule(command, backoff, TimeUnit.MILLISECONDS));
+                    }
+                    CompletableFuture<T> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(cause);
+                    return failed;
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private boolean isRetryable(final Throwable cause) {
+        return cause instanceof ResourceAccessException || cause instanceof HttpServerErrorException;
+    }
+
+    // full jitter: a random backoff between 0 and the exponential backoff, so that retries of the same cluster are spread
+    private long backoff(final int attempt) {
+        long exponentialBackoff = Math.min(retryMaxBackoffInMillisecond, retryBackoffInMillisecond << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(exponentialBackoff + 1);
+    }
+}
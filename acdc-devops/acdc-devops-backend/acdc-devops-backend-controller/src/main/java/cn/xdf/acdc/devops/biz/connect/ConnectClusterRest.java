@@ -1,5 +1,6 @@
 package cn.xdf.acdc.devops.biz.connect;
 
+import cn.xdf.acdc.devops.biz.connect.response.ConnectorExpandedResponse;
 import cn.xdf.acdc.devops.biz.connect.response.ConnectorStatusResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -18,14 +19,18 @@ import org.springframework.web.client.RestTemplate;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class ConnectClusterRest {
 
     private static final String CONNECTORS_URL = "{0}/connectors";
 
+    private static final String EXPANDED_CONNECTORS_URL = "{0}/connectors?expand=status&expand=info";
+
     private static final String CONNECTOR_URL = "{0}/connectors/{1}";
 
     private static final String CONNECTOR_CONFIG_URL = "{0}/connectors/{1}/config";
@@ -42,6 +47,10 @@ public class ConnectClusterRest {
 
     private static final String CONNECTOR_CONFIG_KEY_CONNECTOR_TYPE = "connector.class";
 
+    private static final String CONNECTOR_EXPAND_KEY_STATUS = "status";
+
+    private static final String CONNECTOR_EXPAND_KEY_INFO = "info";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private final RestTemplate restTemplate;
@@ -64,6 +73,49 @@ public class ConnectClusterRest {
         return connectors == null ? new ArrayList<>() : connectors;
     }
 
+    /**
+     * Get status and config of all connectors by connect cluster url with one request.
+     *
+     * <p>The expand parameter is supported since kafka connect 2.3, older workers ignore it and return the connector names,
+     * in that case or the request is rejected, an empty optional is returned and the caller should fetch connectors one by one.
+     *
+     * @param connectClusterUrl connect cluster url
+     * @return connector name and expanded connector tuple, empty if the connect cluster does not support expanding
+     * @throws ResourceAccessException connection refused or timeout
+     */
+    @Timed
+    public Optional<Map<String, ConnectorExpandedResponse>> getAllExpandedConnectorByClusterUrl(final String connectClusterUrl) throws ResourceAccessException {
+        String url = MessageFormat.format(EXPANDED_CONNECTORS_URL, connectClusterUrl);
+        JsonNode connectorsJsonNode;
+        try {
+            String connectorsStr = restTemplate.getForObject(url, String.class);
+            if (connectorsStr == null) {
+                return Optional.empty();
+            }
+            connectorsJsonNode = objectMapper.readTree(connectorsStr);
+        } catch (HttpClientErrorException | JsonProcessingException e) {
+            return Optional.empty();
+        }
+        if (!connectorsJsonNode.isObject()) {
+            return Optional.empty();
+        }
+
+        Map<String, ConnectorExpandedResponse> connectors = new HashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> connectorJsonNodes = connectorsJsonNode.fields();
+        while (connectorJsonNodes.hasNext()) {
+            Map.Entry<String, JsonNode> connectorJsonNode = connectorJsonNodes.next();
+            JsonNode statusJsonNode = connectorJsonNode.getValue().get(CONNECTOR_EXPAND_KEY_STATUS);
+            JsonNode infoJsonNode = connectorJsonNode.getValue().get(CONNECTOR_EXPAND_KEY_INFO);
+            if (statusJsonNode == null || infoJsonNode == null) {
+                return Optional.empty();
+            }
+            ConnectorStatusResponse status = objectMapper.convertValue(statusJsonNode, ConnectorStatusResponse.class);
+            Map<String, String> config = objectMapper.convertValue(infoJsonNode.get(CONNECTOR_CONFIG_KEY_CONFIG), HashMap.class);
+            connectors.put(connectorJsonNode.getKey(), new ConnectorExpandedResponse(status, config));
+        }
+        return Optional.of(connectors);
+    }
+
     /**
      * Create connector.
      *
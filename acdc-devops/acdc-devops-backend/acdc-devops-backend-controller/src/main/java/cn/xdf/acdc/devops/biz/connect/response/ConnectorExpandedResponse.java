@@ -0,0 +1,17 @@
+package cn.xdf.acdc.devops.biz.connect.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConnectorExpandedResponse {
+
+    private ConnectorStatusResponse status;
+
+    private Map<String, String> config;
+}
@@ -1,13 +1,41 @@
 package cn.xdf.acdc.devops.config;
 
+import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
+import cn.xdf.acdc.devops.service.aop.ConnectorEventJournal;
+import cn.xdf.acdc.devops.service.process.connection.fieldmapping.impl.DataSetSchemaCache;
+import cn.xdf.acdc.devops.service.process.connector.impl.ConnectorDecryptConfigCache;
+import cn.xdf.acdc.devops.service.process.datasystem.rdb.impl.RdbProcessServiceImpl;
 import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class MicrometerAutoConfiguration {
 
+    private static final String CONNECTOR_DECRYPT_CONFIG_CACHE_METRICS_PREFIX = "connector.decrypt.config.cache";
+
+    private static final String DATA_SET_SCHEMA_CACHE_METRICS_PREFIX = "data.set.schema.cache";
+
+    private static final String CONNECTOR_EVENT_JOURNAL_METRICS_PREFIX = "connector.event.journal";
+
+    private static final String RDB_METADATA_REFRESH_METRICS_PREFIX = "rdb.metadata.refresh";
+
+    private static final String REST_CONNECTION_POOL_NAME = "rest-template";
+
+    private static final String METRICS_LABEL_DATA_SYSTEM = "data.system";
+
+    private static final String METRICS_LABEL_RESULT = "result";
+
     /**
      * Config timed aspect.
      *
@@ -18,4 +46,110 @@ public class MicrometerAutoConfiguration {
     public TimedAspect timedAspect(final MeterRegistry registry) {
         return new TimedAspect(registry);
     }
+
+    /**
+     * Bind hit rate and decryption time metrics of the decrypted connector config cache.
+     *
+     * @param cache decrypted connector config cache
+     * @return meter binder
+     */
+    @Bean
+    public MeterBinder connectorDecryptConfigCacheMetrics(final ConnectorDecryptConfigCache cache) {
+        return registry -> {
+            FunctionCounter.builder(CONNECTOR_DECRYPT_CONFIG_CACHE_METRICS_PREFIX + ".requests", cache, ConnectorDecryptConfigCache::getHitCount)
+                    .tag(METRICS_LABEL_RESULT, "hit")
+                    .register(registry);
+            FunctionCounter.builder(CONNECTOR_DECRYPT_CONFIG_CACHE_METRICS_PREFIX + ".requests", cache, ConnectorDecryptConfigCache::getMissCount)
+                    .tag(METRICS_LABEL_RESULT, "miss")
+                    .register(registry);
+            Gauge.builder(CONNECTOR_DECRYPT_CONFIG_CACHE_METRICS_PREFIX + ".hit.ratio", cache, ConnectorDecryptConfigCache::getHitRatio)
+                    .register(registry);
+            Gauge.builder(CONNECTOR_DECRYPT_CONFIG_CACHE_METRICS_PREFIX + ".size", cache, ConnectorDecryptConfigCache::size)
+                    .register(registry);
+            FunctionTimer.builder(CONNECTOR_DECRYPT_CONFIG_CACHE_METRICS_PREFIX + ".decrypt", cache,
+                    ConnectorDecryptConfigCache::getDecryptCount, value -> value.getDecryptTotalTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Bind hit rate and describe time metrics of the data set schema cache.
+     *
+     * @param cache data set schema cache
+     * @return meter binder
+     */
+    @Bean
+    public MeterBinder dataSetSchemaCacheMetrics(final DataSetSchemaCache cache) {
+        return registry -> {
+            FunctionCounter.builder(DATA_SET_SCHEMA_CACHE_METRICS_PREFIX + ".requests", cache, DataSetSchemaCache::getHitCount)
+                    .tag(METRICS_LABEL_RESULT, "hit")
+                    .register(registry);
+            FunctionCounter.builder(DATA_SET_SCHEMA_CACHE_METRICS_PREFIX + ".requests", cache, DataSetSchemaCache::getMissCount)
+                    .tag(METRICS_LABEL_RESULT, "miss")
+                    .register(registry);
+            FunctionCounter.builder(DATA_SET_SCHEMA_CACHE_METRICS_PREFIX + ".requests", cache, DataSetSchemaCache::getCoalescedCount)
+                    .tag(METRICS_LABEL_RESULT, "coalesced")
+                    .register(registry);
+            Gauge.builder(DATA_SET_SCHEMA_CACHE_METRICS_PREFIX + ".hit.ratio", cache, DataSetSchemaCache::getHitRatio)
+                    .register(registry);
+            Gauge.builder(DATA_SET_SCHEMA_CACHE_METRICS_PREFIX + ".size", cache, DataSetSchemaCache::size)
+                    .register(registry);
+            FunctionTimer.builder(DATA_SET_SCHEMA_CACHE_METRICS_PREFIX + ".describe", cache,
+                    DataSetSchemaCache::getDescribeCount, value -> value.getDescribeTotalTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Bind queue size, saving results and write time metrics of the connector event journal.
+     *
+     * @param journal connector event journal
+     * @return meter binder
+     */
+    @Bean
+    public MeterBinder connectorEventJournalMetrics(final ConnectorEventJournal journal) {
+        return registry -> {
+            FunctionCounter.builder(CONNECTOR_EVENT_JOURNAL_METRICS_PREFIX + ".events", journal, ConnectorEventJournal::getSavedCount)
+                    .tag(METRICS_LABEL_RESULT, "saved")
+                    .register(registry);
+            FunctionCounter.builder(CONNECTOR_EVENT_JOURNAL_METRICS_PREFIX + ".events", journal, ConnectorEventJournal::getDroppedCount)
+                    .tag(METRICS_LABEL_RESULT, "dropped")
+                    .register(registry);
+            FunctionCounter.builder(CONNECTOR_EVENT_JOURNAL_METRICS_PREFIX + ".events", journal, ConnectorEventJournal::getFailedCount)
+                    .tag(METRICS_LABEL_RESULT, "failed")
+                    .register(registry);
+            Gauge.builder(CONNECTOR_EVENT_JOURNAL_METRICS_PREFIX + ".size", journal, ConnectorEventJournal::size)
+                    .register(registry);
+            FunctionTimer.builder(CONNECTOR_EVENT_JOURNAL_METRICS_PREFIX + ".write", journal,
+                    ConnectorEventJournal::getWriteCount, value -> value.getWriteTotalTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Bind failure metrics of the rdb metadata refresh, tagged by the data system of the rdbs.
+     *
+     * @param rdbProcessService rdb process service
+     * @return meter binder
+     */
+    @Bean
+    public MeterBinder rdbMetadataRefreshMetrics(final RdbProcessServiceImpl rdbProcessService) {
+        return registry -> Arrays.stream(DataSystemType.values())
+                .filter(DataSystemType::isRdb)
+                .map(DataSystemType::getName)
+                .forEach(rdbType -> FunctionCounter.builder(RDB_METADATA_REFRESH_METRICS_PREFIX + ".failures", rdbProcessService, service -> service.getRefreshMetadataFailedCount(rdbType))
+                        .tag(METRICS_LABEL_DATA_SYSTEM, rdbType)
+                        .register(registry));
+    }
+
+    /**
+     * Bind leased, available and pending connection metrics of the pooled http client of rest template.
+     *
+     * @param connectionManager pooling connection manager
+     * @return meter binder
+     */
+    @Bean
+    public MeterBinder restConnectionPoolMetrics(final PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, REST_CONNECTION_POOL_NAME);
+    }
 }
@@ -13,12 +13,14 @@ import cn.xdf.acdc.devops.service.process.connector.ConnectorCoreProcessService;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorQueryProcessService;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import javax.annotation.concurrent.NotThreadSafe;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
@@ -49,6 +51,10 @@ public class ConnectionController implements Controller {
 
     private final Map<Long, Set<Long>> connectorIdToConnectionId = new ConcurrentHashMap<>();
 
+    // informers query changes incrementally, so that they can run frequently
+    @Value("${scheduler.connection.informer.interval.ms:1000}")
+    private long informerIntervalInMs = 1000L;
+
     private AbstractInformer<ConnectionDetailDTO> connectionInformer;
 
     private AbstractInformer<ConnectorDTO> connectorInformer;
@@ -67,10 +73,10 @@ public class ConnectionController implements Controller {
         initConnectionInformer();
         initConnectorInformer();
 
-        connectionInformer.start();
+        connectionInformer.start(Duration.ofMillis(informerIntervalInMs));
         waitForConnectionInitialized();
 
-        connectorInformer.start();
+        connectorInformer.start(Duration.ofMillis(informerIntervalInMs));
     }
 
     @SneakyThrows
@@ -4,31 +4,46 @@ import cn.xdf.acdc.devops.controller.FixedRateRunnableTask;
 import io.jsonwebtoken.lang.Collections;
 import org.springframework.scheduling.TaskScheduler;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 /**
  * Abstract informer provide common process capabilities.
  *
+ * <p>Elements are queried incrementally in batches by a (update time, key) keyset cursor, so that elements with the same update time
+ * are neither missed nor re-read. The cursor is not moved past elements updated within the settle window, because a transaction may commit
+ * after the elements it updated later, those recent elements are read again in the next run and only callbacks of changes are invoked.
+ *
  * @param <E> element
  */
 public abstract class AbstractInformer<E> extends FixedRateRunnableTask implements Informer<E> {
 
     public static final int DEFAULT_INFORMER_INITIALIZATION_TIMEOUT_IN_SECONDS = 300;
 
+    public static final int DEFAULT_QUERY_BATCH_SIZE = 1000;
+
+    public static final Duration DEFAULT_SETTLE_WINDOW = Duration.ofSeconds(1);
+
     private final Object initializationBlocker = new Object();
 
-    private Map<Long, E> resources;
+    // read by other threads while updating in run
+    private final Map<Long, E> resources = new ConcurrentHashMap<>();
+
+    private final int queryBatchSize;
 
-    private Instant lastUpdateTime;
+    private final Duration settleWindow;
+
+    private volatile Instant lastUpdateTime;
+
+    private volatile Long lastKey;
 
     private List<Consumer<E>> addCallbacks;
 
@@ -39,10 +54,16 @@ public abstract class AbstractInformer<E> extends FixedRateRunnableTask implemen
     private volatile boolean isInitialized;
 
     public AbstractInformer(final TaskScheduler scheduler) {
+        this(scheduler, DEFAULT_QUERY_BATCH_SIZE, DEFAULT_SETTLE_WINDOW);
+    }
+
+    AbstractInformer(final TaskScheduler scheduler, final int queryBatchSize, final Duration settleWindow) {
         super(scheduler);
 
+        this.queryBatchSize = queryBatchSize;
+        this.settleWindow = settleWindow;
         lastUpdateTime = Instant.ofEpochSecond(0);
-        resources = new HashMap<>();
+        lastKey = 0L;
         addCallbacks = new ArrayList<>();
         updateCallbacks = new ArrayList<>();
         deleteCallbacks = new ArrayList<>();
@@ -50,24 +71,32 @@ public abstract class AbstractInformer<E> extends FixedRateRunnableTask implemen
 
     @Override
     public void run() {
-        List<E> dataList = query();
-
-        final AtomicReference<Instant> tmpUpdateTime = new AtomicReference<>(lastUpdateTime);
-        if (!Collections.isEmpty(dataList)) {
-            dataList.forEach(newer ->
-                    resources.compute(getKey(newer), (key, order) -> {
-                        invokeAppropriateCallbacks(order, newer);
-
-                        Instant updateTime = getUpdateTime(newer);
-                        if (tmpUpdateTime.get().compareTo(updateTime) < 0) {
-                            tmpUpdateTime.set(updateTime);
-                        }
-                        return newer;
-                    })
-            );
-        }
-
-        lastUpdateTime = tmpUpdateTime.get();
+        Instant settledTime = Instant.now().minus(settleWindow);
+        Instant cursorUpdateTime = lastUpdateTime;
+        Long cursorKey = lastKey;
+        boolean isSettled = true;
+        List<E> dataList;
+        do {
+            dataList = query(cursorUpdateTime, cursorKey, queryBatchSize);
+            if (Collections.isEmpty(dataList)) {
+                break;
+            }
+            for (E newer : dataList) {
+                resources.compute(getKey(newer), (key, order) -> {
+                    invokeAppropriateCallbacks(order, newer);
+                    return newer;
+                });
+
+                // elements are ordered by the cursor
+                cursorUpdateTime = getUpdateTime(newer);
+                cursorKey = getKey(newer);
+                isSettled = isSettled && !cursorUpdateTime.isAfter(settledTime);
+                if (isSettled) {
+                    lastUpdateTime = cursorUpdateTime;
+                    lastKey = cursorKey;
+                }
+            }
+        } while (dataList.size() >= queryBatchSize);
 
         if (!isInitialized) {
             synchronized (initializationBlocker) {
@@ -148,11 +177,14 @@ public abstract class AbstractInformer<E> extends FixedRateRunnableTask implemen
     }
 
     /**
-     * Informer detects information from other system.
+     * Informer detects information from other system, elements after the (update time, key) cursor are returned in the order of the cursor.
      *
+     * @param beginUpdateTime update time of the cursor
+     * @param beginKey        key of the cursor
+     * @param limit           max count of elements
      * @return data
      */
-    abstract List<E> query();
+    abstract List<E> query(Instant beginUpdateTime, Long beginKey, int limit);
 
     /**
      * Element's key.
@@ -191,4 +223,8 @@ public abstract class AbstractInformer<E> extends FixedRateRunnableTask implemen
     Instant getLastUpdateTime() {
         return this.lastUpdateTime;
     }
+
+    Long getLastKey() {
+        return this.lastKey;
+    }
 }
@@ -20,8 +20,8 @@ public class ConnectionInformer extends AbstractInformer<ConnectionDetailDTO> {
     }
 
     @Override
-    List<ConnectionDetailDTO> query() {
-        ConnectionQuery query = ConnectionQuery.builder().beginUpdateTime(super.getLastUpdateTime())
+    List<ConnectionDetailDTO> query(final Instant beginUpdateTime, final Long beginKey, final int limit) {
+        ConnectionQuery query = ConnectionQuery.builder().beginUpdateTime(beginUpdateTime).beginId(beginKey).limit(limit)
                 .requisitionState(RequisitionState.APPROVED).build();
         return connectionProcessService.query(query);
     }
@@ -19,8 +19,8 @@ public class ConnectorInformer extends AbstractInformer<ConnectorDTO> {
     }
 
     @Override
-    List<ConnectorDTO> query() {
-        ConnectorQuery query = ConnectorQuery.builder().beginUpdateTime(super.getLastUpdateTime()).build();
+    List<ConnectorDTO> query(final Instant beginUpdateTime, final Long beginKey, final int limit) {
+        ConnectorQuery query = ConnectorQuery.builder().beginUpdateTime(beginUpdateTime).beginId(beginKey).limit(limit).build();
         return connectorQueryProcessService.query(query);
     }
 
@@ -0,0 +1,22 @@
+package cn.xdf.acdc.devops.informer;
+
+import cn.xdf.acdc.devops.core.domain.dto.ConnectorDTO;
+import cn.xdf.acdc.devops.service.process.connector.ConnectorQueryProcessService;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.util.Objects;
+
+/**
+ * Connector informer which takes both actual and desired state changes as update.
+ */
+public class ConnectorStateInformer extends ConnectorInformer {
+
+    public ConnectorStateInformer(final TaskScheduler scheduler, final ConnectorQueryProcessService connectorQueryProcessService) {
+        super(scheduler, connectorQueryProcessService);
+    }
+
+    @Override
+    boolean equals(final ConnectorDTO e1, final ConnectorDTO e2) {
+        return super.equals(e1, e2) && Objects.equals(e1.getDesiredState(), e2.getDesiredState());
+    }
+}
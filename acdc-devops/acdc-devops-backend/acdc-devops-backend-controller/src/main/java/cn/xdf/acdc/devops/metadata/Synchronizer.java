@@ -1,13 +1,17 @@
 package cn.xdf.acdc.devops.metadata;
 
 import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
+import cn.xdf.acdc.devops.service.process.connection.fieldmapping.impl.DataSetSchemaCache;
 import cn.xdf.acdc.devops.service.process.datasystem.DataSystemMetadataService;
 import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,9 +23,17 @@ import java.util.List;
 @Slf4j
 public class Synchronizer {
 
+    private static final String METADATA_REFRESH_METRICS_NAME = "metadata.refresh";
+
     @Autowired(required = false)
     private List<DataSystemMetadataService> metadataJobs;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSetSchemaCache dataSetSchemaCache;
+
     /**
      * Refresh metadata for ACDC.
      */
@@ -34,14 +46,25 @@ public class Synchronizer {
             return;
         }
         metadataJobs.forEach(metadataJob -> {
+            // duration and failure count of each job, the count of failure is the count of timer with failure result
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String result = "success";
             try {
                 metadataJob.refreshMetadata();
             } catch (Exception exception) {
                 log.error("exception:{}, stack trace:{}", exception, exception.getStackTrace());
                 exceptions.add(exception);
+                result = "failure";
+            } finally {
+                sample.stop(meterRegistry.timer(METADATA_REFRESH_METRICS_NAME,
+                        "job", ClassUtils.getUserClass(metadataJob).getSimpleName(),
+                        "result", result));
             }
         });
 
+        // the refresh does not read columns, any DDL applied by now must not be hidden by a cached data set schema
+        dataSetSchemaCache.invalidateAll();
+
         if (!exceptions.isEmpty()) {
             throw new ServerErrorException(exceptions.toString());
         }
@@ -0,0 +1,178 @@
+package cn.xdf.acdc.devops.scheduler;
+
+import cn.xdf.acdc.devops.core.domain.dto.ConnectorDTO;
+import cn.xdf.acdc.devops.informer.AbstractInformer;
+import cn.xdf.acdc.devops.informer.ConnectorStateInformer;
+import cn.xdf.acdc.devops.service.process.connector.ConnectorQueryProcessService;
+import cn.xdf.acdc.devops.statemachine.ConnectorStateHandler;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reconcile connectors once their actual or desired state changed.
+ *
+ * <p>Changes are detected by a connector informer and put into a work queue, a connector is queued at most once and
+ * is never reconciled by two workers at the same time. A connector which is not settled is requeued with an exponential
+ * backoff delay, changes of the connector during its backoff are merged into the queued one.
+ */
+@Component
+@Slf4j
+public class ConnectorReconciler {
+
+    private static final int BACKOFF_MULTIPLIER = 2;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ConnectorQueryProcessService connectorQueryProcessService;
+
+    private final ConnectorStateHandler connectorStateHandler;
+
+    @Value("${scheduler.reconciler.workers:4}")
+    private int workers;
+
+    @Value("${scheduler.reconciler.informer.interval.ms:1000}")
+    private long informerIntervalInMs;
+
+    @Value("${scheduler.reconciler.requeue.base-delay.ms:1000}")
+    private long requeueBaseDelayInMs;
+
+    @Value("${scheduler.reconciler.requeue.max-delay.ms:300000}")
+    private long requeueMaxDelayInMs;
+
+    // connector id, the latest connector to reconcile tuple
+    private final Map<Long, ConnectorDTO> dirtyConnectors = new HashMap<>();
+
+    private final Set<Long> queuedConnectorIds = new HashSet<>();
+
+    private final Set<Long> processingConnectorIds = new HashSet<>();
+
+    // connector id, requeue delay tuple
+    private final Map<Long, Long> requeueDelays = new HashMap<>();
+
+    private ScheduledExecutorService workerExecutor;
+
+    private AbstractInformer<ConnectorDTO> connectorInformer;
+
+    /**
+     * Construct a ConnectorReconciler instance.
+     *
+     * @param taskScheduler                taskScheduler
+     * @param connectorQueryProcessService connectorQueryProcessService
+     * @param connectorStateHandler        connectorStateHandler
+     */
+    public ConnectorReconciler(final TaskScheduler taskScheduler, final ConnectorQueryProcessService connectorQueryProcessService,
+            final ConnectorStateHandler connectorStateHandler) {
+        this.taskScheduler = taskScheduler;
+        this.connectorQueryProcessService = connectorQueryProcessService;
+        this.connectorStateHandler = connectorStateHandler;
+    }
+
+    /**
+     * Start workers and the connector informer.
+     */
+    @PostConstruct
+    public void start() {
+        workerExecutor = Executors.newScheduledThreadPool(workers, new ThreadFactoryBuilder().setNameFormat("connector-reconciler-%d").setDaemon(true).build());
+        connectorInformer = new ConnectorStateInformer(taskScheduler, connectorQueryProcessService)
+                .whenAdd(this::enqueue)
+                .whenUpdate(this::enqueue);
+        connectorInformer.start(Duration.ofMillis(informerIntervalInMs));
+    }
+
+    /**
+     * Stop workers.
+     */
+    @PreDestroy
+    public void stop() {
+        if (workerExecutor != null) {
+            workerExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Put a connector into the work queue, it is merged into the queued one if the connector has been queued.
+     *
+     * @param connector connector
+     */
+    public synchronized void enqueue(final ConnectorDTO connector) {
+        dirtyConnectors.put(connector.getId(), connector);
+        if (!processingConnectorIds.contains(connector.getId())) {
+            schedule(connector.getId(), 0);
+        }
+    }
+
+    /**
+     * Get the number of connectors waiting to be reconciled.
+     *
+     * @return queue depth
+     */
+    public synchronized int getQueueDepth() {
+        return dirtyConnectors.size();
+    }
+
+    private void schedule(final Long connectorId, final long delayInMs) {
+        if (queuedConnectorIds.add(connectorId)) {
+            workerExecutor.schedule(() -> reconcile(connectorId), delayInMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reconcile(final Long connectorId) {
+        ConnectorDTO connector = startProcessing(connectorId);
+        if (connector == null) {
+            finishProcessing(connectorId, true);
+            return;
+        }
+        boolean isSucceeded = false;
+        try {
+            isSucceeded = connectorStateHandler.reconcile(connector);
+            // CHECKSTYLE:OFF
+        } catch (RuntimeException exception) {
+            // CHECKSTYLE:ON
+            // any failure must not lose the connector, it is requeued below
+            log.error("Reconcile connector error, connectorId: {}", connectorId, exception);
+        }
+        if (!isSucceeded) {
+            requeue(connector);
+        }
+        finishProcessing(connectorId, isSucceeded);
+    }
+
+    private synchronized ConnectorDTO startProcessing(final Long connectorId) {
+        queuedConnectorIds.remove(connectorId);
+        processingConnectorIds.add(connectorId);
+        return dirtyConnectors.remove(connectorId);
+    }
+
+    private synchronized void requeue(final ConnectorDTO connector) {
+        // a newer change has been queued
+        dirtyConnectors.putIfAbsent(connector.getId(), connector);
+    }
+
+    private synchronized void finishProcessing(final Long connectorId, final boolean isSucceeded) {
+        processingConnectorIds.remove(connectorId);
+        long delayInMs = 0;
+        if (isSucceeded) {
+            requeueDelays.remove(connectorId);
+        } else {
+            delayInMs = requeueDelays.getOrDefault(connectorId, requeueBaseDelayInMs);
+            requeueDelays.put(connectorId, Math.min(delayInMs * BACKOFF_MULTIPLIER, requeueMaxDelayInMs));
+        }
+        if (dirtyConnectors.containsKey(connectorId)) {
+            schedule(connectorId, delayInMs);
+        }
+    }
+}
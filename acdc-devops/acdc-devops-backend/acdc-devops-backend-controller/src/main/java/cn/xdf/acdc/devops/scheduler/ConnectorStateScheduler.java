@@ -34,7 +34,8 @@ public class ConnectorStateScheduler {
 
     private final ConnectorStateHandler connectorStateHandler;
 
-    @Value("${scheduler.user-trigger.interval.ms:10000}")
+    // user triggered events are handled by ConnectorReconciler once connector state changed, this is a full resync
+    @Value("${scheduler.user-trigger.interval.ms:300000}")
     private long userTriggerIntervalInMs;
 
     @Value("${scheduler.watch-cluster.interval.ms:20000}")
@@ -1,7 +1,10 @@
 package cn.xdf.acdc.devops.statemachine;
 
+import cn.xdf.acdc.devops.biz.connect.AsyncConnectClusterRest;
 import cn.xdf.acdc.devops.biz.connect.ConnectClusterRest;
+import cn.xdf.acdc.devops.biz.connect.response.ConnectorExpandedResponse;
 import cn.xdf.acdc.devops.biz.connect.response.ConnectorStatusResponse;
+import cn.xdf.acdc.devops.core.domain.dto.ConnectorDTO;
 import cn.xdf.acdc.devops.core.domain.dto.ConnectorInfoDTO;
 import cn.xdf.acdc.devops.core.domain.entity.ConnectClusterDO;
 import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorEvent;
@@ -9,27 +12,35 @@ import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorState;
 import cn.xdf.acdc.devops.core.util.DelayStrategy;
 import cn.xdf.acdc.devops.service.entity.ConnectClusterService;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorCoreProcessService;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jsonwebtoken.lang.Collections;
 import io.micrometer.core.annotation.Timed;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
-import org.springframework.web.client.ResourceAccessException;
 
+import javax.annotation.PreDestroy;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 @Component
@@ -47,6 +58,10 @@ public class ConnectorStateHandler {
 
     private static final long DELAY_STRATEGY_EXPIRE_TIME_IN_MILLISECOND = DelayStrategy.MAX_TIME_INTERVAL * 2;
 
+    private static final int CONNECTOR_SNAPSHOT_FULL_CHECK_WATCHING_TIMES = 15;
+
+    private static final long USER_TRIGGER_EXECUTOR_KEEP_ALIVE_IN_SECOND = 60L;
+
     private final ConnectorCoreProcessService connectorCoreProcessService;
 
     private final ConnectClusterService connectClusterService;
@@ -55,6 +70,8 @@ public class ConnectorStateHandler {
 
     private final ConnectClusterRest connectClusterRest;
 
+    private final AsyncConnectClusterRest asyncConnectClusterRest;
+
     // connectId,ConnectorStateMachine tuple
     private final Map<Long, ConnectorStateMachine> stateMachineHolder = new ConcurrentHashMap<>();
 
@@ -66,6 +83,18 @@ public class ConnectorStateHandler {
 
     private final MeterRegistry meterRegistry;
 
+    // connect cluster id, (connector id, snapshot of the last watching) tuple
+    private final Map<Long, Map<Long, List<Object>>> connectorSnapshots = new ConcurrentHashMap<>();
+
+    private final Map<Long, Integer> clusterWatchingTimes = new ConcurrentHashMap<>();
+
+    // connect cluster id, executor of user triggered events tuple
+    private final Map<Long, ExecutorService> userTriggerEventExecutors = new ConcurrentHashMap<>();
+
+    // max connectors handled at the same time in a connect cluster, so that the connect workers are not overrun by rebalances
+    @Value("${scheduler.user-trigger.parallelism-per-cluster:8}")
+    private int userTriggerParallelismPerCluster = 8;
+
     private Long connectorExecTimeoutInMillisecond = CONNECTOR_EXEC_TIMEOUT_IN_MILLISECOND;
 
     /**
@@ -74,14 +103,17 @@ public class ConnectorStateHandler {
      * @param connectorCoreProcessService     connectorCoreService
      * @param connectorStateMachineProvider connectorStateMachineProvider
      * @param connectClusterRest            connectClusterRest
+     * @param asyncConnectClusterRest       asyncConnectClusterRest
      * @param connectClusterService         connectClusterService
      * @param meterRegistry                 meterRegistry
      */
     public ConnectorStateHandler(final ConnectorCoreProcessService connectorCoreProcessService, final ConnectorStateMachineProvider connectorStateMachineProvider,
-            final ConnectClusterRest connectClusterRest, final ConnectClusterService connectClusterService, final MeterRegistry meterRegistry) {
+            final ConnectClusterRest connectClusterRest, final AsyncConnectClusterRest asyncConnectClusterRest, final ConnectClusterService connectClusterService,
+            final MeterRegistry meterRegistry) {
         this.connectorCoreProcessService = connectorCoreProcessService;
         this.connectorStateMachineProvider = connectorStateMachineProvider;
         this.connectClusterRest = connectClusterRest;
+        this.asyncConnectClusterRest = asyncConnectClusterRest;
         this.connectClusterService = connectClusterService;
         this.meterRegistry = meterRegistry;
 
@@ -101,6 +133,10 @@ public class ConnectorStateHandler {
         return stateMachineHolder;
     }
 
+    protected Map<Long, Map<Long, List<Object>>> getConnectorSnapshots() {
+        return connectorSnapshots;
+    }
+
     private void refreshStateMachineMetrics() {
         Arrays.stream(ConnectorState.values()).forEach(
             state ->
@@ -123,26 +159,75 @@ public class ConnectorStateHandler {
             List<Long> connectorIds = connectorInfos.stream().map(ConnectorInfoDTO::getId).collect(Collectors.toList());
             log.info("Begin to handle user trigger event: {}, cluster id: {}, connectorIds: {}.", event, clusterId, connectorIds);
 
-            connectorInfos.forEach(connectorInfoDTO -> handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), event.getEvent()));
+            // connectors are independent, each of them is handled in the executor of the cluster
+            ExecutorService executor = userTriggerEventExecutors.computeIfAbsent(clusterId, this::newUserTriggerEventExecutor);
+            CompletableFuture<?>[] futures = connectorInfos.stream()
+                    .map(connectorInfoDTO -> CompletableFuture.runAsync(() -> handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), event.getEvent()), executor))
+                    .toArray(CompletableFuture[]::new);
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
 
             log.info("End handle user trigger event: {}, cluster id: {}, connectorIds: {}.", event, clusterId, connectorIds);
         }
     }
 
-    private void createConnectorStateMachineIfNotExist(final Long connectorId, final ConnectorState currentState) {
-        if (!stateMachineHolder.containsKey(connectorId)) {
-            stateMachineHolder.put(connectorId, connectorStateMachineProvider.getNewOne(currentState));
+    private ExecutorService newUserTriggerEventExecutor(final Long clusterId) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(userTriggerParallelismPerCluster, userTriggerParallelismPerCluster,
+                USER_TRIGGER_EXECUTOR_KEEP_ALIVE_IN_SECOND, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder().setNameFormat("user-trigger-cluster-" + clusterId + "-%d").setDaemon(true).build());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    protected void setUserTriggerParallelismPerCluster(final int parallelism) {
+        userTriggerParallelismPerCluster = parallelism;
+    }
+
+    /**
+     * Reconcile a connector whose actual or desired state changed, fire the user triggered event if the connector is expected to.
+     *
+     * @param connector connector
+     * @return false if the event is fired but the connector is still in the state before, which means it should be retried later
+     */
+    public boolean reconcile(final ConnectorDTO connector) {
+        Optional<UserTriggerConnectorEvent> userTriggerConnectorEvent = Arrays.stream(UserTriggerConnectorEvent.values())
+                .filter(event -> event.getActual().equals(connector.getActualState()) && event.getDesired().equals(connector.getDesiredState()))
+                .findFirst();
+        if (!userTriggerConnectorEvent.isPresent() || connector.getConnectClusterId() == null) {
+            return true;
+        }
+
+        UserTriggerConnectorEvent event = userTriggerConnectorEvent.get();
+        // only the target connector is loaded and decrypted, the states are checked again since the given connector may be out of date
+        Optional<ConnectorInfoDTO> connectorInfo = connectorCoreProcessService.getConnector(connector.getId())
+                .filter(connectorInfoDTO -> event.getActual().equals(connectorInfoDTO.getActualState()) && event.getDesired().equals(connectorInfoDTO.getDesiredState()));
+        if (!connectorInfo.isPresent()) {
+            return true;
         }
+
+        ConnectorInfoDTO connectorInfoDTO = connectorInfo.get();
+        handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), event.getEvent());
+        return !event.getActual().equals(stateMachineHolder.get(connectorInfoDTO.getId()).getCurrentState());
     }
 
-    private void handleEvent(final ConnectorInfoDTO connectorInfoDTO, final ConnectorState currentState, final ConnectorEvent event) {
+    private boolean handleEvent(final ConnectorInfoDTO connectorInfoDTO, final ConnectorState currentState, final ConnectorEvent event) {
         log.info("Begin to handle connector event: {}, connectorIds: {}, currentState: {}.", event, connectorInfoDTO.getId(), currentState);
 
-        createConnectorStateMachineIfNotExist(connectorInfoDTO.getId(), currentState);
-        ConnectorStateMachine connectorStateMachine = stateMachineHolder.get(connectorInfoDTO.getId());
-        connectorStateMachine.fire(event, connectorInfoDTO);
+        ConnectorStateMachine connectorStateMachine = stateMachineHolder.computeIfAbsent(connectorInfoDTO.getId(), key -> connectorStateMachineProvider.getNewOne(currentState));
+        boolean handled;
+        // the connector may be handled by the reconciler and the scheduled tasks at the same time
+        synchronized (connectorStateMachine) {
+            handled = connectorStateMachine.fireAndCheck(event, connectorInfoDTO);
+        }
 
-        log.info("End handle connector event: {}, connectorIds: {}, currentState: {}.", event, connectorInfoDTO.getId(), currentState);
+        log.info("End handle connector event: {}, connectorIds: {}, currentState: {}, handled: {}.", event, connectorInfoDTO.getId(), currentState, handled);
+        return handled;
     }
 
     /**
@@ -157,77 +242,128 @@ public class ConnectorStateHandler {
     /**
      * Deal with event which connect cluster state change triggered.
      *
+     * <p>Connectors whose actual state in the connect cluster and state in db are both the same as the last watching are skipped,
+     * all connectors are checked again every {@value #CONNECTOR_SNAPSHOT_FULL_CHECK_WATCHING_TIMES} times of watching.
+     *
      * @param clusterId connect cluster id
      */
     @Timed(description = "watch connect cluster state")
     public void connectClusterStateWatcher(final Long clusterId) {
         // todo task restart
-        Map<String, ConnectorStatusResponse> actualConnectorStatusMap = new HashMap<>();
-        Map<String, Map<String, String>> actualConnectorConfigMap = new HashMap<>();
-
         ConnectClusterDO connectCluster = connectClusterService.findById(clusterId).get();
         String connectRestApiUrl = connectCluster.getConnectRestApiUrl();
-        List<String> connectors = connectClusterRest.getAllConnectorByClusterUrl(connectRestApiUrl);
         // Get connector status and connector config from connect cluster
-        connectors.forEach(connectorName -> {
-            try {
-                ConnectorStatusResponse connectorStatus = connectClusterRest.getConnectorStatus(connectRestApiUrl, connectorName);
-                Map<String, String> connectorConfig = connectClusterRest.getConnectorConfig(connectRestApiUrl, connectorName);
-                actualConnectorStatusMap.put(connectorName, connectorStatus);
-                actualConnectorConfigMap.put(connectorName, connectorConfig);
-            } catch (JsonProcessingException | ResourceAccessException e) {
-                log.error("Connect to connect cluster error: connectRestApiUrl: {}, connectorName: {}, e: {}", connectRestApiUrl, connectorName, e);
-                throw new RuntimeException(e);
-            } catch (HttpClientErrorException e) {
-                // unexpected exceptions
-                if (!HttpStatus.NOT_FOUND.equals(e.getStatusCode())) {
-                    throw e;
-                }
-            }
-        });
+        Map<String, ConnectorExpandedResponse> actualConnectorMap = connectClusterRest.getAllExpandedConnectorByClusterUrl(connectRestApiUrl)
+                .orElseGet(() -> getConnectorsOneByOne(connectRestApiUrl));
+
+        int watchingTimes = clusterWatchingTimes.merge(clusterId, 1, Integer::sum);
+        Map<Long, List<Object>> lastSnapshots = watchingTimes % CONNECTOR_SNAPSHOT_FULL_CHECK_WATCHING_TIMES == 0
+                ? new HashMap<>() : connectorSnapshots.getOrDefault(clusterId, new HashMap<>());
+        Map<Long, List<Object>> currentSnapshots = new HashMap<>();
 
         /**
          * produce event depend on actual state
          */
         // starting -> running
         getConnectorInfoFromDb(clusterId, ConnectorState.STARTING).forEach(connectorInfoDTO -> {
-            if (actualConnectorStatusMap.containsKey(connectorInfoDTO.getName())) {
-                ConnectorStatusResponse connectorStatus = actualConnectorStatusMap.get(connectorInfoDTO.getName());
-
-                if (!handleFailedConnector(connectorStatus, connectorInfoDTO)) {
-                    handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.STARTUP_SUCCESS);
-                }
+            ConnectorExpandedResponse actualConnector = actualConnectorMap.get(connectorInfoDTO.getName());
+            if (actualConnector != null) {
+                handleIfChanged(lastSnapshots, currentSnapshots, connectorInfoDTO, actualConnector, () -> {
+                    if (isConnectorFailed(actualConnector.getStatus())) {
+                        return handleFailedConnector(actualConnector.getStatus(), connectorInfoDTO);
+                    }
+                    return handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.STARTUP_SUCCESS);
+                });
             }
         });
 
         // running
         getConnectorInfoFromDb(clusterId, ConnectorState.RUNNING, ConnectorState.RUNNING).forEach(connectorInfoDTO -> {
-            if (actualConnectorStatusMap.containsKey(connectorInfoDTO.getName())) {
-                ConnectorStatusResponse connectorStatus = actualConnectorStatusMap.get(connectorInfoDTO.getName());
-
-                if (!handleFailedConnector(connectorStatus, connectorInfoDTO)
-                        && !connectorInfoDTO.getConnectorConfig().equals(actualConnectorConfigMap.get(connectorInfoDTO.getName()))) {
-
-                    handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.UPDATE);
-                }
+            ConnectorExpandedResponse actualConnector = actualConnectorMap.get(connectorInfoDTO.getName());
+            if (actualConnector != null) {
+                handleIfChanged(lastSnapshots, currentSnapshots, connectorInfoDTO, actualConnector, () -> {
+                    if (isConnectorFailed(actualConnector.getStatus())) {
+                        return handleFailedConnector(actualConnector.getStatus(), connectorInfoDTO);
+                    }
+                    if (!connectorInfoDTO.getConnectorConfig().equals(actualConnector.getConfig())) {
+                        return handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.UPDATE);
+                    }
+                    return true;
+                });
             }
         });
 
         // stopping -> stopped
         getConnectorInfoFromDb(clusterId, ConnectorState.STOPPING).forEach(connectorInfoDTO -> {
-            if (!actualConnectorStatusMap.containsKey(connectorInfoDTO.getName())) {
-                handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.STOP_SUCCESS);
+            if (!actualConnectorMap.containsKey(connectorInfoDTO.getName())) {
+                handleIfChanged(lastSnapshots, currentSnapshots, connectorInfoDTO, null,
+                    () -> handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.STOP_SUCCESS));
             }
         });
+
+        connectorSnapshots.put(clusterId, currentSnapshots);
     }
 
-    private boolean handleFailedConnector(final ConnectorStatusResponse connectorStatus, final ConnectorInfoDTO connectorInfoDTO) {
-        if (connectorStatus.isConnectorFailed() || !connectorStatus.getFailedTaskIds().isEmpty()) {
-            connectorInfoDTO.setRemark(connectorInfoDTO.getRemark() + connectorStatus.getExceptions().get(0));
-            handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.TASK_FAILURE);
-            return true;
+    private void handleIfChanged(final Map<Long, List<Object>> lastSnapshots, final Map<Long, List<Object>> currentSnapshots,
+            final ConnectorInfoDTO connectorInfoDTO, final ConnectorExpandedResponse actualConnector, final BooleanSupplier handler) {
+        List<Object> snapshot = Arrays.asList(connectorInfoDTO.getName(), connectorInfoDTO.getActualState(), connectorInfoDTO.getDesiredState(),
+                connectorInfoDTO.getConnectorConfig(), actualConnector);
+        // only record the snapshot after it is handled successfully, so that a failed one will be retried in the next watching
+        if (snapshot.equals(lastSnapshots.get(connectorInfoDTO.getId())) || handler.getAsBoolean()) {
+            currentSnapshots.put(connectorInfoDTO.getId(), snapshot);
         }
-        return false;
+    }
+
+    private Map<String, ConnectorExpandedResponse> getConnectorsOneByOne(final String connectRestApiUrl) {
+        List<String> connectors = connectClusterRest.getAllConnectorByClusterUrl(connectRestApiUrl);
+        Map<String, CompletableFuture<Optional<ConnectorExpandedResponse>>> futures = new HashMap<>();
+        connectors.forEach(connectorName -> futures.put(connectorName, getConnector(connectRestApiUrl, connectorName)));
+
+        Map<String, ConnectorExpandedResponse> actualConnectorMap = new HashMap<>();
+        futures.forEach((connectorName, future) -> {
+            try {
+                future.join().ifPresent(actualConnector -> actualConnectorMap.put(connectorName, actualConnector));
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        });
+        return actualConnectorMap;
+    }
+
+    // status and config of a connector are requested at the same time
+    private CompletableFuture<Optional<ConnectorExpandedResponse>> getConnector(final String connectRestApiUrl, final String connectorName) {
+        return asyncConnectClusterRest.getConnectorStatus(connectRestApiUrl, connectorName)
+                .thenCombine(asyncConnectClusterRest.getConnectorConfig(connectRestApiUrl, connectorName),
+                    (connectorStatus, connectorConfig) -> Optional.of(new ConnectorExpandedResponse(connectorStatus, connectorConfig)))
+                .exceptionally(throwable -> {
+                    Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                    // the connector is deleted meanwhile
+                    if (cause instanceof HttpClientErrorException && HttpStatus.NOT_FOUND.equals(((HttpClientErrorException) cause).getStatusCode())) {
+                        return Optional.empty();
+                    }
+                    log.error("Connect to connect cluster error: connectRestApiUrl: {}, connectorName: {}, e: {}", connectRestApiUrl, connectorName, cause);
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause : new CompletionException(cause);
+                });
+    }
+
+    /**
+     * Stop handling user triggered events.
+     */
+    @PreDestroy
+    public void stop() {
+        userTriggerEventExecutors.values().forEach(ExecutorService::shutdownNow);
+    }
+
+    private boolean isConnectorFailed(final ConnectorStatusResponse connectorStatus) {
+        return connectorStatus.isConnectorFailed() || !connectorStatus.getFailedTaskIds().isEmpty();
+    }
+
+    private boolean handleFailedConnector(final ConnectorStatusResponse connectorStatus, final ConnectorInfoDTO connectorInfoDTO) {
+        connectorInfoDTO.setRemark(connectorInfoDTO.getRemark() + connectorStatus.getExceptions().get(0));
+        return handleEvent(connectorInfoDTO, connectorInfoDTO.getActualState(), ConnectorEvent.TASK_FAILURE);
     }
 
     /**
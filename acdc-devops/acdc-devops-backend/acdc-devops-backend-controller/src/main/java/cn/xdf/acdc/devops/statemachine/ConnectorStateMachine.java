@@ -12,8 +12,8 @@ import org.springframework.web.client.ResourceAccessException;
 import org.squirrelframework.foundation.fsm.StateMachineStatus;
 import org.squirrelframework.foundation.fsm.impl.AbstractStateMachine;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 public class ConnectorStateMachine extends AbstractStateMachine<ConnectorStateMachine, ConnectorState, ConnectorEvent, ConnectorInfoDTO> {
@@ -28,10 +28,27 @@ public class ConnectorStateMachine extends AbstractStateMachine<ConnectorStateMa
 
     private static final String DOT = ".";
 
-    private static final Map<String, Counter> COUNTERS = new HashMap<>();
+    // connectors of a cluster are handled in parallel
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+
+    private boolean transitionFailed;
+
+    /**
+     * Fire the event and tell whether it is handled without exception.
+     *
+     * @param event            event
+     * @param connectorInfoDTO connector
+     * @return false if an exception is caused by the transition
+     */
+    public boolean fireAndCheck(final ConnectorEvent event, final ConnectorInfoDTO connectorInfoDTO) {
+        transitionFailed = false;
+        fire(event, connectorInfoDTO);
+        return !transitionFailed;
+    }
 
     @Override
     protected void afterTransitionCausedException(final ConnectorState from, final ConnectorState to, final ConnectorEvent event, final ConnectorInfoDTO connectorInfoDTO) {
+        transitionFailed = true;
         Throwable exception = getLastException().getTargetException();
         if (exception instanceof ResourceAccessException) {
             log.error("ResourceAccessException: {}", exception.getMessage());
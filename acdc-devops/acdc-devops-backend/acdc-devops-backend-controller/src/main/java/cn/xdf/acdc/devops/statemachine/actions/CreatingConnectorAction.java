@@ -9,6 +9,7 @@ import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorState;
 import cn.xdf.acdc.devops.service.aop.Event;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorCoreProcessService;
 import cn.xdf.acdc.devops.statemachine.ConnectorStateMachine;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
@@ -28,6 +29,7 @@ public class CreatingConnectorAction extends UpdateStateToDbAction {
     }
 
     @Override
+    @Timed(value = ACTION_TIMER_METRICS, description = "connector state machine action", histogram = true)
     @Event(connectorId = "#connectorInfoDTO.id", reason = EventReason.CONNECTOR_ACTUAL_STATUS_CHANGED, source = EventSource.ACDC_SCHEDULER,
             level = EVENT_LEVEL_EXPRESSION, message = EVENT_MESSAGE_EXPRESSION)
     public void execute(final ConnectorState from, final ConnectorState to, final ConnectorEvent event,
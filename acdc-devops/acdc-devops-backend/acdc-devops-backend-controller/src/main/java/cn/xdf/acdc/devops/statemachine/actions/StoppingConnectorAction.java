@@ -9,6 +9,7 @@ import cn.xdf.acdc.devops.service.aop.Event;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorCoreProcessService;
 import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorEvent;
 import cn.xdf.acdc.devops.statemachine.ConnectorStateMachine;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
@@ -24,6 +25,7 @@ public class StoppingConnectorAction extends UpdateStateToDbAction {
     }
 
     @Override
+    @Timed(value = ACTION_TIMER_METRICS, description = "connector state machine action", histogram = true)
     @Event(connectorId = "#connectorInfoDTO.id", reason = EventReason.CONNECTOR_ACTUAL_STATUS_CHANGED, source = EventSource.ACDC_SCHEDULER,
         level = EVENT_LEVEL_EXPRESSION, message = EVENT_MESSAGE_EXPRESSION)
     public void execute(final ConnectorState from, final ConnectorState to, final ConnectorEvent event, final ConnectorInfoDTO connectorInfoDTO, final ConnectorStateMachine stateMachine) {
@@ -8,6 +8,7 @@ import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorState;
 import cn.xdf.acdc.devops.service.aop.Event;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorCoreProcessService;
 import cn.xdf.acdc.devops.statemachine.ConnectorStateMachine;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Component;
 import org.squirrelframework.foundation.fsm.Action;
 
@@ -20,6 +21,9 @@ public class UpdateStateToDbAction implements Action<ConnectorStateMachine, Conn
     public static final String EVENT_MESSAGE_EXPRESSION =
             "T(cn.xdf.acdc.devops.statemachine.ConnectorStateTransitionTable).getEventInfoByState(#from, #to).getEventMessage().concat(#connectorInfoDTO.remark)";
 
+    // latency histogram of actions, tagged with the class of the action
+    public static final String ACTION_TIMER_METRICS = "statemachine.action";
+
     private ConnectorCoreProcessService connectorCoreProcessService;
 
     public UpdateStateToDbAction(final ConnectorCoreProcessService connectorCoreProcessService) {
@@ -27,6 +31,7 @@ public class UpdateStateToDbAction implements Action<ConnectorStateMachine, Conn
     }
 
     @Override
+    @Timed(value = ACTION_TIMER_METRICS, description = "connector state machine action", histogram = true)
     @Event(connectorId = "#connectorInfoDTO.id", reason = EventReason.CONNECTOR_ACTUAL_STATUS_CHANGED, source = EventSource.ACDC_SCHEDULER,
             level = EVENT_LEVEL_EXPRESSION, message = EVENT_MESSAGE_EXPRESSION)
     public void execute(final ConnectorState from, final ConnectorState to, final ConnectorEvent event, final ConnectorInfoDTO connectorInfoDTO, final ConnectorStateMachine stateMachine) {
@@ -24,6 +24,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.List;
+
 @RunWith(SpringRunner.class)
 @ContextConfiguration(classes = {StateMachineEventT.AopConfig.class})
 public class StateMachineEventT {
@@ -41,9 +43,10 @@ public class StateMachineEventT {
         connectorInfoDTO.setRemark("exception xxx");
         eventAspectAopTest.testStateMachineEventAdapterAndEventAnnotationWithProperties(ConnectorState.PENDING, ConnectorState.CREATION_FAILED,
                 cn.xdf.acdc.devops.core.domain.enumeration.ConnectorEvent.CREATE_FAILURE, connectorInfoDTO);
-        ArgumentCaptor<ConnectorEventDO> eventCaptor = ArgumentCaptor.forClass(ConnectorEventDO.class);
-        Mockito.verify(connectorEventService).save(eventCaptor.capture());
-        ConnectorEventDO event = eventCaptor.getValue();
+        ArgumentCaptor<List<ConnectorEventDO>> eventCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(connectorEventService, Mockito.timeout(1000)).saveAll(eventCaptor.capture());
+        Assertions.assertThat(eventCaptor.getValue()).hasSize(1);
+        ConnectorEventDO event = eventCaptor.getValue().get(0);
         Assertions.assertThat(event.getLevel()).isEqualTo(EventLevel.ERROR);
         Assertions.assertThat(event.getReason()).isEqualTo(EventReason.CONNECTOR_ACTUAL_STATUS_CHANGED.getName());
         Assertions.assertThat(event.getConnector().getId()).isEqualTo(1L);
@@ -62,7 +65,7 @@ public class StateMachineEventT {
     }
 
     @Configuration
-    @ComponentScan(basePackages = "cn.xdf.acdc.devops.aop",
+    @ComponentScan(basePackages = {"cn.xdf.acdc.devops.aop", "cn.xdf.acdc.devops.service.aop"},
             excludeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = SchedulerExceptionAlertAspect.class))
     @EnableAspectJAutoProxy
     static class AopConfig {
@@ -0,0 +1,142 @@
+package cn.xdf.acdc.devops.biz.connect;
+
+import cn.xdf.acdc.devops.biz.connect.response.ConnectorStatusResponse;
+import cn.xdf.acdc.devops.service.config.RestTemplateConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class AsyncConnectClusterRestTest {
+
+    private static final int CONNECTOR_COUNT = 64;
+
+    private static final long LATENCY_IN_MILLISECOND = 20L;
+
+    private static final int MAX_CONNECTIONS_PER_ROUTE = 8;
+
+    private ConnectClusterStubServer server;
+
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    private MeterRegistry meterRegistry;
+
+    private AsyncConnectClusterRest asyncConnectClusterRest;
+
+    @Before
+    public void setup() throws IOException {
+        server = new ConnectClusterStubServer(CONNECTOR_COUNT, LATENCY_IN_MILLISECOND);
+        RestTemplateConfig restTemplateConfig = new RestTemplateConfig();
+        connectionManager = restTemplateConfig.poolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_ROUTE);
+        ConnectClusterRest connectClusterRest = new ConnectClusterRest(restTemplateConfig.registerTemplate(restTemplateConfig.getFactory(connectionManager)));
+        meterRegistry = new SimpleMeterRegistry();
+        asyncConnectClusterRest = new AsyncConnectClusterRest(connectClusterRest, meterRegistry, 16, 3, 10L, 50L);
+    }
+
+    @After
+    public void tearDown() {
+        asyncConnectClusterRest.stop();
+        connectionManager.close();
+        server.close();
+    }
+
+    @Test
+    public void testConcurrentRequestsShouldReuseConnectionsWithinLimitOfRoute() {
+        List<CompletableFuture<ConnectorStatusResponse>> statusFutures = new ArrayList<>();
+        List<CompletableFuture<Map<String, String>>> configFutures = new ArrayList<>();
+        for (int i = 0; i < CONNECTOR_COUNT; i++) {
+            statusFutures.add(asyncConnectClusterRest.getConnectorStatus(server.getUrl(), ConnectClusterStubServer.connectorName(i)));
+            configFutures.add(asyncConnectClusterRest.getConnectorConfig(server.getUrl(), ConnectClusterStubServer.connectorName(i)));
+        }
+        CompletableFuture.allOf(statusFutures.toArray(new CompletableFuture[0])).join();
+        CompletableFuture.allOf(configFutures.toArray(new CompletableFuture[0])).join();
+
+        for (int i = 0; i < CONNECTOR_COUNT; i++) {
+            String connectorName = ConnectClusterStubServer.connectorName(i);
+            Assert.assertEquals(connectorName, statusFutures.get(i).join().getName());
+            Assert.assertEquals("RUNNING", statusFutures.get(i).join().getConnector().get("state"));
+            Assert.assertEquals(connectorName, configFutures.get(i).join().get("name"));
+        }
+        Assert.assertEquals(CONNECTOR_COUNT * 2, server.getRequestCount());
+        // the requests are sent concurrently, but never more than the connections of the route
+        Assert.assertTrue(server.getMaxInFlightRequests() > 1);
+        Assert.assertTrue(server.getMaxInFlightRequests() <= MAX_CONNECTIONS_PER_ROUTE);
+        Assert.assertTrue(server.getConnectionCount() <= MAX_CONNECTIONS_PER_ROUTE);
+    }
+
+    @Test
+    public void testIdempotentRequestShouldBeRetriedWhenServerError() {
+        server.failNext(2, HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        ConnectorStatusResponse status = asyncConnectClusterRest.getConnectorStatus(server.getUrl(), ConnectClusterStubServer.connectorName(0)).join();
+
+        Assert.assertEquals(ConnectClusterStubServer.connectorName(0), status.getName());
+        Assert.assertEquals(3, server.getRequestCount());
+        Assert.assertEquals(2, meterRegistry.get("connect.cluster.rest.retries").tag("endpoint", "getConnectorStatus").counter().count(), 0);
+    }
+
+    @Test
+    public void testIdempotentRequestShouldFailWhenRetriesExhausted() {
+        server.failNext(3, HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        CompletableFuture<ConnectorStatusResponse> future = asyncConnectClusterRest.getConnectorStatus(server.getUrl(), ConnectClusterStubServer.connectorName(0));
+
+        assertCompletedExceptionally(future, HttpServerErrorException.class);
+        Assert.assertEquals(3, server.getRequestCount());
+        Assert.assertEquals(1, meterRegistry.get("connect.cluster.rest.requests").tag("endpoint", "getConnectorStatus").tag("outcome", "failure").timer().count());
+    }
+
+    @Test
+    public void testNonIdempotentRequestShouldNotBeRetried() {
+        server.failNext(1, HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        CompletableFuture<Void> future = asyncConnectClusterRest.createConnector(server.getUrl(), ConnectClusterStubServer.connectorName(0), Collections.emptyMap());
+
+        assertCompletedExceptionally(future, HttpServerErrorException.class);
+        Assert.assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testClientErrorShouldNotBeRetried() {
+        CompletableFuture<ConnectorStatusResponse> future = asyncConnectClusterRest.getConnectorStatus(server.getUrl(), "not-exist-connector");
+
+        HttpClientErrorException exception = assertCompletedExceptionally(future, HttpClientErrorException.class);
+        Assert.assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+        Assert.assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testRequestsShouldBeTimedPerEndpoint() {
+        asyncConnectClusterRest.getAllConnectorByClusterUrl(server.getUrl()).join();
+        asyncConnectClusterRest.getConnectorStatus(server.getUrl(), ConnectClusterStubServer.connectorName(0)).join();
+        asyncConnectClusterRest.getConnectorStatus(server.getUrl(), ConnectClusterStubServer.connectorName(1)).join();
+
+        Assert.assertEquals(1, meterRegistry.get("connect.cluster.rest.requests").tag("endpoint", "getAllConnectorByClusterUrl").tag("outcome", "success").timer().count());
+        Assert.assertEquals(2, meterRegistry.get("connect.cluster.rest.requests").tag("endpoint", "getConnectorStatus").tag("outcome", "success").timer().count());
+    }
+
+    private <E extends Throwable> E assertCompletedExceptionally(final CompletableFuture<?> future, final Class<E> exceptionClass) {
+        try {
+            future.join();
+        } catch (CompletionException e) {
+            Assert.assertTrue(exceptionClass.isInstance(e.getCause()));
+            return exceptionClass.cast(e.getCause());
+        }
+        throw new AssertionError("future should complete exceptionally");
+    }
+}
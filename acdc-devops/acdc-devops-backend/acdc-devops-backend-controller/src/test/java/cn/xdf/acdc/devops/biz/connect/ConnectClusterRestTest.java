@@ -1,5 +1,6 @@
 package cn.xdf.acdc.devops.biz.connect;
 
+import cn.xdf.acdc.devops.biz.connect.response.ConnectorExpandedResponse;
 import cn.xdf.acdc.devops.biz.connect.response.ConnectorStatusResponse;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -16,7 +17,9 @@ import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.HashMap;
@@ -55,6 +58,35 @@ public class ConnectClusterRestTest {
         Assert.assertEquals(Lists.newArrayList(CONNECTOR_NAME), connectorList);
     }
 
+    @Test
+    public void testGetAllExpandedConnectorByClusterUrlShouldParseStatusAndConfig() {
+        ArgumentCaptor<String> argumentCaptor = ArgumentCaptor.forClass(String.class);
+        String expandedConnectors = "{\"" + CONNECTOR_NAME + "\":{"
+                + "\"status\":{\"name\":\"" + CONNECTOR_NAME + "\",\"connector\":{\"state\":\"RUNNING\",\"worker_id\":\"worker:8083\"},"
+                + "\"tasks\":[{\"id\":0,\"state\":\"FAILED\",\"worker_id\":\"worker:8083\",\"trace\":\"exception\"},"
+                + "{\"id\":1,\"state\":\"RUNNING\",\"worker_id\":\"worker:8083\"}],\"type\":\"sink\"},"
+                + "\"info\":{\"name\":\"" + CONNECTOR_NAME + "\",\"config\":{\"name\":\"" + CONNECTOR_NAME + "\",\"tasks.max\":\"2\"},"
+                + "\"tasks\":[],\"type\":\"sink\"}}}";
+        Mockito.when(restTemplate.getForObject(argumentCaptor.capture(), ArgumentMatchers.eq(String.class))).thenReturn(expandedConnectors);
+
+        Map<String, ConnectorExpandedResponse> result = connectClusterRest.getAllExpandedConnectorByClusterUrl(MOCK_URL).get();
+        Assert.assertEquals(CONNECTORS_MOCK_URL + "?expand=status&expand=info", argumentCaptor.getValue());
+        ConnectorExpandedResponse connector = result.get(CONNECTOR_NAME);
+        Assert.assertFalse(connector.getStatus().isConnectorFailed());
+        Assert.assertEquals(Lists.newArrayList("0"), connector.getStatus().getFailedTaskIds());
+        Assert.assertEquals(Lists.newArrayList("exception"), connector.getStatus().getExceptions());
+        Assert.assertEquals("2", connector.getConfig().get("tasks.max"));
+    }
+
+    @Test
+    public void testGetAllExpandedConnectorByClusterUrlShouldReturnEmptyWhenExpandIsNotSupported() {
+        Mockito.when(restTemplate.getForObject(ArgumentMatchers.anyString(), ArgumentMatchers.eq(String.class))).thenReturn("[\"" + CONNECTOR_NAME + "\"]");
+        Assert.assertFalse(connectClusterRest.getAllExpandedConnectorByClusterUrl(MOCK_URL).isPresent());
+
+        Mockito.when(restTemplate.getForObject(ArgumentMatchers.anyString(), ArgumentMatchers.eq(String.class))).thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        Assert.assertFalse(connectClusterRest.getAllExpandedConnectorByClusterUrl(MOCK_URL).isPresent());
+    }
+
     @Test
     public void testCreateConnectorAsExpect() throws JsonProcessingException {
         Map<String, String> config = fakeConnectorConfig();
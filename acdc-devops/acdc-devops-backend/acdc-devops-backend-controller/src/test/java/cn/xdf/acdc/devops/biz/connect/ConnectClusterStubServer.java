@@ -0,0 +1,215 @@
+package cn.xdf.acdc.devops.biz.connect;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stub of the kafka connect rest api, which serves the connectors named connector-0 to connector-(n-1) with a fixed latency.
+ *
+ * <p>It records the requests, the max requests handled at the same time and the connections of the clients.
+ */
+public class ConnectClusterStubServer implements AutoCloseable {
+
+    private static final String CONNECTORS_PATH = "/connectors";
+
+    private static final String CONNECTOR_NAME_PREFIX = "connector-";
+
+    private static final String STATUS_SUFFIX = "/status";
+
+    private static final String CONFIG_SUFFIX = "/config";
+
+    private static final String JSON_CONTENT_TYPE = "application/json";
+
+    private static final int HANDLER_THREADS = 64;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(HANDLER_THREADS);
+
+    private final int connectorCount;
+
+    private final long latencyInMillisecond;
+
+    private final AtomicLong requestCount = new AtomicLong();
+
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+
+    private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+
+    private final AtomicInteger failuresToInject = new AtomicInteger();
+
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+
+    private volatile int injectedFailureStatus;
+
+    /**
+     * Start a stub server on a random local port.
+     *
+     * @param connectorCount       count of connectors
+     * @param latencyInMillisecond latency of each request
+     * @throws IOException fail to bind the port
+     */
+    public ConnectClusterStubServer(final int connectorCount, final long latencyInMillisecond) throws IOException {
+        this.connectorCount = connectorCount;
+        this.latencyInMillisecond = latencyInMillisecond;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext(CONNECTORS_PATH, this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Get url of the stub server.
+     *
+     * @return url
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Get name of a connector.
+     *
+     * @param index index of the connector
+     * @return connector name
+     */
+    public static String connectorName(final int index) {
+        return CONNECTOR_NAME_PREFIX + index;
+    }
+
+    /**
+     * Respond the next requests with a status code.
+     *
+     * @param count  count of requests
+     * @param status http status code
+     */
+    public void failNext(final int count, final int status) {
+        injectedFailureStatus = status;
+        failuresToInject.set(count);
+    }
+
+    /**
+     * Get count of requests.
+     *
+     * @return request count
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Get max count of requests handled at the same time.
+     *
+     * @return max in flight requests
+     */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests.get();
+    }
+
+    /**
+     * Get count of connections by client address, kept alive connections are counted once.
+     *
+     * @return connection count
+     */
+    public int getConnectionCount() {
+        return clientAddresses.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        clientAddresses.add(exchange.getRemoteAddress());
+        maxInFlightRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+        try (InputStream requestBody = exchange.getRequestBody()) {
+            // drain the request body, so that the connection can be reused
+            int read = requestBody.read();
+            while (read != -1) {
+                read = requestBody.read();
+            }
+            TimeUnit.MILLISECONDS.sleep(latencyInMillisecond);
+            respond(exchange);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlightRequests.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private void respond(final HttpExchange exchange) throws IOException {
+        if (failuresToInject.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+            send(exchange, injectedFailureStatus, "{\"error_code\":" + injectedFailureStatus + ",\"message\":\"injected failure\"}");
+            return;
+        }
+
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (CONNECTORS_PATH.equals(path)) {
+            if ("POST".equals(method)) {
+                send(exchange, 201, "{}");
+            } else {
+                StringBuilder connectors = new StringBuilder("[");
+                for (int i = 0; i < connectorCount; i++) {
+                    connectors.append(i == 0 ? "" : ",").append('"').append(connectorName(i)).append('"');
+                }
+                send(exchange, 200, connectors.append(']').toString());
+            }
+            return;
+        }
+
+        String connectorPath = path.substring(CONNECTORS_PATH.length() + 1);
+        String connectorName = connectorPath.contains("/") ? connectorPath.substring(0, connectorPath.indexOf('/')) : connectorPath;
+        if (!isConnector(connectorName)) {
+            send(exchange, 404, "{\"error_code\":404,\"message\":\"Connector " + connectorName + " not found\"}");
+        } else if (path.endsWith(STATUS_SUFFIX)) {
+            send(exchange, 200, "{\"name\":\"" + connectorName + "\",\"connector\":{\"state\":\"RUNNING\",\"worker_id\":\"stub:8083\"},"
+                    + "\"tasks\":[{\"id\":0,\"state\":\"RUNNING\",\"worker_id\":\"stub:8083\"}],\"type\":\"sink\"}");
+        } else if (path.endsWith(CONFIG_SUFFIX)) {
+            send(exchange, 200, "{\"name\":\"" + connectorName + "\",\"tasks.max\":\"1\"}");
+        } else if ("DELETE".equals(method)) {
+            exchange.sendResponseHeaders(204, -1);
+        } else {
+            send(exchange, 404, "{}");
+        }
+    }
+
+    private boolean isConnector(final String connectorName) {
+        if (!connectorName.startsWith(CONNECTOR_NAME_PREFIX)) {
+            return false;
+        }
+        try {
+            int index = Integer.parseInt(connectorName.substring(CONNECTOR_NAME_PREFIX.length()));
+            return index >= 0 && index < connectorCount;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void send(final HttpExchange exchange, final int status, final String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package cn.xdf.acdc.devops.config;
+
+import cn.xdf.acdc.devops.service.aop.ConnectorEventJournal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class MicrometerAutoConfigurationTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Test
+    public void testConnectorEventJournalMetricsShouldCountDroppedAndFailedEvents() {
+        ConnectorEventJournal journal = Mockito.mock(ConnectorEventJournal.class);
+        Mockito.when(journal.getSavedCount()).thenReturn(10L);
+        Mockito.when(journal.getDroppedCount()).thenReturn(3L);
+        Mockito.when(journal.getFailedCount()).thenReturn(2L);
+        Mockito.when(journal.size()).thenReturn(5);
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        new MicrometerAutoConfiguration().connectorEventJournalMetrics(journal).bindTo(registry);
+
+        Assert.assertEquals(10, registry.get("connector.event.journal.events").tag("result", "saved").functionCounter().count(), DELTA);
+        Assert.assertEquals(3, registry.get("connector.event.journal.events").tag("result", "dropped").functionCounter().count(), DELTA);
+        Assert.assertEquals(2, registry.get("connector.event.journal.events").tag("result", "failed").functionCounter().count(), DELTA);
+        Assert.assertEquals(5, registry.get("connector.event.journal.size").gauge().value(), DELTA);
+    }
+}
@@ -7,6 +7,7 @@ import cn.xdf.acdc.devops.core.domain.entity.enumeration.RequisitionState;
 import cn.xdf.acdc.devops.core.domain.enumeration.ConnectionState;
 import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorState;
 import cn.xdf.acdc.devops.core.domain.query.ConnectionQuery;
+import cn.xdf.acdc.devops.informer.AbstractInformer;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorCoreProcessService;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorQueryProcessService;
 import cn.xdf.acdc.devops.service.process.connection.ConnectionProcessService;
@@ -103,8 +104,10 @@ public class ConnectionControllerTest {
         Mockito.verify(connectionProcessService, Mockito.times(2)).query(connectionQueryCaptor.capture());
         Assert.assertEquals(
                 Lists.newArrayList(
-                        ConnectionQuery.builder().beginUpdateTime(Instant.ofEpochSecond(0)).requisitionState(RequisitionState.APPROVED).build(),
-                        ConnectionQuery.builder().beginUpdateTime(Instant.parse("2022-06-06T10:25:30Z")).requisitionState(RequisitionState.APPROVED).build()
+                        ConnectionQuery.builder().beginUpdateTime(Instant.ofEpochSecond(0)).beginId(0L).limit(AbstractInformer.DEFAULT_QUERY_BATCH_SIZE)
+                                .requisitionState(RequisitionState.APPROVED).build(),
+                        ConnectionQuery.builder().beginUpdateTime(Instant.parse("2022-06-06T10:25:30Z")).beginId(2L).limit(AbstractInformer.DEFAULT_QUERY_BATCH_SIZE)
+                                .requisitionState(RequisitionState.APPROVED).build()
                 ),
                 connectionQueryCaptor.getAllValues());
     }
@@ -8,13 +8,17 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.scheduling.TaskScheduler;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Vector;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AbstractInformerTest {
@@ -52,6 +56,59 @@ public class AbstractInformerTest {
         Assert.assertTrue(unexpectedExceptionHolder.isEmpty());
     }
 
+    @Test
+    public void testRunShouldQueryElementsWithSameUpdateTimeInBatchesByKeysetCursor() {
+        Instant updateTime = Instant.parse("2022-06-06T10:25:30Z");
+        TableInformer informer = new TableInformer(scheduler, 2, Duration.ZERO);
+        for (long id = 1; id <= 5; id++) {
+            informer.table.add(new Element(id, updateTime, "RUNNING"));
+        }
+        List<Long> addedIds = new ArrayList<>();
+        informer.whenAdd(element -> addedIds.add(element.id));
+
+        informer.run();
+
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L, 4L, 5L), addedIds);
+        Assert.assertEquals(5, informer.getAll().size());
+        Assert.assertEquals(Lists.newArrayList(Instant.ofEpochSecond(0), updateTime, updateTime), informer.queriedUpdateTimes);
+        Assert.assertEquals(Lists.newArrayList(0L, 2L, 4L), informer.queriedKeys);
+        Assert.assertEquals(updateTime, informer.getLastUpdateTime());
+        Assert.assertEquals(Long.valueOf(5L), informer.getLastKey());
+
+        informer.table.add(new Element(6L, updateTime, "RUNNING"));
+        informer.run();
+
+        Assert.assertEquals(Lists.newArrayList(1L, 2L, 3L, 4L, 5L, 6L), addedIds);
+        Assert.assertEquals(Long.valueOf(5L), informer.queriedKeys.get(3));
+        Assert.assertEquals(Long.valueOf(6L), informer.getLastKey());
+    }
+
+    @Test
+    public void testRunShouldNotMoveCursorPastElementsInSettleWindow() {
+        Instant settledUpdateTime = Instant.parse("2022-06-06T10:25:30Z");
+        TableInformer informer = new TableInformer(scheduler, 10, Duration.ofMinutes(1));
+        informer.table.add(new Element(1L, settledUpdateTime, "RUNNING"));
+        informer.table.add(new Element(2L, Instant.now(), "RUNNING"));
+        List<Long> addedIds = new ArrayList<>();
+        List<String> updatedStates = new ArrayList<>();
+        informer.whenAdd(element -> addedIds.add(element.id)).whenUpdate(element -> updatedStates.add(element.state));
+
+        informer.run();
+
+        Assert.assertEquals(Lists.newArrayList(1L, 2L), addedIds);
+        Assert.assertEquals(settledUpdateTime, informer.getLastUpdateTime());
+        Assert.assertEquals(Long.valueOf(1L), informer.getLastKey());
+
+        // the unsettled element is read again, but it is only taken as an update after it is changed
+        informer.run();
+        Assert.assertTrue(updatedStates.isEmpty());
+
+        informer.table.set(1, new Element(2L, Instant.now(), "STOPPED"));
+        informer.run();
+        Assert.assertEquals(Lists.newArrayList("STOPPED"), updatedStates);
+        Assert.assertEquals(Lists.newArrayList(1L, 2L), addedIds);
+    }
+
     private AbstractInformer<Integer> fakeAbstractInformer() {
         return new TestInformer(scheduler);
     }
@@ -63,7 +120,7 @@ public class AbstractInformerTest {
         }
 
         @Override
-        List<Integer> query() {
+        List<Integer> query(final Instant beginUpdateTime, final Long beginKey, final int limit) {
             return Lists.newArrayList(1, 2);
         }
 
@@ -89,4 +146,64 @@ public class AbstractInformerTest {
 
     }
 
+    static class Element {
+
+        private final Long id;
+
+        private final Instant updateTime;
+
+        private final String state;
+
+        Element(final Long id, final Instant updateTime, final String state) {
+            this.id = id;
+            this.updateTime = updateTime;
+            this.state = state;
+        }
+    }
+
+    // an informer of a table ordered by (update time, id)
+    static class TableInformer extends AbstractInformer<Element> {
+
+        private final List<Element> table = new ArrayList<>();
+
+        private final List<Instant> queriedUpdateTimes = new ArrayList<>();
+
+        private final List<Long> queriedKeys = new ArrayList<>();
+
+        TableInformer(final TaskScheduler scheduler, final int queryBatchSize, final Duration settleWindow) {
+            super(scheduler, queryBatchSize, settleWindow);
+        }
+
+        @Override
+        List<Element> query(final Instant beginUpdateTime, final Long beginKey, final int limit) {
+            queriedUpdateTimes.add(beginUpdateTime);
+            queriedKeys.add(beginKey);
+            return table.stream()
+                    .filter(it -> it.updateTime.isAfter(beginUpdateTime) || it.updateTime.equals(beginUpdateTime) && it.id > beginKey)
+                    .sorted(Comparator.comparing((Element it) -> it.updateTime).thenComparing(it -> it.id))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        Long getKey(final Element element) {
+            return element.id;
+        }
+
+        @Override
+        boolean equals(final Element e1, final Element e2) {
+            return e1.state.equals(e2.state);
+        }
+
+        @Override
+        boolean isDeleted(final Element older, final Element newer) {
+            return false;
+        }
+
+        @Override
+        Instant getUpdateTime(final Element element) {
+            return element.updateTime;
+        }
+    }
+
 }
@@ -0,0 +1,81 @@
+package cn.xdf.acdc.devops.scheduler;
+
+import cn.xdf.acdc.devops.core.domain.dto.ConnectorDTO;
+import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorState;
+import cn.xdf.acdc.devops.service.process.connector.ConnectorQueryProcessService;
+import cn.xdf.acdc.devops.statemachine.ConnectorStateHandler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConnectorReconcilerTest {
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ConnectorQueryProcessService connectorQueryProcessService;
+
+    @Mock
+    private ConnectorStateHandler connectorStateHandler;
+
+    private ConnectorReconciler reconciler;
+
+    @Before
+    public void setup() {
+        reconciler = new ConnectorReconciler(taskScheduler, connectorQueryProcessService, connectorStateHandler);
+        ReflectionTestUtils.setField(reconciler, "workers", 2);
+        ReflectionTestUtils.setField(reconciler, "informerIntervalInMs", 1000L);
+        ReflectionTestUtils.setField(reconciler, "requeueBaseDelayInMs", 10L);
+        ReflectionTestUtils.setField(reconciler, "requeueMaxDelayInMs", 100L);
+        reconciler.start();
+    }
+
+    @After
+    public void tearDown() {
+        reconciler.stop();
+    }
+
+    @Test
+    public void testEnqueueShouldReconcileConnectorImmediately() {
+        ConnectorDTO connector = fakeConnector(ConnectorState.PENDING, ConnectorState.RUNNING);
+        Mockito.when(connectorStateHandler.reconcile(ArgumentMatchers.any())).thenReturn(true);
+
+        reconciler.enqueue(connector);
+
+        Mockito.verify(connectorStateHandler, Mockito.timeout(1000)).reconcile(connector);
+        Assert.assertEquals(0, reconciler.getQueueDepth());
+    }
+
+    @Test
+    public void testEnqueueShouldRequeueConnectorUntilSettled() {
+        ConnectorDTO connector = fakeConnector(ConnectorState.PENDING, ConnectorState.RUNNING);
+        Mockito.when(connectorStateHandler.reconcile(ArgumentMatchers.any()))
+                .thenReturn(false)
+                .thenThrow(new IllegalStateException("mock"))
+                .thenReturn(true);
+
+        reconciler.enqueue(connector);
+
+        Mockito.verify(connectorStateHandler, Mockito.timeout(1000).times(3)).reconcile(connector);
+        Mockito.verify(connectorStateHandler, Mockito.after(100).times(3)).reconcile(connector);
+    }
+
+    private ConnectorDTO fakeConnector(final ConnectorState actualState, final ConnectorState desiredState) {
+        return ConnectorDTO.builder()
+                .id(1L)
+                .connectClusterId(1L)
+                .actualState(actualState)
+                .desiredState(desiredState)
+                .build();
+    }
+}
@@ -1,7 +1,9 @@
 package cn.xdf.acdc.devops.statemachine;
 
 import cn.xdf.acdc.devops.biz.connect.ConnectClusterRest;
+import cn.xdf.acdc.devops.biz.connect.response.ConnectorExpandedResponse;
 import cn.xdf.acdc.devops.biz.connect.response.ConnectorStatusResponse;
+import cn.xdf.acdc.devops.core.domain.dto.ConnectorDTO;
 import cn.xdf.acdc.devops.core.domain.dto.ConnectorInfoDTO;
 import cn.xdf.acdc.devops.core.domain.entity.ConnectClusterDO;
 import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorState;
@@ -16,6 +18,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.assertj.core.util.Maps;
 import org.junit.Assert;
@@ -65,6 +71,7 @@ public class ConnectorStateHandlerTest {
     @Before
     public void setup() {
         connectorStateHandler.getStateMachineHolder().clear();
+        connectorStateHandler.getConnectorSnapshots().clear();
     }
 
     // U:Startup , clusterId:1
@@ -96,6 +103,38 @@ public class ConnectorStateHandlerTest {
         Assert.assertEquals(ConnectorState.STARTING, stateCaptor.getValue());
     }
 
+    @Test
+    public void testReconcileShouldOnlyFireEventOfTheConnector() {
+        Mockito.when(connectorCoreProcessService.getConnector(ArgumentMatchers.eq(1L))).thenReturn(Optional.of(
+                new ConnectorInfoDTO(1L, CONNECT_CLUSTER_URL, "reconcilePendingToStarting", new HashMap<>(), ConnectorState.PENDING, ConnectorState.RUNNING)));
+
+        ConnectorDTO connector = ConnectorDTO.builder().id(1L).connectClusterId(CONNECT_CLUSTER_ID).actualState(ConnectorState.PENDING).desiredState(ConnectorState.RUNNING).build();
+        Assert.assertTrue(connectorStateHandler.reconcile(connector));
+
+        Map<Long, ConnectorStateMachine> stateMachineHolder = connectorStateHandler.getStateMachineHolder();
+        Assert.assertEquals(ConnectorState.STARTING, stateMachineHolder.get(1L).getCurrentState());
+        Mockito.verify(connectClusterRest).createConnector(ArgumentMatchers.eq(CONNECT_CLUSTER_URL), ArgumentMatchers.eq("reconcilePendingToStarting"), ArgumentMatchers.any());
+        // only the connector is loaded, not all the connectors of the cluster in the same state
+        Mockito.verify(connectorCoreProcessService, Mockito.never()).queryConnector(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+
+        // no user triggered event for a running connector
+        connector.setActualState(ConnectorState.RUNNING);
+        Assert.assertTrue(connectorStateHandler.reconcile(connector));
+        Mockito.verify(connectorCoreProcessService, Mockito.times(1)).getConnector(ArgumentMatchers.any());
+    }
+
+    @Test
+    public void testReconcileShouldSkipWhenConnectorStateChangedInDb() {
+        Mockito.when(connectorCoreProcessService.getConnector(ArgumentMatchers.eq(3L))).thenReturn(Optional.of(
+                new ConnectorInfoDTO(3L, CONNECT_CLUSTER_URL, "reconcileStarted", new HashMap<>(), ConnectorState.STARTING, ConnectorState.RUNNING)));
+
+        ConnectorDTO connector = ConnectorDTO.builder().id(3L).connectClusterId(CONNECT_CLUSTER_ID).actualState(ConnectorState.PENDING).desiredState(ConnectorState.RUNNING).build();
+        Assert.assertTrue(connectorStateHandler.reconcile(connector));
+
+        Assert.assertFalse(connectorStateHandler.getStateMachineHolder().containsKey(3L));
+        Mockito.verify(connectClusterRest, Mockito.never()).createConnector(ArgumentMatchers.any(), ArgumentMatchers.eq("reconcileStarted"), ArgumentMatchers.any());
+    }
+
     // U:stop, clusterId:1
     @Test
     public void testPendingToStopping() {
@@ -384,6 +423,59 @@ public class ConnectorStateHandlerTest {
         Assert.assertEquals(ConnectorState.UPDATING, stateCaptor.getValue());
     }
 
+    // W:TaskFailure, clusterId:1
+    @Test
+    public void testRunningToRuntimeFailedWithExpandedConnectorsShouldOnlyHandleChangedConnector() {
+        String connectorName = "runningToRuntimeFailedWithExpandedConnectors";
+        Mockito.when(connectClusterService.findById(ArgumentMatchers.any())).thenReturn(getConnectCluster());
+        Map<String, ConnectorExpandedResponse> expandedConnectors = new HashMap<>();
+        expandedConnectors.put(connectorName, new ConnectorExpandedResponse(getFailedResponseState(connectorName), Maps.newHashMap("config", "v1")));
+        Mockito.when(connectClusterRest.getAllExpandedConnectorByClusterUrl(ArgumentMatchers.eq(CONNECT_CLUSTER_URL))).thenReturn(Optional.of(expandedConnectors));
+
+        Mockito.when(connectorCoreProcessService.queryConnector(ArgumentMatchers.eq(ConnectorState.RUNNING), ArgumentMatchers.eq(ConnectorState.RUNNING), ArgumentMatchers.anyLong()))
+                .thenAnswer(invocation -> Lists.newArrayList(
+                        new ConnectorInfoDTO(1L, CONNECT_CLUSTER_URL, connectorName, Maps.newHashMap("config", "v1"), ConnectorState.RUNNING, ConnectorState.RUNNING)));
+
+        connectorStateHandler.connectClusterStateWatcher(CONNECT_CLUSTER_ID);
+        Assert.assertEquals(ConnectorState.RUNTIME_FAILED, connectorStateHandler.getStateMachineHolder().get(1L).getCurrentState());
+
+        // nothing changed since the last watching
+        connectorStateHandler.getStateMachineHolder().clear();
+        connectorStateHandler.connectClusterStateWatcher(CONNECT_CLUSTER_ID);
+        Assert.assertFalse(connectorStateHandler.getStateMachineHolder().containsKey(1L));
+
+        Mockito.verify(connectorCoreProcessService).updateActualState(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(ConnectorState.RUNTIME_FAILED));
+        Mockito.verify(connectClusterRest, Mockito.never()).getAllConnectorByClusterUrl(ArgumentMatchers.any());
+        Mockito.verify(connectClusterRest, Mockito.never()).getConnectorStatus(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    // W:TaskFailure, clusterId:1
+    @Test
+    public void testRunningToRuntimeFailedWithExpandedConnectorsShouldRetryWhenTransitionFailed() {
+        String connectorName = "runningToRuntimeFailedWithTransitionFailed";
+        Mockito.when(connectClusterService.findById(ArgumentMatchers.any())).thenReturn(getConnectCluster());
+        Map<String, ConnectorExpandedResponse> expandedConnectors = new HashMap<>();
+        expandedConnectors.put(connectorName, new ConnectorExpandedResponse(getFailedResponseState(connectorName), Maps.newHashMap("config", "v1")));
+        Mockito.when(connectClusterRest.getAllExpandedConnectorByClusterUrl(ArgumentMatchers.eq(CONNECT_CLUSTER_URL))).thenReturn(Optional.of(expandedConnectors));
+
+        Mockito.when(connectorCoreProcessService.queryConnector(ArgumentMatchers.eq(ConnectorState.RUNNING), ArgumentMatchers.eq(ConnectorState.RUNNING), ArgumentMatchers.anyLong()))
+                .thenAnswer(invocation -> Lists.newArrayList(
+                        new ConnectorInfoDTO(1L, CONNECT_CLUSTER_URL, connectorName, Maps.newHashMap("config", "v1"), ConnectorState.RUNNING, ConnectorState.RUNNING)));
+        Mockito.doThrow(new IllegalStateException("db is unavailable")).doNothing()
+                .when(connectorCoreProcessService).updateActualState(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(ConnectorState.RUNTIME_FAILED));
+
+        connectorStateHandler.connectClusterStateWatcher(CONNECT_CLUSTER_ID);
+        Assert.assertEquals(ConnectorState.RUNNING, connectorStateHandler.getStateMachineHolder().get(1L).getCurrentState());
+        Assert.assertFalse(connectorStateHandler.getConnectorSnapshots().get(CONNECT_CLUSTER_ID).containsKey(1L));
+
+        // nothing changed since the last watching, but the failed transition is retried
+        connectorStateHandler.connectClusterStateWatcher(CONNECT_CLUSTER_ID);
+        Assert.assertEquals(ConnectorState.RUNTIME_FAILED, connectorStateHandler.getStateMachineHolder().get(1L).getCurrentState());
+        Assert.assertTrue(connectorStateHandler.getConnectorSnapshots().get(CONNECT_CLUSTER_ID).containsKey(1L));
+
+        Mockito.verify(connectorCoreProcessService, Mockito.times(2)).updateActualState(ArgumentMatchers.eq(1L), ArgumentMatchers.eq(ConnectorState.RUNTIME_FAILED));
+    }
+
     // W: StopSuccess, clusterId:1
     @Test
     public void testStoppingToStopped() {
@@ -624,4 +716,34 @@ public class ConnectorStateHandlerTest {
         Assert.assertEquals(new HashMap(), connectorConfigCaptor.getValue());
     }
 
+    @Test
+    public void testUserTriggerEventShouldHandleConnectorsInParallelWithinParallelismOfCluster() {
+        long clusterId = 2L;
+        int parallelism = 3;
+        connectorStateHandler.setUserTriggerParallelismPerCluster(parallelism);
+        List<ConnectorInfoDTO> connectorInfos = LongStream.rangeClosed(101L, 110L)
+                .mapToObj(id -> new ConnectorInfoDTO(id, CONNECT_CLUSTER_URL, "parallelPendingToStarting" + id, new HashMap<>(), ConnectorState.PENDING, ConnectorState.RUNNING))
+                .collect(Collectors.toList());
+        Mockito.when(connectorCoreProcessService.queryConnector(ArgumentMatchers.eq(ConnectorState.PENDING), ArgumentMatchers.eq(ConnectorState.RUNNING), ArgumentMatchers.eq(clusterId)))
+                .thenReturn(connectorInfos);
+
+        AtomicInteger creating = new AtomicInteger();
+        AtomicInteger maxCreating = new AtomicInteger();
+        Mockito.doAnswer(invocation -> {
+            maxCreating.accumulateAndGet(creating.incrementAndGet(), Math::max);
+            TimeUnit.MILLISECONDS.sleep(50);
+            creating.decrementAndGet();
+            return null;
+        }).when(connectClusterRest).createConnector(ArgumentMatchers.eq(CONNECT_CLUSTER_URL), ArgumentMatchers.startsWith("parallelPendingToStarting"), ArgumentMatchers.any());
+
+        connectorStateHandler.getUserTriggerEventHandlers().forEach((event, handler) -> {
+            handler.accept(clusterId, event);
+        });
+
+        Map<Long, ConnectorStateMachine> stateMachineHolder = connectorStateHandler.getStateMachineHolder();
+        connectorInfos.forEach(connectorInfoDTO -> Assert.assertEquals(ConnectorState.STARTING, stateMachineHolder.get(connectorInfoDTO.getId()).getCurrentState()));
+        Mockito.verify(connectClusterRest, Mockito.times(connectorInfos.size()))
+                .createConnector(ArgumentMatchers.eq(CONNECT_CLUSTER_URL), ArgumentMatchers.startsWith("parallelPendingToStarting"), ArgumentMatchers.any());
+        Assert.assertEquals(parallelism, maxCreating.get());
+    }
 }
@@ -1,5 +1,9 @@
 package cn.xdf.acdc.devops.statemachine;
 
+import cn.xdf.acdc.devops.biz.connect.AsyncConnectClusterRest;
+import cn.xdf.acdc.devops.biz.connect.ConnectClusterRest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
@@ -8,4 +12,15 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EnableTransactionManagement(proxyTargetClass = true)
 @ComponentScan({"cn.xdf.acdc.devops.statemachine", "cn.xdf.acdc.devops.service.aop"})
 public class StatemachineTestConfig {
+
+    /**
+     * Async connect cluster rest on the mocked blocking one.
+     *
+     * @param connectClusterRest connect cluster rest
+     * @return async connect cluster rest
+     */
+    @Bean
+    public AsyncConnectClusterRest asyncConnectClusterRest(final ConnectClusterRest connectClusterRest) {
+        return new AsyncConnectClusterRest(connectClusterRest, new SimpleMeterRegistry(), 4, 1, 0L, 0L);
+    }
 }
@@ -46,6 +46,8 @@ public class ConnectorDTO {
 
     private DataSystemType dataSystemType;
 
+    private Long connectClusterId;
+
     public ConnectorDTO(final ConnectorDO connector) {
         this.id = connector.getId();
         this.name = connector.getName();
@@ -65,5 +67,6 @@ public class ConnectorDTO {
         this.connectorType = connector.getConnectorClass().getConnectorType();
         this.dataSystemTypeName = connector.getConnectorClass().getDataSystemType().getName();
         this.dataSystemType = connector.getConnectorClass().getDataSystemType();
+        this.connectClusterId = connector.getConnectCluster() == null ? null : connector.getConnectCluster().getId();
     }
 }
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Set;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -14,4 +16,8 @@ public class ConnectionColumnConfigurationQuery {
     private Long connectionId;
 
     private Integer version;
+
+    private Set<Long> connectionIds;
+
+    private Set<Integer> versions;
 }
@@ -18,6 +18,11 @@ public class ConnectionQuery extends PagedQuery {
 
     private Instant beginUpdateTime;
 
+    // with begin update time, it is a (update_time, id) keyset cursor and only connections after the cursor are queried
+    private Long beginId;
+
+    private Integer limit;
+
     private Long connectionId;
 
     private DataSystemType sinkDataSystemType;
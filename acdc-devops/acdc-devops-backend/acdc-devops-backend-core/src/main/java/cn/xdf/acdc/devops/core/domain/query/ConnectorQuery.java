@@ -19,6 +19,11 @@ public class ConnectorQuery extends PagedQuery {
 
     private Instant beginUpdateTime;
 
+    // with begin update time, it is a (update_time, id) keyset cursor and only connectors after the cursor are queried
+    private Long beginId;
+
+    private Integer limit;
+
     private ConnectClusterDO connectCluster;
 
     private ConnectorState actualState;
@@ -10,6 +10,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.criteria.Predicate;
@@ -45,6 +47,22 @@ public interface HiveTableRepository extends JpaRepository<HiveTableDO, Long>, J
         return findAll(specificationOf(query), pageable);
     }
 
+    /**
+     * Query a page of not deleted hive tables after the given database name and table name, ordered by database name and table name.
+     *
+     * <p>The name columns use a binary collation, so the order is the same as the ordinal order of java strings.
+     *
+     * @param database database name of the last table in previous page
+     * @param table    name of the last table in previous page
+     * @param pageable page, only the page size is used
+     * @return hive tables with their database
+     */
+    @Query("SELECT t FROM HiveTableDO t JOIN FETCH t.hiveDatabase d"
+            + " WHERE t.deleted = false AND d.deleted = false"
+            + " AND (d.name > :database OR (d.name = :database AND t.name > :table))"
+            + " ORDER BY d.name, t.name")
+    List<HiveTableDO> findNotDeletedAfterOrderByDatabaseNameAndName(@Param("database") String database, @Param("table") String table, Pageable pageable);
+
     /**
      * Convert query object to specification.
      *
@@ -3,9 +3,14 @@ package cn.xdf.acdc.devops.repository;
 // CHECKSTYLE:OFF
 
 import cn.xdf.acdc.devops.core.domain.entity.KafkaTopicDO;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -16,4 +21,22 @@ import org.springframework.stereotype.Repository;
 public interface KafkaTopicRepository extends JpaRepository<KafkaTopicDO, Long>, JpaSpecificationExecutor {
 
     Optional<KafkaTopicDO> findByKafkaClusterIdAndName(Long kafkaClusterId, String name);
+
+    /**
+     * Find names of not deleted topics in the kafka cluster.
+     *
+     * @param kafkaClusterId kafka cluster id
+     * @return topic names
+     */
+    @Query("SELECT t.name FROM KafkaTopicDO t WHERE t.kafkaCluster.id = :kafkaClusterId AND t.deleted = false")
+    Set<String> findNotDeletedNamesByKafkaClusterId(@Param("kafkaClusterId") Long kafkaClusterId);
+
+    /**
+     * Find not deleted topics in the kafka cluster by names.
+     *
+     * @param kafkaClusterId kafka cluster id
+     * @param names          topic names
+     * @return topics
+     */
+    List<KafkaTopicDO> findByKafkaClusterIdAndNameInAndDeletedFalse(Long kafkaClusterId, Collection<String> names);
 }
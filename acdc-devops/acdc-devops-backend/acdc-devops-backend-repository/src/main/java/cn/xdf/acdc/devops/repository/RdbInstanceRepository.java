@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -37,6 +38,15 @@ public interface RdbInstanceRepository extends JpaRepository<RdbInstanceDO, Long
      */
     Optional<RdbInstanceDO> findByRdbIdAndRole(Long rdbId, RoleType role);
 
+    /**
+     * 根据 rdbId 集合和 role 查询.
+     *
+     * @param rdbIds rdbIds
+     * @param role   role
+     * @return RdbInstance list
+     */
+    List<RdbInstanceDO> findByRdbIdInAndRole(Collection<Long> rdbIds, RoleType role);
+
     /**
      * 根据rdb查询所有rdbInstance.
      *
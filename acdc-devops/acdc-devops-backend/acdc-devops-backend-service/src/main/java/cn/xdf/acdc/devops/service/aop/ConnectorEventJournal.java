@@ -0,0 +1,229 @@
+package cn.xdf.acdc.devops.service.aop;
+
+import cn.xdf.acdc.devops.core.domain.entity.ConnectorEventDO;
+import cn.xdf.acdc.devops.service.entity.ConnectorEventService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Journal of connector events, which saves the events in batch by a background writer.
+ *
+ * <p>Appending waits for a bounded time if the queue is full, the event is dropped and counted after that,
+ * so that the connector state machine never waits on a slow database for long.
+ */
+@Slf4j
+@Component
+public class ConnectorEventJournal {
+
+    private static final long STOP_TIMEOUT_IN_MILLISECOND = 10_000L;
+
+    private final ConnectorEventService connectorEventService;
+
+    private final BlockingQueue<ConnectorEventDO> queue;
+
+    private final int batchSize;
+
+    private final long offerTimeoutInMillisecond;
+
+    private final long flushIntervalInMillisecond;
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("connector-event-writer-%d").setDaemon(true).build());
+
+    private final LongAdder appendedCount = new LongAdder();
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder savedCount = new LongAdder();
+
+    private final LongAdder failedCount = new LongAdder();
+
+    private final LongAdder writeCount = new LongAdder();
+
+    private final LongAdder writeTimeInNanos = new LongAdder();
+
+    private volatile boolean running;
+
+    public ConnectorEventJournal(
+            final ConnectorEventService connectorEventService,
+            @Value("${acdc.connector-event.journal.capacity:10000}") final int capacity,
+            @Value("${acdc.connector-event.journal.batch-size:200}") final int batchSize,
+            @Value("${acdc.connector-event.journal.offer-timeout-ms:50}") final long offerTimeoutInMillisecond,
+            @Value("${acdc.connector-event.journal.flush-interval-ms:200}") final long flushIntervalInMillisecond) {
+        this.connectorEventService = connectorEventService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutInMillisecond = offerTimeoutInMillisecond;
+        this.flushIntervalInMillisecond = flushIntervalInMillisecond;
+    }
+
+    /**
+     * Start the background writer.
+     */
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer.execute(this::write);
+    }
+
+    /**
+     * Stop the background writer, the events in the queue are saved before it returns.
+     *
+     * @throws InterruptedException interrupted while waiting for the writer
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.shutdown();
+        if (!writer.awaitTermination(STOP_TIMEOUT_IN_MILLISECOND, TimeUnit.MILLISECONDS)) {
+            writer.shutdownNow();
+        }
+        // the writer may be interrupted with events left
+        List<ConnectorEventDO> events = new ArrayList<>();
+        queue.drainTo(events);
+        if (!events.isEmpty()) {
+            save(events);
+        }
+    }
+
+    /**
+     * Append an event to the journal, it is saved synchronously if the journal is not running.
+     *
+     * @param event connector event
+     * @return false if the event is dropped because the journal is full
+     */
+    public boolean append(final ConnectorEventDO event) {
+        if (!running) {
+            appendedCount.increment();
+            save(Collections.singletonList(event));
+            return true;
+        }
+
+        try {
+            if (queue.offer(event, offerTimeoutInMillisecond, TimeUnit.MILLISECONDS)) {
+                appendedCount.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCount.increment();
+        log.warn("Connector event journal is full, event is dropped, connector id: {}, reason: {}, message: {}",
+                event.getConnector().getId(), event.getReason(), event.getMessage());
+        return false;
+    }
+
+    private void write() {
+        while (running || !queue.isEmpty()) {
+            ConnectorEventDO first;
+            try {
+                first = queue.poll(flushIntervalInMillisecond, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (first != null) {
+                // a new list for each batch, the saved one may be still referenced by the service
+                List<ConnectorEventDO> events = new ArrayList<>(batchSize);
+                events.add(first);
+                queue.drainTo(events, batchSize - 1);
+                save(events);
+            }
+        }
+    }
+
+    private void save(final List<ConnectorEventDO> events) {
+        long start = System.nanoTime();
+        try {
+            connectorEventService.saveAll(events);
+            savedCount.add(events.size());
+            // CHECKSTYLE:OFF
+        } catch (RuntimeException e) {
+            // CHECKSTYLE:ON
+            // any failure, including the transaction ones which are not data access exceptions, must not kill the only writer
+            failedCount.add(events.size());
+            log.error("Save connector events failed, {} events are lost.", events.size(), e);
+        } finally {
+            writeTimeInNanos.add(System.nanoTime() - start);
+            writeCount.increment();
+        }
+    }
+
+    /**
+     * Get count of appended events.
+     *
+     * @return appended count
+     */
+    public long getAppendedCount() {
+        return appendedCount.sum();
+    }
+
+    /**
+     * Get count of events dropped because the journal is full.
+     *
+     * @return dropped count
+     */
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Get count of saved events.
+     *
+     * @return saved count
+     */
+    public long getSavedCount() {
+        return savedCount.sum();
+    }
+
+    /**
+     * Get count of events lost because of saving failures.
+     *
+     * @return failed count
+     */
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    /**
+     * Get count of batch writes.
+     *
+     * @return write count
+     */
+    public long getWriteCount() {
+        return writeCount.sum();
+    }
+
+    /**
+     * Get total time of batch writes.
+     *
+     * @param unit time unit
+     * @return write total time
+     */
+    public double getWriteTotalTime(final TimeUnit unit) {
+        return (double) writeTimeInNanos.sum() / unit.toNanos(1);
+    }
+
+    /**
+     * Get number of events waiting to be saved.
+     *
+     * @return queue size
+     */
+    public int size() {
+        return queue.size();
+    }
+}
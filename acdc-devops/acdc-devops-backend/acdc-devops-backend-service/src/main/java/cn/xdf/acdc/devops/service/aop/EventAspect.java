@@ -5,7 +5,6 @@ import cn.xdf.acdc.devops.core.domain.entity.ConnectorEventDO;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.EventLevel;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.EventReason;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.EventSource;
-import cn.xdf.acdc.devops.service.entity.ConnectorEventService;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -21,6 +20,8 @@ import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.ResourceAccessException;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Component
 @Aspect
@@ -30,14 +31,17 @@ public class EventAspect {
 
     private final LocalVariableTableParameterNameDiscoverer discoverer = new LocalVariableTableParameterNameDiscoverer();
 
-    private final ConnectorEventService connectorEventService;
+    // parsed expressions of the event annotation, method -> expressions
+    private final ConcurrentMap<Method, EventExpressions> eventExpressions = new ConcurrentHashMap<>();
 
-    public EventAspect(final ConnectorEventService connectorEventService) {
-        this.connectorEventService = connectorEventService;
+    private final ConnectorEventJournal connectorEventJournal;
+
+    public EventAspect(final ConnectorEventJournal connectorEventJournal) {
+        this.connectorEventJournal = connectorEventJournal;
     }
 
     /**
-     * Advice that save connector event when annotation with @Event.
+     * Advice that save connector event when annotation with @Event, the event is saved asynchronously by the journal.
      *
      * @param joinPoint join point for advice.
      * @param event     event annotation.
@@ -52,10 +56,11 @@ public class EventAspect {
         Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
 
         EvaluationContext context = new MethodBasedEvaluationContext(null, method, args, discoverer);
+        EventExpressions expressions = eventExpressions.computeIfAbsent(method, key -> new EventExpressions(parser, event));
 
-        Long connectorId = (Long) getSpelValue(event.connectorId(), context, Long.class);
-        String message = (String) getSpelValue(event.message(), context, String.class);
-        String level = (String) getSpelValue(event.level(), context, String.class);
+        Long connectorId = expressions.connectorId.getValue(context, Long.class);
+        String message = expressions.message.getValue(context, String.class);
+        String level = expressions.level.getValue(context, String.class);
 
         try {
             result = joinPoint.proceed();
@@ -79,11 +84,21 @@ public class EventAspect {
                         .build())
                 .build();
 
-        connectorEventService.save(connectorEvent);
+        connectorEventJournal.append(connectorEvent);
     }
 
-    private Object getSpelValue(final String spel, final EvaluationContext context, final Class clz) {
-        Expression expression = parser.parseExpression(spel);
-        return expression.getValue(context, clz);
+    private static final class EventExpressions {
+
+        private final Expression connectorId;
+
+        private final Expression message;
+
+        private final Expression level;
+
+        EventExpressions(final ExpressionParser parser, final Event event) {
+            this.connectorId = parser.parseExpression(event.connectorId());
+            this.message = parser.parseExpression(event.message());
+            this.level = parser.parseExpression(event.level());
+        }
     }
 }
@@ -1,36 +1,84 @@
 package cn.xdf.acdc.devops.service.config;
 
+import org.apache.http.client.HttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Copy from  scheduler.
  */
 @Configuration
 public class RestTemplateConfig {
 
+    private static final int DEFAULT_CONNECT_TIMEOUT_IN_MILLISECOND = 15_000;
+
+    private static final int DEFAULT_READ_TIMEOUT_IN_MILLISECOND = 60_000;
+
+    private static final int DEFAULT_CONNECTION_REQUEST_TIMEOUT_IN_MILLISECOND = 30_000;
+
+    @Value("${acdc.rest.pool.max-total:200}")
+    private int maxTotal = 200;
+
+    // each connect cluster is a route, it limits the connections to a connect cluster
+    @Value("${acdc.rest.pool.max-per-route:16}")
+    private int maxPerRoute = 16;
+
+    @Value("${acdc.rest.pool.keep-alive-ms:30000}")
+    private long keepAliveInMillisecond = 30_000L;
+
     /**
      * Get rest template bean.
      *
+     * @param factory client http request factory
      * @return rest template
      */
     @Bean
-    public RestTemplate registerTemplate() {
-        RestTemplate restTemplate = new RestTemplate(getFactory());
+    public RestTemplate registerTemplate(final HttpComponentsClientHttpRequestFactory factory) {
+        RestTemplate restTemplate = new RestTemplate(factory);
         return restTemplate;
     }
 
     /**
-     * Config client http request factory.
+     * Config pooling connection manager of the http client, connections are kept alive and reused.
+     *
+     * @return pooling connection manager
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager poolingHttpClientConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(keepAliveInMillisecond, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        return connectionManager;
+    }
+
+    /**
+     * Config client http request factory, the timeouts are bound from acdc.rest.connection.
      *
-     * @return simple client http request factory
+     * @param connectionManager pooling connection manager
+     * @return http components client http request factory
      */
     @Bean
     @ConfigurationProperties(prefix = "acdc.rest.connection")
-    public SimpleClientHttpRequestFactory getFactory() {
-        return new SimpleClientHttpRequestFactory();
+    public HttpComponentsClientHttpRequestFactory getFactory(final PoolingHttpClientConnectionManager connectionManager) {
+        HttpClient httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictIdleConnections(keepAliveInMillisecond, TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .build();
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        factory.setConnectTimeout(DEFAULT_CONNECT_TIMEOUT_IN_MILLISECOND);
+        factory.setReadTimeout(DEFAULT_READ_TIMEOUT_IN_MILLISECOND);
+        factory.setConnectionRequestTimeout(DEFAULT_CONNECTION_REQUEST_TIMEOUT_IN_MILLISECOND);
+        return factory;
     }
 }
@@ -8,9 +8,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.Predicate;
 
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.CollectionUtils;
 
 public interface ConnectionColumnConfigurationService {
 
@@ -64,6 +66,16 @@ public interface ConnectionColumnConfigurationService {
             if (Objects.nonNull(connectionQuery.getVersion())) {
                 predicates.add(cb.equal(root.get("connectionVersion"), connectionQuery.getVersion()));
             }
+            if (!CollectionUtils.isEmpty(connectionQuery.getConnectionIds())) {
+                CriteriaBuilder.In<Long> in = cb.in(root.get("connection").get("id"));
+                connectionQuery.getConnectionIds().forEach(in::value);
+                predicates.add(in);
+            }
+            if (!CollectionUtils.isEmpty(connectionQuery.getVersions())) {
+                CriteriaBuilder.In<Integer> in = cb.in(root.get("connectionVersion"));
+                connectionQuery.getVersions().forEach(in::value);
+                predicates.add(in);
+            }
             return cb.and(predicates.toArray(new Predicate[predicates.size()]));
         };
     }
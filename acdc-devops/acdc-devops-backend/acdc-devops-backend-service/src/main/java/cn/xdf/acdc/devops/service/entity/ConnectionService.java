@@ -6,6 +6,7 @@ import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
 import cn.xdf.acdc.devops.core.domain.enumeration.ConnectionState;
 import cn.xdf.acdc.devops.core.domain.query.ConnectionInfoQuery;
 import cn.xdf.acdc.devops.core.domain.query.ConnectionQuery;
+import cn.xdf.acdc.devops.service.util.QueryUtil;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -133,7 +134,9 @@ public interface ConnectionService {
                 predicates.add(cb.equal(root.get("id"), connectionQuery.getConnectionId()));
             }
 
-            if (Objects.nonNull(connectionQuery.getBeginUpdateTime())) {
+            if (Objects.nonNull(connectionQuery.getBeginUpdateTime()) && Objects.nonNull(connectionQuery.getBeginId())) {
+                predicates.add(QueryUtil.updatedAfter(root, query, cb, connectionQuery.getBeginUpdateTime(), connectionQuery.getBeginId()));
+            } else if (Objects.nonNull(connectionQuery.getBeginUpdateTime())) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("updateTime"), connectionQuery.getBeginUpdateTime()));
             }
 
@@ -30,6 +30,14 @@ public interface ConnectorEventService {
      */
     ConnectorEventDO save(ConnectorEventDO connectorEvent);
 
+    /**
+     * Save connector events in batch.
+     *
+     * @param connectorEvents connector events
+     * @return saved connector events
+     */
+    List<ConnectorEventDO> saveAll(List<ConnectorEventDO> connectorEvents);
+
     /**
      * Find by connector id.
      *
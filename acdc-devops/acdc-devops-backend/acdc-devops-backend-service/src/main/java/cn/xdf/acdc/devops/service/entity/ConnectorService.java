@@ -114,7 +114,9 @@ public interface ConnectorService {
                 predicates.add(cb.equal(root.get("desiredState"), connectionQuery.getDesiredState()));
             }
 
-            if (Objects.nonNull(connectionQuery.getBeginUpdateTime())) {
+            if (Objects.nonNull(connectionQuery.getBeginUpdateTime()) && Objects.nonNull(connectionQuery.getBeginId())) {
+                predicates.add(QueryUtil.updatedAfter(root, query, cb, connectionQuery.getBeginUpdateTime(), connectionQuery.getBeginId()));
+            } else if (Objects.nonNull(connectionQuery.getBeginUpdateTime())) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("updateTime"), connectionQuery.getBeginUpdateTime()));
             }
 
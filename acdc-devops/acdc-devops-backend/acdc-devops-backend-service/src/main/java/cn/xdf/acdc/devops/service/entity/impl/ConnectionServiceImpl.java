@@ -12,14 +12,17 @@ import cn.xdf.acdc.devops.service.entity.ConnectionService;
 import cn.xdf.acdc.devops.service.error.NotFoundException;
 import cn.xdf.acdc.devops.service.error.SystemBizException;
 import cn.xdf.acdc.devops.service.process.user.UserProcessService;
+import cn.xdf.acdc.devops.service.util.QueryUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -34,9 +37,15 @@ public class ConnectionServiceImpl implements ConnectionService {
     @Autowired
     private UserProcessService userProcessService;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Override
     public List<ConnectionDO> query(final ConnectionQuery query) {
-        return connectionRepository.findAll(ConnectionService.specificationOf(query));
+        if (Objects.isNull(query.getLimit())) {
+            return connectionRepository.findAll(ConnectionService.specificationOf(query));
+        }
+        return QueryUtil.findFirst(entityManager, ConnectionDO.class, ConnectionService.specificationOf(query), query.getLimit());
     }
 
     @Override
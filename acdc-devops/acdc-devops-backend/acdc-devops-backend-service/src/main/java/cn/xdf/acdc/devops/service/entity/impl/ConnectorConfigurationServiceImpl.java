@@ -4,14 +4,18 @@ import cn.xdf.acdc.devops.core.domain.entity.ConnectorConfigurationDO;
 import cn.xdf.acdc.devops.core.domain.entity.ConnectorDO;
 import cn.xdf.acdc.devops.repository.ConnectorConfigurationRepository;
 import cn.xdf.acdc.devops.service.entity.ConnectorConfigurationService;
+import cn.xdf.acdc.devops.service.process.connector.event.ConnectorConfigChangedEvent;
 import com.google.common.base.Preconditions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -21,21 +25,38 @@ public class ConnectorConfigurationServiceImpl implements ConnectorConfiguration
     @Autowired
     private ConnectorConfigurationRepository connectorConfigurationRepository;
 
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
+
     @Override
     public ConnectorConfigurationDO save(final ConnectorConfigurationDO connectorConfiguration) {
-        return connectorConfigurationRepository.save(connectorConfiguration);
+        ConnectorConfigurationDO configuration = connectorConfigurationRepository.save(connectorConfiguration);
+        publishConfigChangedEvent(Collections.singletonList(connectorConfiguration));
+        return configuration;
     }
 
     @Override
     public List<ConnectorConfigurationDO> saveAll(final List<ConnectorConfigurationDO> connectorConfigurationList) {
         List<ConnectorConfigurationDO> configurations = connectorConfigurationRepository.saveAll(connectorConfigurationList);
         connectorConfigurationRepository.flush();
+        publishConfigChangedEvent(connectorConfigurationList);
         return configurations;
     }
 
     @Override
     public void deleteConfigByConnectorId(final Long connectorId) {
         connectorConfigurationRepository.deleteByConnectorId(connectorId);
+        applicationEventPublisher.publishEvent(new ConnectorConfigChangedEvent(connectorId));
+    }
+
+    private void publishConfigChangedEvent(final List<ConnectorConfigurationDO> connectorConfigurationList) {
+        connectorConfigurationList.stream()
+                .map(ConnectorConfigurationDO::getConnector)
+                .filter(Objects::nonNull)
+                .map(ConnectorDO::getId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(connectorId -> applicationEventPublisher.publishEvent(new ConnectorConfigChangedEvent(connectorId)));
     }
 
     @Override
@@ -22,12 +22,21 @@ public class ConnectorEventServiceImpl implements ConnectorEventService {
 
     @Override
     public ConnectorEventDO save(final ConnectorEventDO connectorEvent) {
+        truncateMessage(connectorEvent);
+        return connectorEventRepository.save(connectorEvent);
+    }
+
+    @Override
+    public List<ConnectorEventDO> saveAll(final List<ConnectorEventDO> connectorEvents) {
+        connectorEvents.forEach(this::truncateMessage);
+        return connectorEventRepository.saveAll(connectorEvents);
+    }
+
+    private void truncateMessage(final ConnectorEventDO connectorEvent) {
         // Keep message length eq than database column max length.
         if (Objects.nonNull(connectorEvent.getMessage()) && connectorEvent.getMessage().length() > MESSAGE_LENGTH_MAX) {
             connectorEvent.setMessage(connectorEvent.getMessage().substring(0, MESSAGE_LENGTH_MAX));
         }
-
-        return connectorEventRepository.save(connectorEvent);
     }
 
     @Override
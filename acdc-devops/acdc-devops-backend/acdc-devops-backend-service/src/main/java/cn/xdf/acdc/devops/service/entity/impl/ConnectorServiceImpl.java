@@ -21,19 +21,29 @@ import cn.xdf.acdc.devops.service.entity.KafkaClusterService;
 import cn.xdf.acdc.devops.service.entity.RdbTableService;
 import cn.xdf.acdc.devops.service.entity.SourceRdbTableService;
 import cn.xdf.acdc.devops.service.error.NotFoundException;
+import cn.xdf.acdc.devops.service.util.QueryUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.JoinType;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 public class ConnectorServiceImpl implements ConnectorService {
 
+    private static final Specification<ConnectorDO> FETCH_CONNECTOR_CLASS = (root, query, cb) -> {
+        root.fetch("connectorClass", JoinType.LEFT);
+        return null;
+    };
+
     @Autowired
     private ConnectorService connectorService;
 
@@ -55,6 +65,9 @@ public class ConnectorServiceImpl implements ConnectorService {
     @Autowired
     private RdbTableService rdbTableService;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Override
     public CreationResult<ConnectorDO> saveSourceIfAbsent(
             final Long dataBaseId,
@@ -133,7 +146,12 @@ public class ConnectorServiceImpl implements ConnectorService {
 
     @Override
     public List<ConnectorDO> query(final ConnectorQuery query) {
-        return connectorRepository.findAll(ConnectorService.specificationOf(query));
+        // connector class 随 connector 一起查询, 避免转换 DTO 时逐个加载
+        Specification<ConnectorDO> specification = Specification.<ConnectorDO>where(ConnectorService.specificationOf(query)).and(FETCH_CONNECTOR_CLASS);
+        if (Objects.isNull(query.getLimit())) {
+            return connectorRepository.findAll(specification);
+        }
+        return QueryUtil.findFirst(entityManager, ConnectorDO.class, specification, query.getLimit());
     }
 
     @Override
@@ -1,10 +1,13 @@
 package cn.xdf.acdc.devops.service.process.connection.fieldmapping;
 
+import cn.xdf.acdc.devops.core.domain.dto.ConnectionDTO;
 import cn.xdf.acdc.devops.core.domain.dto.DataSetDTO;
+import cn.xdf.acdc.devops.core.domain.dto.FieldDTO;
 import cn.xdf.acdc.devops.core.domain.dto.FieldMappingDTO;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
 
 import java.util.List;
+import java.util.Map;
 
 public interface FieldMappingProcessService {
 
@@ -30,10 +33,24 @@ public interface FieldMappingProcessService {
      */
     List<FieldMappingDTO> getFieldMapping4Connection(Long connectionId);
 
+    /**
+     * 批量获取 connection 字段映射, 所有 connection 的字段映射在一次查询中获取.
+     * @param connections connections
+     * @return connection id, 字段映射 tuple
+     */
+    Map<Long, List<FieldMappingDTO>> getFieldMapping4Connections(List<ConnectionDTO> connections);
+
     /**
      * 获取 FieldService.
      * @param dataSystemType appType
      * @return 字段映射
      */
     FieldService getFieldService(DataSystemType dataSystemType);
+
+    /**
+     * 获取数据集字段信息, 优先使用缓存的表结构.
+     * @param dataSet dataSet
+     * @return 表字段信息
+     */
+    Map<String, FieldDTO> descDataSet(DataSetDTO dataSet);
 }
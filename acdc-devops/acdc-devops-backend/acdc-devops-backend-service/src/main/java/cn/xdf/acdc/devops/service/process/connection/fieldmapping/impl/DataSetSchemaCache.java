@@ -0,0 +1,235 @@
+package cn.xdf.acdc.devops.service.process.connection.fieldmapping.impl;
+
+import cn.xdf.acdc.devops.core.domain.dto.DataSetDTO;
+import cn.xdf.acdc.devops.core.domain.dto.FieldDTO;
+import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the fields of data sets, which are described from the source or sink data systems.
+ *
+ * <p>A cached schema expires after the TTL or once it is invalidated. Concurrent callers missing the same data set wait on one describe.
+ * The cache is versioned by invalidations, a describe started before an invalidation is returned to its callers but not cached.
+ */
+@Slf4j
+@Component
+public class DataSetSchemaCache {
+
+    private final Cache<DataSetKey, Map<String, FieldDTO>> cache;
+
+    private final ConcurrentMap<DataSetKey, CompletableFuture<Map<String, FieldDTO>>> describing = new ConcurrentHashMap<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private final LongAdder describeCount = new LongAdder();
+
+    private final LongAdder describeTimeInNanos = new LongAdder();
+
+    public DataSetSchemaCache(
+            @Value("${acdc.field-mapping.data-set-schema-cache.ttl-seconds:300}") final long ttlSeconds,
+            @Value("${acdc.field-mapping.data-set-schema-cache.max-size:10000}") final long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * Get fields of a data set, describe and cache them if absent.
+     *
+     * @param dataSet data set
+     * @param describer describer of the data set
+     * @return a copy of the fields, field name in lower case -> field
+     */
+    public Map<String, FieldDTO> get(final DataSetDTO dataSet, final Supplier<Map<String, FieldDTO>> describer) {
+        DataSetKey key = new DataSetKey(dataSet.getDataSystemType(), dataSet.getDataSetId());
+        Map<String, FieldDTO> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hitCount.increment();
+            return copy(cached);
+        }
+
+        CompletableFuture<Map<String, FieldDTO>> future = new CompletableFuture<>();
+        CompletableFuture<Map<String, FieldDTO>> describingFuture = describing.putIfAbsent(key, future);
+        if (describingFuture != null) {
+            coalescedCount.increment();
+            return copy(join(describingFuture));
+        }
+
+        missCount.increment();
+        try {
+            return copy(describe(key, describer, future));
+        } finally {
+            describing.remove(key, future);
+        }
+    }
+
+    private Map<String, FieldDTO> describe(final DataSetKey key, final Supplier<Map<String, FieldDTO>> describer,
+                                           final CompletableFuture<Map<String, FieldDTO>> future) {
+        long startVersion = version.get();
+        long start = System.nanoTime();
+        Map<String, FieldDTO> fields = null;
+        try {
+            fields = copy(describer.get());
+        } finally {
+            describeTimeInNanos.add(System.nanoTime() - start);
+            describeCount.increment();
+            if (fields == null) {
+                // the exception of the describe is thrown to the caller, the waiting callers fail as well
+                future.completeExceptionally(new ServerErrorException(String.format("Describe data set failed: %s", key)));
+            }
+        }
+
+        // the describe may be out of date if the cache is invalidated meanwhile
+        if (version.get() == startVersion) {
+            cache.put(key, fields);
+        }
+        future.complete(fields);
+        return fields;
+    }
+
+    /**
+     * Invalidate cached fields of a data set.
+     *
+     * @param dataSystemType data system type
+     * @param dataSetId data set id
+     */
+    public void invalidate(final DataSystemType dataSystemType, final Long dataSetId) {
+        DataSetKey key = new DataSetKey(dataSystemType, dataSetId);
+        version.incrementAndGet();
+        describing.remove(key);
+        cache.invalidate(key);
+    }
+
+    /**
+     * Invalidate all cached fields, eg: the metadata of data systems is refreshed.
+     */
+    public void invalidateAll() {
+        version.incrementAndGet();
+        describing.clear();
+        cache.invalidateAll();
+        log.info("Data set schema cache is invalidated");
+    }
+
+    /**
+     * Get count of requests which hit the cache.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get count of requests which miss the cache and describe the data set.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get count of requests which miss the cache and wait on the describe of another request.
+     *
+     * @return coalesced count
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * Get ratio of requests which hit the cache.
+     *
+     * @return hit ratio, 1.0 if there is no request
+     */
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum() + coalescedCount.sum();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * Get count of describes, including the failed ones.
+     *
+     * @return describe count
+     */
+    public long getDescribeCount() {
+        return describeCount.sum();
+    }
+
+    /**
+     * Get total time of describes.
+     *
+     * @param unit time unit
+     * @return describe total time
+     */
+    public double getDescribeTotalTime(final TimeUnit unit) {
+        return (double) describeTimeInNanos.sum() / unit.toNanos(1);
+    }
+
+    /**
+     * Get number of cached data sets.
+     *
+     * @return size
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static Map<String, FieldDTO> join(final CompletableFuture<Map<String, FieldDTO>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static Map<String, FieldDTO> copy(final Map<String, FieldDTO> fields) {
+        Map<String, FieldDTO> result = new HashMap<>(fields.size() * 4 / 3 + 1);
+        fields.forEach((name, field) -> result.put(name, new FieldDTO(field.getName(), field.getDataType(), field.getAllowNull(),
+                field.getKeyType(), field.getDefaultValue(), field.getExtra())));
+        return result;
+    }
+
+    @ToString
+    @EqualsAndHashCode
+    private static final class DataSetKey {
+
+        private final DataSystemType dataSystemType;
+
+        private final Long dataSetId;
+
+        DataSetKey(final DataSystemType dataSystemType, final Long dataSetId) {
+            this.dataSystemType = dataSystemType;
+            this.dataSetId = dataSetId;
+        }
+    }
+}
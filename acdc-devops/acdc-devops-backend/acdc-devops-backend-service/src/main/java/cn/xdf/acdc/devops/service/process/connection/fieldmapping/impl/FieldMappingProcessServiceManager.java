@@ -1,8 +1,10 @@
 package cn.xdf.acdc.devops.service.process.connection.fieldmapping.impl;
 
+import cn.xdf.acdc.devops.core.domain.dto.ConnectionDTO;
 import cn.xdf.acdc.devops.core.domain.dto.DataSetDTO;
 import cn.xdf.acdc.devops.core.domain.dto.FieldDTO;
 import cn.xdf.acdc.devops.core.domain.dto.FieldMappingDTO;
+import cn.xdf.acdc.devops.core.domain.entity.ConnectionColumnConfigurationDO;
 import cn.xdf.acdc.devops.core.domain.entity.ConnectionDO;
 import cn.xdf.acdc.devops.core.domain.entity.ConnectorClassDO;
 import cn.xdf.acdc.devops.core.domain.entity.ConnectorDO;
@@ -24,10 +26,12 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -55,6 +59,9 @@ public class FieldMappingProcessServiceManager implements FieldMappingProcessSer
     @Autowired
     private ConnectionColumnConfigurationService connectionColumnConfigurationService;
 
+    @Autowired
+    private DataSetSchemaCache dataSetSchemaCache;
+
     public FieldMappingProcessServiceManager(
             final List<FieldService> fieldServices,
             final List<FieldMappingService> fieldMappingServices) {
@@ -99,8 +106,8 @@ public class FieldMappingProcessServiceManager implements FieldMappingProcessSer
             final DataSetDTO sinkDataSet) {
 
         // 1. get field list
-        Map<String, FieldDTO> srcFieldMap = FIELD_SERVICE_MAP.get(srcDataSet.getDataSystemType()).descDataSet(srcDataSet);
-        Map<String, FieldDTO> sinkFieldMap = FIELD_SERVICE_MAP.get(sinkDataSet.getDataSystemType()).descDataSet(sinkDataSet);
+        Map<String, FieldDTO> srcFieldMap = descDataSet(srcDataSet);
+        Map<String, FieldDTO> sinkFieldMap = descDataSet(sinkDataSet);
 
         // 2. diffing and sort
         return FIELD_MAPPING_SERVICE_MAP.get(srcDataSet.getDataSystemType(), sinkDataSet.getDataSystemType())
@@ -168,6 +175,32 @@ public class FieldMappingProcessServiceManager implements FieldMappingProcessSer
         ).collect(Collectors.toList());
     }
 
+    @Override
+    public Map<Long, List<FieldMappingDTO>> getFieldMapping4Connections(final List<ConnectionDTO> connections) {
+        Map<Long, ConnectionDTO> connectionMap = connections.stream().collect(Collectors.toMap(ConnectionDTO::getId, it -> it));
+        ConnectionColumnConfigurationQuery query = ConnectionColumnConfigurationQuery.builder()
+                .connectionIds(connectionMap.keySet())
+                .versions(connections.stream().map(ConnectionDTO::getVersion).collect(Collectors.toSet()))
+                .build();
+
+        // the query may return other versions of a connection, which are filtered out here
+        Map<Long, List<FieldMappingDTO>> fieldMappings = new HashMap<>();
+        connections.forEach(it -> fieldMappings.put(it.getId(), Lists.newArrayList()));
+        for (ConnectionColumnConfigurationDO conf : connectionColumnConfigurationService.query(query)) {
+            ConnectionDTO connection = connectionMap.get(conf.getConnection().getId());
+            if (conf.getConnectionVersion().equals(connection.getVersion())) {
+                fieldMappings.get(connection.getId()).add(FieldMappingDTO.toFieldMapping(conf));
+            }
+        }
+
+        fieldMappings.forEach((connectionId, it) -> {
+            ConnectionDTO connection = connectionMap.get(connectionId);
+            FieldMappingService fieldMappingService = FIELD_MAPPING_SERVICE_MAP.get(connection.getSourceDataSystemType(), connection.getSinkDataSystemType());
+            it.sort(Comparator.comparing(fieldMappingService::editSequence));
+        });
+        return fieldMappings;
+    }
+
     /**
      * 获取 FieldService.
      *
@@ -178,6 +211,12 @@ public class FieldMappingProcessServiceManager implements FieldMappingProcessSer
         return Optional.of(FIELD_SERVICE_MAP.get(dataSystemType)).get();
     }
 
+    @Override
+    public Map<String, FieldDTO> descDataSet(final DataSetDTO dataSet) {
+        FieldService fieldService = FIELD_SERVICE_MAP.get(dataSet.getDataSystemType());
+        return dataSetSchemaCache.get(dataSet, () -> fieldService.descDataSet(dataSet));
+    }
+
     /**
      * 根据已经保存的字段映射配置，按照数据库中查询的最新的表结构重新生成字段映射关系.
      *
@@ -201,7 +240,7 @@ public class FieldMappingProcessServiceManager implements FieldMappingProcessSer
     }
 
     private Map<String, FieldDTO> getFieldMapWithCurrentDdl(final DataSetDTO dataSet) {
-        Map<String, FieldDTO> sinkNameToFieldWithCurrentDdl = FIELD_SERVICE_MAP.get(dataSet.getDataSystemType()).descDataSet(dataSet);
+        Map<String, FieldDTO> sinkNameToFieldWithCurrentDdl = descDataSet(dataSet);
         // 返回的map中key都转成了小写，这里需要获取原来的字段名称，故重新构建map
         return sinkNameToFieldWithCurrentDdl.values().stream().collect(Collectors.toMap(FieldDTO::getName, fieldDTO -> fieldDTO));
     }
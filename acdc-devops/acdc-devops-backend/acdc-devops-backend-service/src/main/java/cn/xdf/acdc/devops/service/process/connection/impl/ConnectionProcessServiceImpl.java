@@ -9,8 +9,6 @@ import cn.xdf.acdc.devops.core.domain.dto.ConnectorCreationResultDTO;
 import cn.xdf.acdc.devops.core.domain.dto.DataSetDTO;
 import cn.xdf.acdc.devops.core.domain.dto.Dataset4ConnectionDTO;
 import cn.xdf.acdc.devops.core.domain.dto.FieldMappingDTO;
-import cn.xdf.acdc.devops.core.domain.dto.SinkConnectorInfoDTO;
-import cn.xdf.acdc.devops.core.domain.dto.SourceConnectorInfoDTO;
 import cn.xdf.acdc.devops.core.domain.dto.UserDTO;
 import cn.xdf.acdc.devops.core.domain.dto.enumeration.DatasetFrom;
 import cn.xdf.acdc.devops.core.domain.entity.ConnectionColumnConfigurationDO;
@@ -25,7 +23,9 @@ import cn.xdf.acdc.devops.core.domain.query.ConnectionColumnConfigurationQuery;
 import cn.xdf.acdc.devops.core.domain.query.ConnectionInfoQuery;
 import cn.xdf.acdc.devops.core.domain.query.ConnectionQuery;
 import cn.xdf.acdc.devops.core.domain.query.PagedQuery;
+import cn.xdf.acdc.devops.core.domain.query.UserQuery;
 import cn.xdf.acdc.devops.repository.ConnectionRepository;
+import cn.xdf.acdc.devops.repository.ConnectorRepository;
 import cn.xdf.acdc.devops.service.entity.ConnectionColumnConfigurationService;
 import cn.xdf.acdc.devops.service.entity.ConnectionService;
 import cn.xdf.acdc.devops.service.error.ErrorMsg;
@@ -33,7 +33,6 @@ import cn.xdf.acdc.devops.service.error.NotFoundException;
 import cn.xdf.acdc.devops.service.process.connection.ConnectionProcessService;
 import cn.xdf.acdc.devops.service.process.connection.fieldmapping.impl.FieldMappingProcessServiceManager;
 import cn.xdf.acdc.devops.service.process.connector.ConnectorCoreProcessService;
-import cn.xdf.acdc.devops.service.process.connector.ConnectorQueryProcessService;
 import cn.xdf.acdc.devops.service.process.datasystem.DatasetProcessServiceManager;
 import cn.xdf.acdc.devops.service.process.user.UserProcessService;
 import cn.xdf.acdc.devops.service.util.BizAssert;
@@ -45,12 +44,16 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -81,7 +84,7 @@ public class ConnectionProcessServiceImpl implements ConnectionProcessService {
     private UserProcessService userProcessService;
 
     @Autowired
-    private ConnectorQueryProcessService connectorQueryProcessService;
+    private ConnectorRepository connectorRepository;
 
     @Override
     public List<ConnectionDetailDTO> query(final ConnectionQuery query) {
@@ -91,34 +94,58 @@ public class ConnectionProcessServiceImpl implements ConnectionProcessService {
 
     @Override
     public List<ConnectionDetailDTO> detailQuery(final ConnectionQuery query) {
-        return connectionRepository.query(query).stream()
-                .map(this::buildConnectionDetailDTOByConnectionDO)
-                .collect(Collectors.toList());
+        return buildConnectionDetailDTOsByConnectionDOs(connectionRepository.query(query));
     }
 
-    private ConnectionDetailDTO buildConnectionDetailDTOByConnectionDO(final ConnectionDO connectionDO) {
-        DataSystemType sourceDataSystemType = connectionDO.getSourceDataSystemType();
-        Dataset4ConnectionDTO sourceDataset4ConnectionDTO = datasetManager.getService(sourceDataSystemType)
-                .getSourceDataset4Connection(new ConnectionDTO(connectionDO));
-
-        // sink
-        DataSystemType sinkDataSystemType = connectionDO.getSinkDataSystemType();
-        Dataset4ConnectionDTO sinkDataset4ConnectionDTO = datasetManager.getService(sinkDataSystemType)
-                .getSinkDataset4Connection(new ConnectionDTO(connectionDO));
-        List<FieldMappingDTO> fieldMappingDTOs = fieldMappingManager.getFieldMapping4Connection(connectionDO.getId());
-
-        UserDTO userDTO = userProcessService.getUser(connectionDO.getUser().getId());
-
-        // if source, sink connector is not null, get and set their name.
-        if (Objects.nonNull(connectionDO.getSourceConnector()) && Objects.nonNull(connectionDO.getSinkConnector())) {
-            SourceConnectorInfoDTO sourceConnector = connectorQueryProcessService.getSourceInfo(connectionDO.getSourceConnector().getId());
-            SinkConnectorInfoDTO sinkConnector = connectorQueryProcessService.getSinkInfo(connectionDO.getSinkConnector().getId());
-            return new ConnectionDetailDTO(connectionDO, sourceDataset4ConnectionDTO, sinkDataset4ConnectionDTO,
-                    fieldMappingDTOs, userDTO, sourceConnector, sinkConnector);
+    // entities related to connections are fetched in one query for each type, rather than for each connection
+    private List<ConnectionDetailDTO> buildConnectionDetailDTOsByConnectionDOs(final List<ConnectionDO> connectionDOs) {
+        if (connectionDOs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ConnectionDTO> connectionDTOs = connectionDOs.stream().map(ConnectionDTO::new).collect(Collectors.toList());
+
+        Map<Long, Dataset4ConnectionDTO> sourceDatasets = new HashMap<>();
+        connectionDTOs.stream().collect(Collectors.groupingBy(ConnectionDTO::getSourceDataSystemType))
+                .forEach((dataSystemType, connections) -> sourceDatasets.putAll(datasetManager.getService(dataSystemType).getSourceDataset4Connections(connections)));
+
+        Map<Long, Dataset4ConnectionDTO> sinkDatasets = new HashMap<>();
+        connectionDTOs.stream().collect(Collectors.groupingBy(ConnectionDTO::getSinkDataSystemType))
+                .forEach((dataSystemType, connections) -> sinkDatasets.putAll(datasetManager.getService(dataSystemType).getSinkDataset4Connections(connections)));
+
+        Map<Long, List<FieldMappingDTO>> fieldMappings = fieldMappingManager.getFieldMapping4Connections(connectionDTOs);
+
+        Set<Long> userIds = connectionDOs.stream().map(it -> it.getUser().getId()).collect(Collectors.toSet());
+        Map<Long, UserDTO> users = userProcessService.query(UserQuery.builder().userIds(userIds).build()).stream()
+                .collect(Collectors.toMap(UserDTO::getId, Function.identity()));
+
+        Set<Long> connectorIds = connectionDTOs.stream()
+                .filter(it -> Objects.nonNull(it.getSourceConnectorId()) && Objects.nonNull(it.getSinkConnectorId()))
+                .flatMap(it -> Stream.of(it.getSourceConnectorId(), it.getSinkConnectorId()))
+                .collect(Collectors.toSet());
+        Map<Long, String> connectorNames = connectorIds.isEmpty() ? Collections.emptyMap() : connectorRepository.findAllById(connectorIds).stream()
+                .collect(Collectors.toMap(ConnectorDO::getId, ConnectorDO::getName));
+
+        List<ConnectionDetailDTO> connectionDetails = new ArrayList<>(connectionDOs.size());
+        for (ConnectionDO connectionDO : connectionDOs) {
+            Long userId = connectionDO.getUser().getId();
+            UserDTO userDTO = Optional.ofNullable(users.get(userId))
+                    .orElseThrow(() -> new NotFoundException(String.format("userId: %s", userId)));
+            ConnectionDetailDTO connectionDetail = new ConnectionDetailDTO(connectionDO, sourceDatasets.get(connectionDO.getId()), sinkDatasets.get(connectionDO.getId()),
+                    fieldMappings.get(connectionDO.getId()), userDTO);
+
+            // if source, sink connector is not null, set their name.
+            if (Objects.nonNull(connectionDO.getSourceConnector()) && Objects.nonNull(connectionDO.getSinkConnector())) {
+                connectionDetail.setSourceConnectorName(getConnectorName(connectorNames, connectionDO.getSourceConnector().getId()));
+                connectionDetail.setSinkConnectorName(getConnectorName(connectorNames, connectionDO.getSinkConnector().getId()));
+            }
+            connectionDetails.add(connectionDetail);
         }
+        return connectionDetails;
+    }
 
-        return new ConnectionDetailDTO(connectionDO, sourceDataset4ConnectionDTO, sinkDataset4ConnectionDTO,
-                fieldMappingDTOs, userDTO);
+    private String getConnectorName(final Map<Long, String> connectorNames, final Long connectorId) {
+        return Optional.ofNullable(connectorNames.get(connectorId))
+                .orElseThrow(() -> new NotFoundException(String.format("connectorId: %s", connectorId)));
     }
 
     @Override
@@ -129,7 +156,7 @@ public class ConnectionProcessServiceImpl implements ConnectionProcessService {
 
     @Override
     public ConnectionDetailDTO getConnectionDetail(final Long id) {
-        return connectionRepository.findById(id).map(this::buildConnectionDetailDTOByConnectionDO)
+        return connectionRepository.findById(id).map(it -> buildConnectionDetailDTOsByConnectionDOs(Collections.singletonList(it)).get(0))
                 .orElseThrow(() -> new NotFoundException(String.format("connectionId: %s", id)));
     }
 
@@ -8,6 +8,7 @@ import cn.xdf.acdc.devops.core.domain.enumeration.ConnectorState;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Connector 核心操作接口 .
@@ -42,6 +43,14 @@ public interface ConnectorCoreProcessService {
      */
     List<ConnectorInfoDTO> queryConnector(ConnectorState currentState, ConnectorState desiredState, Long connectClusterId);
 
+    /**
+     * 查询单个 connector, 只解密该 connector 的配置.
+     *
+     * @param connectorId connector ID
+     * @return connector, 不存在时为空
+     */
+    Optional<ConnectorInfoDTO> getConnector(Long connectorId);
+
     /**
      * 更新 connector 实际状态.
      *
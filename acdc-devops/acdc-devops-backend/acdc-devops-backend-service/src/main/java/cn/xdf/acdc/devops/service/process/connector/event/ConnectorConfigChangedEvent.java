@@ -0,0 +1,14 @@
+package cn.xdf.acdc.devops.service.process.connector.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Event published once configurations of a connector are changed.
+ */
+@Getter
+@AllArgsConstructor
+public class ConnectorConfigChangedEvent {
+
+    private final Long connectorId;
+}
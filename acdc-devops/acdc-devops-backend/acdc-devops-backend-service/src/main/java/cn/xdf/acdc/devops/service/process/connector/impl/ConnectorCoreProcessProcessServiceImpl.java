@@ -34,6 +34,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -67,6 +68,9 @@ public class ConnectorCoreProcessProcessServiceImpl implements ConnectorCoreProc
     @Autowired
     private ConnectorRepository connectorRepository;
 
+    @Autowired
+    private ConnectorDecryptConfigCache connectorDecryptConfigCache;
+
     private void createKafkaTopic(final String topic, final Map<String, String> configMap) {
         if (!Strings.isNullOrEmpty(topic)) {
             int partitions = Integer.parseInt(configMap.remove(TopicConfig.PARTITIONS));
@@ -168,6 +172,13 @@ public class ConnectorCoreProcessProcessServiceImpl implements ConnectorCoreProc
                 .stream().map(this::buildConnectorWithConf).collect(Collectors.toList());
     }
 
+    @Override
+    public Optional<ConnectorInfoDTO> getConnector(final Long connectorId) {
+        Preconditions.checkNotNull(connectorId);
+
+        return connectorService.findById(connectorId).map(this::buildConnectorWithConf);
+    }
+
     private ConnectorInfoDTO buildConnectorWithConf(final ConnectorDO connector) {
         ConnectorType connectorType = connector.getConnectorClass().getConnectorType();
         DataSystemType dataSystemType = connector.getConnectorClass().getDataSystemType();
@@ -176,7 +187,9 @@ public class ConnectorCoreProcessProcessServiceImpl implements ConnectorCoreProc
                 ? sourceConnectorProcessServiceManager.getJService(dataSystemType)
                 : sinkConnectorProcessServiceManager.getJService(dataSystemType);
 
-        return new ConnectorInfoDTO(connector, connectorConfigProcessService.getDecryptConfig(connector.getId()));
+        Map<String, String> decryptConfig = connectorDecryptConfigCache.get(connector.getId(), connector.getUpdateTime(),
+            () -> connectorConfigProcessService.getDecryptConfig(connector.getId()));
+        return new ConnectorInfoDTO(connector, decryptConfig);
     }
 
     @Override
@@ -0,0 +1,169 @@
+package cn.xdf.acdc.devops.service.process.connector.impl;
+
+import cn.xdf.acdc.devops.service.process.connector.event.ConnectorConfigChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Cache of decrypted connector configurations.
+ *
+ * <p>A cached configuration is versioned by the update time of its connector, it is reloaded once the connector is updated
+ * or a {@link ConnectorConfigChangedEvent} of the connector is committed. Configurations are loaded atomically per connector,
+ * and a load which is overlapped by an invalidation is returned but not cached, so a stale configuration can not outlive the invalidation.
+ * Cached configurations also expire after a while, as a safety bound of staleness.
+ */
+@Component
+public class ConnectorDecryptConfigCache {
+
+    private final Cache<Long, VersionedConfig> cache;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder decryptCount = new LongAdder();
+
+    private final LongAdder decryptTimeInNanos = new LongAdder();
+
+    // bumped before each invalidation, a load is cached only if no invalidation happened during it
+    private final AtomicLong generation = new AtomicLong();
+
+    public ConnectorDecryptConfigCache(
+            @Value("${acdc.connector.decrypt-config-cache.max-size:10000}") final long maxSize,
+            @Value("${acdc.connector.decrypt-config-cache.expire-after-write.ms:600000}") final long expireAfterWriteInMillisecond) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWriteInMillisecond, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Get decrypted configuration of a connector, load and cache it if absent or out of date.
+     *
+     * @param connectorId connector id
+     * @param version version of the configuration, which is the update time of the connector
+     * @param loader loader of the decrypted configuration
+     * @return a copy of the decrypted configuration
+     */
+    public Map<String, String> get(final Long connectorId, final Instant version, final Supplier<Map<String, String>> loader) {
+        VersionedConfig cached = cache.getIfPresent(connectorId);
+        if (cached != null && Objects.equals(cached.version, version)) {
+            hitCount.increment();
+            return new HashMap<>(cached.config);
+        }
+
+        VersionedConfig[] result = new VersionedConfig[1];
+        cache.asMap().compute(connectorId, (id, present) -> {
+            // another request may have loaded the same version while this one was waiting
+            if (present != null && Objects.equals(present.version, version)) {
+                hitCount.increment();
+                result[0] = present;
+                return present;
+            }
+            missCount.increment();
+
+            long generationBeforeLoad = generation.get();
+            long start = System.nanoTime();
+            Map<String, String> config = loader.get();
+            decryptTimeInNanos.add(System.nanoTime() - start);
+            decryptCount.increment();
+
+            result[0] = new VersionedConfig(version, new HashMap<>(config));
+            // the loaded configuration may be stale if an invalidation happened during loading, do not cache it
+            return generation.get() == generationBeforeLoad ? result[0] : null;
+        });
+        return new HashMap<>(result[0].config);
+    }
+
+    /**
+     * Invalidate cached configuration once the configuration changed.
+     *
+     * @param event connector config changed event
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onConnectorConfigChanged(final ConnectorConfigChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidate(event.getConnectorId());
+    }
+
+    /**
+     * Get count of requests which hit the cache.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Get count of requests which miss the cache.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Get ratio of requests which hit the cache.
+     *
+     * @return hit ratio, 1.0 if there is no request
+     */
+    public double getHitRatio() {
+        long hits = hitCount.sum();
+        long requests = hits + missCount.sum();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    /**
+     * Get count of decryptions.
+     *
+     * @return decrypt count
+     */
+    public long getDecryptCount() {
+        return decryptCount.sum();
+    }
+
+    /**
+     * Get total time of decryptions, including reading configurations.
+     *
+     * @param unit time unit
+     * @return decrypt total time
+     */
+    public double getDecryptTotalTime(final TimeUnit unit) {
+        return (double) decryptTimeInNanos.sum() / unit.toNanos(1);
+    }
+
+    /**
+     * Get number of cached configurations.
+     *
+     * @return size
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static class VersionedConfig {
+
+        private final Instant version;
+
+        private final Map<String, String> config;
+
+        VersionedConfig(final Instant version, final Map<String, String> config) {
+            this.version = version;
+            this.config = config;
+        }
+    }
+}
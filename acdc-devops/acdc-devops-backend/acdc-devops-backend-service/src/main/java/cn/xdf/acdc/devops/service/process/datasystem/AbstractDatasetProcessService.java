@@ -18,7 +18,9 @@ import cn.xdf.acdc.devops.service.util.BizAssert;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public abstract class AbstractDatasetProcessService implements DatasetProcessService {
@@ -47,6 +49,10 @@ public abstract class AbstractDatasetProcessService implements DatasetProcessSer
         return projects;
     }
 
+    protected Map<Long, ProjectDO> getProjectMap(final Set<Long> ids) {
+        return getProjects(ids).stream().collect(Collectors.toMap(ProjectDO::getId, Function.identity()));
+    }
+
     protected List<RdbTableDO> getRdbTables(final Set<Long> ids) {
         List<RdbTableDO> rdbTables = rdbTableService.findAllById(ids);
         BizAssert.notFound(rdbTables.size() == ids.size(), String.format("ids: %s", ids));
@@ -13,11 +13,15 @@ import cn.xdf.acdc.devops.core.domain.dto.RdbTableDTO;
 import cn.xdf.acdc.devops.core.domain.dto.enumeration.DatasetFrom;
 import cn.xdf.acdc.devops.core.domain.entity.ProjectDO;
 import cn.xdf.acdc.devops.core.domain.entity.RdbDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbDatabaseDO;
 import cn.xdf.acdc.devops.core.domain.entity.RdbInstanceDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbTableDO;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.RoleType;
 import cn.xdf.acdc.devops.core.domain.query.PagedQuery;
 import cn.xdf.acdc.devops.core.domain.query.RdbQuery;
+import cn.xdf.acdc.devops.repository.RdbDatabaseRepository;
+import cn.xdf.acdc.devops.repository.RdbInstanceRepository;
 import cn.xdf.acdc.devops.repository.RdbRepository;
 import cn.xdf.acdc.devops.service.constant.connector.CommonConstant;
 import cn.xdf.acdc.devops.service.entity.ProjectService;
@@ -34,9 +38,13 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.util.CollectionUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public abstract class AbstractJdbcDatasetProcessService extends AbstractDatasetProcessService {
@@ -47,6 +55,12 @@ public abstract class AbstractJdbcDatasetProcessService extends AbstractDatasetP
     @Autowired
     private RdbRepository rdbRepository;
 
+    @Autowired
+    private RdbDatabaseRepository rdbDatabaseRepository;
+
+    @Autowired
+    private RdbInstanceRepository rdbInstanceRepository;
+
     @Autowired
     private ProjectService projectService;
 
@@ -182,4 +196,109 @@ public abstract class AbstractJdbcDatasetProcessService extends AbstractDatasetP
                 .instanceVIp(rdbInstanceDTO.getVip())
                 .build();
     }
+
+    @Override
+    public Map<Long, Dataset4ConnectionDTO> getSourceDataset4Connections(final List<ConnectionDTO> connectionDTOs) {
+        Map<Long, RdbTableDO> rdbTables = getRdbTableMap(connectionDTOs.stream().map(ConnectionDTO::getSourceDataSetId).collect(Collectors.toSet()));
+        Map<Long, RdbDatabaseDO> rdbDatabases = getRdbDatabaseMap(rdbTables.values());
+        Map<Long, RdbDO> rdbs = getRdbMap(rdbDatabases.values());
+        Map<Long, RdbInstanceDO> dataSourceInstances = rdbInstanceRepository.findByRdbIdInAndRole(rdbs.keySet(), RoleType.DATA_SOURCE).stream()
+                .collect(Collectors.toMap(it -> it.getRdb().getId(), Function.identity(), (first, second) -> first));
+        Map<Long, ProjectDO> projects = getProjectMap(connectionDTOs.stream().map(ConnectionDTO::getSourceProjectId).collect(Collectors.toSet()));
+
+        Map<Long, Dataset4ConnectionDTO> datasets = new HashMap<>();
+        for (ConnectionDTO connectionDTO : connectionDTOs) {
+            RdbTableDO rdbTable = getOrThrow(rdbTables, connectionDTO.getSourceDataSetId(), "rdbTableId");
+            RdbDatabaseDO rdbDatabase = getOrThrow(rdbDatabases, rdbTable.getRdbDatabase().getId(), "rdbDatabaseId");
+            RdbDO rdb = getOrThrow(rdbs, rdbDatabase.getRdb().getId(), "rdbId");
+            // the data source instance is looked up by its rdb
+            RdbInstanceDTO rdbInstanceDTO = new RdbInstanceDTO(getOrThrow(dataSourceInstances, rdb.getId(), "rdbId"));
+            ProjectDO project = getOrThrow(projects, connectionDTO.getSourceProjectId(), "projectId");
+
+            datasets.put(connectionDTO.getId(), Dataset4ConnectionDTO.builder()
+                    .dataSystemType(DataSystemType.nameOf(rdb.getRdbType()))
+
+                    .projectId(project.getId())
+                    .projectName(project.getName())
+
+                    .clusterId(rdb.getId())
+                    .clusterName(rdb.getName())
+
+                    .instanceId(rdbInstanceDTO.getId())
+                    .instancePort(rdbInstanceDTO.getPort())
+                    .instanceHost(rdbInstanceDTO.getHost())
+
+                    .databaseId(rdbDatabase.getId())
+                    .databaseName(rdbDatabase.getName())
+
+                    .dataSetId(rdbTable.getId())
+                    .datasetName(rdbTable.getName())
+
+                    .build());
+        }
+        return datasets;
+    }
+
+    @Override
+    public Map<Long, Dataset4ConnectionDTO> getSinkDataset4Connections(final List<ConnectionDTO> connectionDTOs) {
+        Map<Long, RdbTableDO> rdbTables = getRdbTableMap(connectionDTOs.stream().map(ConnectionDTO::getSinkDataSetId).collect(Collectors.toSet()));
+        Map<Long, RdbDatabaseDO> rdbDatabases = getRdbDatabaseMap(rdbTables.values());
+        Map<Long, RdbDO> rdbs = getRdbMap(rdbDatabases.values());
+        Map<Long, RdbInstanceDO> rdbInstances = getRdbInstances(connectionDTOs.stream().map(ConnectionDTO::getSinkInstanceId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(RdbInstanceDO::getId, Function.identity()));
+        Map<Long, ProjectDO> projects = getProjectMap(connectionDTOs.stream().map(ConnectionDTO::getSinkProjectId).collect(Collectors.toSet()));
+
+        Map<Long, Dataset4ConnectionDTO> datasets = new HashMap<>();
+        for (ConnectionDTO connectionDTO : connectionDTOs) {
+            RdbTableDO rdbTable = getOrThrow(rdbTables, connectionDTO.getSinkDataSetId(), "rdbTableId");
+            RdbDatabaseDO rdbDatabase = getOrThrow(rdbDatabases, rdbTable.getRdbDatabase().getId(), "rdbDatabaseId");
+            RdbDO rdb = getOrThrow(rdbs, rdbDatabase.getRdb().getId(), "rdbId");
+            RdbInstanceDTO rdbInstanceDTO = new RdbInstanceDTO(getOrThrow(rdbInstances, connectionDTO.getSinkInstanceId(), "rdbInstanceId"));
+            ProjectDO project = getOrThrow(projects, connectionDTO.getSinkProjectId(), "projectId");
+
+            datasets.put(connectionDTO.getId(), Dataset4ConnectionDTO.builder()
+                    .dataSystemType(DataSystemType.nameOf(rdb.getRdbType()))
+
+                    .projectId(project.getId())
+                    .projectName(project.getName())
+
+                    .clusterId(rdb.getId())
+                    .clusterName(rdb.getName())
+
+                    .databaseId(rdbDatabase.getId())
+                    .databaseName(rdbDatabase.getName())
+
+                    .dataSetId(rdbTable.getId())
+                    .datasetName(rdbTable.getName())
+
+                    .instanceId(rdbInstanceDTO.getId())
+                    .instanceHost(rdbInstanceDTO.getHost())
+                    .instancePort(rdbInstanceDTO.getPort())
+                    .instanceVIp(rdbInstanceDTO.getVip())
+                    .build());
+        }
+        return datasets;
+    }
+
+    protected Map<Long, RdbTableDO> getRdbTableMap(final Set<Long> ids) {
+        return getRdbTables(ids).stream().collect(Collectors.toMap(RdbTableDO::getId, Function.identity()));
+    }
+
+    protected Map<Long, RdbDatabaseDO> getRdbDatabaseMap(final Collection<RdbTableDO> rdbTables) {
+        Set<Long> ids = rdbTables.stream().map(it -> it.getRdbDatabase().getId()).collect(Collectors.toSet());
+        return rdbDatabaseRepository.findAllById(ids).stream().collect(Collectors.toMap(RdbDatabaseDO::getId, Function.identity()));
+    }
+
+    protected Map<Long, RdbDO> getRdbMap(final Collection<RdbDatabaseDO> rdbDatabases) {
+        Set<Long> ids = rdbDatabases.stream().map(it -> it.getRdb().getId()).collect(Collectors.toSet());
+        return rdbRepository.findAllById(ids).stream().collect(Collectors.toMap(RdbDO::getId, Function.identity()));
+    }
+
+    private static <T> T getOrThrow(final Map<Long, T> entities, final Long id, final String idName) {
+        T entity = entities.get(id);
+        if (entity == null) {
+            throw new NotFoundException(String.format("%s: %s", idName, id));
+        }
+        return entity;
+    }
 }
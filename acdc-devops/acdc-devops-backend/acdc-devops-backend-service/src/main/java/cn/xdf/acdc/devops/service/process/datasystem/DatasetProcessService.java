@@ -9,6 +9,7 @@ import cn.xdf.acdc.devops.core.domain.dto.enumeration.DatasetFrom;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
+import java.util.Map;
 
 public interface DatasetProcessService extends DataSystemTypeService {
 
@@ -46,4 +47,18 @@ public interface DatasetProcessService extends DataSystemTypeService {
      * @return dataset
      */
     Dataset4ConnectionDTO getSinkDataset4Connection(ConnectionDTO connectionDTO);
+
+    /**
+     * Get datasets for source connections in bulk, related entities of each type are fetched in one query.
+     * @param connectionDTOs connectionDTOs
+     * @return connection id, dataset tuple
+     */
+    Map<Long, Dataset4ConnectionDTO> getSourceDataset4Connections(List<ConnectionDTO> connectionDTOs);
+
+    /**
+     * Get datasets for sink connections in bulk, related entities of each type are fetched in one query.
+     * @param connectionDTOs connectionDTOs
+     * @return connection id, dataset tuple
+     */
+    Map<Long, Dataset4ConnectionDTO> getSinkDataset4Connections(List<ConnectionDTO> connectionDTOs);
 }
@@ -6,35 +6,39 @@ import cn.xdf.acdc.devops.core.domain.entity.HiveDO;
 import cn.xdf.acdc.devops.core.domain.entity.HiveDatabaseDO;
 import cn.xdf.acdc.devops.core.domain.entity.HiveTableDO;
 import cn.xdf.acdc.devops.core.domain.query.HiveDatabaseQuery;
-import cn.xdf.acdc.devops.core.domain.query.HiveTableQuery;
 import cn.xdf.acdc.devops.core.domain.query.PagedQuery;
 import cn.xdf.acdc.devops.repository.HiveDatabaseRepository;
 import cn.xdf.acdc.devops.repository.HiveRepository;
 import cn.xdf.acdc.devops.repository.HiveTableRepository;
 import cn.xdf.acdc.devops.service.entity.HiveDatabaseService;
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
 import cn.xdf.acdc.devops.service.process.datasystem.DataSystemMetadataService;
 import cn.xdf.acdc.devops.service.process.datasystem.hive.HiveDatabaseProcessService;
 import cn.xdf.acdc.devops.service.utility.datasystem.helper.HiveHelperService;
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StopWatch;
 
+import javax.persistence.EntityManager;
 import javax.persistence.EntityNotFoundException;
-import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -60,6 +64,15 @@ public class HiveDatabaseProcessServiceImpl implements HiveDatabaseProcessServic
     @Autowired
     private HiveDatabaseRepository hiveDatabaseRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Value("${acdc.hive.metadata.refresh.page-size:1000}")
+    private int refreshPageSize;
+
+    @Value("${acdc.hive.metadata.refresh.batch-size:500}")
+    private int refreshBatchSize;
+
     @Override
     public Page<HiveDatabaseDTO> queryHiveDatabase(final HiveDatabaseDTO hiveDatabaseDTO) {
         HiveDatabaseDO query = HiveDatabaseDO.builder()
@@ -87,247 +100,212 @@ public class HiveDatabaseProcessServiceImpl implements HiveDatabaseProcessServic
 
     @Override
     public void refreshMetadata() {
-        // TODO 是否需要分页diffing,database count: 200+,table count: 1w+
-
         log.info("Prepare sync meta data from hive");
         StopWatch watch = new StopWatch();
         watch.start();
 
-        // 1. 从hive 的mysql 中拉去数据库和数据表的元数据信息
-        Map<String, Set<String>> originMetaHiveTableMap = fetchOriginMetaHiveTable();
+        HiveDO hive = hiveRepository.findById(DEFAULT_HIVE_ID)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("hiveId: %s", DEFAULT_HIVE_ID)));
 
-        // 2. 从 DB中获取所有的 hive 数据库和数据表
-        Map<String, Pair<Long, List<HiveTableDO>>> originDbHiveTableMap = fetchOriginDbHiveTable();
+        // 1. hive 元数据和 DB 中的表都按 (库名, 表名) 排序分页读取, 归并 diff, 内存占用与表的数量无关
+        SortedPageCursor<HiveDbMetaDTO> metaCursor = new SortedPageCursor<>(this::fetchMetaHiveTables, meta -> Pair.of(meta.getDb(), meta.getTable()), refreshPageSize);
+        if (!metaCursor.hasCurrent()) {
+            log.warn("Hive meta data is empty, ignore.");
+            return;
+        }
 
-        // 3. 删除DB中多于hive元数据中的库和表
-        diffingDataToDeleteIfNeeded(originMetaHiveTableMap, originDbHiveTableMap);
+        HiveMetadataDiffing diffing = new HiveMetadataDiffing(hive.getId());
+        SortedPageCursor<HiveTableDO> dbCursor = new SortedPageCursor<>(diffing::fetchDbHiveTables, table -> Pair.of(table.getHiveDatabase().getName(), table.getName()), refreshPageSize);
+
+        // 2. 归并: hive 元数据中多出的表新增, DB 中多出的表删除
+        while (metaCursor.hasCurrent() || dbCursor.hasCurrent()) {
+            int compared;
+            if (!dbCursor.hasCurrent()) {
+                compared = -1;
+            } else if (!metaCursor.hasCurrent()) {
+                compared = 1;
+            } else {
+                compared = metaCursor.currentKey().compareTo(dbCursor.currentKey());
+            }
 
-        // 4. 增加hive元数据多于DB中的库和表到DB中
-        diffingDataToAddIfNeeded(originMetaHiveTableMap, originDbHiveTableMap);
+            if (compared < 0) {
+                diffing.add(metaCursor.current());
+                metaCursor.next();
+            } else if (compared > 0) {
+                diffing.delete(dbCursor.current());
+                dbCursor.next();
+            } else {
+                diffing.keep(metaCursor.current(), dbCursor.current());
+                metaCursor.next();
+                dbCursor.next();
+            }
+        }
 
-        originDbHiveTableMap.clear();
-        originMetaHiveTableMap.clear();
+        // 3. 删除 hive 元数据中已经不存在的库
+        diffing.flush();
+        diffing.deleteAbsentDatabases();
 
         watch.stop();
 
-        log.info("Sync meta data from hive end cost: {} ms", watch.getTotalTimeMillis());
+        log.info("Sync meta data from hive end, added tables: {}, deleted tables: {}, cost: {} ms",
+                diffing.addedTableCount, diffing.deletedTableCount, watch.getTotalTimeMillis());
     }
 
-    private void diffingDataToDeleteIfNeeded(
-            final Map<String, Set<String>> originMetaHiveTableMap,
-            final Map<String, Pair<Long, List<HiveTableDO>>> originDbHiveTableMap) {
+    private List<HiveDbMetaDTO> fetchMetaHiveTables(final String afterDatabase, final String afterTable) {
+        return hiveHelperService.fetchHiveDbMeta(afterDatabase, afterTable, refreshPageSize);
+    }
 
-        HiveDO hive = hiveRepository.findById(DEFAULT_HIVE_ID)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("hiveId: %s", DEFAULT_HIVE_ID)));
+    /**
+     * Diffing of hive databases and tables, changed tables are saved in batches.
+     */
+    private class HiveMetadataDiffing {
 
-        // 需要这整库删除的表
-        Map<String, Pair<Long, List<HiveTableDO>>> wholeDatabaseToDeleteHiveTableMap = Maps.newHashMap();
+        private final Long hiveId;
 
-        // 需要删除的表
-        List<Pair<Long, HiveTableDO>> commonToDeleteHiveTableList = Lists.newArrayList();
+        // database name, id tuple of not deleted databases in DB
+        private final Map<String, Long> dbDatabaseIds;
 
-        for (Entry<String, Pair<Long, List<HiveTableDO>>> entry : originDbHiveTableMap.entrySet()) {
-            String dbHiveDatabaseName = entry.getKey();
-            Long dbHiveDatabaseId = entry.getValue().getKey();
-            List<HiveTableDO> dbHiveTables = entry.getValue().getValue();
-            Set<String> metaHiveTables = originMetaHiveTableMap.get(dbHiveDatabaseName);
+        // database name, id tuple of databases which have tables in DB
+        private final Map<String, Long> dbDatabaseIdsHavingTables = new HashMap<>();
 
-            // hive 元数据中没有对应的库,需要删除此库和此库对应的表
-            if (Objects.isNull(metaHiveTables)) {
-                wholeDatabaseToDeleteHiveTableMap.put(dbHiveDatabaseName, entry.getValue());
-                continue;
-            }
+        private final Set<String> metaDatabases = new HashSet<>();
 
-            // hive 元数据中存在对应的库,但是没有对应的表,需要删除对应库下对应的表
-            for (HiveTableDO dbHiveTable : dbHiveTables) {
-                if (!metaHiveTables.contains(dbHiveTable.getName())) {
-                    commonToDeleteHiveTableList.add(Pair.of(dbHiveDatabaseId, dbHiveTable));
-                }
-            }
-        }
+        private final List<HiveTableDO> toSaveHiveTables = new ArrayList<>();
 
-        List<HiveDatabaseDO> toSaveHiveDatabaseList = Lists.newArrayList();
-        List<HiveTableDO> toSaveHiveTableList = Lists.newArrayList();
+        private int addedTableCount;
 
-        // 1. 处理需要删除的数据库
-        for (Entry<String, Pair<Long, List<HiveTableDO>>> entry : wholeDatabaseToDeleteHiveTableMap.entrySet()) {
-            String hiveDatabaseName = entry.getKey();
-            Long hiveDatabaseId = entry.getValue().getKey();
-            HiveDatabaseDO newHiveDatabase = HiveDatabaseDO.builder()
-                    .id(hiveDatabaseId)
-                    .hive(HiveDO.builder()
-                            .id(hive.getId())
-                            .build())
-                    .name(hiveDatabaseName)
-                    .build();
-            toSaveHiveDatabaseList.add(newHiveDatabase);
-        }
+        private int deletedTableCount;
 
-        // 2. 处理需要整库删除的表
-        for (Entry<String, Pair<Long, List<HiveTableDO>>> entry : wholeDatabaseToDeleteHiveTableMap.entrySet()) {
-            Long hiveDatabaseId = entry.getValue().getKey();
-            List<HiveTableDO> toDelHiveTables = entry.getValue().getValue();
-            for (HiveTableDO toDelHiveTable : toDelHiveTables) {
-                HiveTableDO newHiveTable = cloneHiveTableDOAndMarkToDeleted(toDelHiveTable, hiveDatabaseId);
-                toSaveHiveTableList.add(newHiveTable);
-            }
+        HiveMetadataDiffing(final Long hiveId) {
+            this.hiveId = hiveId;
+            this.dbDatabaseIds = hiveDatabaseRepository.query(HiveDatabaseQuery.builder().deleted(false).build()).stream()
+                    .collect(Collectors.toMap(HiveDatabaseDO::getName, HiveDatabaseDO::getId, (first, second) -> first));
         }
 
-        // 3. 处理需要删除的表
-        for (Pair<Long, HiveTableDO> entry : commonToDeleteHiveTableList) {
-            Long databaseId = entry.getKey();
-            HiveTableDO toDelHiveTable = entry.getValue();
-            HiveTableDO newHiveTable = cloneHiveTableDOAndMarkToDeleted(toDelHiveTable, databaseId);
-            toSaveHiveTableList.add(newHiveTable);
+        void add(final HiveDbMetaDTO meta) {
+            metaDatabases.add(meta.getDb());
+            Long databaseId = dbDatabaseIds.computeIfAbsent(meta.getDb(), this::saveDatabase);
+            toSaveHiveTables.add(HiveTableDO.builder()
+                    .name(meta.getTable())
+                    .hiveDatabase(HiveDatabaseDO.builder()
+                            .id(databaseId)
+                            .build())
+                    .build());
+            addedTableCount++;
+            flushIfNeeded();
         }
 
-        // 4. 批量更新
-        hiveDatabaseRepository.saveAll(toSaveHiveDatabaseList);
-        hiveTableRepository.saveAll(toSaveHiveTableList);
-
-        // help GC
-        toSaveHiveDatabaseList.clear();
-        toSaveHiveTableList.clear();
-        wholeDatabaseToDeleteHiveTableMap.clear();
-        commonToDeleteHiveTableList.clear();
-    }
-
-    private HiveTableDO cloneHiveTableDOAndMarkToDeleted(final HiveTableDO hiveTableDO, final Long hiveDatabaseId) {
-        return HiveTableDO.builder()
-                .id(hiveTableDO.getId())
-                .hiveDatabase(HiveDatabaseDO.builder()
-                        .id(hiveDatabaseId)
-                        .build())
-                .name(hiveTableDO.getName())
-                .deleted(Boolean.TRUE)
-                .build();
-    }
-
-    private void diffingDataToAddIfNeeded(
-            final Map<String, Set<String>> originHiveTableMetaMap,
-            final Map<String, Pair<Long, List<HiveTableDO>>> originDbHiveTableMap) {
-        HiveDO hive = hiveRepository.findById(DEFAULT_HIVE_ID)
-                .orElseThrow(() -> new EntityNotFoundException(String.format("hiveId: %s", DEFAULT_HIVE_ID)));
-
-        // 需要整库添加的表
-        Map<String, Set<String>> wholeDatabaseToAddHiveTableMap = Maps.newHashMap();
-
-        // 需要添加的表
-        List<Entry<Long, String>> commonToAddHiveTableList = Lists.newArrayList();
+        void delete(final HiveTableDO table) {
+            dbDatabaseIdsHavingTables.put(table.getHiveDatabase().getName(), table.getHiveDatabase().getId());
+            table.setDeleted(Boolean.TRUE);
+            toSaveHiveTables.add(table);
+            deletedTableCount++;
+            flushIfNeeded();
+        }
 
-        // 1. 遍历每个库,找出需要新增的表,和需要整库添加的表
-        for (Entry<String, Set<String>> entry : originHiveTableMetaMap.entrySet()) {
-            String metaHiveDatabaseName = entry.getKey();
-            Set<String> metaHiveTables = entry.getValue();
+        void keep(final HiveDbMetaDTO meta, final HiveTableDO table) {
+            metaDatabases.add(meta.getDb());
+            dbDatabaseIdsHavingTables.put(table.getHiveDatabase().getName(), table.getHiveDatabase().getId());
+        }
 
-            Pair<Long, List<HiveTableDO>> dbHiveTableEntry = originDbHiveTableMap.get(metaHiveDatabaseName);
+        void deleteAbsentDatabases() {
+            List<Long> toDeleteDatabaseIds = dbDatabaseIdsHavingTables.entrySet().stream()
+                    .filter(entry -> !metaDatabases.contains(entry.getKey()))
+                    .map(Entry::getValue)
+                    .collect(Collectors.toList());
+            List<HiveDatabaseDO> toDeleteDatabases = hiveDatabaseRepository.findAllById(toDeleteDatabaseIds);
+            toDeleteDatabases.forEach(database -> database.setDeleted(Boolean.TRUE));
+            hiveDatabaseRepository.saveAll(toDeleteDatabases);
+        }
 
-            // Db 中没有对应的数据库,需要整库添加表
-            if (Objects.isNull(dbHiveTableEntry)) {
-                wholeDatabaseToAddHiveTableMap.put(metaHiveDatabaseName, entry.getValue());
-                continue;
-            }
+        List<HiveTableDO> fetchDbHiveTables(final String afterDatabase, final String afterTable) {
+            // 读取下一页之前保存已有的变更并清理持久化上下文, 避免托管的实体随表的数量增长
+            flush();
+            return hiveTableRepository.findNotDeletedAfterOrderByDatabaseNameAndName(afterDatabase, afterTable, PageRequest.of(0, refreshPageSize));
+        }
 
-            // Db 中存在对应的库,但是不存在库下对应的表,则新增表
-            Set<String> dbHiveTables = dbHiveTableEntry.getValue().stream()
-                    .map(HiveTableDO::getName)
-                    .collect(Collectors.toSet());
+        void flush() {
+            hiveTableRepository.saveAll(toSaveHiveTables);
+            toSaveHiveTables.clear();
+            entityManager.flush();
+            entityManager.clear();
+        }
 
-            Long dbHiveDatabaseId = dbHiveTableEntry.getKey();
-            for (String metaHiveTable : metaHiveTables) {
-                if (!dbHiveTables.contains(metaHiveTable)) {
-                    commonToAddHiveTableList.add(new SimpleEntry(dbHiveDatabaseId, metaHiveTable));
-                }
+        private void flushIfNeeded() {
+            if (toSaveHiveTables.size() >= refreshBatchSize) {
+                flush();
             }
         }
 
-        List<HiveDatabaseDO> toSaveHiveDatabaseList = Lists.newArrayList();
-        List<HiveTableDO> toSaveHiveTableList = Lists.newArrayList();
-
-        // 2. 增加数据库
-        for (Entry<String, Set<String>> entry : wholeDatabaseToAddHiveTableMap.entrySet()) {
-            String hiveDatabaseName = entry.getKey();
+        private Long saveDatabase(final String name) {
             HiveDatabaseDO newHiveDatabase = HiveDatabaseDO.builder()
                     .hive(HiveDO.builder()
-                            .id(hive.getId())
+                            .id(hiveId)
                             .build())
-                    .name(hiveDatabaseName)
+                    .name(name)
                     .build();
-            toSaveHiveDatabaseList.add(newHiveDatabase);
+            return hiveDatabaseRepository.save(newHiveDatabase).getId();
         }
-        List<HiveDatabaseDO> savedHiveDatabaseList = hiveDatabaseRepository.saveAll(toSaveHiveDatabaseList);
-
-        //3. 增加需要整库同步的表
-        for (HiveDatabaseDO savedHiveDatabase : savedHiveDatabaseList) {
-            Set<String> toAddHiveTables = wholeDatabaseToAddHiveTableMap.get(savedHiveDatabase.getName());
-            Long savedHiveDatabaseId = savedHiveDatabase.getId();
-            for (String toAddHiveTable : toAddHiveTables) {
-                HiveTableDO newHiveTable = HiveTableDO.builder()
-                        .name(toAddHiveTable)
-                        .hiveDatabase(HiveDatabaseDO.builder()
-                                .id(savedHiveDatabaseId)
-                                .build())
-                        .build();
-                toSaveHiveTableList.add(newHiveTable);
-            }
-        }
-
-        // 4.处理需要增加的表
-        for (Entry<Long, String> entry : commonToAddHiveTableList) {
-            Long hiveDatabaseId = entry.getKey();
-            String hiveTable = entry.getValue();
-            HiveTableDO newHiveTable = HiveTableDO.builder()
-                    .name(hiveTable)
-                    .hiveDatabase(HiveDatabaseDO.builder()
-                            .id(hiveDatabaseId)
-                            .build())
-                    .build();
-            toSaveHiveTableList.add(newHiveTable);
-        }
-
-        // 5. 保存需要增加的 hive 表
-        hiveTableRepository.saveAll(toSaveHiveTableList);
-
-        toSaveHiveDatabaseList.clear();
-        toSaveHiveTableList.clear();
-        wholeDatabaseToAddHiveTableMap.clear();
-        commonToAddHiveTableList.clear();
     }
 
     /**
-     * 查询数据库中所有的 hive 表.
+     * Cursor of elements which are read page by page in ascending order of their (database, table) key.
+     *
+     * @param <T> element type
      */
-    private Map<String, Pair<Long, List<HiveTableDO>>> fetchOriginDbHiveTable() {
+    private static class SortedPageCursor<T> {
 
-        Map<String, Pair<Long, List<HiveTableDO>>> hiveTableMap = new HashMap<>();
+        private final BiFunction<String, String, List<T>> pageFetcher;
 
-        Map<Long, String> databaseMap = hiveDatabaseRepository
-                .query(HiveDatabaseQuery.builder()
-                        .deleted(false)
-                        .build())
-                .stream()
-                .collect(Collectors.toMap(HiveDatabaseDO::getId, HiveDatabaseDO::getName));
+        private final Function<T, Pair<String, String>> keyFunction;
 
-        hiveTableRepository
-                .queryAll(HiveTableQuery.builder()
-                        .deleted(false)
-                        .build())
-                .forEach(it -> {
-                    String databaseName = databaseMap.get(it.getHiveDatabase().getId());
-                    Long databaseId = it.getHiveDatabase().getId();
+        private final int pageSize;
 
-                    Pair<Long, List<HiveTableDO>> entry = hiveTableMap.computeIfAbsent(databaseName, key -> Pair.of(databaseId, Lists.newArrayList()));
-                    entry.getValue().add(it);
-                });
+        private Iterator<T> page;
 
-        return hiveTableMap;
-    }
+        private boolean isLastPage;
+
+        private T current;
+
+        private Pair<String, String> currentKey = Pair.of("", "");
+
+        SortedPageCursor(final BiFunction<String, String, List<T>> pageFetcher, final Function<T, Pair<String, String>> keyFunction, final int pageSize) {
+            this.pageFetcher = pageFetcher;
+            this.keyFunction = keyFunction;
+            this.pageSize = pageSize;
+            next();
+        }
+
+        boolean hasCurrent() {
+            return current != null;
+        }
 
-    private Map<String, Set<String>> fetchOriginMetaHiveTable() {
-        List<HiveDbMetaDTO> metas = hiveHelperService.fetchHiveDbMeta();
-        return metas.stream().collect(
-                Collectors.groupingBy(HiveDbMetaDTO::getDb,
-                        Collectors.mapping(HiveDbMetaDTO::getTable, Collectors.toSet()))
-        );
+        T current() {
+            return current;
+        }
+
+        Pair<String, String> currentKey() {
+            return currentKey;
+        }
+
+        void next() {
+            if ((page == null || !page.hasNext()) && !isLastPage) {
+                List<T> elements = pageFetcher.apply(currentKey.getLeft(), currentKey.getRight());
+                isLastPage = elements.size() < pageSize;
+                page = elements.iterator();
+            }
+            if (!page.hasNext()) {
+                current = null;
+                return;
+            }
+            T next = page.next();
+            Pair<String, String> nextKey = keyFunction.apply(next);
+            // the merge relies on the order, a different collation of the storage must not lead to wrong diffing
+            if (nextKey.compareTo(currentKey) <= 0) {
+                throw new ServerErrorException(String.format("Elements are not in ascending order, previous: %s, next: %s", currentKey, nextKey));
+            }
+            current = next;
+            currentKey = nextKey;
+        }
     }
 }
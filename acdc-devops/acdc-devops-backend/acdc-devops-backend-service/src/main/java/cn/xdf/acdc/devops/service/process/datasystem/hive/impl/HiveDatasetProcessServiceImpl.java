@@ -13,10 +13,13 @@ import cn.xdf.acdc.devops.core.domain.dto.ProjectDTO;
 import cn.xdf.acdc.devops.core.domain.dto.enumeration.DatasetFrom;
 import cn.xdf.acdc.devops.core.domain.entity.HdfsDO;
 import cn.xdf.acdc.devops.core.domain.entity.HiveDO;
+import cn.xdf.acdc.devops.core.domain.entity.HiveDatabaseDO;
+import cn.xdf.acdc.devops.core.domain.entity.HiveTableDO;
 import cn.xdf.acdc.devops.core.domain.entity.ProjectDO;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
 import cn.xdf.acdc.devops.core.domain.query.HiveQuery;
 import cn.xdf.acdc.devops.core.domain.query.PagedQuery;
+import cn.xdf.acdc.devops.repository.HiveDatabaseRepository;
 import cn.xdf.acdc.devops.repository.HiveRepository;
 import cn.xdf.acdc.devops.repository.HiveTableRepository;
 import cn.xdf.acdc.devops.repository.ProjectRepository;
@@ -38,8 +41,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -72,6 +78,9 @@ public class HiveDatasetProcessServiceImpl extends AbstractDatasetProcessService
     @Autowired
     private HiveRepository hiveRepository;
 
+    @Autowired
+    private HiveDatabaseRepository hiveDatabaseRepository;
+
     @Override
     public DataSystemType dataSystemType() {
         return DataSystemType.HIVE;
@@ -135,6 +144,50 @@ public class HiveDatasetProcessServiceImpl extends AbstractDatasetProcessService
                 .build();
     }
 
+    @Override
+    public Map<Long, Dataset4ConnectionDTO> getSourceDataset4Connections(final List<ConnectionDTO> connectionDTOs) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<Long, Dataset4ConnectionDTO> getSinkDataset4Connections(final List<ConnectionDTO> connectionDTOs) {
+        Map<Long, HiveTableDO> hiveTables = getHiveTables(connectionDTOs.stream().map(ConnectionDTO::getSinkDataSetId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(HiveTableDO::getId, Function.identity()));
+        Set<Long> hiveDatabaseIds = hiveTables.values().stream().map(it -> it.getHiveDatabase().getId()).collect(Collectors.toSet());
+        Map<Long, HiveDatabaseDO> hiveDatabases = hiveDatabaseRepository.findAllById(hiveDatabaseIds).stream()
+                .collect(Collectors.toMap(HiveDatabaseDO::getId, Function.identity()));
+        Set<Long> hiveIds = hiveDatabases.values().stream().map(it -> it.getHive().getId()).collect(Collectors.toSet());
+        Map<Long, HiveDO> hives = hiveRepository.findAllById(hiveIds).stream().collect(Collectors.toMap(HiveDO::getId, Function.identity()));
+        Map<Long, ProjectDO> projects = getProjectMap(connectionDTOs.stream().map(ConnectionDTO::getSinkProjectId).collect(Collectors.toSet()));
+
+        Map<Long, Dataset4ConnectionDTO> datasets = new HashMap<>();
+        for (ConnectionDTO connectionDTO : connectionDTOs) {
+            HiveTableDO hiveTable = hiveTables.get(connectionDTO.getSinkDataSetId());
+            HiveDatabaseDO hiveDatabase = hiveDatabases.get(hiveTable.getHiveDatabase().getId());
+            HiveDO hive = hives.get(hiveDatabase.getHive().getId());
+            ProjectDO project = projects.get(connectionDTO.getSinkProjectId());
+
+            datasets.put(connectionDTO.getId(), Dataset4ConnectionDTO.builder()
+                    .dataSystemType(DataSystemType.HIVE)
+
+                    .projectId(project.getId())
+                    .projectName(project.getName())
+
+                    .clusterId(hive.getId())
+                    .clusterName(hive.getName())
+
+                    .databaseId(hiveDatabase.getId())
+                    .databaseName(hiveDatabase.getName())
+
+                    .dataSetId(hiveTable.getId())
+                    .datasetName(hiveTable.getName())
+
+                    .instanceId(hive.getHdfs().getId())
+                    .build());
+        }
+        return datasets;
+    }
+
     @Override
     public Page<DatasetInstanceDTO> queryDatasetInstance(final DatasetInstanceDTO instance) {
         Pageable pageable = PagedQuery.ofPage(instance.getCurrent(), instance.getPageSize());
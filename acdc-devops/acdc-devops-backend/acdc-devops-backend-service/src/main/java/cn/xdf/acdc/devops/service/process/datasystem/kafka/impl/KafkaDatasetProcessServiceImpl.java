@@ -10,6 +10,7 @@ import cn.xdf.acdc.devops.core.domain.dto.KafkaTopicDTO;
 import cn.xdf.acdc.devops.core.domain.dto.ProjectDTO;
 import cn.xdf.acdc.devops.core.domain.dto.enumeration.DatasetFrom;
 import cn.xdf.acdc.devops.core.domain.entity.KafkaClusterDO;
+import cn.xdf.acdc.devops.core.domain.entity.KafkaTopicDO;
 import cn.xdf.acdc.devops.core.domain.entity.ProjectDO;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.KafkaClusterType;
@@ -32,8 +33,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.CollectionUtils;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -120,6 +124,44 @@ public class KafkaDatasetProcessServiceImpl extends AbstractDatasetProcessServic
                 .build();
     }
 
+    @Override
+    public Map<Long, Dataset4ConnectionDTO> getSourceDataset4Connections(final List<ConnectionDTO> connectionDTOs) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Map<Long, Dataset4ConnectionDTO> getSinkDataset4Connections(final List<ConnectionDTO> connectionDTOs) {
+        Map<Long, KafkaTopicDO> kafkaTopics = getKafkaTopics(connectionDTOs.stream().map(ConnectionDTO::getSinkDataSetId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(KafkaTopicDO::getId, Function.identity()));
+        Set<Long> kafkaClusterIds = kafkaTopics.values().stream().map(it -> it.getKafkaCluster().getId()).collect(Collectors.toSet());
+        Map<Long, KafkaClusterDO> kafkaClusters = kafkaClusterRepository.findAllById(kafkaClusterIds).stream()
+                .collect(Collectors.toMap(KafkaClusterDO::getId, Function.identity()));
+        Map<Long, ProjectDO> projects = getProjectMap(connectionDTOs.stream().map(ConnectionDTO::getSinkProjectId).collect(Collectors.toSet()));
+
+        Map<Long, Dataset4ConnectionDTO> datasets = new HashMap<>();
+        for (ConnectionDTO connectionDTO : connectionDTOs) {
+            KafkaTopicDO kafkaTopic = kafkaTopics.get(connectionDTO.getSinkDataSetId());
+            KafkaClusterDO kafkaCluster = kafkaClusters.get(kafkaTopic.getKafkaCluster().getId());
+            ProjectDO project = projects.get(connectionDTO.getSinkProjectId());
+
+            datasets.put(connectionDTO.getId(), Dataset4ConnectionDTO.builder()
+                    .dataSystemType(DataSystemType.KAFKA)
+
+                    .projectId(project.getId())
+                    .projectName(project.getName())
+
+                    .clusterId(kafkaCluster.getId())
+                    .clusterName(kafkaCluster.getName())
+
+                    .dataSetId(kafkaTopic.getId())
+                    .datasetName(kafkaTopic.getName())
+
+                    .instanceId(kafkaCluster.getId())
+                    .build());
+        }
+        return datasets;
+    }
+
     @Override
     public Page<DatasetInstanceDTO> queryDatasetInstance(final DatasetInstanceDTO instance) {
         Pageable pageable = PagedQuery.ofPage(instance.getCurrent(), instance.getPageSize());
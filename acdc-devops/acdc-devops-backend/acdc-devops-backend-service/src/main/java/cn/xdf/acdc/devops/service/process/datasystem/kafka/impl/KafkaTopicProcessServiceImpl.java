@@ -11,31 +11,54 @@ import cn.xdf.acdc.devops.repository.KafkaTopicRepository;
 import cn.xdf.acdc.devops.service.entity.KafkaTopicService;
 import cn.xdf.acdc.devops.service.error.ErrorMsg;
 import cn.xdf.acdc.devops.service.error.NotFoundException;
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
 import cn.xdf.acdc.devops.service.process.datasystem.DataSystemMetadataService;
 import cn.xdf.acdc.devops.service.process.datasystem.kafka.KafkaClusterProcessService;
 import cn.xdf.acdc.devops.service.process.datasystem.kafka.KafkaTopicProcessService;
 import cn.xdf.acdc.devops.service.utility.datasystem.helper.KafkaHelperService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.Lists;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.CollectionUtils;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityNotFoundException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.function.Function;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Slf4j
 public class KafkaTopicProcessServiceImpl implements KafkaTopicProcessService, DataSystemMetadataService<KafkaClusterDO> {
 
+    private static final int QUERY_BATCH_SIZE = 1000;
+
+    private static final char TOPIC_SEPARATOR = '\n';
+
     @Autowired
     private KafkaTopicService kafkaTopicService;
 
@@ -54,6 +77,40 @@ public class KafkaTopicProcessServiceImpl implements KafkaTopicProcessService, D
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Value("${acdc.kafka.topic.refresh.parallelism:8}")
+    private int refreshMetadataParallelism;
+
+    @Value("${acdc.kafka.topic.refresh.timeout.ms:600000}")
+    private long refreshMetadataTimeoutInMs;
+
+    // kafka cluster id, hash of topic names tuple, expired snapshots make the clusters be diffed again
+    private final Cache<Long, String> topicSnapshots;
+
+    private ExecutorService refreshMetadataExecutor;
+
+    public KafkaTopicProcessServiceImpl(@Value("${acdc.kafka.topic.snapshot.ttl.ms:86400000}") final long topicSnapshotTtlInMs) {
+        this.topicSnapshots = Caffeine.newBuilder().expireAfterWrite(topicSnapshotTtlInMs, TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Start the executor listing topics of kafka clusters.
+     */
+    @PostConstruct
+    public void start() {
+        refreshMetadataExecutor = Executors.newFixedThreadPool(refreshMetadataParallelism,
+                new ThreadFactoryBuilder().setNameFormat("kafka-topic-refresher-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Stop the executor listing topics of kafka clusters.
+     */
+    @PreDestroy
+    public void stop() {
+        if (refreshMetadataExecutor != null) {
+            refreshMetadataExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public Page<KafkaTopicDTO> queryKafkaTopic(final KafkaTopicDTO kafkaTopic) {
 
@@ -93,34 +150,91 @@ public class KafkaTopicProcessServiceImpl implements KafkaTopicProcessService, D
         if (CollectionUtils.isEmpty(kafkaClusters)) {
             return;
         }
-        kafkaClusters.forEach(kafkaCluster -> {
-            Map<String, Object> adminConfig = kafkaClusterProcessService.getAdminConfig(kafkaCluster.getId());
-            Set<String> topics = kafkaHelperService.listTopics(adminConfig);
-            if (!CollectionUtils.isEmpty(topics)) {
-                diffKafkaTopic(topics, kafkaCluster);
+
+        long start = System.currentTimeMillis();
+        // 并发拉取各集群的 topic, 一个慢集群不影响其他集群
+        List<CompletableFuture<Set<String>>> listTopicsFutures = kafkaClusters.stream()
+                .map(kafkaCluster -> kafkaClusterProcessService.getAdminConfig(kafkaCluster.getId()))
+                .map(adminConfig -> CompletableFuture.supplyAsync(() -> kafkaHelperService.listTopics(adminConfig), refreshMetadataExecutor))
+                .collect(Collectors.toList());
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(refreshMetadataTimeoutInMs);
+        int failedCount = 0;
+        int skippedCount = 0;
+        for (int i = 0; i < kafkaClusters.size(); i++) {
+            KafkaClusterDO kafkaCluster = kafkaClusters.get(i);
+            Set<String> topics = waitTopics(kafkaCluster, listTopicsFutures.get(i), deadline);
+            if (Objects.isNull(topics)) {
+                failedCount++;
+                continue;
+            }
+            if (CollectionUtils.isEmpty(topics)) {
+                continue;
+            }
+
+            // topic 没有变化的集群不需要和 DB diff
+            String snapshot = snapshotOf(topics);
+            if (Objects.equals(topicSnapshots.getIfPresent(kafkaCluster.getId()), snapshot)) {
+                skippedCount++;
+                continue;
+            }
+            diffKafkaTopic(topics, kafkaCluster);
+            afterCommit(() -> topicSnapshots.put(kafkaCluster.getId(), snapshot));
+        }
+        log.info("Refresh kafka topics finished, clusters: {}, unchanged: {}, failed: {}, duration: {} ms",
+                kafkaClusters.size(), skippedCount, failedCount, System.currentTimeMillis() - start);
+    }
+
+    private Set<String> waitTopics(final KafkaClusterDO kafkaCluster, final CompletableFuture<Set<String>> future, final long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            log.error("List topics error, kafkaClusterId: {}, message: {}", kafkaCluster.getId(), e.getCause().getMessage());
+            return null;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.error("List topics timeout, kafkaClusterId: {}", kafkaCluster.getId());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerErrorException(e);
+        }
+    }
+
+    private String snapshotOf(final Set<String> topics) {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        topics.stream().sorted().forEach(topic -> hasher.putString(topic, StandardCharsets.UTF_8).putChar(TOPIC_SEPARATOR));
+        return hasher.hash().toString();
+    }
+
+    private void afterCommit(final Runnable action) {
+        // a snapshot must not be kept if the diffing is rolled back
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
             }
         });
     }
 
     protected void diffKafkaTopic(final Set<String> topics, final KafkaClusterDO kafkaCluster) {
-        KafkaTopicDO query = KafkaTopicDO.builder().deleted(false).kafkaCluster(kafkaCluster).build();
-        List<KafkaTopicDO> topicDOList = kafkaTopicService.queryAll(query);
-        List<KafkaTopicDO> toDeleteTopics = Lists.newArrayList();
-        List<KafkaTopicDO> toInsertTopics = Lists.newArrayList();
-        if (!CollectionUtils.isEmpty(topicDOList)) {
-            // 过滤在数据库中有，从kafka没查询到的（需要从数据库删除）
-            Map<String, KafkaTopicDO> topicMap = topicDOList.stream().collect(Collectors.toMap(KafkaTopicDO::getName, Function.identity()));
-            toDeleteTopics = topicDOList.stream().filter(topic -> !topics.contains(topic.getName()))
-                    .peek(topic -> topic.setDeleted(true)).collect(Collectors.toList());
-
-            // 过滤在kafka中有，数据库中没有的（需要添加到数据库）
-            toInsertTopics = topics.stream().filter(topic -> !topicMap.containsKey(topic))
-                    .map(topic -> buildKafkaTopicDO(kafkaCluster, topic)).collect(Collectors.toList());
-        } else {
-            for (String topic : topics) {
-                toInsertTopics.add(buildKafkaTopicDO(kafkaCluster, topic));
-            }
-        }
+        // 只查询 topic 名称做 diff, 需要删除的 topic 再按名称查询
+        Set<String> dbTopics = kafkaTopicRepository.findNotDeletedNamesByKafkaClusterId(kafkaCluster.getId());
+
+        // 过滤在数据库中有，从kafka没查询到的（需要从数据库删除）
+        List<String> toDeleteTopicNames = dbTopics.stream().filter(topic -> !topics.contains(topic)).collect(Collectors.toList());
+        List<KafkaTopicDO> toDeleteTopics = Lists.partition(toDeleteTopicNames, QUERY_BATCH_SIZE).stream()
+                .flatMap(names -> kafkaTopicRepository.findByKafkaClusterIdAndNameInAndDeletedFalse(kafkaCluster.getId(), names).stream())
+                .peek(topic -> topic.setDeleted(true))
+                .collect(Collectors.toList());
+
+        // 过滤在kafka中有，数据库中没有的（需要添加到数据库）
+        List<KafkaTopicDO> toInsertTopics = topics.stream().filter(topic -> !dbTopics.contains(topic))
+                .map(topic -> buildKafkaTopicDO(kafkaCluster, topic)).collect(Collectors.toList());
 
         // Merge
         List<KafkaTopicDO> toMergeTopics = Lists.newArrayListWithCapacity(toDeleteTopics.size() + toInsertTopics.size());
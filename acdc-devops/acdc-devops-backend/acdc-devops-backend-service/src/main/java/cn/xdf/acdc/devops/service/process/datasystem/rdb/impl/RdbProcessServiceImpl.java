@@ -30,15 +30,19 @@ import cn.xdf.acdc.devops.service.util.UserUtil;
 import cn.xdf.acdc.devops.service.utility.datasystem.helper.MysqlHelperService;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.jsonwebtoken.lang.Collections;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityNotFoundException;
 import java.util.ArrayList;
 import java.util.Date;
@@ -48,6 +52,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -92,6 +104,36 @@ public class RdbProcessServiceImpl implements RdbProcessService, DataSystemMetad
     @Autowired
     private RdbDatabaseService rdbDatabaseService;
 
+    @Value("${acdc.rdb.metadata.refresh.parallelism:16}")
+    private int refreshMetadataParallelism;
+
+    @Value("${acdc.rdb.metadata.refresh.timeout.ms:600000}")
+    private long refreshMetadataTimeoutInMs;
+
+    private ExecutorService refreshMetadataExecutor;
+
+    // rdb type, count of rdbs failed to read metadata tuple
+    private final Map<String, LongAdder> refreshMetadataFailedCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Start the executor reading metadata of rdbs.
+     */
+    @PostConstruct
+    public void start() {
+        refreshMetadataExecutor = Executors.newFixedThreadPool(refreshMetadataParallelism,
+                new ThreadFactoryBuilder().setNameFormat("rdb-metadata-refresher-%d").setDaemon(true).build());
+    }
+
+    /**
+     * Stop the executor reading metadata of rdbs.
+     */
+    @PreDestroy
+    public void stop() {
+        if (refreshMetadataExecutor != null) {
+            refreshMetadataExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public void saveMysqlInstance(final MysqlDataSourceDTO mysqlDataSourceDTO) {
         Long rdbId = mysqlDataSourceDTO.getRdbId();
@@ -442,44 +484,92 @@ public class RdbProcessServiceImpl implements RdbProcessService, DataSystemMetad
             return;
         }
 
-        rdbs.forEach(rdb -> {
-            List<String> dataBaseNames = showDataBases(rdb);
-            if (!CollectionUtils.isEmpty(dataBaseNames)) {
-                diffingDataBase(dataBaseNames, rdb.getId());
+        long start = System.currentTimeMillis();
+        // 并发读取各集群的库, 不可达的集群受连接池的连接超时限制
+        List<CompletableFuture<List<String>>> showDatabaseFutures = rdbs.stream()
+                .map(rdb -> CompletableFuture.supplyAsync(() -> mysqlHelperService.showDataBases(rdb, this::filterDataBase), refreshMetadataExecutor))
+                .collect(Collectors.toList());
+
+        // rdb id, database names tuple
+        Map<Long, List<String>> rdbDatabaseNames = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(refreshMetadataTimeoutInMs);
+        int failedCount = 0;
+        for (int i = 0; i < rdbs.size(); i++) {
+            List<String> databaseNames = waitDatabaseNames(rdbs.get(i), showDatabaseFutures.get(i), deadline);
+            if (Objects.isNull(databaseNames)) {
+                failedCount++;
+            } else if (!CollectionUtils.isEmpty(databaseNames)) {
+                rdbDatabaseNames.put(rdbs.get(i).getId(), databaseNames);
             }
-        });
-    }
+        }
 
-    private void diffingDataBase(final List<String> databaseList, final Long rdbId) {
-        // 1. 数据库的更改，修改库名，视作为新增，原有的库不做删除，如果是rename操作，则需要重新建立链路
-        // 2. 删除数据库，不予处理，删除数据库涉及到source链路的下线，需要手动处理
-        RdbDatabaseDO query = RdbDatabaseDO.builder().rdb(RdbDO.builder().id(rdbId).build()).build();
-        Map<String, RdbDatabaseDO> dbRdbDatabaseMap = rdbDatabaseService.queryAll(query).stream()
-                .collect(Collectors.toMap(RdbDatabaseDO::getName, database -> database));
-
-        List<RdbDatabaseDO> toSaveRdbDatabaseList = databaseList.stream()
-                .filter(database -> Objects.isNull(dbRdbDatabaseMap.get(database)))
-                .collect(Collectors.toList()).stream()
-                .map(database -> {
-                    RdbDO rdb = new RdbDO();
-                    rdb.setId(rdbId);
-                    RdbDatabaseDO newRdbDatabase = new RdbDatabaseDO();
-                    newRdbDatabase.setRdb(rdb);
-                    newRdbDatabase.setName(database);
-                    newRdbDatabase.setCreationTime(new Date().toInstant());
-                    newRdbDatabase.setUpdateTime(new Date().toInstant());
-                    return newRdbDatabase;
-                }).collect(Collectors.toList());
-        rdbDatabaseService.saveAll(toSaveRdbDatabaseList);
+        diffingDataBase(rdbDatabaseNames);
+        log.info("Refresh rdb metadata finished, rdbs: {}, failed: {}, duration: {} ms", rdbs.size(), failedCount, System.currentTimeMillis() - start);
     }
 
-    private List<String> showDataBases(final RdbDO rdb) {
+    private List<String> waitDatabaseNames(final RdbDO rdb, final CompletableFuture<List<String>> future, final long deadline) {
         try {
-            return mysqlHelperService.showDataBases(rdb, this::filterDataBase);
-        } catch (ServerErrorException e) {
-            log.warn("ShowDatabases not available instance dbType: {}, hosts: {}, message: {}", rdb.getRdbType(),
-                    rdb.getDbInstances(), e.getMessage());
-            return new ArrayList<>();
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            log.warn("ShowDatabases not available instance dbType: {}, rdbId: {}, message: {}", rdb.getRdbType(), rdb.getId(), e.getCause().getMessage());
+            countRefreshMetadataFailure(rdb);
+            return null;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("ShowDatabases timeout, dbType: {}, rdbId: {}", rdb.getRdbType(), rdb.getId());
+            countRefreshMetadataFailure(rdb);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServerErrorException(e);
+        }
+    }
+
+    private void countRefreshMetadataFailure(final RdbDO rdb) {
+        refreshMetadataFailedCounts.computeIfAbsent(String.valueOf(rdb.getRdbType()), key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Get count of rdbs of the type, which failed to read metadata.
+     *
+     * @param rdbType rdb type, eg: mysql
+     * @return failed count
+     */
+    public long getRefreshMetadataFailedCount(final String rdbType) {
+        LongAdder failedCount = refreshMetadataFailedCounts.get(rdbType);
+        return failedCount == null ? 0 : failedCount.sum();
+    }
+
+    private void diffingDataBase(final Map<Long, List<String>> rdbDatabaseNames) {
+        // 1. 数据库的更改，修改库名，视作为新增，原有的库不做删除，如果是rename操作，则需要重新建立链路
+        // 2. 删除数据库，不予处理，删除数据库涉及到source链路的下线，需要手动处理
+        if (rdbDatabaseNames.isEmpty()) {
+            return;
+        }
+        // 所有集群的库一次查出, 在内存中 diff
+        Map<Long, Set<String>> dbRdbDatabaseNames = rdbDatabaseService.queryAll(new RdbDatabaseDO()).stream()
+                .filter(database -> rdbDatabaseNames.containsKey(database.getRdb().getId()))
+                .collect(Collectors.groupingBy(database -> database.getRdb().getId(), Collectors.mapping(RdbDatabaseDO::getName, Collectors.toSet())));
+
+        List<RdbDatabaseDO> toSaveRdbDatabaseList = new ArrayList<>();
+        rdbDatabaseNames.forEach((rdbId, databaseNames) -> {
+            Set<String> dbDatabaseNames = dbRdbDatabaseNames.getOrDefault(rdbId, new HashSet<>());
+            databaseNames.stream()
+                    .filter(database -> !dbDatabaseNames.contains(database))
+                    .map(database -> {
+                        RdbDO rdb = new RdbDO();
+                        rdb.setId(rdbId);
+                        RdbDatabaseDO newRdbDatabase = new RdbDatabaseDO();
+                        newRdbDatabase.setRdb(rdb);
+                        newRdbDatabase.setName(database);
+                        newRdbDatabase.setCreationTime(new Date().toInstant());
+                        newRdbDatabase.setUpdateTime(new Date().toInstant());
+                        return newRdbDatabase;
+                    })
+                    .forEach(toSaveRdbDatabaseList::add);
+        });
+        if (!toSaveRdbDatabaseList.isEmpty()) {
+            rdbDatabaseService.saveAll(toSaveRdbDatabaseList);
         }
     }
 
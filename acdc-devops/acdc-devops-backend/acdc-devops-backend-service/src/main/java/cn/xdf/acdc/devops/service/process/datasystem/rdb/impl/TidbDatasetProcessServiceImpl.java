@@ -6,6 +6,10 @@ import cn.xdf.acdc.devops.core.domain.dto.ProjectDTO;
 import cn.xdf.acdc.devops.core.domain.dto.RdbDTO;
 import cn.xdf.acdc.devops.core.domain.dto.RdbDatabaseDTO;
 import cn.xdf.acdc.devops.core.domain.dto.RdbTableDTO;
+import cn.xdf.acdc.devops.core.domain.entity.ProjectDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbDatabaseDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbTableDO;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
 import cn.xdf.acdc.devops.service.process.datasystem.AbstractJdbcDatasetProcessService;
 import cn.xdf.acdc.devops.service.process.datasystem.rdb.RdbDatabaseProcessService;
@@ -15,6 +19,11 @@ import cn.xdf.acdc.devops.service.process.datasystem.rdb.RdbTableProcessService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @Service
 public class TidbDatasetProcessServiceImpl extends AbstractJdbcDatasetProcessService {
 
@@ -65,4 +74,38 @@ public class TidbDatasetProcessServiceImpl extends AbstractJdbcDatasetProcessSer
 
                 .build();
     }
+
+    @Override
+    public Map<Long, Dataset4ConnectionDTO> getSourceDataset4Connections(final List<ConnectionDTO> connectionDTOs) {
+        Map<Long, RdbTableDO> rdbTables = getRdbTableMap(connectionDTOs.stream().map(ConnectionDTO::getSourceDataSetId).collect(Collectors.toSet()));
+        Map<Long, RdbDatabaseDO> rdbDatabases = getRdbDatabaseMap(rdbTables.values());
+        Map<Long, RdbDO> rdbs = getRdbMap(rdbDatabases.values());
+        Map<Long, ProjectDO> projects = getProjectMap(connectionDTOs.stream().map(ConnectionDTO::getSourceProjectId).collect(Collectors.toSet()));
+
+        Map<Long, Dataset4ConnectionDTO> datasets = new HashMap<>();
+        for (ConnectionDTO connectionDTO : connectionDTOs) {
+            RdbTableDO rdbTable = rdbTables.get(connectionDTO.getSourceDataSetId());
+            RdbDatabaseDO rdbDatabase = rdbDatabases.get(rdbTable.getRdbDatabase().getId());
+            RdbDO rdb = rdbs.get(rdbDatabase.getRdb().getId());
+            ProjectDO project = projects.get(connectionDTO.getSourceProjectId());
+
+            datasets.put(connectionDTO.getId(), Dataset4ConnectionDTO.builder()
+                    .dataSystemType(DataSystemType.nameOf(rdb.getRdbType()))
+
+                    .projectId(project.getId())
+                    .projectName(project.getName())
+
+                    .clusterId(rdb.getId())
+                    .clusterName(rdb.getName())
+
+                    .databaseId(rdbDatabase.getId())
+                    .databaseName(rdbDatabase.getName())
+
+                    .dataSetId(rdbTable.getId())
+                    .datasetName(rdbTable.getName())
+
+                    .build());
+        }
+        return datasets;
+    }
 }
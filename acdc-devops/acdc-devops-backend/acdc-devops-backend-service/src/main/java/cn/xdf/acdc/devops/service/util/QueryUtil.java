@@ -1,7 +1,17 @@
 package cn.xdf.acdc.devops.service.util;
 
 import io.jsonwebtoken.lang.Assert;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -31,4 +41,50 @@ public class QueryUtil {
         return Objects.isNull(id) || id <= 0;
     }
 
+    /**
+     * (update_time, id) 键集游标条件, 只查询游标之后的记录, 并按 (update_time, id) 排序.
+     *
+     * <p>更新时间相同的记录由 id 区分, 既不会遗漏也不会重复查询, 需要 (update_time, id) 联合索引.
+     *
+     * @param root       root
+     * @param query      query
+     * @param cb         criteria builder
+     * @param updateTime 游标的更新时间
+     * @param id         游标的 id
+     * @return 查询条件
+     */
+    public static Predicate updatedAfter(final Root<?> root, final CriteriaQuery<?> query, final CriteriaBuilder cb, final Instant updateTime, final Long id) {
+        Path<Instant> updateTimePath = root.get("updateTime");
+        Path<Long> idPath = root.get("id");
+        query.orderBy(cb.asc(updateTimePath), cb.asc(idPath));
+        return cb.or(
+                cb.greaterThan(updateTimePath, updateTime),
+                cb.and(cb.equal(updateTimePath, updateTime), cb.greaterThan(idPath, id))
+        );
+    }
+
+    /**
+     * 查询满足条件的前 limit 条记录.
+     *
+     * <p>只执行一条带 limit 的查询, 不像分页查询一样在结果满页时再执行 count 查询.
+     *
+     * @param entityManager entity manager
+     * @param domainClass   实体类型
+     * @param specification 查询条件, 排序由查询条件指定
+     * @param limit         最多返回的记录数
+     * @param <T>           实体类型
+     * @return 记录列表
+     */
+    public static <T> List<T> findFirst(final EntityManager entityManager, final Class<T> domainClass, final Specification<T> specification, final int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(domainClass);
+        Root<T> root = query.from(domainClass);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (Objects.nonNull(predicate)) {
+            query.where(predicate);
+        }
+        query.select(root);
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
 }
@@ -26,6 +26,11 @@ public class HiveHelperService extends AbstractMysqlHelperService {
 
     private static final String DB_META_SQL = "SELECT d.DB_ID,d.NAME,t.TBL_ID,t.TBL_NAME FROM DBS d JOIN TBLS t ON d.DB_ID=t.DB_ID";
 
+    // metastore 的 NAME 和 TBL_NAME 字段为 latin1_bin 排序规则, 按字段本身排序可以走索引, 且与 ACDC 库中的顺序以及 java 字符串的顺序一致;
+    // 参数按二进制绑定, 字段上不做转换, 以免每页都全表关联并排序. 排序规则不一致时游标的升序检查会中止同步
+    private static final String DB_META_PAGE_SQL = DB_META_SQL
+        + " WHERE d.NAME > CAST(? AS BINARY) OR (d.NAME = CAST(? AS BINARY) AND t.TBL_NAME > CAST(? AS BINARY)) ORDER BY d.NAME,t.TBL_NAME LIMIT ?";
+
     private static final String COLUMN_META_SQL =
         "SELECT c.COLUMN_NAME,c.TYPE_NAME FROM DBS d JOIN TBLS t ON d.DB_ID=t.DB_ID JOIN SDS s ON t.SD_ID=s.SD_ID JOIN COLUMNS_V2 c ON s.cd_id=c.cd_id WHERE d.NAME=? AND t.tbl_name=?";
 
@@ -40,6 +45,22 @@ public class HiveHelperService extends AbstractMysqlHelperService {
         return executeQuery(getConnection(), DB_META_SQL, this::mappingDbMetaSql);
     }
 
+    /**
+     * 分页拉取 hive 元数据, 按库名和表名排序, 返回指定库表之后的库表信息.
+     * @param afterDb  上一页最后的库名
+     * @param afterTable  上一页最后的表名
+     * @param limit  分页大小
+     * @return List
+     */
+    public List<HiveDbMetaDTO> fetchHiveDbMeta(final String afterDb, final String afterTable, final int limit) {
+        return executeQuery(
+            getConnection(),
+            DB_META_PAGE_SQL,
+            stmt -> setDbMetaPageSql(stmt, afterDb, afterTable, limit),
+            this::readDbMetas
+        );
+    }
+
     /**
      * 查询表结构.
      * @param database  database
@@ -56,6 +77,12 @@ public class HiveHelperService extends AbstractMysqlHelperService {
     }
 
     private List<HiveDbMetaDTO> mappingDbMetaSql(final ResultSet rs) {
+        List<HiveDbMetaDTO> dbMetaList = readDbMetas(rs);
+        Preconditions.checkArgument(!CollectionUtils.isEmpty(dbMetaList), "Not exist database meta data");
+        return dbMetaList;
+    }
+
+    private List<HiveDbMetaDTO> readDbMetas(final ResultSet rs) {
         try {
             List<HiveDbMetaDTO> dbMetaList = Lists.newArrayList();
             while (rs.next()) {
@@ -67,8 +94,6 @@ public class HiveHelperService extends AbstractMysqlHelperService {
                     .build();
                 dbMetaList.add(meta);
             }
-
-            Preconditions.checkArgument(!CollectionUtils.isEmpty(dbMetaList), "Not exist database meta data");
             return dbMetaList;
         } catch (SQLException e) {
             log.warn("Execute sql exception ", e);
@@ -76,6 +101,17 @@ public class HiveHelperService extends AbstractMysqlHelperService {
         }
     }
 
+    private void setDbMetaPageSql(final PreparedStatement stmt, final String afterDb, final String afterTable, final int limit) {
+        try {
+            stmt.setString(1, afterDb);
+            stmt.setString(2, afterDb);
+            stmt.setString(3, afterTable);
+            stmt.setInt(4, limit);
+        } catch (SQLException e) {
+            throw new ServerErrorException(e);
+        }
+    }
+
     private void setColumnMetaSql(final PreparedStatement stmt, final String database, final String table) {
         try {
             stmt.setString(1, database);
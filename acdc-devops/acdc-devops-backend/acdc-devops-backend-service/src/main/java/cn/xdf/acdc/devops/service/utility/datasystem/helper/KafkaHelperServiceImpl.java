@@ -5,6 +5,7 @@ import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalListener;
 import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.CommonClientConfigs;
@@ -29,15 +30,14 @@ import org.apache.kafka.common.resource.ResourcePattern;
 import org.apache.kafka.common.resource.ResourcePatternFilter;
 import org.apache.kafka.common.resource.ResourceType;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.util.CollectionUtils;
 
 import javax.annotation.PreDestroy;
-import java.util.Collection;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -50,8 +50,14 @@ public class KafkaHelperServiceImpl implements KafkaHelperService {
 
     private static final String PATTERN_ANY = "*";
 
+    private static final int DEFAULT_LIST_TOPICS_TIMEOUT_IN_MS = 30000;
+
+    private static final Duration ADMIN_CLIENT_CLOSE_TIMEOUT = Duration.ofSeconds(5);
+
+    // admin client of each cluster is reused, an idle one is evicted and closed
     private final LoadingCache<Map<String, Object>, AdminClient> adminClientCache = CacheBuilder.newBuilder()
-            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .removalListener((RemovalListener<Map<String, Object>, AdminClient>) notification -> notification.getValue().close(ADMIN_CLIENT_CLOSE_TIMEOUT))
             .build(new CacheLoader<Map<String, Object>, AdminClient>() {
                 @Override
                 public AdminClient load(@NotNull final Map<String, Object> config) {
@@ -59,16 +65,16 @@ public class KafkaHelperServiceImpl implements KafkaHelperService {
                 }
             });
 
+    @Value("${acdc.kafka.admin.list-topics.timeout.ms:30000}")
+    private int listTopicsTimeoutInMs = DEFAULT_LIST_TOPICS_TIMEOUT_IN_MS;
+
     /**
      * Close client.
      */
     @PreDestroy
     public void closeAdminClient() {
-        ConcurrentMap<Map<String, Object>, AdminClient> adminClientMap = adminClientCache.asMap();
-        Collection<AdminClient> adminClients = adminClientMap.values();
-        if (!CollectionUtils.isEmpty(adminClients)) {
-            adminClients.forEach(AdminClient::close);
-        }
+        // closed by the removal listener
+        adminClientCache.invalidateAll();
     }
 
     @Override
@@ -142,7 +148,7 @@ public class KafkaHelperServiceImpl implements KafkaHelperService {
     public Set<String> listTopics(final Map<String, Object> adminConfig) {
         Set<String> topics;
         try {
-            topics = getAdminClient(adminConfig).listTopics().names().get();
+            topics = getAdminClient(adminConfig).listTopics(new ListTopicsOptions().timeoutMs(listTopicsTimeoutInMs)).names().get();
         } catch (InterruptedException | ExecutionException e) {
             throw new ServerErrorException(e);
         }
@@ -0,0 +1,129 @@
+package cn.xdf.acdc.devops.service.utility.datasystem.helper;
+
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pools of mysql instances, which are used to read metadata of the instances.
+ *
+ * <p>Each instance and user has its own small pool, idle connections are closed by the pool and an idle pool is evicted
+ * and closed by the cache. A connection returned by the pool must be closed to give it back.
+ *
+ * <p>A pool without connections is cheap, so it is retained longer than the interval of the metadata refresh, which is
+ * its main user. Otherwise every refresh creates all the pools again.
+ */
+@Slf4j
+@Component
+public class MysqlConnectionPool {
+
+    private static final String POOL_NAME_PREFIX = "mysql-metadata-";
+
+    private final Cache<PoolKey, HikariDataSource> pools;
+
+    private final int maxConnectionsPerInstance;
+
+    private final long connectTimeoutInMs;
+
+    private final long socketTimeoutInMs;
+
+    private final long idleTimeoutInMs;
+
+    public MysqlConnectionPool(
+            @Value("${acdc.rdb.metadata.pool.max-instances:1000}") final long maxInstances,
+            @Value("${acdc.rdb.metadata.pool.max-connections-per-instance:2}") final int maxConnectionsPerInstance,
+            @Value("${acdc.rdb.metadata.pool.connect-timeout.ms:5000}") final long connectTimeoutInMs,
+            @Value("${acdc.rdb.metadata.pool.socket-timeout.ms:30000}") final long socketTimeoutInMs,
+            @Value("${acdc.rdb.metadata.pool.idle-timeout.ms:600000}") final long idleTimeoutInMs,
+            @Value("${acdc.rdb.metadata.pool.retention.ms:7200000}") final long retentionInMs) {
+        this.maxConnectionsPerInstance = maxConnectionsPerInstance;
+        this.connectTimeoutInMs = connectTimeoutInMs;
+        this.socketTimeoutInMs = socketTimeoutInMs;
+        this.idleTimeoutInMs = idleTimeoutInMs;
+        this.pools = Caffeine.newBuilder()
+                .maximumSize(maxInstances)
+                .expireAfterAccess(retentionInMs, TimeUnit.MILLISECONDS)
+                .<PoolKey, HikariDataSource>removalListener((key, dataSource, cause) -> {
+                    if (dataSource != null) {
+                        dataSource.close();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Get a connection of the mysql instance.
+     *
+     * @param url      jdbc url of the instance
+     * @param username username
+     * @param password password
+     * @return connection, which must be closed after used
+     */
+    public Connection getConnection(final String url, final String username, final String password) {
+        HikariDataSource dataSource = pools.get(new PoolKey(url, username, password), this::createDataSource);
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new ServerErrorException(String.format("Can not connect to %s with user %s", url, username), e);
+        }
+    }
+
+    /**
+     * Get number of pooled instances.
+     *
+     * @return size
+     */
+    public long size() {
+        return pools.estimatedSize();
+    }
+
+    /**
+     * Close all pools.
+     */
+    @PreDestroy
+    public void close() {
+        pools.invalidateAll();
+        pools.cleanUp();
+    }
+
+    private HikariDataSource createDataSource(final PoolKey key) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(POOL_NAME_PREFIX + key.url);
+        config.setJdbcUrl(key.url);
+        config.setUsername(key.username);
+        config.setPassword(key.password);
+        config.setMinimumIdle(0);
+        config.setMaximumPoolSize(maxConnectionsPerInstance);
+        config.setIdleTimeout(idleTimeoutInMs);
+        config.setConnectionTimeout(connectTimeoutInMs);
+        // do not connect until the first connection is acquired, an unreachable instance must not fail the pool creation
+        config.setInitializationFailTimeout(-1);
+        config.addDataSourceProperty("connectTimeout", String.valueOf(connectTimeoutInMs));
+        config.addDataSourceProperty("socketTimeout", String.valueOf(socketTimeoutInMs));
+        log.info("Create mysql connection pool, url: {}, user: {}", key.url, key.username);
+        return new HikariDataSource(config);
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class PoolKey {
+
+        private final String url;
+
+        private final String username;
+
+        private final String password;
+    }
+}
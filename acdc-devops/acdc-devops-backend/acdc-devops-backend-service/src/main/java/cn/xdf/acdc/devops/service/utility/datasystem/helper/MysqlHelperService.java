@@ -50,6 +50,9 @@ public class MysqlHelperService extends AbstractMysqlHelperService {
     @Autowired
     private RdbInstanceRepository rdbInstanceRepository;
 
+    @Autowired
+    private MysqlConnectionPool mysqlConnectionPool;
+
     /**
      * 获取数据库列表.
      *
@@ -64,6 +67,10 @@ public class MysqlHelperService extends AbstractMysqlHelperService {
         Preconditions.checkArgument(port > 0, "Port is illegal.");
 
         Connection conn = createConnection(urlOfRdbInstance(ip, port), username, password);
+        return showDataBases(conn);
+    }
+
+    private List<String> showDataBases(final Connection conn) {
         return executeQuery(conn, sqlOfShowDatabase(), rs -> {
             List<String> databases = Lists.newArrayList();
             try {
@@ -95,7 +102,7 @@ public class MysqlHelperService extends AbstractMysqlHelperService {
     }
 
     /**
-     * 获取数据库列表.
+     * 获取数据库列表, 使用实例的连接池.
      *
      * @param rdb       rdb
      * @param predicate predicate
@@ -106,7 +113,10 @@ public class MysqlHelperService extends AbstractMysqlHelperService {
 
         String username = rdb.getUsername();
         String password = EncryptUtil.decrypt(rdb.getPassword());
-        return showDataBases(instance.getHost(), instance.getPort(), username, password, predicate);
+        Connection conn = mysqlConnectionPool.getConnection(urlOfRdbInstance(instance.getHost(), instance.getPort()), username, password);
+        return showDataBases(conn).stream()
+                .filter(predicate)
+                .collect(Collectors.toList());
     }
 
     private RdbInstanceDO getRdbDdlReadInstance(final RdbDO rdb) {
@@ -0,0 +1,183 @@
+package cn.xdf.acdc.devops.service.aop;
+
+import cn.xdf.acdc.devops.core.domain.entity.ConnectorDO;
+import cn.xdf.acdc.devops.core.domain.entity.ConnectorEventDO;
+import cn.xdf.acdc.devops.service.entity.ConnectorEventService;
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ConnectorEventJournalTest {
+
+    private ConnectorEventService connectorEventService;
+
+    private List<ConnectorEventDO> savedEvents;
+
+    private ConnectorEventJournal journal;
+
+    @Before
+    public void setup() {
+        connectorEventService = Mockito.mock(ConnectorEventService.class);
+        savedEvents = Collections.synchronizedList(new ArrayList<>());
+        Mockito.when(connectorEventService.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            List<ConnectorEventDO> events = invocation.getArgument(0);
+            savedEvents.addAll(events);
+            return events;
+        });
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (journal != null) {
+            journal.stop();
+        }
+    }
+
+    @Test
+    public void testAppendShouldSaveEventsInBatch() throws InterruptedException {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(connectorEventService.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await();
+            List<ConnectorEventDO> events = invocation.getArgument(0);
+            savedEvents.addAll(events);
+            return events;
+        });
+        journal = new ConnectorEventJournal(connectorEventService, 100, 10, 50, 10);
+        journal.start();
+
+        // the writer is blocked by the first event, the others are queued
+        journal.append(event(0L));
+        Assertions.assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long i = 1; i <= 25; i++) {
+            Assertions.assertThat(journal.append(event(i))).isTrue();
+        }
+        release.countDown();
+
+        waitUntilSaved(26);
+        Assertions.assertThat(savedEvents).extracting(event -> event.getConnector().getId()).containsExactly(
+                0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L, 21L, 22L, 23L, 24L, 25L);
+        // 1 + 10 + 10 + 5
+        Assertions.assertThat(journal.getWriteCount()).isEqualTo(4);
+        Assertions.assertThat(journal.getAppendedCount()).isEqualTo(26);
+        Assertions.assertThat(journal.getDroppedCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testAppendShouldDropEventWhenJournalIsFull() throws InterruptedException {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(connectorEventService.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+            saving.countDown();
+            release.await();
+            List<ConnectorEventDO> events = invocation.getArgument(0);
+            savedEvents.addAll(events);
+            return events;
+        });
+        journal = new ConnectorEventJournal(connectorEventService, 2, 10, 10, 10);
+        journal.start();
+
+        journal.append(event(0L));
+        Assertions.assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(journal.append(event(1L))).isTrue();
+        Assertions.assertThat(journal.append(event(2L))).isTrue();
+        Assertions.assertThat(journal.append(event(3L))).isFalse();
+        Assertions.assertThat(journal.getDroppedCount()).isEqualTo(1);
+        Assertions.assertThat(journal.size()).isEqualTo(2);
+        release.countDown();
+
+        waitUntilSaved(3);
+        Assertions.assertThat(savedEvents).extracting(event -> event.getConnector().getId()).containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    public void testAppendShouldCountFailedEventsAndKeepWriting() throws InterruptedException {
+        Mockito.when(connectorEventService.saveAll(Mockito.anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenAnswer(invocation -> {
+                    List<ConnectorEventDO> events = invocation.getArgument(0);
+                    savedEvents.addAll(events);
+                    return events;
+                });
+        journal = new ConnectorEventJournal(connectorEventService, 100, 10, 50, 10);
+        journal.start();
+
+        journal.append(event(1L));
+        while (journal.getFailedCount() < 1) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        journal.append(event(2L));
+
+        waitUntilSaved(1);
+        Assertions.assertThat(savedEvents.get(0).getConnector().getId()).isEqualTo(2L);
+        Assertions.assertThat(journal.getSavedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testAppendShouldKeepWritingWhenTransactionFailed() throws InterruptedException {
+        Mockito.when(connectorEventService.saveAll(Mockito.anyList()))
+                .thenThrow(new CannotCreateTransactionException("could not open jpa entity manager"))
+                .thenAnswer(invocation -> {
+                    List<ConnectorEventDO> events = invocation.getArgument(0);
+                    savedEvents.addAll(events);
+                    return events;
+                });
+        journal = new ConnectorEventJournal(connectorEventService, 100, 10, 50, 10);
+        journal.start();
+
+        journal.append(event(1L));
+        while (journal.getFailedCount() < 1) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        journal.append(event(2L));
+
+        waitUntilSaved(1);
+        Assertions.assertThat(savedEvents.get(0).getConnector().getId()).isEqualTo(2L);
+        Assertions.assertThat(journal.getFailedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testStopShouldSaveQueuedEvents() throws InterruptedException {
+        journal = new ConnectorEventJournal(connectorEventService, 100, 10, 50, 1000);
+        journal.start();
+        for (long i = 0; i < 15; i++) {
+            journal.append(event(i));
+        }
+
+        journal.stop();
+        Assertions.assertThat(savedEvents).hasSize(15);
+        Assertions.assertThat(journal.size()).isEqualTo(0);
+
+        // saved synchronously after stopped
+        journal.append(event(15L));
+        Assertions.assertThat(savedEvents).hasSize(16);
+        journal = null;
+    }
+
+    private void waitUntilSaved(final int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000L;
+        while (savedEvents.size() < count && System.currentTimeMillis() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        Assertions.assertThat(savedEvents).hasSize(count);
+    }
+
+    private static ConnectorEventDO event(final Long connectorId) {
+        return ConnectorEventDO.builder()
+                .reason("reason")
+                .message("message")
+                .connector(ConnectorDO.builder().id(connectorId).build())
+                .build();
+    }
+}
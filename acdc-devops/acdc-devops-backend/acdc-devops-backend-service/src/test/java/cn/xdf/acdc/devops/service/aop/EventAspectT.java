@@ -22,6 +22,8 @@ import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.client.ResourceAccessException;
 
+import java.util.List;
+
 @RunWith(SpringRunner.class)
 @ContextConfiguration(classes = {EventAspectT.class, EventAspectT.AopConfig.class})
 public class EventAspectT {
@@ -35,16 +37,16 @@ public class EventAspectT {
     @Test
     public void testWithoutEventAnnotation() {
         eventAspectAopTest.testWithoutEventAnnotation();
-        ArgumentCaptor<ConnectorEventDO> eventCaptor = ArgumentCaptor.forClass(ConnectorEventDO.class);
-        Mockito.verify(connectorEventService, Mockito.never()).save(eventCaptor.capture());
+        Mockito.verify(connectorEventService, Mockito.after(500).never()).saveAll(Mockito.anyList());
     }
 
     @Test
     public void testEventAnnotationWithValues() {
         eventAspectAopTest.testEventAnnotationWithValues();
-        ArgumentCaptor<ConnectorEventDO> eventCaptor = ArgumentCaptor.forClass(ConnectorEventDO.class);
-        Mockito.verify(connectorEventService).save(eventCaptor.capture());
-        ConnectorEventDO event = eventCaptor.getValue();
+        ArgumentCaptor<List<ConnectorEventDO>> eventCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(connectorEventService, Mockito.timeout(1000)).saveAll(eventCaptor.capture());
+        Assertions.assertThat(eventCaptor.getValue()).hasSize(1);
+        ConnectorEventDO event = eventCaptor.getValue().get(0);
         Assertions.assertThat(event.getReason()).isEqualTo(EventReason.CONNECTOR_ACTUAL_STATUS_CHANGED.getName());
         Assertions.assertThat(event.getLevel()).isEqualTo(EventLevel.INFO);
         Assertions.assertThat(event.getConnector().getId()).isEqualTo(1L);
@@ -59,9 +61,10 @@ public class EventAspectT {
         connectorInfoDTO.setRemark("exception xxx");
         eventAspectAopTest.testEventAnnotationWithProperties(ConnectorState.PENDING, ConnectorState.CREATION_FAILED,
                 cn.xdf.acdc.devops.core.domain.enumeration.ConnectorEvent.CREATE_FAILURE, connectorInfoDTO);
-        ArgumentCaptor<ConnectorEventDO> eventCaptor = ArgumentCaptor.forClass(ConnectorEventDO.class);
-        Mockito.verify(connectorEventService).save(eventCaptor.capture());
-        ConnectorEventDO event = eventCaptor.getValue();
+        ArgumentCaptor<List<ConnectorEventDO>> eventCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(connectorEventService, Mockito.timeout(1000)).saveAll(eventCaptor.capture());
+        Assertions.assertThat(eventCaptor.getValue()).hasSize(1);
+        ConnectorEventDO event = eventCaptor.getValue().get(0);
         Assertions.assertThat(event.getLevel()).isEqualTo(EventLevel.INFO);
         Assertions.assertThat(event.getReason()).isEqualTo(EventReason.CONNECTOR_ACTUAL_STATUS_CHANGED.getName());
         Assertions.assertThat(event.getConnector().getId()).isEqualTo(1L);
@@ -81,9 +84,10 @@ public class EventAspectT {
             Assertions.assertThat(e.toString()).isEqualTo("org.springframework.web.client.ResourceAccessException: ResourceAccessException xxx");
         }
 
-        ArgumentCaptor<ConnectorEventDO> eventCaptor = ArgumentCaptor.forClass(ConnectorEventDO.class);
-        Mockito.verify(connectorEventService).save(eventCaptor.capture());
-        ConnectorEventDO event = eventCaptor.getValue();
+        ArgumentCaptor<List<ConnectorEventDO>> eventCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(connectorEventService, Mockito.timeout(1000)).saveAll(eventCaptor.capture());
+        Assertions.assertThat(eventCaptor.getValue()).hasSize(1);
+        ConnectorEventDO event = eventCaptor.getValue().get(0);
         Assertions.assertThat(event.getLevel()).isEqualTo(EventLevel.ERROR);
         Assertions.assertThat(event.getReason()).isEqualTo(EventReason.EXECUTION_ERROR.getName());
         Assertions.assertThat(event.getConnector().getId()).isEqualTo(1L);
@@ -0,0 +1,181 @@
+package cn.xdf.acdc.devops.service.process.connection.fieldmapping.impl;
+
+import cn.xdf.acdc.devops.core.domain.dto.DataSetDTO;
+import cn.xdf.acdc.devops.core.domain.dto.FieldDTO;
+import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class DataSetSchemaCacheTest {
+
+    private static final DataSetDTO MYSQL_TABLE = DataSetDTO.builder().dataSystemType(DataSystemType.MYSQL).dataSetId(1L).build();
+
+    private static final DataSetDTO HIVE_TABLE = DataSetDTO.builder().dataSystemType(DataSystemType.HIVE).dataSetId(1L).build();
+
+    private DataSetSchemaCache cache;
+
+    private AtomicInteger describeCount;
+
+    private Supplier<Map<String, FieldDTO>> describer;
+
+    @Before
+    public void setup() {
+        cache = new DataSetSchemaCache(300, 10);
+        describeCount = new AtomicInteger();
+        describer = () -> fields("column_" + describeCount.incrementAndGet());
+    }
+
+    @Test
+    public void testGetShouldDescribeOnlyOnceWithTheSameDataSet() {
+        Assertions.assertThat(cache.get(MYSQL_TABLE, describer)).containsKey("column_1");
+        Assertions.assertThat(cache.get(MYSQL_TABLE, describer)).containsKey("column_1");
+        Assertions.assertThat(cache.get(HIVE_TABLE, describer)).containsKey("column_2");
+
+        Assertions.assertThat(describeCount.get()).isEqualTo(2);
+        Assertions.assertThat(cache.getHitCount()).isEqualTo(1);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(2);
+        Assertions.assertThat(cache.getDescribeCount()).isEqualTo(2);
+        Assertions.assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetShouldDescribeAgainWhenInvalidated() {
+        cache.get(MYSQL_TABLE, describer);
+        cache.get(HIVE_TABLE, describer);
+
+        cache.invalidate(DataSystemType.MYSQL, 1L);
+        Assertions.assertThat(cache.get(MYSQL_TABLE, describer)).containsKey("column_3");
+        Assertions.assertThat(cache.get(HIVE_TABLE, describer)).containsKey("column_2");
+
+        cache.invalidateAll();
+        Assertions.assertThat(cache.get(HIVE_TABLE, describer)).containsKey("column_4");
+    }
+
+    @Test
+    public void testGetShouldDescribeAgainWhenExpired() throws InterruptedException {
+        cache = new DataSetSchemaCache(1, 10);
+        cache.get(MYSQL_TABLE, describer);
+
+        TimeUnit.MILLISECONDS.sleep(1100);
+        Assertions.assertThat(cache.get(MYSQL_TABLE, describer)).containsKey("column_2");
+    }
+
+    @Test
+    public void testGetShouldReturnACopyOfCachedFields() {
+        Map<String, FieldDTO> fields = cache.get(MYSQL_TABLE, describer);
+        fields.get("column_1").setDataType("text");
+        fields.clear();
+
+        Assertions.assertThat(cache.get(MYSQL_TABLE, describer).get("column_1").getDataType()).isEqualTo("int");
+    }
+
+    @Test
+    public void testGetShouldNotCacheFailedDescribe() {
+        Assertions.assertThatThrownBy(() -> cache.get(MYSQL_TABLE, () -> {
+            throw new IllegalStateException("connection refused");
+        })).isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(cache.get(MYSQL_TABLE, describer)).containsKey("column_1");
+    }
+
+    @Test
+    public void testGetShouldNotCacheDescribeStartedBeforeInvalidation() {
+        Map<String, FieldDTO> fields = cache.get(MYSQL_TABLE, () -> {
+            cache.invalidate(DataSystemType.MYSQL, 1L);
+            return fields("stale_column");
+        });
+
+        Assertions.assertThat(fields).containsKey("stale_column");
+        Assertions.assertThat(cache.get(MYSQL_TABLE, describer)).containsKey("column_1");
+    }
+
+    @Test
+    public void testGetShouldCoalesceConcurrentDescribes() throws Exception {
+        int callerCount = 8;
+        CountDownLatch describing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Map<String, FieldDTO>> slowDescriber = () -> {
+            describing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return describer.get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(callerCount);
+        try {
+            List<Future<Map<String, FieldDTO>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(MYSQL_TABLE, slowDescriber)));
+            describing.await();
+            for (int i = 1; i < callerCount; i++) {
+                results.add(executor.submit(() -> cache.get(MYSQL_TABLE, slowDescriber)));
+            }
+            // wait until the other callers are waiting on the describe
+            while (cache.getCoalescedCount() < callerCount - 1) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<Map<String, FieldDTO>> result : results) {
+                Assertions.assertThat(result.get(10, TimeUnit.SECONDS)).containsKey("column_1");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertThat(describeCount.get()).isEqualTo(1);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(1);
+        Assertions.assertThat(cache.getCoalescedCount()).isEqualTo(callerCount - 1);
+    }
+
+    @Test
+    public void testGetShouldThrowDescribeExceptionToCoalescedCallers() throws Exception {
+        CountDownLatch describing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Map<String, FieldDTO>> failedDescriber = () -> {
+            describing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("connection refused");
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<String, FieldDTO>> leader = executor.submit(() -> cache.get(MYSQL_TABLE, failedDescriber));
+            describing.await();
+            Future<Map<String, FieldDTO>> follower = executor.submit(() -> cache.get(MYSQL_TABLE, describer));
+            while (cache.getCoalescedCount() < 1) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            release.countDown();
+
+            Assertions.assertThatThrownBy(() -> leader.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            Assertions.assertThatThrownBy(() -> follower.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(ServerErrorException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertThat(describeCount.get()).isEqualTo(0);
+    }
+
+    private static Map<String, FieldDTO> fields(final String name) {
+        return Collections.singletonMap(name, FieldDTO.builder().name(name).dataType("int").build());
+    }
+}
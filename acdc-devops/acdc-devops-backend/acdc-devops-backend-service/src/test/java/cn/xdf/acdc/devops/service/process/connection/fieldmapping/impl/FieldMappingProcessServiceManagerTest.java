@@ -62,10 +62,30 @@ public class FieldMappingProcessServiceManagerTest {
     @Autowired
     private FieldMappingProcessServiceManager fieldMappingProcessServiceManager;
 
+    @Autowired
+    private DataSetSchemaCache dataSetSchemaCache;
+
     @Before
     public void setup() {
         Mockito.when(fieldService.supportAppTypes()).thenReturn(Sets.newSet(DataSystemType.MYSQL));
         fieldMappingProcessServiceManager.init(Lists.newArrayList(fieldService), Lists.newArrayList(new Jdbc2JdbcFieldMappingServiceImpl()));
+        dataSetSchemaCache.invalidateAll();
+    }
+
+    @Test
+    public void testFetchFieldMappingShouldDescribeDataSetsOnlyOnce() {
+        DataSetDTO sourceDataSet = DataSetDTO.builder().dataSystemType(DataSystemType.MYSQL).dataSetId(100L).build();
+        Mockito.when(fieldService.descDataSet(ArgumentMatchers.eq(sourceDataSet))).thenReturn(fakeNewSourceField());
+
+        DataSetDTO sinkDataSet = DataSetDTO.builder().dataSystemType(DataSystemType.MYSQL).dataSetId(200L).build();
+        Mockito.when(fieldService.descDataSet(ArgumentMatchers.eq(sinkDataSet))).thenReturn(fakeNewSinkField());
+
+        List<FieldMappingDTO> result = fieldMappingProcessServiceManager.fetchFieldMapping(sourceDataSet, sinkDataSet);
+        Assert.assertEquals(result, fieldMappingProcessServiceManager.fetchFieldMapping(sourceDataSet, sinkDataSet));
+        Assert.assertEquals(fakeNewSourceField(), fieldMappingProcessServiceManager.descDataSet(sourceDataSet));
+
+        Mockito.verify(fieldService, Mockito.times(1)).descDataSet(ArgumentMatchers.eq(sourceDataSet));
+        Mockito.verify(fieldService, Mockito.times(1)).descDataSet(ArgumentMatchers.eq(sinkDataSet));
     }
 
     @Test
@@ -156,5 +176,10 @@ public class FieldMappingProcessServiceManagerTest {
         public FieldMappingProcessServiceManager fieldMappingProcessServiceManager(final List<FieldService> fieldServices) {
             return new FieldMappingProcessServiceManager(fieldServices, new ArrayList<>());
         }
+
+        @Bean
+        public DataSetSchemaCache dataSetSchemaCache() {
+            return new DataSetSchemaCache(300, 100);
+        }
     }
 }
@@ -0,0 +1,259 @@
+package cn.xdf.acdc.devops.service.process.connection.impl;
+
+import cn.xdf.acdc.devops.core.domain.dto.ConnectionDetailDTO;
+import cn.xdf.acdc.devops.core.domain.dto.FieldMappingDTO;
+import cn.xdf.acdc.devops.core.domain.entity.ConnectionColumnConfigurationDO;
+import cn.xdf.acdc.devops.core.domain.entity.ConnectionDO;
+import cn.xdf.acdc.devops.core.domain.entity.ConnectorDO;
+import cn.xdf.acdc.devops.core.domain.entity.ProjectDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbDatabaseDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbInstanceDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbTableDO;
+import cn.xdf.acdc.devops.core.domain.entity.UserDO;
+import cn.xdf.acdc.devops.core.domain.entity.enumeration.DataSystemType;
+import cn.xdf.acdc.devops.core.domain.entity.enumeration.RequisitionState;
+import cn.xdf.acdc.devops.core.domain.entity.enumeration.RoleType;
+import cn.xdf.acdc.devops.core.domain.enumeration.ConnectionState;
+import cn.xdf.acdc.devops.core.domain.query.ConnectionQuery;
+import cn.xdf.acdc.devops.service.entity.UserLoginServiceIT;
+import cn.xdf.acdc.devops.service.process.connection.ConnectionProcessService;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Transactional
+public class ConnectionProcessServiceImplIT {
+
+    private static final int CONNECTION_COUNT = 10;
+
+    @Autowired
+    private ConnectionProcessService connectionProcessService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<ConnectionDO> connections;
+
+    private Statistics statistics;
+
+    @Before
+    public void setup() {
+        connections = createConnections(CONNECTION_COUNT);
+        // make sure that entities are loaded from database instead of the persistence context
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    public void testDetailQueryShouldNotIncreaseQueryCountWithConnectionCount() {
+        long queryCountOfOneConnection = countQueries(connections.subList(0, 1));
+        long queryCountOfAllConnections = countQueries(connections);
+
+        Assertions.assertThat(queryCountOfOneConnection).isPositive();
+        Assertions.assertThat(queryCountOfAllConnections).isEqualTo(queryCountOfOneConnection);
+    }
+
+    @Test
+    public void testDetailQueryShouldAssembleEachConnection() {
+        List<ConnectionDetailDTO> connectionDetails = connectionProcessService.detailQuery(queryOf(connections));
+
+        Assertions.assertThat(connectionDetails).hasSize(CONNECTION_COUNT);
+        for (int i = 0; i < CONNECTION_COUNT; i++) {
+            String sourceDatasetName = "source_table_" + i;
+            ConnectionDetailDTO connectionDetail = connectionDetails.stream()
+                    .filter(it -> it.getSourceDatasetName().equals(sourceDatasetName))
+                    .findFirst().get();
+            Assertions.assertThat(connectionDetail.getSourceProjectName()).isEqualTo("source-project");
+            Assertions.assertThat(connectionDetail.getSourceDataSystemClusterName()).isEqualTo("source-rdb");
+            Assertions.assertThat(connectionDetail.getSourceDatabaseName()).isEqualTo("source_db");
+            Assertions.assertThat(connectionDetail.getSourceInstanceHost()).isEqualTo("source-data-source-host");
+            Assertions.assertThat(connectionDetail.getSinkProjectName()).isEqualTo("sink-project");
+            Assertions.assertThat(connectionDetail.getSinkDataSystemClusterName()).isEqualTo("sink-rdb");
+            Assertions.assertThat(connectionDetail.getSinkDatasetName()).isEqualTo("sink_table_" + i);
+            Assertions.assertThat(connectionDetail.getSinkInstanceHost()).isEqualTo("sink-master-host");
+            Assertions.assertThat(connectionDetail.getUserEmail()).isEqualTo("connection-it@xdf.cn");
+            Assertions.assertThat(connectionDetail.getSourceConnectorName()).isEqualTo("source-connector-" + i);
+            Assertions.assertThat(connectionDetail.getSinkConnectorName()).isEqualTo("sink-connector-" + i);
+            // only field mappings of the current version
+            Assertions.assertThat(connectionDetail.getConnectionColumnConfigurations().stream()
+                    .map(FieldMappingDTO::getSourceField).map(it -> it.getName()).collect(Collectors.toList()))
+                    .containsExactly("id", "name");
+        }
+    }
+
+    @Test
+    public void testQueryShouldReturnConnectionsAfterKeysetCursorInBatches() {
+        Instant updateTime = Instant.parse("2022-06-06T10:25:30Z");
+        List<Long> ids = connections.stream().map(ConnectionDO::getId).collect(Collectors.toList());
+        // connections updated at the same time are told apart by id
+        entityManager.createQuery("UPDATE ConnectionDO c SET c.updateTime = :updateTime WHERE c.id IN :ids")
+                .setParameter("updateTime", updateTime)
+                .setParameter("ids", ids)
+                .executeUpdate();
+        entityManager.clear();
+
+        List<ConnectionDetailDTO> firstBatch = connectionProcessService.query(ConnectionQuery.builder()
+                .beginUpdateTime(Instant.ofEpochSecond(0)).beginId(0L).limit(4).requisitionState(RequisitionState.APPROVED).build());
+        List<ConnectionDetailDTO> secondBatch = connectionProcessService.query(ConnectionQuery.builder()
+                .beginUpdateTime(updateTime).beginId(ids.get(3)).limit(4).requisitionState(RequisitionState.APPROVED).build());
+        List<ConnectionDetailDTO> lastBatch = connectionProcessService.query(ConnectionQuery.builder()
+                .beginUpdateTime(updateTime).beginId(ids.get(7)).limit(4).requisitionState(RequisitionState.APPROVED).build());
+
+        Assertions.assertThat(firstBatch).extracting(ConnectionDetailDTO::getId).containsExactlyElementsOf(ids.subList(0, 4));
+        Assertions.assertThat(secondBatch).extracting(ConnectionDetailDTO::getId).containsExactlyElementsOf(ids.subList(4, 8));
+        Assertions.assertThat(lastBatch).extracting(ConnectionDetailDTO::getId).containsExactlyElementsOf(ids.subList(8, CONNECTION_COUNT));
+    }
+
+    @Test
+    public void testQueryShouldExecuteOneStatementWhenBatchIsFull() {
+        statistics.clear();
+        List<ConnectionDetailDTO> batch = connectionProcessService.query(ConnectionQuery.builder()
+                .beginUpdateTime(Instant.ofEpochSecond(0)).beginId(0L).limit(4).requisitionState(RequisitionState.APPROVED).build());
+
+        Assertions.assertThat(batch).hasSize(4);
+        // neither a count query nor lazy loading of the associations
+        Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private long countQueries(final List<ConnectionDO> toQueryConnections) {
+        entityManager.clear();
+        statistics.clear();
+        List<ConnectionDetailDTO> connectionDetails = connectionProcessService.detailQuery(queryOf(toQueryConnections));
+        Assertions.assertThat(connectionDetails).hasSize(toQueryConnections.size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private ConnectionQuery queryOf(final List<ConnectionDO> toQueryConnections) {
+        List<Long> ids = toQueryConnections.stream().map(ConnectionDO::getId).collect(Collectors.toList());
+        return ConnectionQuery.builder().connectionIds(ids).build();
+    }
+
+    private List<ConnectionDO> createConnections(final int count) {
+        UserDO user = new UserDO();
+        user.setEmail("connection-it@xdf.cn");
+        user.setPassword(UserLoginServiceIT.PASSWD_HASH);
+        user.setCreatedBy("admin-test");
+        entityManager.persist(user);
+
+        ProjectDO sourceProject = persistProject("source-project");
+        ProjectDO sinkProject = persistProject("sink-project");
+
+        RdbDO sourceRdb = persistRdb("source-rdb");
+        RdbDatabaseDO sourceDatabase = persistRdbDatabase(sourceRdb, "source_db");
+        persistRdbInstance(sourceRdb, "source-data-source-host", RoleType.DATA_SOURCE);
+
+        RdbDO sinkRdb = persistRdb("sink-rdb");
+        RdbDatabaseDO sinkDatabase = persistRdbDatabase(sinkRdb, "sink_db");
+        RdbInstanceDO sinkInstance = persistRdbInstance(sinkRdb, "sink-master-host", RoleType.MASTER);
+
+        List<ConnectionDO> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ConnectionDO connection = ConnectionDO.builder()
+                    .sourceDataSystemType(DataSystemType.MYSQL)
+                    .sourceProject(sourceProject)
+                    .sourceDataSetId(persistRdbTable(sourceDatabase, "source_table_" + i).getId())
+                    .sourceConnector(persistConnector("source-connector-" + i))
+                    .sinkDataSystemType(DataSystemType.MYSQL)
+                    .sinkProject(sinkProject)
+                    .sinkInstanceId(sinkInstance.getId())
+                    .sinkDataSetId(persistRdbTable(sinkDatabase, "sink_table_" + i).getId())
+                    .sinkConnector(persistConnector("sink-connector-" + i))
+                    .version(2)
+                    .requisitionState(RequisitionState.APPROVED)
+                    .desiredState(ConnectionState.RUNNING)
+                    .actualState(ConnectionState.RUNNING)
+                    .user(user)
+                    .build();
+            entityManager.persist(connection);
+
+            persistColumnConfiguration(connection, 1, "old_id");
+            persistColumnConfiguration(connection, 2, "id");
+            persistColumnConfiguration(connection, 2, "name");
+            result.add(connection);
+        }
+        return result;
+    }
+
+    private ProjectDO persistProject(final String name) {
+        ProjectDO project = new ProjectDO();
+        project.setName(name);
+        entityManager.persist(project);
+        return project;
+    }
+
+    private RdbDO persistRdb(final String name) {
+        RdbDO rdb = new RdbDO();
+        rdb.setRdbType(DataSystemType.MYSQL.getName());
+        rdb.setName(name);
+        rdb.setUsername("fake-user");
+        rdb.setPassword("fake-password");
+        entityManager.persist(rdb);
+        return rdb;
+    }
+
+    private RdbDatabaseDO persistRdbDatabase(final RdbDO rdb, final String name) {
+        RdbDatabaseDO rdbDatabase = new RdbDatabaseDO();
+        rdbDatabase.setRdb(rdb);
+        rdbDatabase.setName(name);
+        entityManager.persist(rdbDatabase);
+        return rdbDatabase;
+    }
+
+    private RdbInstanceDO persistRdbInstance(final RdbDO rdb, final String host, final RoleType role) {
+        RdbInstanceDO rdbInstance = new RdbInstanceDO();
+        rdbInstance.setRdb(rdb);
+        rdbInstance.setHost(host);
+        rdbInstance.setPort(3306);
+        rdbInstance.setRole(role);
+        entityManager.persist(rdbInstance);
+        return rdbInstance;
+    }
+
+    private RdbTableDO persistRdbTable(final RdbDatabaseDO rdbDatabase, final String name) {
+        RdbTableDO rdbTable = new RdbTableDO();
+        rdbTable.setRdbDatabase(rdbDatabase);
+        rdbTable.setName(name);
+        entityManager.persist(rdbTable);
+        return rdbTable;
+    }
+
+    private ConnectorDO persistConnector(final String name) {
+        ConnectorDO connector = new ConnectorDO();
+        connector.setName(name);
+        entityManager.persist(connector);
+        return connector;
+    }
+
+    private void persistColumnConfiguration(final ConnectionDO connection, final int version, final String column) {
+        ConnectionColumnConfigurationDO columnConfiguration = ConnectionColumnConfigurationDO.builder()
+                .connection(connection)
+                .connectionVersion(version)
+                .sourceColumnName(column + FieldMappingDTO.TAB + "bigint")
+                .sinkColumnName(column + FieldMappingDTO.TAB + "bigint")
+                .build();
+        entityManager.persist(columnConfiguration);
+    }
+}
@@ -0,0 +1,93 @@
+package cn.xdf.acdc.devops.service.process.connector.impl;
+
+import cn.xdf.acdc.devops.service.process.connector.event.ConnectorConfigChangedEvent;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class ConnectorDecryptConfigCacheTest {
+
+    private static final Instant VERSION = Instant.ofEpochSecond(1);
+
+    private ConnectorDecryptConfigCache cache;
+
+    private AtomicInteger loadCount;
+
+    private Supplier<Map<String, String>> loader;
+
+    @Before
+    public void setup() {
+        cache = new ConnectorDecryptConfigCache(10, 60_000);
+        loadCount = new AtomicInteger();
+        loader = () -> Collections.singletonMap("connection.password", "acdc-" + loadCount.incrementAndGet());
+    }
+
+    @Test
+    public void testGetShouldLoadOnlyOnceWithTheSameVersion() {
+        Assertions.assertThat(cache.get(1L, VERSION, loader)).containsEntry("connection.password", "acdc-1");
+        Assertions.assertThat(cache.get(1L, VERSION, loader)).containsEntry("connection.password", "acdc-1");
+
+        Assertions.assertThat(loadCount.get()).isEqualTo(1);
+        Assertions.assertThat(cache.getHitCount()).isEqualTo(1);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(1);
+        Assertions.assertThat(cache.getHitRatio()).isEqualTo(0.5);
+        Assertions.assertThat(cache.getDecryptCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGetShouldReloadWhenVersionChanged() {
+        cache.get(1L, VERSION, loader);
+
+        Assertions.assertThat(cache.get(1L, VERSION.plusSeconds(1), loader)).containsEntry("connection.password", "acdc-2");
+        Assertions.assertThat(cache.get(1L, VERSION.plusSeconds(1), loader)).containsEntry("connection.password", "acdc-2");
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetShouldReloadWhenConfigChanged() {
+        cache.get(1L, VERSION, loader);
+        cache.get(2L, VERSION, loader);
+
+        cache.onConnectorConfigChanged(new ConnectorConfigChangedEvent(1L));
+
+        Assertions.assertThat(cache.get(1L, VERSION, loader)).containsEntry("connection.password", "acdc-3");
+        Assertions.assertThat(cache.get(2L, VERSION, loader)).containsEntry("connection.password", "acdc-2");
+    }
+
+    @Test
+    public void testGetShouldNotCacheConfigLoadedDuringInvalidation() {
+        Supplier<Map<String, String>> staleLoader = () -> {
+            Map<String, String> config = loader.get();
+            // the configuration is changed and the change is committed while loading
+            cache.onConnectorConfigChanged(new ConnectorConfigChangedEvent(2L));
+            return config;
+        };
+
+        Assertions.assertThat(cache.get(1L, VERSION, staleLoader)).containsEntry("connection.password", "acdc-1");
+        Assertions.assertThat(cache.get(1L, VERSION, loader)).containsEntry("connection.password", "acdc-2");
+        Assertions.assertThat(cache.get(1L, VERSION, loader)).containsEntry("connection.password", "acdc-2");
+        Assertions.assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetShouldReloadWhenExpired() {
+        cache = new ConnectorDecryptConfigCache(10, 0);
+
+        cache.get(1L, VERSION, loader);
+
+        Assertions.assertThat(cache.get(1L, VERSION, loader)).containsEntry("connection.password", "acdc-2");
+    }
+
+    @Test
+    public void testGetShouldReturnACopyOfCachedConfig() {
+        cache.get(1L, VERSION, loader).clear();
+
+        Assertions.assertThat(cache.get(1L, VERSION, loader)).containsEntry("connection.password", "acdc-1");
+    }
+}
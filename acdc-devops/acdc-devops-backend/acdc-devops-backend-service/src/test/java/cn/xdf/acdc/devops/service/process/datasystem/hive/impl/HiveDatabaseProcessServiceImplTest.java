@@ -11,9 +11,11 @@ import cn.xdf.acdc.devops.repository.HdfsRepository;
 import cn.xdf.acdc.devops.repository.HiveDatabaseRepository;
 import cn.xdf.acdc.devops.repository.HiveRepository;
 import cn.xdf.acdc.devops.repository.HiveTableRepository;
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
 import cn.xdf.acdc.devops.service.utility.datasystem.helper.HiveHelperService;
 import com.google.common.collect.Lists;
 import org.assertj.core.api.Assertions;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,10 +26,13 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
 
 @RunWith(SpringRunner.class)
@@ -59,15 +64,24 @@ public class HiveDatabaseProcessServiceImplTest {
     @Before
     public void setup() {
         ReflectionTestUtils.setField(hiveDatabaseProcessServiceImpl, "hiveHelperService", hiveHelperService);
+        // small pages and batches, so that the diffing goes across pages
+        ReflectionTestUtils.setField(hiveDatabaseProcessServiceImpl, "refreshPageSize", 2);
+        ReflectionTestUtils.setField(hiveDatabaseProcessServiceImpl, "refreshBatchSize", 3);
         initData();
     }
 
+    @After
+    public void tearDown() {
+        hiveTableRepository.deleteAll();
+        hiveDatabaseRepository.deleteAll();
+    }
+
     /**
      * 1. hive元数据为空,正常执行,不进行任何操作
      */
     @Test
     public void testRefreshMetadataShouldDoNothingWhenHiveMetaIsEmpty() {
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(Collections.EMPTY_LIST);
+        mockHiveDbMeta(Collections.EMPTY_LIST);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
 
         Long dbDatabaseCount = hiveDatabaseRepository.query(new HiveDatabaseQuery()).stream().count();
@@ -87,7 +101,7 @@ public class HiveDatabaseProcessServiceImplTest {
                 HiveDbMetaDTO.builder().db("db2").table("tb3").build()
         );
 
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(metas);
+        mockHiveDbMeta(metas);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
         Map<String, HiveDatabaseDO> hiveDatabaseMap = hiveDatabaseRepository.query(new HiveDatabaseQuery())
                 .stream().collect(Collectors.toMap(HiveDatabaseDO::getName, it -> it));
@@ -125,7 +139,7 @@ public class HiveDatabaseProcessServiceImplTest {
                 HiveDbMetaDTO.builder().db("db2").table("db2_tb2").build()
         );
 
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(metas);
+        mockHiveDbMeta(metas);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
         Map<String, HiveDatabaseDO> hiveDatabaseMap = hiveDatabaseRepository.query(new HiveDatabaseQuery())
                 .stream().collect(Collectors.toMap(HiveDatabaseDO::getName, it -> it));
@@ -170,7 +184,7 @@ public class HiveDatabaseProcessServiceImplTest {
                 HiveDbMetaDTO.builder().db("db3").table("db3_tb2").build()
         );
 
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(metas);
+        mockHiveDbMeta(metas);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
         Map<String, HiveDatabaseDO> hiveDatabaseMap = hiveDatabaseRepository.query(new HiveDatabaseQuery())
                 .stream().collect(Collectors.toMap(HiveDatabaseDO::getName, it -> it));
@@ -225,7 +239,7 @@ public class HiveDatabaseProcessServiceImplTest {
                 HiveDbMetaDTO.builder().db("db3").table("db3_tb2").build()
         );
 
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(metas);
+        mockHiveDbMeta(metas);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
         Map<String, HiveDatabaseDO> hiveDatabaseMap = hiveDatabaseRepository.query(new HiveDatabaseQuery())
                 .stream().collect(Collectors.toMap(HiveDatabaseDO::getName, it -> it));
@@ -282,7 +296,7 @@ public class HiveDatabaseProcessServiceImplTest {
                 HiveDbMetaDTO.builder().db("db1").table("db1_tb2").build()
         );
 
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(metas);
+        mockHiveDbMeta(metas);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
         Map<String, HiveDatabaseDO> hiveDatabaseMap = hiveDatabaseRepository.query(new HiveDatabaseQuery())
                 .stream().collect(Collectors.toMap(HiveDatabaseDO::getName, it -> it));
@@ -324,7 +338,7 @@ public class HiveDatabaseProcessServiceImplTest {
                 HiveDbMetaDTO.builder().db("db1").table("db1_tb1").build()
         );
 
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(metas);
+        mockHiveDbMeta(metas);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
         Map<String, HiveDatabaseDO> hiveDatabaseMap = hiveDatabaseRepository.query(new HiveDatabaseQuery())
                 .stream().collect(Collectors.toMap(HiveDatabaseDO::getName, it -> it));
@@ -387,7 +401,7 @@ public class HiveDatabaseProcessServiceImplTest {
                 HiveDbMetaDTO.builder().db("db6").table("db6_tb2").build()
         );
 
-        when(hiveHelperService.fetchHiveDbMeta()).thenReturn(metas);
+        mockHiveDbMeta(metas);
         hiveDatabaseProcessServiceImpl.refreshMetadata();
         Map<String, HiveDatabaseDO> hiveDatabaseMap = hiveDatabaseRepository.query(new HiveDatabaseQuery())
                 .stream().collect(Collectors.toMap(HiveDatabaseDO::getName, it -> it));
@@ -411,6 +425,72 @@ public class HiveDatabaseProcessServiceImplTest {
         Assertions.assertThat(hiveTableMap.get("db6_tb1").getHiveDatabase().getId()).isEqualTo(hiveDatabaseMap.get("db6").getId());
     }
 
+    /**
+     * 9. hive 元数据未按库表排序,中止同步,不删除任何表
+     */
+    @Test
+    public void testRefreshMetadataShouldThrowExceptionWhenHiveMetaIsNotSorted() {
+        HiveDatabaseDO savedHiveDatabase1 = hiveDatabaseRepository.save(new HiveDatabaseDO().setName("db1").setHive(hive));
+        hiveTableRepository.save(HiveTableDO.builder().name("db1_tb1").hiveDatabase(savedHiveDatabase1).build());
+
+        when(hiveHelperService.fetchHiveDbMeta(anyString(), anyString(), anyInt())).thenReturn(Lists.newArrayList(
+                HiveDbMetaDTO.builder().db("db1").table("db1_tb2").build(),
+                HiveDbMetaDTO.builder().db("db1").table("db1_tb1").build()
+        ));
+
+        Throwable throwable = Assertions.catchThrowable(() -> hiveDatabaseProcessServiceImpl.refreshMetadata());
+        Assertions.assertThat(throwable).isInstanceOf(ServerErrorException.class);
+
+        Map<String, HiveTableDO> hiveTableMap = hiveTableRepository.queryAll(HiveTableQuery.builder().deleted(false).build())
+                .stream().collect(Collectors.toMap(HiveTableDO::getName, it -> it));
+        Assertions.assertThat(hiveTableMap.get("db1_tb1")).isNotNull();
+    }
+
+    /**
+     * 10. 库名和表名混合 '_' 和数字, 两边按二进制顺序归并, 不报错也不误删
+     */
+    @Test
+    public void testRefreshMetadataShouldMergeWhenNamesMixUnderscoreAndDigit() {
+        HiveDatabaseDO savedHiveDatabase1 = hiveDatabaseRepository.save(new HiveDatabaseDO().setName("ods_user2").setHive(hive));
+        hiveTableRepository.save(HiveTableDO.builder().name("t_a").hiveDatabase(savedHiveDatabase1).build());
+        hiveTableRepository.save(HiveTableDO.builder().name("t1").hiveDatabase(savedHiveDatabase1).build());
+
+        HiveDatabaseDO savedHiveDatabase2 = hiveDatabaseRepository.save(new HiveDatabaseDO().setName("ods_user_info").setHive(hive));
+        hiveTableRepository.save(HiveTableDO.builder().name("t_b").hiveDatabase(savedHiveDatabase2).build());
+        hiveTableRepository.save(HiveTableDO.builder().name("t2").hiveDatabase(savedHiveDatabase2).build());
+
+        List<HiveDbMetaDTO> metas = Lists.newArrayList(
+                HiveDbMetaDTO.builder().db("ods_user2").table("t1").build(),
+                HiveDbMetaDTO.builder().db("ods_user2").table("t_a").build(),
+                HiveDbMetaDTO.builder().db("ods_user_info").table("t2").build(),
+                HiveDbMetaDTO.builder().db("ods_user_info").table("t3").build()
+        );
+
+        mockHiveDbMeta(metas);
+        hiveDatabaseProcessServiceImpl.refreshMetadata();
+
+        Map<String, HiveTableDO> hiveTableMap = hiveTableRepository.queryAll(HiveTableQuery.builder().deleted(false).build())
+                .stream().collect(Collectors.toMap(HiveTableDO::getName, it -> it));
+
+        Assertions.assertThat(hiveTableMap.keySet()).containsExactlyInAnyOrder("t1", "t_a", "t2", "t3");
+        Assertions.assertThat(hiveTableMap.get("t1").getHiveDatabase().getId()).isEqualTo(savedHiveDatabase1.getId());
+        Assertions.assertThat(hiveTableMap.get("t_a").getHiveDatabase().getId()).isEqualTo(savedHiveDatabase1.getId());
+        Assertions.assertThat(hiveTableMap.get("t2").getHiveDatabase().getId()).isEqualTo(savedHiveDatabase2.getId());
+        Assertions.assertThat(hiveTableMap.get("t3").getHiveDatabase().getId()).isEqualTo(savedHiveDatabase2.getId());
+    }
+
+    private void mockHiveDbMeta(final List<HiveDbMetaDTO> metas) {
+        Comparator<HiveDbMetaDTO> comparator = Comparator.comparing(HiveDbMetaDTO::getDb).thenComparing(HiveDbMetaDTO::getTable);
+        when(hiveHelperService.fetchHiveDbMeta(anyString(), anyString(), anyInt())).thenAnswer(invocation -> {
+            HiveDbMetaDTO after = HiveDbMetaDTO.builder().db(invocation.getArgument(0)).table(invocation.getArgument(1)).build();
+            return metas.stream()
+                    .filter(meta -> comparator.compare(meta, after) > 0)
+                    .sorted(comparator)
+                    .limit((int) invocation.getArgument(2))
+                    .collect(Collectors.toList());
+        });
+    }
+
     private void initData() {
         HdfsDO hdfs = hdfsRepository.save(HdfsDO.builder()
                 .id(1L)
@@ -4,9 +4,12 @@ package cn.xdf.acdc.devops.service.process.datasystem.kafka.impl;
 import cn.xdf.acdc.devops.core.domain.entity.KafkaClusterDO;
 import cn.xdf.acdc.devops.core.domain.entity.KafkaTopicDO;
 import cn.xdf.acdc.devops.core.domain.entity.enumeration.KafkaClusterType;
+import cn.xdf.acdc.devops.repository.KafkaTopicRepository;
 import cn.xdf.acdc.devops.service.entity.KafkaClusterService;
 import cn.xdf.acdc.devops.service.entity.KafkaTopicService;
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
 import cn.xdf.acdc.devops.service.process.datasystem.DataSystemMetadataService;
+import cn.xdf.acdc.devops.service.util.EncryptUtil;
 import cn.xdf.acdc.devops.service.utility.datasystem.helper.KafkaHelperService;
 import com.google.common.collect.Sets;
 import org.assertj.core.api.Assertions;
@@ -30,6 +33,8 @@ import static org.mockito.Mockito.when;
 @SpringBootTest
 public class KafkaTopicProcessServiceImplTest {
 
+    private static final String SECURITY_CONFIGURATION = String.format("{\"sasl.jaas.config\":\"%s\"}", EncryptUtil.encrypt("mock-sasl-jaas-config"));
+
     @MockBean
     private KafkaHelperService kafkaHelperService;
 
@@ -39,6 +44,9 @@ public class KafkaTopicProcessServiceImplTest {
     @Autowired
     private KafkaTopicService kafkaTopicService;
 
+    @Autowired
+    private KafkaTopicRepository kafkaTopicRepository;
+
     @Autowired
     private DataSystemMetadataService<KafkaClusterDO> dataSystemMetadataService;
 
@@ -81,13 +89,39 @@ public class KafkaTopicProcessServiceImplTest {
         Assertions.assertThat(kafkaTopics.size()).isEqualTo(0);
     }
 
+    @Test
+    public void testShouldSkipDiffingWhenTopicsAreNotChanged() {
+        when(kafkaHelperService.listTopics(any())).thenReturn(Sets.newHashSet("mock-topic-1", "mock-topic-2"));
+        dataSystemMetadataService.refreshMetadata();
+
+        // deleted topic is not restored while the topics in kafka are not changed
+        KafkaTopicDO topic = kafkaTopicRepository.findByKafkaClusterIdAndName(1L, "mock-topic-2").get();
+        topic.setDeleted(true);
+        kafkaTopicRepository.save(topic);
+        dataSystemMetadataService.refreshMetadata();
+        Assertions.assertThat(kafkaTopicService.queryAll(buildQueryParam(1L))).extracting(KafkaTopicDO::getName)
+                .containsExactlyInAnyOrder("mock-topic-1");
+
+        when(kafkaHelperService.listTopics(any())).thenReturn(Sets.newHashSet("mock-topic-1", "mock-topic-2", "mock-topic-3"));
+        dataSystemMetadataService.refreshMetadata();
+        Assertions.assertThat(kafkaTopicService.queryAll(buildQueryParam(1L))).extracting(KafkaTopicDO::getName)
+                .containsExactlyInAnyOrder("mock-topic-1", "mock-topic-2", "mock-topic-3");
+    }
+
+    @Test
+    public void testShouldRefreshOtherClustersWhenListTopicsFailed() {
+        when(kafkaHelperService.listTopics(any())).thenThrow(new ServerErrorException("unreachable"));
+        dataSystemMetadataService.refreshMetadata();
+        Assertions.assertThat(kafkaTopicService.queryAll(buildQueryParam(1L))).hasSize(2);
+    }
+
     private void initKafkaClusterAndTopic() {
         KafkaClusterDO kafkaClusterOfUser = new KafkaClusterDO();
         kafkaClusterOfUser.setClusterType(KafkaClusterType.USER);
         kafkaClusterOfUser.setBootstrapServers("");
         kafkaClusterOfUser.setName("mock-test-kafka-user");
         kafkaClusterOfUser.setDescription("for test of user");
-        kafkaClusterOfUser.setSecurityConfiguration("");
+        kafkaClusterOfUser.setSecurityConfiguration(SECURITY_CONFIGURATION);
         kafkaClusterOfUser.setVersion("2.6.0");
         kafkaClusterService.save(kafkaClusterOfUser);
 
@@ -96,7 +130,7 @@ public class KafkaTopicProcessServiceImplTest {
         kafkaClusterOfInner.setBootstrapServers("");
         kafkaClusterOfInner.setName("mock-test-kafka-inner");
         kafkaClusterOfInner.setDescription("for test of inner");
-        kafkaClusterOfInner.setSecurityConfiguration("");
+        kafkaClusterOfInner.setSecurityConfiguration(SECURITY_CONFIGURATION);
         kafkaClusterOfInner.setVersion("2.6.0");
         kafkaClusterService.save(kafkaClusterOfInner);
 
@@ -0,0 +1,87 @@
+package cn.xdf.acdc.devops.service.process.datasystem.rdb.impl;
+
+import cn.xdf.acdc.devops.core.domain.dto.ConnectionDTO;
+import cn.xdf.acdc.devops.core.domain.entity.ProjectDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbDatabaseDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbInstanceDO;
+import cn.xdf.acdc.devops.core.domain.entity.RdbTableDO;
+import cn.xdf.acdc.devops.repository.RdbDatabaseRepository;
+import cn.xdf.acdc.devops.repository.RdbInstanceRepository;
+import cn.xdf.acdc.devops.repository.RdbRepository;
+import cn.xdf.acdc.devops.service.entity.ProjectService;
+import cn.xdf.acdc.devops.service.entity.RdbInstanceService;
+import cn.xdf.acdc.devops.service.entity.RdbTableService;
+import cn.xdf.acdc.devops.service.error.NotFoundException;
+import cn.xdf.acdc.devops.service.process.datasystem.AbstractDatasetProcessService;
+import com.google.common.collect.Lists;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MysqlDatasetProcessServiceImplTest {
+
+    @Mock
+    private RdbTableService rdbTableService;
+
+    @Mock
+    private RdbInstanceService rdbInstanceService;
+
+    @Mock
+    private ProjectService projectService;
+
+    @Mock
+    private RdbRepository rdbRepository;
+
+    @Mock
+    private RdbDatabaseRepository rdbDatabaseRepository;
+
+    @Mock
+    private RdbInstanceRepository rdbInstanceRepository;
+
+    private MysqlDatasetProcessServiceImpl mysqlDatasetProcessService;
+
+    @Before
+    public void setup() {
+        mysqlDatasetProcessService = new MysqlDatasetProcessServiceImpl();
+        ReflectionTestUtils.setField(mysqlDatasetProcessService, AbstractDatasetProcessService.class, "rdbTableService", rdbTableService, RdbTableService.class);
+        ReflectionTestUtils.setField(mysqlDatasetProcessService, AbstractDatasetProcessService.class, "rdbInstanceService", rdbInstanceService, RdbInstanceService.class);
+        ReflectionTestUtils.setField(mysqlDatasetProcessService, AbstractDatasetProcessService.class, "projectService", projectService, ProjectService.class);
+        ReflectionTestUtils.setField(mysqlDatasetProcessService, "rdbRepository", rdbRepository);
+        ReflectionTestUtils.setField(mysqlDatasetProcessService, "rdbDatabaseRepository", rdbDatabaseRepository);
+        ReflectionTestUtils.setField(mysqlDatasetProcessService, "rdbInstanceRepository", rdbInstanceRepository);
+
+        when(rdbTableService.findAllById(any())).thenReturn(Lists.newArrayList(RdbTableDO.builder().id(1L).rdbDatabase(RdbDatabaseDO.builder().id(10L).build()).build()));
+        when(projectService.findAllById(any())).thenReturn(Lists.newArrayList(ProjectDO.builder().id(100L).build()));
+    }
+
+    @Test
+    public void testGetSourceDataset4ConnectionsShouldThrowNotFoundExceptionWhenDatabaseIsMissing() {
+        List<ConnectionDTO> connections = Lists.newArrayList(ConnectionDTO.builder().id(1000L).sourceDataSetId(1L).sourceProjectId(100L).build());
+
+        Throwable throwable = Assertions.catchThrowable(() -> mysqlDatasetProcessService.getSourceDataset4Connections(connections));
+
+        Assertions.assertThat(throwable).isInstanceOf(NotFoundException.class).hasMessage("rdbDatabaseId: 10");
+    }
+
+    @Test
+    public void testGetSinkDataset4ConnectionsShouldThrowNotFoundExceptionWhenRdbIsMissing() {
+        when(rdbDatabaseRepository.findAllById(any())).thenReturn(Lists.newArrayList(RdbDatabaseDO.builder().id(10L).rdb(RdbDO.builder().id(20L).build()).build()));
+        when(rdbInstanceService.findAllById(any())).thenReturn(Lists.newArrayList(RdbInstanceDO.builder().id(30L).build()));
+        List<ConnectionDTO> connections = Lists.newArrayList(ConnectionDTO.builder().id(1000L).sinkDataSetId(1L).sinkProjectId(100L).sinkInstanceId(30L).build());
+
+        Throwable throwable = Assertions.catchThrowable(() -> mysqlDatasetProcessService.getSinkDataset4Connections(connections));
+
+        Assertions.assertThat(throwable).isInstanceOf(NotFoundException.class).hasMessage("rdbId: 20");
+    }
+}
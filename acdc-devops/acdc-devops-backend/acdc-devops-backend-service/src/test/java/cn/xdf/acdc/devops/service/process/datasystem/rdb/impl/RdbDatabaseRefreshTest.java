@@ -4,9 +4,11 @@ import cn.xdf.acdc.devops.core.domain.entity.RdbDO;
 import cn.xdf.acdc.devops.core.domain.entity.RdbDatabaseDO;
 import cn.xdf.acdc.devops.repository.RdbRepository;
 import cn.xdf.acdc.devops.service.entity.RdbDatabaseService;
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
 import cn.xdf.acdc.devops.service.process.datasystem.DataSystemMetadataService;
 import cn.xdf.acdc.devops.service.utility.datasystem.helper.MysqlHelperService;
 import com.google.common.collect.Lists;
+import org.assertj.core.api.Assertions;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -20,6 +22,7 @@ import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest
@@ -37,6 +40,9 @@ public class RdbDatabaseRefreshTest {
     @Autowired
     private DataSystemMetadataService<RdbDO> rdbDataSystemMetadataService;
 
+    @Autowired
+    private RdbProcessServiceImpl rdbProcessService;
+
     @Test
     public void testRefreshMetadataShouldSaveNewDatabases() {
         Mockito.when(rdbRepository.findAll()).thenReturn(fakeRdbs());
@@ -52,6 +58,30 @@ public class RdbDatabaseRefreshTest {
         Assert.assertEquals("db_13", result.get(1).getName());
     }
 
+    @Test
+    public void testRefreshMetadataShouldSaveNewDatabasesOfAllAvailableRdbsAtOnce() {
+        RdbDO rdb1 = RdbDO.builder().id(1L).build();
+        RdbDO rdb2 = RdbDO.builder().id(2L).build();
+        RdbDO unavailableRdb = RdbDO.builder().id(3L).rdbType("tidb").build();
+        long failedCount = rdbProcessService.getRefreshMetadataFailedCount("tidb");
+        Mockito.when(rdbRepository.findAll()).thenReturn(Lists.newArrayList(rdb1, unavailableRdb, rdb2));
+        Mockito.when(mysqlHelperService.showDataBases(ArgumentMatchers.eq(rdb1), ArgumentMatchers.any())).thenReturn(fakeDbNames());
+        Mockito.when(mysqlHelperService.showDataBases(ArgumentMatchers.eq(rdb2), ArgumentMatchers.any())).thenReturn(Lists.newArrayList("db_21"));
+        Mockito.when(mysqlHelperService.showDataBases(ArgumentMatchers.eq(unavailableRdb), ArgumentMatchers.any()))
+                .thenThrow(new ServerErrorException("Can not connect"));
+        Mockito.when(rdbDatabaseService.queryAll(ArgumentMatchers.any())).thenReturn(fakeRdbDatabases());
+        rdbDataSystemMetadataService.refreshMetadata();
+
+        ArgumentCaptor<List<RdbDatabaseDO>> rdbDatabaseCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(rdbDatabaseService, Mockito.times(1)).queryAll(ArgumentMatchers.any());
+        Mockito.verify(rdbDatabaseService, Mockito.times(1)).saveAll(rdbDatabaseCaptor.capture());
+        List<String> result = rdbDatabaseCaptor.getValue().stream()
+                .map(database -> database.getRdb().getId() + "." + database.getName())
+                .collect(Collectors.toList());
+        Assertions.assertThat(result).containsExactlyInAnyOrder("1.db_12", "1.db_13", "2.db_21");
+        Assertions.assertThat(rdbProcessService.getRefreshMetadataFailedCount("tidb")).isEqualTo(failedCount + 1);
+    }
+
     private List<RdbDatabaseDO> fakeRdbDatabases() {
         List<RdbDatabaseDO> result = new ArrayList<>();
         result.add(RdbDatabaseDO.builder().id(10L).name("db_10").rdb(fakeRdbs().get(0)).build());
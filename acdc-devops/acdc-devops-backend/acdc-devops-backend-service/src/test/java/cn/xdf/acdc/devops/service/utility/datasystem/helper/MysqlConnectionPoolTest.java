@@ -0,0 +1,66 @@
+package cn.xdf.acdc.devops.service.utility.datasystem.helper;
+
+import cn.xdf.acdc.devops.service.error.exceptions.ServerErrorException;
+import org.assertj.core.api.Assertions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class MysqlConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:mysql_connection_pool_test;DB_CLOSE_DELAY=-1";
+
+    private MysqlConnectionPool mysqlConnectionPool;
+
+    @Before
+    public void setup() {
+        mysqlConnectionPool = new MysqlConnectionPool(10, 2, 500, 1000, 60000, 120000);
+    }
+
+    @After
+    public void tearDown() {
+        mysqlConnectionPool.close();
+    }
+
+    @Test
+    public void testGetConnectionShouldReuseThePoolOfTheSameInstanceAndUser() throws SQLException {
+        Connection connection = mysqlConnectionPool.getConnection(URL, "sa", "");
+        connection.close();
+        Connection reusedConnection = mysqlConnectionPool.getConnection(URL, "sa", "");
+        reusedConnection.close();
+
+        Assertions.assertThat(mysqlConnectionPool.size()).isEqualTo(1);
+        Assertions.assertThat(reusedConnection.unwrap(Connection.class)).isSameAs(connection.unwrap(Connection.class));
+    }
+
+    @Test
+    public void testGetConnectionShouldCreatePoolForEachUser() throws SQLException {
+        mysqlConnectionPool.getConnection(URL, "sa", "").close();
+        mysqlConnectionPool.getConnection(URL + ";USER=sa", "sa", "").close();
+
+        Assertions.assertThat(mysqlConnectionPool.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetConnectionShouldThrowExceptionWhenPoolIsExhausted() throws SQLException {
+        Connection connection1 = mysqlConnectionPool.getConnection(URL, "sa", "");
+        Connection connection2 = mysqlConnectionPool.getConnection(URL, "sa", "");
+
+        Throwable throwable = Assertions.catchThrowable(() -> mysqlConnectionPool.getConnection(URL, "sa", ""));
+        Assertions.assertThat(throwable).isInstanceOf(ServerErrorException.class);
+
+        connection1.close();
+        connection2.close();
+    }
+
+    @Test
+    public void testCloseShouldCloseAllPools() throws SQLException {
+        mysqlConnectionPool.getConnection(URL, "sa", "").close();
+        mysqlConnectionPool.close();
+
+        Assertions.assertThat(mysqlConnectionPool.size()).isEqualTo(0);
+    }
+}